@@ -21,8 +21,10 @@ import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.eclipse.core.runtime.IPath;
 import org.eclipse.jdt.annotation.NonNull;
@@ -32,6 +34,7 @@ import org.eclipse.tracecompass.analysis.os.linux.core.tests.stubs.trace.TmfXmlK
 import org.eclipse.tracecompass.internal.analysis.os.linux.core.threadstatus.ThreadEntryModel;
 import org.eclipse.tracecompass.internal.analysis.os.linux.core.threadstatus.ThreadStatusDataProvider;
 import org.eclipse.tracecompass.internal.tmf.core.model.filters.FetchParametersUtils;
+import org.eclipse.tracecompass.tmf.core.dataprovider.DataProviderParameterUtils;
 import org.eclipse.tracecompass.tmf.core.event.TmfEvent;
 import org.eclipse.tracecompass.tmf.core.exceptions.TmfTraceException;
 import org.eclipse.tracecompass.tmf.core.model.OutputElementStyle;
@@ -50,6 +53,9 @@ import org.eclipse.tracecompass.tmf.core.statesystem.TmfStateSystemAnalysisModul
 import org.eclipse.tracecompass.tmf.core.trace.TmfTraceUtils;
 import org.junit.Test;
 
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+
 /**
  * {@link ThreadStatusDataProvider} test
  *
@@ -88,6 +94,8 @@ public class ThreadStatusDataProviderTest {
             assertRows(provider, idsToNames);
 
             assertArrows(provider, idsToNames);
+
+            assertCpuFilter(provider, idsToNames);
         } finally {
             trace.dispose();
         }
@@ -174,6 +182,30 @@ public class ThreadStatusDataProviderTest {
         }
     }
 
+    private static void assertCpuFilter(ThreadStatusDataProvider provider, Map<Long, String> idsToNames) {
+        Map<String, Object> parameters = FetchParametersUtils.timeQueryToMap(new TimeQueryFilter(1, 80, 80));
+        parameters.put(ThreadStatusDataProvider.ACTIVE_THREAD_FILTER_KEY, true);
+        parameters.put(DataProviderParameterUtils.REQUESTED_ITEMS_KEY, ImmutableList.of(0L, 1L));
+        TmfModelResponse<TmfTreeModel<@NonNull TimeGraphEntryModel>> treeResponse = provider.fetchTree(parameters, null);
+        assertNotNull(treeResponse);
+        TmfTreeModel<@NonNull TimeGraphEntryModel> treeModel = treeResponse.getModel();
+        assertNotNull(treeModel);
+        List<@NonNull TimeGraphEntryModel> entries = treeModel.getEntries();
+        /*
+         * The trace entry and the threads that were on the run queue of CPU 0
+         * or 1 during the range: the swapper and the threads that were only
+         * blocked (proc10, tid12 and lttng-sessiond) are filtered out.
+         */
+        Set<String> expected = ImmutableSet.of("lttng_kernel_analysis.xml", "tid11", "proc20", "tid21", "proc30");
+        Set<String> names = new HashSet<>();
+        for (TimeGraphEntryModel entry : entries) {
+            assertEquals(idsToNames.get(entry.getId()), entry.getName());
+            names.add(entry.getName());
+        }
+        assertEquals(expected.size(), entries.size());
+        assertEquals(expected, names);
+    }
+
     private static void assertArrows(ThreadStatusDataProvider provider, Map<Long, String> idsToNames) throws IOException {
         TmfModelResponse<List<ITimeGraphArrow>> arrowResponse = provider.fetchArrows(FetchParametersUtils.timeQueryToMap(new TimeQueryFilter(1, 80, 80)), null);
         assertNotNull(arrowResponse);
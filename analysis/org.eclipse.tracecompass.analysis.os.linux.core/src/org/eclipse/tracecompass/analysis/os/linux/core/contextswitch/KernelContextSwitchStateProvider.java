@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2015 Ericsson
+ * Copyright (c) 2015, 2026 Ericsson
  *
  * All rights reserved. This program and the accompanying materials are
  * made available under the terms of the Eclipse Public License 2.0 which
@@ -26,6 +26,7 @@ import org.eclipse.tracecompass.statesystem.core.exceptions.StateValueTypeExcept
 import org.eclipse.tracecompass.tmf.core.event.ITmfEvent;
 import org.eclipse.tracecompass.tmf.core.event.aspect.TmfCpuAspect;
 import org.eclipse.tracecompass.tmf.core.statesystem.AbstractTmfStateProvider;
+import org.eclipse.tracecompass.tmf.core.statesystem.ITmfShardedStateProvider;
 import org.eclipse.tracecompass.tmf.core.statesystem.ITmfStateProvider;
 import org.eclipse.tracecompass.tmf.core.trace.ITmfTrace;
 import org.eclipse.tracecompass.tmf.core.trace.TmfTraceUtils;
@@ -40,14 +41,21 @@ import org.eclipse.tracecompass.tmf.core.trace.TmfTraceUtils;
  * |  |- <CPU number> -> Number of context switches
  * </pre>
  *
+ * The CPUs are independent, so the state system is built in shards, each
+ * handling the context switches of a group of CPUs. There is one shard per two
+ * processors of the machine, as each shard uses a thread to handle its events
+ * and another to write its history.
+ *
  * @author Alexis Cabana-Loriaux
  * @since 2.0
  */
 @NonNullByDefault
-public class KernelContextSwitchStateProvider extends AbstractTmfStateProvider {
+public class KernelContextSwitchStateProvider extends AbstractTmfStateProvider implements ITmfShardedStateProvider {
 
     private static final String ID = "org.eclipse.tracecompass.analysis.os.linux.contextswitch.stateprovider"; //$NON-NLS-1$
     private static final int STARTING_QUARK = -1;
+    private static final int VERSION = 2;
+    private static final int NB_SHARDS = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
     private int fCpuAttributeQuark = STARTING_QUARK;
     private @Nullable ITmfStateSystemBuilder fStateSystemBuilder;
     private IKernelAnalysisEventLayout fLayout;
@@ -67,7 +75,7 @@ public class KernelContextSwitchStateProvider extends AbstractTmfStateProvider {
 
     @Override
     public int getVersion() {
-        return 1;
+        return VERSION;
     }
 
     @Override
@@ -75,6 +83,23 @@ public class KernelContextSwitchStateProvider extends AbstractTmfStateProvider {
         return new KernelContextSwitchStateProvider(getTrace(), fLayout);
     }
 
+    @Override
+    public int getNbShards() {
+        return NB_SHARDS;
+    }
+
+    @Override
+    public int getShard(ITmfEvent event) {
+        if (!event.getName().equals(fLayout.eventSchedSwitch())) {
+            return -1;
+        }
+        Object cpuObj = TmfTraceUtils.resolveEventAspectOfClassForEvent(event.getTrace(), TmfCpuAspect.class, event);
+        if (cpuObj == null) {
+            return -1;
+        }
+        return Math.floorMod(cpuObj.hashCode(), NB_SHARDS);
+    }
+
     /*
      * Classify sched_switch events for every CPU
      */
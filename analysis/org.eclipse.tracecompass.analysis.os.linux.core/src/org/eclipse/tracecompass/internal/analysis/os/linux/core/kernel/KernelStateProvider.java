@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2012, 2018 Ericsson
+ * Copyright (c) 2012, 2026 Ericsson
  * Copyright (c) 2010, 2011 École Polytechnique de Montréal
  * Copyright (c) 2010, 2011 Alexandre Montplaisir <alexandre.montplaisir@gmail.com>
  *
@@ -14,6 +14,8 @@
 
 package org.eclipse.tracecompass.internal.analysis.os.linux.core.kernel;
 
+import java.io.DataInput;
+import java.io.DataOutput;
 import java.util.Map;
 
 import org.eclipse.jdt.annotation.Nullable;
@@ -45,6 +47,7 @@ import org.eclipse.tracecompass.statesystem.core.exceptions.StateValueTypeExcept
 import org.eclipse.tracecompass.statesystem.core.exceptions.TimeRangeException;
 import org.eclipse.tracecompass.tmf.core.event.ITmfEvent;
 import org.eclipse.tracecompass.tmf.core.statesystem.AbstractTmfStateProvider;
+import org.eclipse.tracecompass.tmf.core.statesystem.ITmfResumableStateProvider;
 import org.eclipse.tracecompass.tmf.core.trace.ITmfTrace;
 
 import com.google.common.collect.ImmutableMap;
@@ -77,7 +80,7 @@ import com.google.common.collect.ImmutableMap;
  *
  * @author Alexandre Montplaisir
  */
-public class KernelStateProvider extends AbstractTmfStateProvider {
+public class KernelStateProvider extends AbstractTmfStateProvider implements ITmfResumableStateProvider {
 
     // ------------------------------------------------------------------------
     // Static fields
@@ -113,7 +116,7 @@ public class KernelStateProvider extends AbstractTmfStateProvider {
      *            depending on the tracer implementation.
      */
     public KernelStateProvider(ITmfTrace trace, IKernelAnalysisEventLayout layout) {
-        super(trace, "Kernel"); //$NON-NLS-1$
+        super(trace, "Kernel", true); //$NON-NLS-1$
         fLayout = layout;
         fEventNames = buildEventNames(layout);
 
@@ -175,31 +178,64 @@ public class KernelStateProvider extends AbstractTmfStateProvider {
         return new KernelStateProvider(this.getTrace(), fLayout);
     }
 
+    /*
+     * The handlers keep no state of their own, the current thread, system call
+     * and status of every CPU and thread are all in the state system, which is
+     * restored on resume. There is nothing more to save.
+     */
+    @Override
+    public void saveCheckpoint(DataOutput output) {
+        // Nothing to save
+    }
+
+    @Override
+    public void restoreCheckpoint(DataInput input) {
+        // Nothing to restore
+    }
+
     @Override
     protected void eventHandle(@Nullable ITmfEvent event) {
         if (event == null) {
             return;
         }
+        eventHandle(event, decodeEvent(event));
+    }
 
+    /**
+     * Find the handler of the event, if it is known to cause a state
+     * transition, and read its fields, so that the handler does not have to
+     * read them on the event handler thread.
+     */
+    @Override
+    protected @Nullable Object decodeEvent(ITmfEvent event) {
         final String eventName = event.getName();
+        KernelEventHandler handler = fEventNames.get(eventName);
+        if (handler == null) {
+            if (isSyscallExit(eventName)) {
+                handler = fSysExitHandler;
+            } else if (isSyscallEntry(eventName)) {
+                handler = fSysEntryHandler;
+            }
+        }
+        if (handler != null) {
+            event.getContent();
+        }
+        return handler;
+    }
+
+    @Override
+    protected void eventHandle(ITmfEvent event, @Nullable Object decoded) {
+        if (!(decoded instanceof KernelEventHandler)) {
+            return;
+        }
 
         try {
             final ITmfStateSystemBuilder ss = NonNullUtils.checkNotNull(getStateSystemBuilder());
             /*
-             * Feed event to the history system if it's known to cause a state
+             * Feed event to the history system, it is known to cause a state
              * transition.
              */
-            KernelEventHandler handler = fEventNames.get(eventName);
-            if (handler == null) {
-                if (isSyscallExit(eventName)) {
-                    handler = fSysExitHandler;
-                } else if (isSyscallEntry(eventName)) {
-                    handler = fSysEntryHandler;
-                }
-            }
-            if (handler != null) {
-                handler.handleEvent(ss, event);
-            }
+            ((KernelEventHandler) decoded).handleEvent(ss, event);
 
         } catch (AttributeNotFoundException ae) {
             /*
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2015, 2016 EfficiOS Inc., Alexandre Montplaisir and others
+ * Copyright (c) 2015, 2026 EfficiOS Inc., Alexandre Montplaisir and others
  *
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -11,11 +11,14 @@
 
 package org.eclipse.tracecompass.internal.analysis.os.linux.core.latency;
 
+import java.util.Objects;
+
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.tracecompass.analysis.os.linux.core.model.OsStrings;
 import org.eclipse.tracecompass.datastore.core.interval.IHTIntervalReader;
 import org.eclipse.tracecompass.datastore.core.serialization.ISafeByteBufferWriter;
 import org.eclipse.tracecompass.datastore.core.serialization.SafeByteBufferFactory;
+import org.eclipse.tracecompass.segmentstore.core.ICompactSegmentCodec;
 import org.eclipse.tracecompass.segmentstore.core.ISegment;
 import org.eclipse.tracecompass.segmentstore.core.segment.interfaces.INamedSegment;
 import org.eclipse.tracecompass.tmf.core.event.lookup.ITmfCallsite;
@@ -40,6 +43,34 @@ public final class SystemCall implements INamedSegment, ITmfSourceLookup, ICoreE
      */
     public static final IHTIntervalReader<ISegment> READER = buffer -> new SystemCall(buffer.getLong(), buffer.getLong(), buffer.getString(), buffer.getInt(), buffer.getInt());
 
+    /**
+     * The codec for this segment class, to keep system calls in compact
+     * segment stores. The TID and return value are saved as values.
+     */
+    public static final ICompactSegmentCodec<ISegment> CODEC = new ICompactSegmentCodec<ISegment>() {
+
+        @Override
+        public int getNbValues() {
+            return 2;
+        }
+
+        @Override
+        public @Nullable String getName(ISegment segment) {
+            return ((SystemCall) segment).fName;
+        }
+
+        @Override
+        public int getValue(ISegment segment, int index) {
+            SystemCall syscall = (SystemCall) segment;
+            return (index == 0) ? syscall.fTid : syscall.fRet;
+        }
+
+        @Override
+        public ISegment createSegment(long start, long end, @Nullable String name, int[] values) {
+            return new SystemCall(start, end, Objects.requireNonNull(name), values[0], values[1]);
+        }
+    };
+
     /**
      * The subset of information that is available from the syscall entry event.
      */
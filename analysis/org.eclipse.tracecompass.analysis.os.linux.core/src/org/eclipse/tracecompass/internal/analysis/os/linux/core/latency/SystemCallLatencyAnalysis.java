@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2015, 2016 EfficiOS Inc., Ericsson
+ * Copyright (c) 2015, 2026 EfficiOS Inc., Ericsson
  *
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -29,6 +29,7 @@ import org.eclipse.tracecompass.analysis.timing.core.segmentstore.AbstractSegmen
 import org.eclipse.tracecompass.analysis.timing.core.segmentstore.IGroupingSegmentAspect;
 import org.eclipse.tracecompass.datastore.core.interval.IHTIntervalReader;
 import org.eclipse.tracecompass.internal.analysis.os.linux.core.SyscallLookup;
+import org.eclipse.tracecompass.segmentstore.core.ICompactSegmentCodec;
 import org.eclipse.tracecompass.segmentstore.core.ISegment;
 import org.eclipse.tracecompass.segmentstore.core.ISegmentStore;
 import org.eclipse.tracecompass.segmentstore.core.SegmentComparators;
@@ -95,7 +96,7 @@ public class SystemCallLatencyAnalysis extends AbstractSegmentStoreAnalysisEvent
 
     @Override
     protected @NonNull SegmentStoreType getSegmentStoreType() {
-        return SegmentStoreType.OnDisk;
+        return SegmentStoreType.Adaptive;
     }
 
     @Override
@@ -108,6 +109,11 @@ public class SystemCallLatencyAnalysis extends AbstractSegmentStoreAnalysisEvent
         return SystemCall.READER;
     }
 
+    @Override
+    protected @NonNull ICompactSegmentCodec<ISegment> getSegmentCodec() {
+        return SystemCall.CODEC;
+    }
+
     private class SyscallLatencyAnalysisRequest extends AbstractSegmentStoreAnalysisRequest {
 
         private final Map<Integer, SystemCall.InitialInfo> fOngoingSystemCalls = new HashMap<>();
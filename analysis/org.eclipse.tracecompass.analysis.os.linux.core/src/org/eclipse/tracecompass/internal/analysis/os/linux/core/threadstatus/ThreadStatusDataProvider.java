@@ -43,6 +43,7 @@ import org.eclipse.tracecompass.internal.analysis.os.linux.core.registry.LinuxSt
 import org.eclipse.tracecompass.internal.tmf.core.analysis.callsite.CallsiteAnalysis;
 import org.eclipse.tracecompass.internal.tmf.core.model.filters.FetchParametersUtils;
 import org.eclipse.tracecompass.statesystem.core.ITmfStateSystem;
+import org.eclipse.tracecompass.statesystem.core.Query2DRequest;
 import org.eclipse.tracecompass.statesystem.core.StateSystemUtils.QuarkIterator;
 import org.eclipse.tracecompass.statesystem.core.exceptions.AttributeNotFoundException;
 import org.eclipse.tracecompass.statesystem.core.exceptions.StateSystemDisposedException;
@@ -394,37 +395,54 @@ public class ThreadStatusDataProvider extends AbstractTmfTraceDataProvider imple
             models.add(traceEntry);
             Map<Integer, Integer> rqToPidCache = new HashMap<>();
             try {
+                /*
+                 * Find the run queue intervals on the selected CPUs, then query
+                 * the names of their threads in a single batch rather than one
+                 * query per interval.
+                 */
+                List<ITmfStateInterval> rqIntervals = new ArrayList<>();
+                List<Integer> rqTids = new ArrayList<>();
+                List<List<String>> rqNames = new ArrayList<>();
+                List<@NonNull Query2DRequest> requests = new ArrayList<>();
                 for (ITmfStateInterval interval : ss.query2D(quarks, Long.max(ss.getStartTime(), start), end)) {
                     Object o = interval.getValue();
                     if (o instanceof Number && cpus.contains(((Number) o).longValue())) {
                         int attribute = interval.getAttribute();
-
+                        int tid = rqToPidCache.computeIfAbsent(attribute, a -> Attributes.parseThreadAttributeName(ss.getAttributeName(ss.getParentAttributeQuark(a))).getFirst());
+                        //Skip Idle (thread 0)
+                        if (tid == 0) {
+                            continue;
+                        }
                         try {
                             // Get the name of the thread
                             int nameQuark = ss.getQuarkRelative(ss.getParentAttributeQuark(attribute), Attributes.EXEC_NAME);
-                            Iterable<@NonNull ITmfStateInterval> names2d = ss.query2D(Collections.singleton(nameQuark), interval.getStartTime(), interval.getEndTime());
-                            Iterable<@NonNull String> names = Iterables.transform(names2d, intervalName -> String.valueOf(intervalName.getValue()));
-
-                            int tid = rqToPidCache.computeIfAbsent(attribute, a -> Attributes.parseThreadAttributeName(ss.getAttributeName(ss.getParentAttributeQuark(a))).getFirst());
-                            //Skip Idle (thread 0)
-                            if (tid == 0) {
-                                continue;
-                            }
-                            for (ThreadEntryModel.Builder model : tidToEntry.get(tid)) {
-                                if (interval.getStartTime() <= model.getEndTime() &&
-                                        model.getStartTime() <= interval.getEndTime()) {
-                                    ThreadEntryModel build = build(model);
-                                    if (!Iterables.any(names, name -> name.equals(build.getName()))) {
-                                        continue;
-                                    }
-                                    models.add(build);
-                                }
-                            }
+                            List<String> names = new ArrayList<>();
+                            requests.add(new Query2DRequest(Collections.singleton(nameQuark), interval.getStartTime(), interval.getEndTime(),
+                                    intervalName -> names.add(String.valueOf(intervalName.getValue()))));
+                            rqIntervals.add(interval);
+                            rqTids.add(tid);
+                            rqNames.add(names);
                         } catch (AttributeNotFoundException e) {
                             Activator.getDefault().logWarning("Unable to get the quark for the attribute name", e); //$NON-NLS-1$
                         }
                     }
                 }
+                ss.batchQuery2D(requests);
+
+                for (int i = 0; i < rqIntervals.size(); i++) {
+                    ITmfStateInterval interval = rqIntervals.get(i);
+                    List<String> names = rqNames.get(i);
+                    for (ThreadEntryModel.Builder model : tidToEntry.get(rqTids.get(i))) {
+                        if (interval.getStartTime() <= model.getEndTime() &&
+                                model.getStartTime() <= interval.getEndTime()) {
+                            ThreadEntryModel build = build(model);
+                            if (!names.contains(build.getName())) {
+                                continue;
+                            }
+                            models.add(build);
+                        }
+                    }
+                }
             } catch (IndexOutOfBoundsException | TimeRangeException e) {
                 Activator.getDefault().logError("Invalid query parameters", e); //$NON-NLS-1$
             } catch (StateSystemDisposedException e) {
@@ -0,0 +1,109 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson and others
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.analysis.timing.core.tests.segmentstore.statistics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Function;
+
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.analysis.timing.core.statistics.IStatistics;
+import org.eclipse.tracecompass.analysis.timing.core.statistics.Statistics;
+import org.eclipse.tracecompass.internal.analysis.timing.core.segmentstore.statistics.SegmentStatisticsSummary;
+import org.eclipse.tracecompass.segmentstore.core.BasicSegment;
+import org.eclipse.tracecompass.segmentstore.core.ISegment;
+import org.eclipse.tracecompass.segmentstore.core.ISegmentStore;
+import org.eclipse.tracecompass.segmentstore.core.SegmentStoreFactory;
+import org.junit.Test;
+
+/**
+ * Test the {@link SegmentStatisticsSummary}, comparing the statistics of time
+ * ranges with statistics computed from all the intersecting segments
+ */
+public class SegmentStatisticsSummaryTest {
+
+    private static final double DELTA = 1e-6;
+    private static final Function<ISegment, @Nullable Number> MAPPER = ISegment::getLength;
+    private static final Function<ISegment, @Nullable String> TYPE = segment -> (segment.getStart() % 2 == 0) ? "even" : "odd";
+
+    /**
+     * Test the statistics of random ranges over segments of various durations
+     */
+    @Test
+    public void testRanges() {
+        ISegmentStore<@NonNull ISegment> store = SegmentStoreFactory.createSegmentStore();
+        SegmentStatisticsSummary summary = new SegmentStatisticsSummary(MAPPER, TYPE);
+        Random rnd = new Random(3);
+        for (int i = 0; i < 20000; i++) {
+            long start = rnd.nextInt(1000000);
+            long duration = (i % 100 == 0) ? rnd.nextInt(100000) : rnd.nextInt(1000);
+            ISegment segment = new BasicSegment(start, start + duration);
+            store.add(segment);
+            summary.update(segment);
+        }
+        assertEquals(store.size(), summary.getTotal().getNbElements());
+
+        for (int i = 0; i < 50; i++) {
+            long start = rnd.nextInt(1100000) - 50000;
+            long end = start + rnd.nextInt(i < 25 ? 1000 : 500000);
+            IStatistics<@NonNull ISegment> expected = new Statistics<>(MAPPER);
+            Map<String, IStatistics<@NonNull ISegment>> expectedPerType = new HashMap<>();
+            for (ISegment segment : store.getIntersectingElements(start, end)) {
+                expected.update(segment);
+                expectedPerType.computeIfAbsent(TYPE.apply(segment), t -> new Statistics<>(MAPPER)).update(segment);
+            }
+
+            IStatistics<@NonNull ISegment> actual = summary.getStatsForRange(store, start, end, new NullProgressMonitor());
+            assertNotNull(actual);
+            assertStatsEqual(expected, actual);
+            Map<@NonNull String, IStatistics<@NonNull ISegment>> actualPerType = summary.getStatsPerTypeForRange(store, start, end, new NullProgressMonitor());
+            assertEquals(expectedPerType.keySet(), actualPerType.keySet());
+            for (String type : expectedPerType.keySet()) {
+                assertStatsEqual(expectedPerType.get(type), actualPerType.get(type));
+            }
+        }
+    }
+
+    /**
+     * Test a canceled request
+     */
+    @Test
+    public void testCancel() {
+        ISegmentStore<@NonNull ISegment> store = SegmentStoreFactory.createSegmentStore();
+        SegmentStatisticsSummary summary = new SegmentStatisticsSummary(MAPPER, TYPE);
+        ISegment segment = new BasicSegment(10, 20);
+        store.add(segment);
+        summary.update(segment);
+        NullProgressMonitor monitor = new NullProgressMonitor();
+        monitor.setCanceled(true);
+        assertNull(summary.getStatsForRange(store, 0, 100, monitor));
+        assertEquals(0, summary.getStatsPerTypeForRange(store, 0, 100, monitor).size());
+    }
+
+    private static void assertStatsEqual(@Nullable IStatistics<@NonNull ISegment> expected, @Nullable IStatistics<@NonNull ISegment> actual) {
+        assertNotNull(expected);
+        assertNotNull(actual);
+        assertEquals(expected.getNbElements(), actual.getNbElements());
+        assertEquals(expected.getMin(), actual.getMin());
+        assertEquals(expected.getMax(), actual.getMax());
+        assertEquals(expected.getTotal(), actual.getTotal(), DELTA);
+        assertEquals(expected.getMean(), actual.getMean(), DELTA);
+        assertEquals(expected.getStdDev(), actual.getStdDev(), DELTA);
+    }
+}
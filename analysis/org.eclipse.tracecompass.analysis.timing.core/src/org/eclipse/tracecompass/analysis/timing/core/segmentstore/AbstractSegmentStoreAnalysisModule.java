@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2015, 2019 Ericsson
+ * Copyright (c) 2015, 2026 Ericsson
  *
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -30,6 +30,7 @@ import org.eclipse.tracecompass.common.core.format.DataSizeWithUnitFormat;
 import org.eclipse.tracecompass.datastore.core.interval.IHTIntervalReader;
 import org.eclipse.tracecompass.internal.analysis.timing.core.Activator;
 import org.eclipse.tracecompass.internal.analysis.timing.core.segmentstore.Messages;
+import org.eclipse.tracecompass.segmentstore.core.ICompactSegmentCodec;
 import org.eclipse.tracecompass.segmentstore.core.ISegment;
 import org.eclipse.tracecompass.segmentstore.core.ISegmentStore;
 import org.eclipse.tracecompass.segmentstore.core.SegmentStoreFactory;
@@ -163,6 +164,34 @@ public abstract class AbstractSegmentStoreAnalysisModule extends TmfAbstractAnal
         throw new UnsupportedOperationException("getSegmentReader: This method should be overriden in classes that saves the segment store on disk"); //$NON-NLS-1$
     }
 
+    /**
+     * Get the codec converting the segments to and from the columns of a
+     * {@link SegmentStoreType#Compact} segment store. Analyses using that type
+     * of segment store must override this method. An
+     * {@link SegmentStoreType#Adaptive} segment store also uses it, if
+     * available, to keep its segments in columns while they are in memory.
+     *
+     * @return The segment codec, or <code>null</code> if the segments cannot
+     *         be stored in columns
+     * @since 6.3
+     */
+    protected @Nullable ICompactSegmentCodec<ISegment> getSegmentCodec() {
+        return null;
+    }
+
+    /**
+     * Get the estimated size, in bytes, the segments of an
+     * {@link SegmentStoreType#Adaptive} segment store can take in memory
+     * before they are moved to disk. By default it is a sixteenth of the
+     * maximum heap size.
+     *
+     * @return The memory budget of the segment store
+     * @since 6.3
+     */
+    protected long getSegmentStoreMemoryBudget() {
+        return Runtime.getRuntime().maxMemory() / 16;
+    }
+
     /**
      * Get the type of segment store to build. By default it is
      * {@link SegmentStoreType#Fast}
@@ -203,6 +232,12 @@ public abstract class AbstractSegmentStoreAnalysisModule extends TmfAbstractAnal
         case OnDisk:
             store = buildOnDiskSegmentStore(monitor);
             break;
+        case Compact:
+            store = buildCompactSegmentStore(monitor);
+            break;
+        case Adaptive:
+            store = buildAdaptiveSegmentStore(monitor);
+            break;
         default:
             Activator.getInstance().logError("Unknown segment store type: " + type); //$NON-NLS-1$
             break;
@@ -260,6 +295,41 @@ public abstract class AbstractSegmentStoreAnalysisModule extends TmfAbstractAnal
         return segmentStore;
     }
 
+    private @Nullable ISegmentStore<@NonNull ISegment> buildCompactSegmentStore(IProgressMonitor monitor) throws TmfAnalysisException {
+        ICompactSegmentCodec<ISegment> codec = getSegmentCodec();
+        if (codec == null) {
+            throw new UnsupportedOperationException("getSegmentCodec: This method should be overriden in classes that use a compact segment store"); //$NON-NLS-1$
+        }
+        ISegmentStore<ISegment> segmentStore = SegmentStoreFactory.createCompactSegmentStore(codec);
+        boolean completed = buildAnalysisSegments(segmentStore, monitor);
+        if (!completed) {
+            return null;
+        }
+
+        return segmentStore;
+    }
+
+    private @Nullable ISegmentStore<@NonNull ISegment> buildAdaptiveSegmentStore(IProgressMonitor monitor) throws TmfAnalysisException {
+        final Path file = getDataFilePath();
+        if (file == null) {
+            return buildInMemorySegmentStore(SegmentStoreType.Fast, monitor);
+        }
+        if (Files.exists(file)) {
+            /* A previous build saved the segments, reopen them */
+            return buildOnDiskSegmentStore(monitor);
+        }
+        ICompactSegmentCodec<ISegment> codec = getSegmentCodec();
+        ISegmentStore<ISegment> segmentStore = (codec == null) ?
+                SegmentStoreFactory.createAdaptiveSegmentStore(file, getSegmentReader(), getVersion(), getSegmentStoreMemoryBudget()) :
+                SegmentStoreFactory.createAdaptiveSegmentStore(file, getSegmentReader(), getVersion(), getSegmentStoreMemoryBudget(), codec);
+        boolean completed = buildAnalysisSegments(segmentStore, monitor);
+        if (!completed) {
+            return null;
+        }
+
+        return segmentStore;
+    }
+
     /**
      * Send the segment store to all its listener
      *
@@ -316,7 +386,7 @@ public abstract class AbstractSegmentStoreAnalysisModule extends TmfAbstractAnal
         } else {
             // Segment Store is closed... delete directly
             SegmentStoreType type = getSegmentStoreType();
-            if (type == SegmentStoreType.OnDisk) {
+            if (type == SegmentStoreType.OnDisk || type == SegmentStoreType.Adaptive) {
                 Path htFile = getDataFilePath();
                 if (htFile != null) {
                     try {
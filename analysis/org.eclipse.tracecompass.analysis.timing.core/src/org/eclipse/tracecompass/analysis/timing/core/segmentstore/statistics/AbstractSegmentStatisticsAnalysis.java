@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2016, 2024 Ericsson
+ * Copyright (c) 2016, 2026 Ericsson
  *
  * All rights reserved. This program and the accompanying materials are made
  * available under the terms of the Eclipse Public License 2.0 which
@@ -22,6 +22,7 @@ import org.eclipse.tracecompass.analysis.timing.core.segmentstore.ISegmentStoreP
 import org.eclipse.tracecompass.analysis.timing.core.statistics.IStatistics;
 import org.eclipse.tracecompass.analysis.timing.core.statistics.IStatisticsAnalysis;
 import org.eclipse.tracecompass.analysis.timing.core.statistics.Statistics;
+import org.eclipse.tracecompass.internal.analysis.timing.core.segmentstore.statistics.SegmentStatisticsSummary;
 import org.eclipse.tracecompass.segmentstore.core.ISegment;
 import org.eclipse.tracecompass.segmentstore.core.ISegmentStore;
 import org.eclipse.tracecompass.tmf.core.analysis.IAnalysisModule;
@@ -46,6 +47,10 @@ public abstract class AbstractSegmentStatisticsAnalysis extends TmfAbstractAnaly
 
     private Map<String, IStatistics<ISegment>> fPerSegmentTypeStats = new HashMap<>();
 
+    private @Nullable SegmentStatisticsSummary fSummary;
+
+    private @Nullable ISegmentStore<ISegment> fSummaryStore;
+
     /**
      * Gets the segment mapper. This allows values to be resolved
      *
@@ -77,18 +82,41 @@ public abstract class AbstractSegmentStatisticsAnalysis extends TmfAbstractAnaly
             return false;
         }
 
-        IStatistics<ISegment> totalStats = getTotalStats(TmfTimeRange.ETERNITY.getStartTime().toNanos(), TmfTimeRange.ETERNITY.getEndTime().toNanos(), monitor);
-        if (totalStats == null) {
+        Iterable<@NonNull ISegment> store = getSegmentStore(TmfTimeRange.ETERNITY.getStartTime().toNanos(), TmfTimeRange.ETERNITY.getEndTime().toNanos());
+        if (store == null) {
             return false;
         }
 
-        Map<String, IStatistics<ISegment>> perTypeStats = getPerTypeStats(TmfTimeRange.ETERNITY.getStartTime().toNanos(), TmfTimeRange.ETERNITY.getEndTime().toNanos(), monitor);
-        fTotalStats = totalStats;
-        fPerSegmentTypeStats = perTypeStats;
+        /*
+         * Compute the total and per type statistics in a single pass, also
+         * aggregated by time to answer the queries on time ranges
+         */
+        SegmentStatisticsSummary summary = new SegmentStatisticsSummary(getMapper(), this::getSegmentType);
+        for (ISegment segment : store) {
+            if (monitor.isCanceled()) {
+                return false;
+            }
+            summary.update(segment);
+        }
+        fTotalStats = summary.getTotal();
+        fPerSegmentTypeStats = summary.getPerType();
+        if (store instanceof ISegmentStore) {
+            fSummaryStore = (ISegmentStore<ISegment>) store;
+            fSummary = summary;
+        }
 
         return true;
     }
 
+    /**
+     * Get the summary of the statistics, if it was computed from the current
+     * segment store of the provider
+     */
+    private @Nullable SegmentStatisticsSummary getSummary(@Nullable ISegmentStore<ISegment> store) {
+        SegmentStatisticsSummary summary = fSummary;
+        return (summary != null && store != null && store == fSummaryStore) ? summary : null;
+    }
+
     private @Nullable IStatistics<ISegment> getTotalStats(long start, long end, IProgressMonitor monitor) {
         Iterable<@NonNull ISegment> store = getSegmentStore(start, end);
         if (store == null) {
@@ -123,6 +151,11 @@ public abstract class AbstractSegmentStatisticsAnalysis extends TmfAbstractAnaly
             waitForCompletion();
             return getStatsTotal();
         }
+        ISegmentStore<ISegment> store = getProviderSegmentStore();
+        SegmentStatisticsSummary summary = getSummary(store);
+        if (summary != null && store != null) {
+            return summary.getStatsForRange(store, Long.min(start, end), Long.max(start, end), monitor);
+        }
         return getTotalStats(start, end, monitor);
     }
 
@@ -157,6 +190,11 @@ public abstract class AbstractSegmentStatisticsAnalysis extends TmfAbstractAnaly
             waitForCompletion();
             return getStatsPerType();
         }
+        ISegmentStore<ISegment> store = getProviderSegmentStore();
+        SegmentStatisticsSummary summary = getSummary(store);
+        if (summary != null && store != null) {
+            return summary.getStatsPerTypeForRange(store, Long.min(start, end), Long.max(start, end), monitor);
+        }
         return getPerTypeStats(start, end, monitor);
     }
 
@@ -174,12 +212,9 @@ public abstract class AbstractSegmentStatisticsAnalysis extends TmfAbstractAnaly
         if (segmentStoreProvider == null) {
             return null;
         }
-        if (segmentStoreProvider instanceof IAnalysisModule) {
-            ((IAnalysisModule) segmentStoreProvider).waitForCompletion();
-        }
         long t0 = Long.min(start, end);
         long t1 = Long.max(start, end);
-        ISegmentStore<@NonNull ISegment> segmentStore = segmentStoreProvider.getSegmentStore();
+        ISegmentStore<@NonNull ISegment> segmentStore = getProviderSegmentStore();
         return segmentStore != null ?
                 isEternity(t0, t1) ?
                         segmentStore :
@@ -187,6 +222,20 @@ public abstract class AbstractSegmentStatisticsAnalysis extends TmfAbstractAnaly
                 Collections.emptyList();
     }
 
+    /**
+     * Get the segment store of the provider, once it is completed
+     */
+    private @Nullable ISegmentStore<@NonNull ISegment> getProviderSegmentStore() {
+        ISegmentStoreProvider segmentStoreProvider = fSegmentStoreProvider;
+        if (segmentStoreProvider == null) {
+            return null;
+        }
+        if (segmentStoreProvider instanceof IAnalysisModule) {
+            ((IAnalysisModule) segmentStoreProvider).waitForCompletion();
+        }
+        return segmentStoreProvider.getSegmentStore();
+    }
+
     private @Nullable IStatistics<ISegment> calculateTotalManual(Iterable<@NonNull ISegment> segments, IProgressMonitor monitor) {
         IStatistics<ISegment> total = new Statistics<>(getMapper());
         for (ISegment segment : segments) {
@@ -1,5 +1,5 @@
 /**********************************************************************
- * Copyright (c) 2022 Ericsson
+ * Copyright (c) 2022, 2026 Ericsson
  *
  * All rights reserved. This program and the accompanying materials are
  * made available under the terms of the Eclipse Public License 2.0 which
@@ -377,7 +377,8 @@ public class SegmentStoreDensityDataProvider extends AbstractTmfTraceDataProvide
         if (segStore == null) {
             return -1;
         }
-        Optional<ISegment> maxSegment = StreamSupport.stream(segStore.spliterator(), false)
+        /* The in-memory stores split their snapshots for parallel streams */
+        Optional<ISegment> maxSegment = StreamSupport.stream(segStore.spliterator(), true)
                 .max(SegmentComparators.INTERVAL_LENGTH_COMPARATOR);
         return maxSegment.map(ISegment::getLength).orElse(1L);
     }
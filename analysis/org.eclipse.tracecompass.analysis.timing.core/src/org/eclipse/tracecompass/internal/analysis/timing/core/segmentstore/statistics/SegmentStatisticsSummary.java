@@ -0,0 +1,227 @@
+/**********************************************************************
+ * Copyright (c) 2026 Ericsson and others
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ **********************************************************************/
+
+package org.eclipse.tracecompass.internal.analysis.timing.core.segmentstore.statistics;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.analysis.timing.core.statistics.IStatistics;
+import org.eclipse.tracecompass.analysis.timing.core.statistics.Statistics;
+import org.eclipse.tracecompass.segmentstore.core.ISegment;
+import org.eclipse.tracecompass.segmentstore.core.ISegmentStore;
+
+/**
+ * Statistics of a segment store, in total and per type of segment, also
+ * aggregated per bucket of start time so that the statistics of a time range
+ * do not need to read all its segments.
+ *
+ * The buckets all have the same width, a power of 2. It starts at 1 and
+ * doubles, merging the buckets two by two, each time there are too many
+ * buckets, so the segments can be added in any order without knowing the time
+ * range of the store in advance.
+ *
+ * The segments intersecting a range are those starting in the range and those
+ * starting before it and ending in or after it. The statistics of the first
+ * ones are merged from the buckets within the range, and the ones at the
+ * edges of the range and the second ones are read from the segment store.
+ */
+public class SegmentStatisticsSummary {
+
+    private static final int MAX_BUCKETS = 512;
+
+    private final Function<ISegment, @Nullable Number> fMapper;
+    private final Function<ISegment, @Nullable String> fTypeResolver;
+
+    private final Aggregate fTotal;
+    private final NavigableMap<Long, Aggregate> fBuckets = new TreeMap<>();
+    private int fWidthShift = 0;
+
+    /**
+     * Statistics in total and per type of a group of segments
+     */
+    private final class Aggregate {
+        private final IStatistics<@NonNull ISegment> fStats = new Statistics<>(fMapper);
+        private final Map<@NonNull String, IStatistics<@NonNull ISegment>> fPerType = new HashMap<>();
+
+        public void update(@NonNull ISegment segment) {
+            fStats.update(segment);
+            String type = fTypeResolver.apply(segment);
+            if (type != null) {
+                fPerType.computeIfAbsent(type, t -> new Statistics<>(fMapper)).update(segment);
+            }
+        }
+
+        public void merge(Aggregate other) {
+            fStats.merge(other.fStats);
+            for (Entry<@NonNull String, IStatistics<@NonNull ISegment>> entry : other.fPerType.entrySet()) {
+                fPerType.computeIfAbsent(entry.getKey(), t -> new Statistics<>(fMapper)).merge(entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * Constructor
+     *
+     * @param mapper
+     *            The mapper of the segments to the values of the statistics
+     * @param typeResolver
+     *            The function returning the type of a segment, or null if the
+     *            segment is not part of the per type statistics
+     */
+    public SegmentStatisticsSummary(Function<ISegment, @Nullable Number> mapper, Function<ISegment, @Nullable String> typeResolver) {
+        fMapper = mapper;
+        fTypeResolver = typeResolver;
+        fTotal = new Aggregate();
+    }
+
+    /**
+     * Add a segment to the statistics
+     *
+     * @param segment
+     *            The segment
+     */
+    public void update(@NonNull ISegment segment) {
+        fTotal.update(segment);
+        fBuckets.computeIfAbsent(segment.getStart() >> fWidthShift, b -> new Aggregate()).update(segment);
+        if (fBuckets.size() > MAX_BUCKETS) {
+            doubleBucketWidth();
+        }
+    }
+
+    private void doubleBucketWidth() {
+        NavigableMap<Long, Aggregate> buckets = new TreeMap<>(fBuckets);
+        fBuckets.clear();
+        fWidthShift++;
+        for (Entry<Long, Aggregate> entry : buckets.entrySet()) {
+            long bucket = entry.getKey() >> 1;
+            Aggregate aggregate = fBuckets.get(bucket);
+            if (aggregate == null) {
+                fBuckets.put(bucket, entry.getValue());
+            } else {
+                aggregate.merge(entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * Get the statistics of all the segments
+     *
+     * @return The total statistics
+     */
+    public IStatistics<@NonNull ISegment> getTotal() {
+        return fTotal.fStats;
+    }
+
+    /**
+     * Get the statistics per type of all the segments
+     *
+     * @return The statistics per type
+     */
+    public Map<@NonNull String, IStatistics<@NonNull ISegment>> getPerType() {
+        return fTotal.fPerType;
+    }
+
+    /**
+     * Get the statistics of the segments intersecting a time range
+     *
+     * @param store
+     *            The segment store these statistics were computed from
+     * @param start
+     *            The start of the range
+     * @param end
+     *            The end of the range
+     * @param monitor
+     *            The progress monitor
+     * @return The statistics, or null if the request is canceled
+     */
+    public @Nullable IStatistics<@NonNull ISegment> getStatsForRange(ISegmentStore<@NonNull ISegment> store, long start, long end, IProgressMonitor monitor) {
+        Aggregate aggregate = getAggregate(store, start, end, monitor);
+        return aggregate == null ? null : aggregate.fStats;
+    }
+
+    /**
+     * Get the statistics per type of the segments intersecting a time range
+     *
+     * @param store
+     *            The segment store these statistics were computed from
+     * @param start
+     *            The start of the range
+     * @param end
+     *            The end of the range
+     * @param monitor
+     *            The progress monitor
+     * @return The statistics per type, or an empty map if the request is
+     *         canceled
+     */
+    public Map<@NonNull String, IStatistics<@NonNull ISegment>> getStatsPerTypeForRange(ISegmentStore<@NonNull ISegment> store, long start, long end, IProgressMonitor monitor) {
+        Aggregate aggregate = getAggregate(store, start, end, monitor);
+        return aggregate == null ? Collections.emptyMap() : aggregate.fPerType;
+    }
+
+    private @Nullable Aggregate getAggregate(ISegmentStore<@NonNull ISegment> store, long start, long end, IProgressMonitor monitor) {
+        if (monitor.isCanceled()) {
+            return null;
+        }
+        Aggregate aggregate = new Aggregate();
+        /* The first and last buckets completely within the range */
+        long firstBucket = (start >> fWidthShift) + ((start & ((1L << fWidthShift) - 1)) == 0 ? 0 : 1);
+        long lastBucket = ((end + 1) >> fWidthShift) - 1;
+        if (end == Long.MAX_VALUE) {
+            lastBucket = end >> fWidthShift;
+        }
+        if (firstBucket > lastBucket) {
+            /* No bucket within the range, read all the segments */
+            return addSegments(aggregate, store.getIntersectingElements(start, end), Long.MIN_VALUE, Long.MAX_VALUE, Long.MIN_VALUE, monitor);
+        }
+        for (Aggregate bucket : fBuckets.subMap(firstBucket, true, lastBucket, true).values()) {
+            if (monitor.isCanceled()) {
+                return null;
+            }
+            aggregate.merge(bucket);
+        }
+        long bucketsStart = firstBucket << fWidthShift;
+        long bucketsEnd = lastBucket == (Long.MAX_VALUE >> fWidthShift) ? Long.MAX_VALUE : ((lastBucket + 1) << fWidthShift) - 1;
+
+        /* The segments starting before the range, or before the first bucket */
+        if (bucketsStart > Long.MIN_VALUE && addSegments(aggregate, store.getIntersectingElements(start, Math.max(start, bucketsStart - 1)), Long.MIN_VALUE, bucketsStart - 1, start, monitor) == null) {
+            return null;
+        }
+        /* The segments starting after the last bucket */
+        if (bucketsEnd < end && addSegments(aggregate, store.getIntersectingElements(bucketsEnd + 1, end), bucketsEnd + 1, end, Long.MIN_VALUE, monitor) == null) {
+            return null;
+        }
+        return aggregate;
+    }
+
+    /**
+     * Add the segments starting in a range and ending after a time
+     */
+    private static @Nullable Aggregate addSegments(Aggregate aggregate, Iterable<@NonNull ISegment> segments, long minStart, long maxStart, long minEnd, IProgressMonitor monitor) {
+        for (ISegment segment : segments) {
+            if (monitor.isCanceled()) {
+                return null;
+            }
+            if (segment.getStart() >= minStart && segment.getStart() <= maxStart && segment.getEnd() >= minEnd) {
+                aggregate.update(segment);
+            }
+        }
+        return aggregate;
+    }
+}
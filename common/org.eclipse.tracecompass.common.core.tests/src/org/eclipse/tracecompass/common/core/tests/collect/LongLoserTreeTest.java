@@ -0,0 +1,140 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson and others
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.common.core.tests.collect;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+import org.eclipse.tracecompass.common.core.collect.LongLoserTree;
+import org.junit.Test;
+
+/**
+ * Test suite for the {@link LongLoserTree}, comparing merges with a
+ * {@link PriorityQueue}
+ */
+public class LongLoserTreeTest {
+
+    /**
+     * Test an empty tree
+     */
+    @Test
+    public void testEmpty() {
+        LongLoserTree tree = new LongLoserTree(0);
+        assertTrue(tree.isEmpty());
+        assertEquals(-1, tree.peek());
+
+        tree = new LongLoserTree(4);
+        assertEquals(-1, tree.peek());
+        tree.set(2, 10);
+        assertEquals(2, tree.peek());
+        tree.removeTop();
+        assertTrue(tree.isEmpty());
+        assertEquals(-1, tree.peek());
+    }
+
+    /**
+     * Test merging sorted sources for various numbers of sources
+     */
+    @Test
+    public void testMerge() {
+        Random rnd = new Random(17);
+        for (int capacity = 1; capacity <= 33; capacity++) {
+            List<long[]> sources = new ArrayList<>();
+            for (int slot = 0; slot < capacity; slot++) {
+                long[] source = new long[rnd.nextInt(200)];
+                long value = rnd.nextInt(1000) - 500;
+                for (int i = 0; i < source.length; i++) {
+                    /* Runs of close values, and duplicates */
+                    value += rnd.nextInt(10) == 0 ? rnd.nextInt(1000) : rnd.nextInt(3);
+                    source[i] = value;
+                }
+                sources.add(source);
+            }
+            assertMerge(sources, new LongLoserTree(capacity));
+        }
+    }
+
+    /**
+     * Test that equal keys are ordered by the tie breaker
+     */
+    @Test
+    public void testTieBreaker() {
+        LongLoserTree tree = new LongLoserTree(5, (a, b) -> Integer.compare(b, a));
+        for (int slot = 0; slot < 5; slot++) {
+            tree.set(slot, 42);
+        }
+        for (int slot = 4; slot >= 0; slot--) {
+            assertEquals(slot, tree.peek());
+            tree.removeTop();
+        }
+        assertTrue(tree.isEmpty());
+    }
+
+    /**
+     * Test setting and removing other slots than the top one
+     */
+    @Test
+    public void testSetRemove() {
+        LongLoserTree tree = new LongLoserTree(6);
+        tree.set(0, 50);
+        tree.set(3, 20);
+        tree.set(5, 30);
+        assertEquals(3, tree.size());
+        assertEquals(3, tree.peek());
+        tree.remove(3);
+        assertFalse(tree.contains(3));
+        assertEquals(5, tree.peek());
+        tree.set(0, 10);
+        assertEquals(0, tree.peek());
+        tree.replaceTop(40);
+        assertEquals(5, tree.peek());
+        assertEquals(30, tree.getKey(5));
+        tree.replaceTop(45);
+        assertEquals(0, tree.peek());
+        tree.clear();
+        assertTrue(tree.isEmpty());
+        assertEquals(-1, tree.peek());
+    }
+
+    private static void assertMerge(List<long[]> sources, LongLoserTree tree) {
+        int[] positions = new int[sources.size()];
+        PriorityQueue<int[]> expected = new PriorityQueue<>(Comparator.<int[]> comparingLong(e -> sources.get(e[0])[e[1]]).thenComparingInt(e -> e[0]));
+        for (int slot = 0; slot < sources.size(); slot++) {
+            if (sources.get(slot).length > 0) {
+                tree.set(slot, sources.get(slot)[0]);
+                expected.add(new int[] { slot, 0 });
+            }
+        }
+        while (!expected.isEmpty()) {
+            int[] next = expected.poll();
+            int slot = tree.peek();
+            assertEquals(next[0], slot);
+            assertEquals(sources.get(slot)[positions[slot]], tree.getKey(slot));
+            positions[slot]++;
+            if (positions[slot] < sources.get(slot).length) {
+                tree.replaceTop(sources.get(slot)[positions[slot]]);
+                expected.add(new int[] { slot, positions[slot] });
+            } else {
+                tree.removeTop();
+            }
+            assertEquals(expected.size(), tree.size());
+        }
+        assertEquals(-1, tree.peek());
+    }
+}
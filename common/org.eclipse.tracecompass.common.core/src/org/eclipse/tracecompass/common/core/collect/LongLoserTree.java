@@ -0,0 +1,311 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson and others
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.common.core.collect;
+
+import java.util.Arrays;
+import java.util.function.IntBinaryOperator;
+
+/**
+ * A tournament tree of losers to merge sorted sources, like the streams of a
+ * trace or the traces of an experiment, on a primitive long key, typically the
+ * timestamp of the next element of each source.
+ * <p>
+ * The sources are identified by their slot, from 0 to the capacity of the
+ * tree. The slot with the smallest key is at the top. Equal keys are ordered
+ * with a tie breaker on the slots, or by slot otherwise.
+ * <p>
+ * Replacing the key of the top slot costs a comparison with each level of the
+ * tree, instead of about twice as many for a binary heap. While the new key of
+ * the top slot is not greater than the key of the next slot, which is the case
+ * for a run of elements from the same source, it costs a single comparison.
+ * Setting or removing the key of another slot rebuilds the tree on the next
+ * access, it is meant to fill the tree, for example after a seek.
+ * <p>
+ * This class is not thread safe.
+ *
+ * @since 5.3
+ */
+public final class LongLoserTree {
+
+    private static final int NONE = -1;
+
+    private final int fCapacity;
+    private final long[] fKeys;
+    private final boolean[] fActive;
+    private final IntBinaryOperator fTieBreaker;
+
+    /**
+     * The loser of the match at each node, from 1 to the capacity, the leaves
+     * are at capacity + slot. The node 0 holds the winner.
+     */
+    private final int[] fTree;
+    private int fSize = 0;
+    private boolean fDirty = false;
+
+    /** The slot that comes right after the top slot */
+    private int fNext = NONE;
+
+    /**
+     * Constructor, equal keys are ordered by slot
+     *
+     * @param capacity
+     *            The number of slots
+     */
+    public LongLoserTree(int capacity) {
+        this(capacity, Integer::compare);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param capacity
+     *            The number of slots
+     * @param tieBreaker
+     *            The comparator of two slots having equal keys, it must give
+     *            a total order of the slots
+     */
+    public LongLoserTree(int capacity, IntBinaryOperator tieBreaker) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Capacity cannot be negative: " + capacity); //$NON-NLS-1$
+        }
+        fCapacity = capacity;
+        fKeys = new long[capacity];
+        fActive = new boolean[capacity];
+        fTieBreaker = tieBreaker;
+        fTree = new int[Math.max(capacity, 1)];
+        Arrays.fill(fTree, NONE);
+    }
+
+    /**
+     * Get the number of slots of this tree
+     *
+     * @return The capacity
+     */
+    public int getCapacity() {
+        return fCapacity;
+    }
+
+    /**
+     * Get the number of slots having a key
+     *
+     * @return The size
+     */
+    public int size() {
+        return fSize;
+    }
+
+    /**
+     * Get whether no slot has a key
+     *
+     * @return Whether the tree is empty
+     */
+    public boolean isEmpty() {
+        return fSize == 0;
+    }
+
+    /**
+     * Get whether a slot has a key
+     *
+     * @param slot
+     *            The slot
+     * @return Whether the slot has a key
+     */
+    public boolean contains(int slot) {
+        return fActive[slot];
+    }
+
+    /**
+     * Get the key of a slot
+     *
+     * @param slot
+     *            The slot
+     * @return The key, only meaningful if the slot has one
+     */
+    public long getKey(int slot) {
+        return fKeys[slot];
+    }
+
+    /**
+     * Set the key of a slot, adding the slot if it has no key
+     *
+     * @param slot
+     *            The slot
+     * @param key
+     *            The key
+     */
+    public void set(int slot, long key) {
+        if (!fActive[slot]) {
+            fActive[slot] = true;
+            fSize++;
+        }
+        fKeys[slot] = key;
+        fDirty = true;
+    }
+
+    /**
+     * Remove the key of a slot
+     *
+     * @param slot
+     *            The slot
+     */
+    public void remove(int slot) {
+        if (fActive[slot]) {
+            fActive[slot] = false;
+            fSize--;
+            fDirty = true;
+        }
+    }
+
+    /**
+     * Remove the keys of all the slots
+     */
+    public void clear() {
+        Arrays.fill(fActive, false);
+        fSize = 0;
+        fDirty = true;
+    }
+
+    /**
+     * Get the slot with the smallest key
+     *
+     * @return The top slot, or -1 if the tree is empty
+     */
+    public int peek() {
+        if (fSize == 0) {
+            return NONE;
+        }
+        if (fDirty) {
+            build();
+        }
+        return fTree[0];
+    }
+
+    /**
+     * Replace the key of the top slot, typically by the key of the next
+     * element of its source
+     *
+     * @param key
+     *            The new key of the top slot
+     * @throws IllegalStateException
+     *             If the tree is empty
+     */
+    public void replaceTop(long key) {
+        int top = peek();
+        if (top == NONE) {
+            throw new IllegalStateException("The tree is empty"); //$NON-NLS-1$
+        }
+        fKeys[top] = key;
+        /*
+         * The top slot won against all the slots on its path, it still does
+         * if it is not after the slot that comes after it, which is the
+         * smallest of them.
+         */
+        int next = fNext;
+        if (next != NONE && beats(next, top)) {
+            replay(top);
+        }
+    }
+
+    /**
+     * Remove the key of the top slot, typically when its source has no more
+     * elements
+     *
+     * @throws IllegalStateException
+     *             If the tree is empty
+     */
+    public void removeTop() {
+        int top = peek();
+        if (top == NONE) {
+            throw new IllegalStateException("The tree is empty"); //$NON-NLS-1$
+        }
+        fActive[top] = false;
+        fSize--;
+        replay(top);
+    }
+
+    /**
+     * Whether slot a comes before slot b, the slots without a key come last
+     */
+    private boolean beats(int a, int b) {
+        if (!fActive[a]) {
+            return false;
+        }
+        if (!fActive[b]) {
+            return true;
+        }
+        long keyA = fKeys[a];
+        long keyB = fKeys[b];
+        if (keyA != keyB) {
+            return keyA < keyB;
+        }
+        return fTieBreaker.applyAsInt(a, b) < 0;
+    }
+
+    private void build() {
+        int capacity = fCapacity;
+        if (capacity == 1) {
+            fTree[0] = 0;
+        } else {
+            int[] winners = new int[2 * capacity];
+            for (int slot = 0; slot < capacity; slot++) {
+                winners[capacity + slot] = slot;
+            }
+            for (int node = capacity - 1; node >= 1; node--) {
+                int a = winners[2 * node];
+                int b = winners[2 * node + 1];
+                if (beats(b, a)) {
+                    winners[node] = b;
+                    fTree[node] = a;
+                } else {
+                    winners[node] = a;
+                    fTree[node] = b;
+                }
+            }
+            fTree[0] = winners[1];
+        }
+        fDirty = false;
+        updateNext();
+    }
+
+    /**
+     * Replay the matches from the leaf of a slot whose key changed, when it
+     * was the top slot
+     */
+    private void replay(int slot) {
+        int winner = slot;
+        for (int node = (fCapacity + slot) >> 1; node >= 1; node >>= 1) {
+            int loser = fTree[node];
+            if (beats(loser, winner)) {
+                fTree[node] = winner;
+                winner = loser;
+            }
+        }
+        fTree[0] = winner;
+        updateNext();
+    }
+
+    /**
+     * The slot coming after the top one is the smallest of the slots it won
+     * against
+     */
+    private void updateNext() {
+        int top = fTree[0];
+        int next = NONE;
+        for (int node = (fCapacity + top) >> 1; node >= 1; node >>= 1) {
+            int loser = fTree[node];
+            if (fActive[loser] && (next == NONE || beats(loser, next))) {
+                next = loser;
+            }
+        }
+        fNext = next;
+    }
+}
@@ -0,0 +1,84 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson and others
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.ctf.core.tests.io;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Random;
+
+import org.eclipse.tracecompass.ctf.core.CTFException;
+import org.eclipse.tracecompass.ctf.core.event.io.BitBuffer;
+import org.junit.Test;
+
+/**
+ * Test the bulk reads of integers of {@link BitBuffer}
+ */
+public class BitBufferBulkTest {
+
+    private static final int[] LENGTHS = { 5, 8, 13, 16, 32, 64 };
+    private static final ByteOrder[] BYTE_ORDERS = { ByteOrder.BIG_ENDIAN, ByteOrder.LITTLE_ENDIAN };
+
+    /**
+     * Test the bulk read against single reads, for aligned and unaligned
+     * positions, both byte orders, signed and unsigned
+     *
+     * @throws CTFException
+     *             won't happen
+     */
+    @Test
+    public void testGetBulk() throws CTFException {
+        Random random = new Random(20);
+        byte[] data = new byte[1024];
+        random.nextBytes(data);
+        for (int length : LENGTHS) {
+            for (ByteOrder byteOrder : BYTE_ORDERS) {
+                for (boolean signed : new boolean[] { false, true }) {
+                    for (int start : new int[] { 0, 3, 8, 64 }) {
+                        int count = 50;
+                        BitBuffer expectedInput = new BitBuffer(ByteBuffer.wrap(data), byteOrder);
+                        expectedInput.position(start);
+                        long[] expected = new long[count + 2];
+                        for (int i = 0; i < count; i++) {
+                            expected[i + 1] = expectedInput.get(length, signed);
+                        }
+
+                        BitBuffer input = new BitBuffer(ByteBuffer.wrap(data), byteOrder);
+                        input.position(start);
+                        long[] actual = new long[count + 2];
+                        input.get(actual, 1, count, length, signed);
+
+                        String message = length + " " + byteOrder + " " + signed + " " + start; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+                        assertArrayEquals(message, expected, actual);
+                        assertEquals(message, expectedInput.position(), input.position());
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Test a bulk read past the end of the buffer. An exception should be
+     * thrown.
+     *
+     * @throws CTFException
+     *             Expected
+     */
+    @Test(expected = CTFException.class)
+    public void testGetBulk_invalid() throws CTFException {
+        BitBuffer input = new BitBuffer(ByteBuffer.allocate(16));
+        input.position(8);
+        input.get(new long[4], 0, 4, 32, false);
+    }
+}
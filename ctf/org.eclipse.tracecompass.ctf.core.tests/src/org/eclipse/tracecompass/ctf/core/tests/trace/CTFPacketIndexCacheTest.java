@@ -0,0 +1,201 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson and others
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.ctf.core.tests.trace;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.eclipse.tracecompass.ctf.core.trace.ICTFPacketDescriptor;
+import org.eclipse.tracecompass.internal.ctf.core.trace.CTFPacketIndexCache;
+import org.eclipse.tracecompass.internal.ctf.core.trace.StreamInputPacketIndex;
+import org.eclipse.tracecompass.internal.ctf.core.trace.StreamInputPacketIndexEntry;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * Unit tests for the {@link CTFPacketIndexCache}
+ */
+public class CTFPacketIndexCacheTest {
+
+    private File fDir;
+    private File fCacheFile;
+    private File fStreamFile;
+
+    /**
+     * Create a fake stream file
+     *
+     * @throws IOException
+     *             if the file could not be created
+     */
+    @Before
+    public void setUp() throws IOException {
+        fDir = Files.createTempDirectory("packet-index").toFile(); //$NON-NLS-1$
+        fCacheFile = new File(fDir, CTFPacketIndexCache.FILE_NAME);
+        fStreamFile = new File(fDir, "channel0_0"); //$NON-NLS-1$
+        Files.write(fStreamFile.toPath(), new byte[4096]);
+    }
+
+    /**
+     * Delete the files
+     */
+    @After
+    public void tearDown() {
+        File[] files = fDir.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        fDir.delete();
+    }
+
+    private static StreamInputPacketIndex createIndex() {
+        StreamInputPacketIndex index = new StreamInputPacketIndex();
+        for (int i = 0; i < 4; i++) {
+            Map<String, Object> attributes = ImmutableMap.of(
+                    "timestamp_begin", 100L * i, //$NON-NLS-1$
+                    "events_discarded", 3L * i, //$NON-NLS-1$
+                    "ratio", 0.5 * i, //$NON-NLS-1$
+                    "device", "cpu" + i, //$NON-NLS-1$ //$NON-NLS-2$
+                    "mode", new SimpleImmutableEntry<>("ON", 1L)); //$NON-NLS-1$ //$NON-NLS-2$
+            index.append(new StreamInputPacketIndexEntry(i * 8192L, 8192, 8000, 100L * i, 100L * i + 99,
+                    i == 0 ? 0 : 3, 256, i == 3 ? null : "CPU" + i, i, attributes)); //$NON-NLS-1$
+        }
+        return index;
+    }
+
+    /**
+     * Test that a written index is read back as is
+     *
+     * @throws IOException
+     *             if the cache could not be written
+     */
+    @Test
+    public void testRoundTrip() throws IOException {
+        StreamInputPacketIndex expected = createIndex();
+        Map<File, StreamInputPacketIndex> indexes = new LinkedHashMap<>();
+        indexes.put(fStreamFile, expected);
+        CTFPacketIndexCache.write(fCacheFile, indexes);
+
+        CTFPacketIndexCache cache = CTFPacketIndexCache.read(fCacheFile);
+        assertNotNull(cache);
+        StreamInputPacketIndex actual = cache.getIndex(fStreamFile);
+        assertNotNull(actual);
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            ICTFPacketDescriptor expectedEntry = expected.getElement(i);
+            ICTFPacketDescriptor actualEntry = actual.getElement(i);
+            assertEquals(expectedEntry.getOffsetBits(), actualEntry.getOffsetBits());
+            assertEquals(expectedEntry.getOffsetBytes(), actualEntry.getOffsetBytes());
+            assertEquals(expectedEntry.getPacketSizeBits(), actualEntry.getPacketSizeBits());
+            assertEquals(expectedEntry.getContentSizeBits(), actualEntry.getContentSizeBits());
+            assertEquals(expectedEntry.getTimestampBegin(), actualEntry.getTimestampBegin());
+            assertEquals(expectedEntry.getTimestampEnd(), actualEntry.getTimestampEnd());
+            assertEquals(expectedEntry.getLostEvents(), actualEntry.getLostEvents());
+            assertEquals(expectedEntry.getPayloadStartBits(), actualEntry.getPayloadStartBits());
+            assertEquals(expectedEntry.getTarget(), actualEntry.getTarget());
+            assertEquals(expectedEntry.getTargetId(), actualEntry.getTargetId());
+            assertEquals(expectedEntry.getAttributes(), actualEntry.getAttributes());
+        }
+    }
+
+    /**
+     * Test that strings longer than the 64 KiB limit of modified UTF-8 are
+     * read back as is
+     *
+     * @throws IOException
+     *             if the cache could not be written
+     */
+    @Test
+    public void testLongString() throws IOException {
+        String value = String.join("", Collections.nCopies(20000, "\u00e9t\u00e9")); //$NON-NLS-1$ //$NON-NLS-2$
+        StreamInputPacketIndex expected = new StreamInputPacketIndex();
+        expected.append(new StreamInputPacketIndexEntry(0, 8192, 8000, 0, 99, 0, 256, null, 0,
+                ImmutableMap.of("long", value))); //$NON-NLS-1$
+        Map<File, StreamInputPacketIndex> indexes = new LinkedHashMap<>();
+        indexes.put(fStreamFile, expected);
+        CTFPacketIndexCache.write(fCacheFile, indexes);
+
+        CTFPacketIndexCache cache = CTFPacketIndexCache.read(fCacheFile);
+        assertNotNull(cache);
+        StreamInputPacketIndex actual = cache.getIndex(fStreamFile);
+        assertNotNull(actual);
+        assertEquals(value, actual.getElement(0).getAttributes().get("long")); //$NON-NLS-1$
+    }
+
+    /**
+     * Test that no cache is written if a packet has an attribute that cannot
+     * be saved
+     */
+    @Test
+    public void testUnsupportedAttribute() {
+        StreamInputPacketIndex index = new StreamInputPacketIndex();
+        index.append(new StreamInputPacketIndexEntry(0, 8192, 8000, 0, 99, 0, 256, null, 0,
+                ImmutableMap.of("array", new long[] { 1, 2 }))); //$NON-NLS-1$
+        Map<File, StreamInputPacketIndex> indexes = new LinkedHashMap<>();
+        indexes.put(fStreamFile, index);
+        try {
+            CTFPacketIndexCache.write(fCacheFile, indexes);
+            fail("The attribute cannot be saved"); //$NON-NLS-1$
+        } catch (IOException e) {
+            // Expected
+        }
+        assertFalse(fCacheFile.exists());
+        assertEquals(1, fDir.listFiles().length);
+    }
+
+    /**
+     * Test that the index of a stream file that changed is not used
+     *
+     * @throws IOException
+     *             if the cache could not be written
+     */
+    @Test
+    public void testStale() throws IOException {
+        Map<File, StreamInputPacketIndex> indexes = new LinkedHashMap<>();
+        indexes.put(fStreamFile, createIndex());
+        CTFPacketIndexCache.write(fCacheFile, indexes);
+
+        Files.write(fStreamFile.toPath(), new byte[8192]);
+        CTFPacketIndexCache cache = CTFPacketIndexCache.read(fCacheFile);
+        assertNotNull(cache);
+        assertNull(cache.getIndex(fStreamFile));
+        assertNull(cache.getIndex(new File(fDir, "channel0_1"))); //$NON-NLS-1$
+    }
+
+    /**
+     * Test that a missing or invalid cache file is not read
+     *
+     * @throws IOException
+     *             if the file could not be written
+     */
+    @Test
+    public void testInvalid() throws IOException {
+        assertNull(CTFPacketIndexCache.read(fCacheFile));
+        Files.write(fCacheFile.toPath(), new byte[] { 1, 2, 3 });
+        assertNull(CTFPacketIndexCache.read(fCacheFile));
+    }
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2015 Ericsson
+ * Copyright (c) 2015, 2026 Ericsson
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
  * which accompanies this distribution, and is available at
@@ -19,6 +19,8 @@ import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
@@ -27,15 +29,19 @@ import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.tracecompass.ctf.core.CTFException;
 import org.eclipse.tracecompass.ctf.core.CTFStrings;
 import org.eclipse.tracecompass.ctf.core.event.IEventDeclaration;
+import org.eclipse.tracecompass.ctf.core.event.ProjectedEventRecord;
 import org.eclipse.tracecompass.ctf.core.event.io.BitBuffer;
 import org.eclipse.tracecompass.ctf.core.event.scope.ILexicalScope;
 import org.eclipse.tracecompass.ctf.core.event.types.IntegerDeclaration;
 import org.eclipse.tracecompass.ctf.core.event.types.IntegerDefinition;
+import org.eclipse.tracecompass.ctf.core.event.types.StringDeclaration;
 import org.eclipse.tracecompass.ctf.core.event.types.StructDeclaration;
 import org.eclipse.tracecompass.ctf.core.trace.CTFTrace;
 import org.eclipse.tracecompass.ctf.core.trace.ICTFPacketDescriptor;
 import org.eclipse.tracecompass.internal.ctf.core.event.EventDeclaration;
 import org.eclipse.tracecompass.internal.ctf.core.event.EventDefinition;
+import org.eclipse.tracecompass.internal.ctf.core.event.ProjectedEventDecoders;
+import org.eclipse.tracecompass.internal.ctf.core.event.types.composite.EventHeaderCompactDeclaration;
 import org.eclipse.tracecompass.internal.ctf.core.trace.CTFPacketReader;
 import org.eclipse.tracecompass.internal.ctf.core.trace.StreamInputPacketIndexEntry;
 import org.junit.Test;
@@ -228,4 +234,95 @@ public class CTFPacketReaderTest {
         assertFalse(cpr.hasMoreEvents());
     }
 
+    /**
+     * Test reading only some fields of the events of a packet with a struct
+     * header
+     *
+     * @throws CTFException
+     *             won't happen
+     */
+    @Test
+    public void testProjectedPacket() throws CTFException {
+        byte[] bytes = { (byte) 0x00, (byte) 0x00, (byte) 0x00, (byte) 0x00, (byte) 0x01, (byte) 0xff, (byte) 0xff, (byte) 0xa5 };
+        BitBuffer input = createBitBuffer(bytes);
+        ICTFPacketDescriptor packetContext = new StreamInputPacketIndexEntry(0, EMPTY_STRUCT.createDefinition(null, ILexicalScope.TRACE, new BitBuffer()), 8, 0, 0);
+        StructDeclaration eventHeaderDeclaration = new StructDeclaration(8);
+        eventHeaderDeclaration.addField("timestamp", IntegerDeclaration.INT_8_DECL);
+        final EventDeclaration eventDec = new EventDeclaration();
+        eventDec.setName("Hello");
+        StructDeclaration fields = new StructDeclaration(8);
+        fields.addField("field1", IntegerDeclaration.UINT_16L_DECL);
+        fields.addField("field2", IntegerDeclaration.UINT_8_DECL);
+        eventDec.setFields(fields);
+        List<@Nullable IEventDeclaration> declarations = Collections.singletonList(eventDec);
+        CTFTrace trace = new CTFTrace();
+        CTFPacketReader cpr = new CTFPacketReader(input, packetContext, declarations, eventHeaderDeclaration, null, null, trace);
+        ProjectedEventRecord record = new ProjectedEventRecord(Arrays.asList("field2", "missing"));
+        ProjectedEventDecoders decoders = new ProjectedEventDecoders(record, declarations, eventHeaderDeclaration, null, false);
+        assertTrue(cpr.hasMoreEvents());
+        cpr.readNextEvent(decoders);
+        assertEquals(eventDec, record.getDeclaration());
+        assertEquals(0L, record.getTimestamp());
+        assertTrue(record.isSet(0));
+        assertEquals(0L, record.getValue(0));
+        assertFalse(record.isSet(1));
+        assertTrue(cpr.hasMoreEvents());
+        cpr.readNextEvent(decoders);
+        assertEquals(1L, record.getTimestamp());
+        assertEquals(0xa5, record.getValue(0));
+        assertFalse(record.isSet(1));
+        assertFalse(cpr.hasMoreEvents());
+    }
+
+    /**
+     * Test reading only some fields of the events of a packet with a compact
+     * header, where an event with a string is read from its definition
+     *
+     * @throws CTFException
+     *             won't happen
+     */
+    @Test
+    public void testProjectedPacketCompactHeader() throws CTFException {
+        byte[] bytes = {
+                /* id 0, timestamp 5, field1 and field2 */
+                (byte) 0x00, (byte) 0x00, (byte) 0x00, (byte) 0x05, (byte) 0x34, (byte) 0x12, (byte) 0x7f,
+                /* id 1, timestamp 6, a string and field2 */
+                (byte) 0x08, (byte) 0x00, (byte) 0x00, (byte) 0x06, (byte) 'a', (byte) 'b', (byte) 0x00, (byte) 0x42 };
+        BitBuffer input = createBitBuffer(bytes);
+        ICTFPacketDescriptor packetContext = new StreamInputPacketIndexEntry(0, EMPTY_STRUCT.createDefinition(null, ILexicalScope.TRACE, new BitBuffer()), bytes.length, 0, 0);
+        EventHeaderCompactDeclaration eventHeaderDeclaration = EventHeaderCompactDeclaration.getEventHeader(ByteOrder.BIG_ENDIAN);
+        final EventDeclaration fixedDec = new EventDeclaration();
+        fixedDec.setName("fixed");
+        StructDeclaration fixedFields = new StructDeclaration(8);
+        fixedFields.addField("field1", IntegerDeclaration.UINT_16L_DECL);
+        fixedFields.addField("field2", IntegerDeclaration.UINT_8_DECL);
+        fixedDec.setFields(fixedFields);
+        final EventDeclaration stringDec = new EventDeclaration();
+        stringDec.setName("string");
+        StructDeclaration stringFields = new StructDeclaration(8);
+        stringFields.addField("string", StringDeclaration.getStringDeclaration());
+        stringFields.addField("field2", IntegerDeclaration.UINT_8_DECL);
+        stringDec.setFields(stringFields);
+        List<@Nullable IEventDeclaration> declarations = Arrays.asList(fixedDec, stringDec);
+        CTFTrace trace = new CTFTrace();
+        CTFPacketReader cpr = new CTFPacketReader(input, packetContext, declarations, eventHeaderDeclaration, null, null, trace);
+        ProjectedEventRecord record = new ProjectedEventRecord(Arrays.asList("field1", "field2", "string"));
+        ProjectedEventDecoders decoders = new ProjectedEventDecoders(record, declarations, eventHeaderDeclaration, null, false);
+        assertTrue(cpr.hasMoreEvents());
+        cpr.readNextEvent(decoders);
+        assertEquals(fixedDec, record.getDeclaration());
+        assertEquals(5L, record.getTimestamp());
+        assertEquals(0x1234, record.getValue(0));
+        assertEquals(0x7f, record.getValue(1));
+        assertFalse(record.isSet(2));
+        assertTrue(cpr.hasMoreEvents());
+        cpr.readNextEvent(decoders);
+        assertEquals(stringDec, record.getDeclaration());
+        assertEquals(6L, record.getTimestamp());
+        assertFalse(record.isSet(0));
+        assertEquals(0x42, record.getValue(1));
+        assertFalse(record.isSet(2));
+        assertFalse(cpr.hasMoreEvents());
+    }
+
 }
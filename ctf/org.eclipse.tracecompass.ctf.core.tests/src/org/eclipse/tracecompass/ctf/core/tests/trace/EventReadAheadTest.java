@@ -0,0 +1,154 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson and others
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.ctf.core.tests.trace;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.ctf.core.CTFException;
+import org.eclipse.tracecompass.ctf.core.event.IEventDefinition;
+import org.eclipse.tracecompass.internal.ctf.core.event.EventDeclaration;
+import org.eclipse.tracecompass.internal.ctf.core.event.EventDefinition;
+import org.eclipse.tracecompass.internal.ctf.core.trace.EventReadAhead;
+import org.eclipse.tracecompass.internal.ctf.core.trace.EventReadAhead.IEventSource;
+import org.junit.Test;
+
+/**
+ * Unit tests for the {@link EventReadAhead}, reading synthetic events
+ */
+public class EventReadAheadTest {
+
+    private static final EventDeclaration DECLARATION = new EventDeclaration();
+
+    /**
+     * Source of events with increasing timestamps, failing at an event
+     */
+    private static class Source implements IEventSource {
+        private final AtomicLong fRead = new AtomicLong();
+        private final long fCount;
+        private final long fFailAt;
+
+        public Source(long count, long failAt) {
+            fCount = count;
+            fFailAt = failAt;
+        }
+
+        @Override
+        public @Nullable IEventDefinition read() throws CTFException {
+            long timestamp = fRead.get();
+            if (timestamp == fFailAt) {
+                throw new CTFException("Failed at " + timestamp); //$NON-NLS-1$
+            }
+            if (timestamp >= fCount) {
+                return null;
+            }
+            fRead.incrementAndGet();
+            return new EventDefinition(DECLARATION, 0, timestamp, null, null, null, null, null, null);
+        }
+    }
+
+    /**
+     * Test that all the events are read in order
+     *
+     * @throws CTFException
+     *             won't happen
+     */
+    @Test
+    public void testOrder() throws CTFException {
+        EventReadAhead readAhead = new EventReadAhead(new Source(1000, -1));
+        for (long i = 0; i < 1000; i++) {
+            IEventDefinition event = readAhead.next();
+            assertNotNull(event);
+            assertEquals(i, event.getTimestamp());
+        }
+        assertNull(readAhead.next());
+        assertNull(readAhead.next());
+    }
+
+    /**
+     * Test that an error is thrown after the events read before it
+     */
+    @Test
+    public void testError() {
+        EventReadAhead readAhead = new EventReadAhead(new Source(1000, 300));
+        long read = 0;
+        try {
+            while (readAhead.next() != null) {
+                read++;
+            }
+            fail("Expected an exception"); //$NON-NLS-1$
+        } catch (CTFException e) {
+            assertEquals(300, read);
+        }
+    }
+
+    /**
+     * Test that the events decoded before stopping are still read, and that
+     * the source is positioned after them
+     *
+     * @throws CTFException
+     *             won't happen
+     */
+    @Test
+    public void testStop() throws CTFException {
+        Source source = new Source(100000, -1);
+        EventReadAhead readAhead = new EventReadAhead(source);
+        for (int i = 0; i < 10; i++) {
+            assertNotNull(readAhead.next());
+        }
+        readAhead.stop();
+        long read = 10;
+        IEventDefinition event = readAhead.next();
+        while (event != null) {
+            assertEquals(read, event.getTimestamp());
+            read++;
+            event = readAhead.next();
+        }
+        assertNull(readAhead.next());
+        IEventDefinition next = source.read();
+        assertNotNull(next);
+        assertEquals(read, next.getTimestamp());
+    }
+
+    /**
+     * Test reading more streams than there are threads, merging them like
+     * the trace reader
+     *
+     * @throws CTFException
+     *             won't happen
+     */
+    @Test
+    public void testManyStreams() throws CTFException {
+        int nbStreams = Runtime.getRuntime().availableProcessors() * 4;
+        List<EventReadAhead> readAheads = new ArrayList<>();
+        for (int i = 0; i < nbStreams; i++) {
+            readAheads.add(new EventReadAhead(new Source(2000, -1)));
+        }
+        for (long i = 0; i < 2000; i++) {
+            for (EventReadAhead readAhead : readAheads) {
+                IEventDefinition event = readAhead.next();
+                assertNotNull(event);
+                assertEquals(i, event.getTimestamp());
+            }
+        }
+        for (EventReadAhead readAhead : readAheads) {
+            assertNull(readAhead.next());
+        }
+    }
+}
@@ -0,0 +1,115 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson and others
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.ctf.core.tests.types;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Random;
+
+import org.eclipse.tracecompass.ctf.core.CTFException;
+import org.eclipse.tracecompass.ctf.core.event.io.BitBuffer;
+import org.eclipse.tracecompass.ctf.core.event.types.Encoding;
+import org.eclipse.tracecompass.ctf.core.event.types.EnumDeclaration;
+import org.eclipse.tracecompass.ctf.core.event.types.FloatDeclaration;
+import org.eclipse.tracecompass.ctf.core.event.types.IDeclaration;
+import org.eclipse.tracecompass.ctf.core.event.types.IDefinition;
+import org.eclipse.tracecompass.ctf.core.event.types.IntegerDeclaration;
+import org.eclipse.tracecompass.ctf.core.event.types.StringDeclaration;
+import org.eclipse.tracecompass.ctf.core.event.types.StructDeclaration;
+import org.eclipse.tracecompass.ctf.core.event.types.StructDefinition;
+import org.eclipse.tracecompass.internal.ctf.core.event.types.ArrayDeclaration;
+import org.eclipse.tracecompass.internal.ctf.core.event.types.CompiledStructDecoder;
+import org.junit.Test;
+
+/**
+ * Test that the {@link CompiledStructDecoder} of fixed layout structures
+ * decodes like the declarations of their fields
+ */
+public class CompiledStructDecoderTest {
+
+    private static IntegerDeclaration integer(int length, boolean signed, ByteOrder byteOrder, long alignment) {
+        return IntegerDeclaration.createDeclaration(length, signed, 10, byteOrder, Encoding.NONE, "", alignment, null); //$NON-NLS-1$
+    }
+
+    private static StructDeclaration createStruct() {
+        StructDeclaration struct = new StructDeclaration(8);
+        struct.addField("a", integer(8, false, ByteOrder.LITTLE_ENDIAN, 8)); //$NON-NLS-1$
+        struct.addField("b", integer(5, true, ByteOrder.BIG_ENDIAN, 1)); //$NON-NLS-1$
+        struct.addField("c", integer(3, false, ByteOrder.LITTLE_ENDIAN, 1)); //$NON-NLS-1$
+        struct.addField("d", integer(32, false, ByteOrder.BIG_ENDIAN, 32)); //$NON-NLS-1$
+        EnumDeclaration enumDeclaration = new EnumDeclaration(integer(16, false, ByteOrder.LITTLE_ENDIAN, 16));
+        enumDeclaration.add(0, 100, "low"); //$NON-NLS-1$
+        enumDeclaration.add(101, 65535, "high"); //$NON-NLS-1$
+        struct.addField("e", enumDeclaration); //$NON-NLS-1$
+        struct.addField("f", new FloatDeclaration(8, 24, ByteOrder.LITTLE_ENDIAN, 32)); //$NON-NLS-1$
+        struct.addField("g", new ArrayDeclaration(3, integer(8, false, ByteOrder.BIG_ENDIAN, 8))); //$NON-NLS-1$
+        struct.addField("h", new ArrayDeclaration(2, integer(16, true, ByteOrder.BIG_ENDIAN, 16))); //$NON-NLS-1$
+        struct.addField("i", integer(64, false, ByteOrder.LITTLE_ENDIAN, 64)); //$NON-NLS-1$
+        struct.addField("j", integer(13, true, ByteOrder.LITTLE_ENDIAN, 1)); //$NON-NLS-1$
+        return struct;
+    }
+
+    /**
+     * Test the compiled decoding against the decoding of each field, from
+     * aligned and unaligned positions
+     *
+     * @throws CTFException
+     *             won't happen
+     */
+    @Test
+    public void testDecode() throws CTFException {
+        StructDeclaration struct = createStruct();
+        assertEquals(64, struct.getAlignment());
+        Random random = new Random(19);
+        for (int start = 0; start < 80; start += 7) {
+            byte[] data = new byte[64];
+            random.nextBytes(data);
+
+            BitBuffer input = new BitBuffer(ByteBuffer.wrap(data));
+            input.position(start);
+            StructDefinition definition = struct.createDefinition(null, "s", input); //$NON-NLS-1$
+
+            BitBuffer expectedInput = new BitBuffer(ByteBuffer.wrap(data));
+            long mask = struct.getAlignment() - 1;
+            expectedInput.position((start + mask) & ~mask);
+            for (String name : struct.getFieldsList()) {
+                IDeclaration field = struct.getField(name);
+                assertNotNull(field);
+                IDefinition expected = field.createDefinition(null, name, expectedInput);
+                IDefinition actual = definition.getDefinition(name);
+                assertNotNull(actual);
+                assertEquals(name, expected.toString(), actual.toString());
+                assertEquals(name, expected.getDeclaration(), actual.getDeclaration());
+            }
+            assertEquals(expectedInput.position(), input.position());
+            assertEquals(ByteOrder.BIG_ENDIAN, input.getByteOrder());
+        }
+    }
+
+    /**
+     * Test the structures that do not have a fixed layout
+     */
+    @Test
+    public void testNotCompiled() {
+        IDeclaration uint8 = integer(8, false, ByteOrder.BIG_ENDIAN, 8);
+        String[] names = { "a", "b" }; //$NON-NLS-1$ //$NON-NLS-2$
+        assertNotNull(CompiledStructDecoder.compile(8, names, new IDeclaration[] { uint8, uint8 }));
+        assertNull(CompiledStructDecoder.compile(8, names, new IDeclaration[] { uint8, StringDeclaration.getStringDeclaration(Encoding.UTF8) }));
+        assertNull(CompiledStructDecoder.compile(12, names, new IDeclaration[] { uint8, uint8 }));
+        assertNull(CompiledStructDecoder.compile(8, names, new IDeclaration[] { uint8, integer(32, false, ByteOrder.BIG_ENDIAN, 32) }));
+        assertEquals(16, CompiledStructDecoder.compile(8, names, new IDeclaration[] { uint8, uint8 }).getSize());
+    }
+}
@@ -0,0 +1,160 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson and others
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.ctf.core.event;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+import com.google.common.collect.ImmutableList;
+
+/**
+ * A reusable record of an event with only some of its fields. The consumer
+ * declares the names of the fields it needs and the reader decodes only these
+ * fields into the record, without creating the definitions of the event.
+ *
+ * The fields are looked up by name in the event payload, then in the event
+ * context, then in the stream event context. Only integer and enumeration
+ * fields are decoded, the fields of other types or absent from an event are
+ * not set.
+ *
+ * @since 5.3
+ */
+@NonNullByDefault
+public final class ProjectedEventRecord {
+
+    private final List<String> fFieldNames;
+    private final long[] fValues;
+    private final boolean[] fSet;
+    private @Nullable IEventDeclaration fDeclaration = null;
+    private long fTimestamp;
+    private int fCpu = IEventDefinition.UNKNOWN_CPU;
+
+    /**
+     * Constructor
+     *
+     * @param fieldNames
+     *            The names of the fields to decode
+     */
+    public ProjectedEventRecord(List<String> fieldNames) {
+        fFieldNames = ImmutableList.copyOf(fieldNames);
+        fValues = new long[fFieldNames.size()];
+        fSet = new boolean[fFieldNames.size()];
+    }
+
+    /**
+     * Get the names of the fields to decode, the index of a name in this list
+     * is the index of the field in this record
+     *
+     * @return The field names
+     */
+    public List<String> getFieldNames() {
+        return fFieldNames;
+    }
+
+    /**
+     * Get the declaration of the event, null if no event was read
+     *
+     * @return The event declaration
+     */
+    public @Nullable IEventDeclaration getDeclaration() {
+        return fDeclaration;
+    }
+
+    /**
+     * Get the timestamp of the event, in clock cycles like
+     * {@link IEventDefinition#getTimestamp()}
+     *
+     * @return The timestamp
+     */
+    public long getTimestamp() {
+        return fTimestamp;
+    }
+
+    /**
+     * Get the CPU of the event
+     *
+     * @return The CPU, or {@link IEventDefinition#UNKNOWN_CPU}
+     */
+    public int getCPU() {
+        return fCpu;
+    }
+
+    /**
+     * Get whether a field was decoded for the current event
+     *
+     * @param index
+     *            The index of the field
+     * @return Whether the field has a value
+     */
+    public boolean isSet(int index) {
+        return fSet[index];
+    }
+
+    /**
+     * Get the value of a field of the current event
+     *
+     * @param index
+     *            The index of the field
+     * @return The value of the field, 0 if it is not set
+     */
+    public long getValue(int index) {
+        return fValues[index];
+    }
+
+    /**
+     * Start a new event in this record, the values of the previous event are
+     * unset. Meant for the readers.
+     *
+     * @param declaration
+     *            The declaration of the event
+     * @param timestamp
+     *            The timestamp of the event
+     * @param cpu
+     *            The CPU of the event
+     */
+    public void reset(IEventDeclaration declaration, long timestamp, int cpu) {
+        fDeclaration = declaration;
+        fTimestamp = timestamp;
+        fCpu = cpu;
+        Arrays.fill(fValues, 0L);
+        Arrays.fill(fSet, false);
+    }
+
+    /**
+     * Set the value of a field of the current event. Meant for the readers.
+     *
+     * @param index
+     *            The index of the field
+     * @param value
+     *            The value of the field
+     */
+    public void setValue(int index, long value) {
+        fValues[index] = value;
+        fSet[index] = true;
+    }
+
+    @Override
+    public String toString() {
+        IEventDeclaration declaration = fDeclaration;
+        StringBuilder sb = new StringBuilder();
+        sb.append(declaration == null ? "" : declaration.getName()).append('@').append(fTimestamp).append(" ["); //$NON-NLS-1$ //$NON-NLS-2$
+        for (int i = 0; i < fValues.length; i++) {
+            if (fSet[i]) {
+                sb.append(fFieldNames.get(i)).append('=').append(fValues[i]).append(' ');
+            }
+        }
+        return sb.append(']').toString();
+    }
+}
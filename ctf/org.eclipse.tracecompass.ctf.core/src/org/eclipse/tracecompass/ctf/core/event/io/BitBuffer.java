@@ -1,5 +1,5 @@
 /*******************************************************************************.
- * Copyright (c) 2011, 2014 Ericsson, Ecole Polytechnique de Montreal and others
+ * Copyright (c) 2011, 2026 Ericsson, Ecole Polytechnique de Montreal and others
  *
  * All rights reserved. This program and the accompanying materials are made
  * available under the terms of the Eclipse Public License 2.0 which
@@ -20,6 +20,8 @@ package org.eclipse.tracecompass.ctf.core.event.io;
 import java.nio.BufferUnderflowException;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.ShortBuffer;
 
 import org.eclipse.jdt.annotation.NonNull;
 import org.eclipse.tracecompass.ctf.core.CTFException;
@@ -193,6 +195,92 @@ public final class BitBuffer {
         fPosition += dst.length * BIT_CHAR;
     }
 
+    /**
+     * Relative bulk <i>get</i> method for reading integers of <i>length</i>
+     * bits stored one after the other, like the elements of an array.
+     *
+     * When the position is byte-aligned and the length is 8, 16, 32 or 64
+     * bits, the integers are transferred through a view of the byte buffer
+     * in the current byte order. Otherwise they are read one at a time. The
+     * current position is increased of <i>count</i> times <i>length</i> bits.
+     *
+     * @param dst
+     *            the array to write the integers to
+     * @param offset
+     *            the index of the first integer in the array
+     * @param count
+     *            the number of integers to read
+     * @param length
+     *            The length in bits of each integer
+     * @param signed
+     *            The sign extended flag
+     * @throws CTFException
+     *             If more than 64 bits per integer are read, or the buffer is
+     *             read beyond its end
+     * @since 5.3
+     */
+    public void get(long @NonNull [] dst, int offset, int count, int length, boolean signed) throws CTFException {
+        if (length > BIT_LONG) {
+            throw new CTFException("Cannot read a long longer than 64 bits. Rquested: " + length); //$NON-NLS-1$
+        }
+        if (offset < 0 || count < 0 || offset > dst.length - count) {
+            throw new IndexOutOfBoundsException("Cannot read " + count + " integers at " + offset + " in an array of " + dst.length); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+        }
+        long bits = (long) count * length;
+        if (fPosition + bits > fBitCapacity) {
+            throw new CTFException("Cannot read the integers, " + //$NON-NLS-1$
+                    "the buffer does not have enough remaining space. " + //$NON-NLS-1$
+                    "Requested:" + bits + " Available:" + (fBitCapacity - fPosition)); //$NON-NLS-1$ //$NON-NLS-2$
+        }
+        if (count > 0 && (fPosition & (BIT_CHAR - 1)) == 0 && getBulk(dst, offset, count, length, signed)) {
+            fPosition += bits;
+            return;
+        }
+        for (int i = offset; i < offset + count; i++) {
+            dst[i] = get(length, signed);
+        }
+    }
+
+    private boolean getBulk(long[] dst, int offset, int count, int length, boolean signed) {
+        if (length != BIT_CHAR && length != BIT_SHORT && length != BIT_INT && length != BIT_LONG) {
+            return false;
+        }
+        /* A duplicate does not keep the byte order */
+        ByteBuffer view = fBuffer.duplicate().order(fByteOrder);
+        view.limit(view.capacity());
+        view.position((int) (fPosition / BIT_CHAR));
+        switch (length) {
+        case BIT_LONG:
+            view.asLongBuffer().get(dst, offset, count);
+            break;
+        case BIT_INT: {
+            IntBuffer ints = view.asIntBuffer();
+            for (int i = 0; i < count; i++) {
+                int value = ints.get(i);
+                dst[offset + i] = signed ? value : (value & INT_MASK);
+            }
+            break;
+        }
+        case BIT_SHORT: {
+            ShortBuffer shorts = view.asShortBuffer();
+            for (int i = 0; i < count; i++) {
+                short value = shorts.get(i);
+                dst[offset + i] = signed ? value : (value & SHORT_MASK);
+            }
+            break;
+        }
+        default: {
+            int start = view.position();
+            for (int i = 0; i < count; i++) {
+                byte value = view.get(start + i);
+                dst[offset + i] = signed ? value : (value & BYTE_MASK);
+            }
+            break;
+        }
+        }
+        return true;
+    }
+
     /**
      * Relative <i>get</i> method for reading integer of <i>length</i> bits.
      *
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2011, 2014 Ericsson, Ecole Polytechnique de Montreal and others
+ * Copyright (c) 2011, 2026 Ericsson, Ecole Polytechnique de Montreal and others
  *
  * All rights reserved. This program and the accompanying materials are made
  * available under the terms of the Eclipse Public License 2.0 which
@@ -27,6 +27,7 @@ import org.eclipse.tracecompass.ctf.core.event.io.BitBuffer;
 import org.eclipse.tracecompass.ctf.core.event.scope.IDefinitionScope;
 import org.eclipse.tracecompass.ctf.core.event.scope.ILexicalScope;
 import org.eclipse.tracecompass.internal.ctf.core.CtfCoreLoggerUtil;
+import org.eclipse.tracecompass.internal.ctf.core.event.types.CompiledStructDecoder;
 
 /**
  * A CTF structure declaration.
@@ -62,6 +63,10 @@ public class StructDeclaration extends Declaration {
     /** maximum bit alignment */
     private long fMaxAlign;
 
+    /** Decoder of the fields, if they have a fixed layout */
+    private volatile @Nullable CompiledStructDecoder fDecoder;
+    private volatile boolean fCompiled = false;
+
     // ------------------------------------------------------------------------
     // Constructors
     // ------------------------------------------------------------------------
@@ -218,9 +223,23 @@ public class StructDeclaration extends Declaration {
             fRoles.put(role, declaration);
         }
         fMaxAlign = Math.max(fMaxAlign, declaration.getAlignment());
+        fCompiled = false;
+    }
+
+    private @Nullable CompiledStructDecoder getDecoder() {
+        if (!fCompiled) {
+            fDecoder = CompiledStructDecoder.compile(fMaxAlign, fFieldNames, fFields);
+            fCompiled = true;
+        }
+        return fDecoder;
     }
 
     private void fillStruct(@NonNull BitBuffer input, final IDefinition[] myFields, StructDefinition structDefinition) throws CTFException {
+        CompiledStructDecoder decoder = getDecoder();
+        if (decoder != null) {
+            decoder.decode(input, myFields, structDefinition);
+            return;
+        }
         final @NonNull String[] fieldNames = fFieldNames;
         final @NonNull IDeclaration[] fields = fFields;
         for (int i = 0; i < fields.length; i++) {
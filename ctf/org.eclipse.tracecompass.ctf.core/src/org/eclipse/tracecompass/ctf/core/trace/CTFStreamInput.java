@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2011, 2014 Ericsson, Ecole Polytechnique de Montreal and others
+ * Copyright (c) 2011, 2026 Ericsson, Ecole Polytechnique de Montreal and others
  *
  * All rights reserved. This program and the accompanying materials are made
  * available under the terms of the Eclipse Public License 2.0 which
@@ -97,6 +97,11 @@ public class CTFStreamInput implements IDefinitionScope {
 
     private boolean fUUIDMismatchWarning = false;
 
+    /**
+     * Whether the index holds all the packets of the file
+     */
+    private volatile boolean fIndexComplete = false;
+
     // ------------------------------------------------------------------------
     // Constructors
     // ------------------------------------------------------------------------
@@ -168,6 +173,38 @@ public class CTFStreamInput implements IDefinitionScope {
         return fIndex;
     }
 
+    /**
+     * Whether the index holds all the packets of the file, once it was read
+     * to its end, restored from a packet index cache or read from an index
+     * file covering the whole file
+     *
+     * @return true if the index is complete
+     */
+    boolean isIndexComplete() {
+        return fIndexComplete;
+    }
+
+    /**
+     * Mark the index as complete, when it was restored from a packet index
+     * cache of the whole file
+     */
+    void restoreIndex() {
+        long lostSoFar = 0;
+        for (int i = 0; i < fIndex.size(); i++) {
+            lostSoFar += fIndex.getElement(i).getLostEvents();
+        }
+        fLostSoFar = lostSoFar;
+        fIndexComplete = true;
+    }
+
+    /**
+     * Mark the index as complete, when it was read from an index file whose
+     * packets cover the whole file
+     */
+    void indexFileComplete() {
+        fIndexComplete = true;
+    }
+
     /**
      * Gets the filename of the streamInput file.
      *
@@ -252,6 +289,10 @@ public class CTFStreamInput implements IDefinitionScope {
         if (currentPosBits < getStreamSizeBits()) {
             return fIndex.append(createPacketIndexEntry(currentPosBits));
         }
+        if (!fIndexComplete) {
+            fIndexComplete = true;
+            getStream().getTrace().packetIndexCompleted();
+        }
         return false;
     }
 
@@ -390,6 +431,27 @@ public class CTFStreamInput implements IDefinitionScope {
         return tracePacketHeaderDef;
     }
 
+    /**
+     * Read the packet context of a packet whose index entry does not have it,
+     * like the entries restored from a packet index cache
+     *
+     * @param packet
+     *            the packet descriptor
+     * @param packetBuffer
+     *            the buffer of the packet, from its start
+     * @throws CTFException
+     *             if the packet header or context could not be read
+     */
+    void readPacketContext(ICTFPacketDescriptor packet, ByteBuffer packetBuffer) throws CTFException {
+        if (packet.getStreamPacketContextDef() != null) {
+            return;
+        }
+        BitBuffer bitBuffer = new BitBuffer(packetBuffer.duplicate());
+        bitBuffer.setByteOrder(getStream().getTrace().getByteOrder());
+        parseTracePacketHeader(bitBuffer);
+        packet.setStreamPacketContextDef(fStreamPacketContextDecl.createDefinition(this, ILexicalScope.STREAM_PACKET_CONTEXT, bitBuffer));
+    }
+
     private ICTFPacketDescriptor parsePacketContext(long dataOffsetBits, long fileSizeBytes,
             BitBuffer bitBuffer) throws CTFException {
         ICTFPacketDescriptor packetIndex;
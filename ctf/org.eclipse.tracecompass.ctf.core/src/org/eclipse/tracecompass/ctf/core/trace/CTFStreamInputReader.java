@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2011, 2015 Ericsson, Ecole Polytechnique de Montreal and others
+ * Copyright (c) 2011, 2026 Ericsson, Ecole Polytechnique de Montreal and others
  *
  * All rights reserved. This program and the accompanying materials are made
  * available under the terms of the Eclipse Public License 2.0 which
@@ -27,12 +27,15 @@ import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.tracecompass.ctf.core.CTFException;
 import org.eclipse.tracecompass.ctf.core.event.IEventDeclaration;
 import org.eclipse.tracecompass.ctf.core.event.IEventDefinition;
+import org.eclipse.tracecompass.ctf.core.event.ProjectedEventRecord;
 import org.eclipse.tracecompass.ctf.core.event.io.BitBuffer;
 import org.eclipse.tracecompass.ctf.core.event.types.IDeclaration;
 import org.eclipse.tracecompass.ctf.core.event.types.StructDeclaration;
 import org.eclipse.tracecompass.internal.ctf.core.CtfCoreLoggerUtil;
 import org.eclipse.tracecompass.internal.ctf.core.SafeMappedByteBuffer;
+import org.eclipse.tracecompass.internal.ctf.core.event.ProjectedEventDecoders;
 import org.eclipse.tracecompass.internal.ctf.core.trace.CTFPacketReader;
+import org.eclipse.tracecompass.internal.ctf.core.trace.EventReadAhead;
 import org.eclipse.tracecompass.internal.ctf.core.trace.NullPacketReader;
 
 /**
@@ -83,6 +86,22 @@ public class CTFStreamInputReader implements AutoCloseable {
      */
     private boolean fLive = false;
 
+    /**
+     * Decoders of the projected events, for the last record read into
+     */
+    private @Nullable ProjectedEventDecoders fDecoders = null;
+
+    /**
+     * Whether the events are decoded ahead, on another thread
+     */
+    private boolean fReadAheadEnabled = false;
+
+    /**
+     * Events decoded ahead, the packet reader is then ahead of the current
+     * event
+     */
+    private @Nullable EventReadAhead fReadAhead = null;
+
     // ------------------------------------------------------------------------
     // Constructors
     // ------------------------------------------------------------------------
@@ -137,7 +156,10 @@ public class CTFStreamInputReader implements AutoCloseable {
             if (size < 0) {
                 throw new CTFIOException("Cannot have negative sized buffers."); //$NON-NLS-1$
             }
-            BitBuffer bitBuffer = new BitBuffer(getByteBufferAt(packet.getOffsetBits(), size));
+            ByteBuffer byteBuffer = getByteBufferAt(packet.getOffsetBits(), size);
+            /* Entries restored from an index do not have their context yet */
+            getStreamInput().readPacketContext(packet, byteBuffer);
+            BitBuffer bitBuffer = new BitBuffer(byteBuffer);
             bitBuffer.position(packet.getPayloadStartBits());
             IDeclaration eventHeaderDeclaration = getStreamInput().getStream().getEventHeaderDeclaration();
             CTFTrace trace = getStreamInput().getStream().getTrace();
@@ -176,6 +198,7 @@ public class CTFStreamInputReader implements AutoCloseable {
      */
     @Override
     public void close() throws IOException {
+        discardReadAhead();
         if (fFileChannel != null) {
             fFileChannel.close();
         }
@@ -223,6 +246,11 @@ public class CTFStreamInputReader implements AutoCloseable {
      * @return The CPU id (a number)
      */
     public int getCPU() {
+        IEventDefinition currentEvent = fCurrentEvent;
+        if (fReadAhead != null && currentEvent != null) {
+            /* The packet reader is ahead of the current event */
+            return currentEvent.getCPU();
+        }
         return fPacketReader.getCPU();
     }
 
@@ -271,6 +299,36 @@ public class CTFStreamInputReader implements AutoCloseable {
         return fLive;
     }
 
+    /**
+     * Set whether the events of this stream are decoded ahead, on a thread
+     * pool shared by all the streams, while the consumer reads the previous
+     * ones. This is meant for long sequential reads, where the streams of a
+     * trace can then be decoded in parallel. The events are not decoded
+     * ahead when the trace is read live.
+     *
+     * @param readAhead
+     *            whether the events are decoded ahead
+     * @since 5.3
+     */
+    public void setReadAhead(boolean readAhead) {
+        fReadAheadEnabled = readAhead;
+        EventReadAhead current = fReadAhead;
+        if (!readAhead && current != null) {
+            /* The events already decoded are still read */
+            current.stop();
+        }
+    }
+
+    /**
+     * Get whether the events of this stream are decoded ahead
+     *
+     * @return whether the events are decoded ahead
+     * @since 5.3
+     */
+    public boolean isReadAhead() {
+        return fReadAheadEnabled;
+    }
+
     /**
      * Get the event context of the stream
      *
@@ -291,26 +349,34 @@ public class CTFStreamInputReader implements AutoCloseable {
      *             if an error occurs
      */
     public CTFResponse readNextEvent() throws CTFException {
-
-        try {
-            /*
-             * Change packet if needed
-             */
-            while (!fPacketReader.hasMoreEvents()) {
-                final ICTFPacketDescriptor prevPacket = fPacketReader.getCurrentPacket();
-                if (prevPacket == null) {
-                    if (fLive) {
-                        goToNextPacket();
-                    }
-                    break;
-                }
-                goToNextPacket();
+        EventReadAhead readAhead = fReadAhead;
+        if (readAhead == null && fReadAheadEnabled && !fLive) {
+            readAhead = startReadAhead();
+        }
+        if (readAhead != null) {
+            IEventDefinition event;
+            try {
+                event = readAhead.next();
+            } catch (CTFException e) {
+                fReadAhead = null;
+                throw e;
             }
+            if (event != null) {
+                setCurrentEvent(event);
+                return CTFResponse.OK;
+            }
+            /* The stream ended, or the read ahead was stopped */
+            fReadAhead = null;
+        }
+        return readNextEventSync();
+    }
 
+    private CTFResponse readNextEventSync() throws CTFException {
+        try {
             /*
              * If an event is available, read it.
              */
-            if (fPacketReader.hasMoreEvents()) {
+            if (hasMoreEvents()) {
                 setCurrentEvent(fPacketReader.readNextEvent());
                 return CTFResponse.OK;
             }
@@ -321,6 +387,113 @@ public class CTFStreamInputReader implements AutoCloseable {
         }
     }
 
+    /**
+     * Reads the next event in a record, decoding only the fields of the
+     * record, without creating the definitions of the event when its layout
+     * allows it. The current event is set to null, since it is not read.
+     *
+     * @param record
+     *            The record to read into, reused from one event to the next
+     * @return If an event has been successfully read.
+     * @throws CTFException
+     *             if an error occurs
+     * @since 5.3
+     */
+    public CTFResponse readNextEvent(ProjectedEventRecord record) throws CTFException {
+        EventReadAhead readAhead = fReadAhead;
+        if (readAhead != null) {
+            /* Read the events already decoded before decoding the fields */
+            readAhead.stop();
+            IEventDefinition event;
+            try {
+                event = readAhead.next();
+            } catch (CTFException e) {
+                fReadAhead = null;
+                throw e;
+            }
+            if (event != null) {
+                setCurrentEvent(null);
+                ProjectedEventDecoders.fill(record, event);
+                return CTFResponse.OK;
+            }
+            fReadAhead = null;
+        }
+        try {
+            setCurrentEvent(null);
+            if (!hasMoreEvents()) {
+                return fLive ? CTFResponse.WAIT : CTFResponse.FINISH;
+            }
+            IPacketReader packetReader = fPacketReader;
+            if (packetReader instanceof CTFPacketReader) {
+                ((CTFPacketReader) packetReader).readNextEvent(getDecoders(record));
+            } else {
+                ProjectedEventDecoders.fill(record, packetReader.readNextEvent());
+            }
+            return CTFResponse.OK;
+        } catch (CTFException e) {
+            throw new CTFException("Trace read error " + fStreamInput.getFilename(), e); //$NON-NLS-1$
+        }
+    }
+
+    private ProjectedEventDecoders getDecoders(ProjectedEventRecord record) {
+        ProjectedEventDecoders decoders = fDecoders;
+        if (decoders == null || decoders.getRecord() != record) {
+            ICTFStream stream = getStreamInput().getStream();
+            decoders = new ProjectedEventDecoders(record, getEventDeclarations(), stream.getEventHeaderDeclaration(), getStreamEventContextDecl(), stream.getTrace().isCTF2());
+            fDecoders = decoders;
+        }
+        return decoders;
+    }
+
+    private EventReadAhead startReadAhead() {
+        EventReadAhead readAhead = new EventReadAhead(this::readAheadEvent);
+        fReadAhead = readAhead;
+        return readAhead;
+    }
+
+    /**
+     * Read the next event on the thread of the read ahead, the only one to
+     * access the packet reader while the read ahead runs
+     */
+    private @Nullable IEventDefinition readAheadEvent() throws CTFException {
+        try {
+            return hasMoreEvents() ? fPacketReader.readNextEvent() : null;
+        } catch (CTFException e) {
+            throw new CTFException("Trace read error " + fStreamInput.getFilename(), e); //$NON-NLS-1$
+        }
+    }
+
+    /**
+     * Stop the read ahead and drop the events it decoded, before moving the
+     * packet reader
+     */
+    private void discardReadAhead() {
+        EventReadAhead readAhead = fReadAhead;
+        if (readAhead != null) {
+            readAhead.stop();
+            fReadAhead = null;
+        }
+    }
+
+    /**
+     * Change packet if needed
+     *
+     * @return whether the packet reader has more events
+     */
+    private boolean hasMoreEvents() throws CTFException {
+        while (!fPacketReader.hasMoreEvents()) {
+            final ICTFPacketDescriptor prevPacket = fPacketReader.getCurrentPacket();
+            if (prevPacket == null) {
+                if (fLive) {
+                    goToNextPacket();
+                }
+                break;
+            }
+            goToNextPacket();
+        }
+        return fPacketReader.hasMoreEvents();
+    }
+
     /**
      * Change the current packet of the packet reader to the next one.
      *
@@ -362,6 +535,16 @@ public class CTFStreamInputReader implements AutoCloseable {
      *             if an error occurs
      */
     public long seek(long timestamp) throws CTFException {
+        discardReadAhead();
+        long offset = seekSync(timestamp);
+        if (fReadAheadEnabled && !fLive && fCurrentEvent != null) {
+            /* Start decoding the next events of all the streams now */
+            startReadAhead();
+        }
+        return offset;
+    }
+
+    private long seekSync(long timestamp) throws CTFException {
         long offset = 0;
 
         gotoPacket(timestamp);
@@ -392,10 +575,10 @@ public class CTFStreamInputReader implements AutoCloseable {
          * - found the first event with a timestamp greater or equal the given
          * timestamp.
          */
-        readNextEvent();
+        readNextEventSync();
         IEventDefinition currentEvent = getCurrentEvent();
         while (currentEvent != null && (currentEvent.getTimestamp() < timestamp)) {
-            readNextEvent();
+            readNextEventSync();
             currentEvent = getCurrentEvent();
             offset++;
         }
@@ -423,11 +606,12 @@ public class CTFStreamInputReader implements AutoCloseable {
      *             if an error occurs
      */
     public void goToLastEvent() throws CTFException {
+        discardReadAhead();
 
         /*
          * Go to the beginning of the trace
          */
-        seek(0);
+        seekSync(0);
 
         /*
          * Check that there is at least one event
@@ -471,7 +655,7 @@ public class CTFStreamInputReader implements AutoCloseable {
         IEventDefinition prevEvent = null;
         while (fCurrentEvent != null) {
             prevEvent = fCurrentEvent;
-            readNextEvent();
+            readNextEventSync();
         }
         /*
          * Go back to the previous event
@@ -506,7 +690,8 @@ public class CTFStreamInputReader implements AutoCloseable {
     }
 
     /**
-     * Get the current packet reader
+     * Get the current packet reader. When the events are decoded ahead, it can
+     * be past the current event.
      *
      * @return the packetReader
      * @since 2.0
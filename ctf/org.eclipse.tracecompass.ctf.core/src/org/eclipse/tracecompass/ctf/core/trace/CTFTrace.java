@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2011, 2024 Ericsson, Ecole Polytechnique de Montreal and others
+ * Copyright (c) 2011, 2026 Ericsson, Ecole Polytechnique de Montreal and others
  *
  * All rights reserved. This program and the accompanying materials are made
  * available under the terms of the Eclipse Public License 2.0 which
@@ -58,6 +58,7 @@ import org.eclipse.tracecompass.internal.ctf.core.SafeMappedByteBuffer;
 import org.eclipse.tracecompass.internal.ctf.core.event.metadata.MetadataStrings;
 import org.eclipse.tracecompass.internal.ctf.core.event.metadata.ParseException;
 import org.eclipse.tracecompass.internal.ctf.core.trace.CTFIndexFile;
+import org.eclipse.tracecompass.internal.ctf.core.trace.CTFPacketIndexCache;
 import org.eclipse.tracecompass.internal.ctf.core.trace.CTFStream;
 import org.eclipse.tracecompass.internal.ctf.core.trace.StreamInputPacketIndex;
 import org.eclipse.tracecompass.internal.ctf.core.utils.JsonMetadataStrings;
@@ -170,6 +171,23 @@ public class CTFTrace implements IDefinitionScope {
 
     private boolean fUUIDMismatchWarning = false;
 
+    /**
+     * The packet index cache file of this trace, or null if not cached
+     */
+    private @Nullable File fPacketIndexCacheFile = null;
+
+    /**
+     * The packet index cache read when opening the trace, only kept while
+     * the stream files are opened
+     */
+    private @Nullable CTFPacketIndexCache fPacketIndexCache = null;
+
+    /**
+     * Whether a stream file was indexed from its packet headers, so the cache
+     * must be written once all the indexes are complete
+     */
+    private volatile boolean fPacketIndexCacheDirty = false;
+
     // ------------------------------------------------------------------------
     // Constructors
     // ------------------------------------------------------------------------
@@ -195,7 +213,32 @@ public class CTFTrace implements IDefinitionScope {
      *             If no CTF trace was found at the path
      */
     public CTFTrace(File path) throws CTFException {
+        this(path, null);
+    }
+
+    /**
+     * Trace constructor, caching the packet index of the stream files.
+     *
+     * The packet index of every stream file is read from a cache file in the
+     * given directory if the stream file did not change since the cache was
+     * written. Otherwise the stream file is indexed by reading its packet
+     * headers, and the cache file is written once all the stream files are
+     * indexed.
+     *
+     * @param path
+     *            Filesystem path of the trace directory.
+     * @param packetIndexCacheDir
+     *            Directory of the packet index cache file of this trace, or
+     *            null to not cache the packet index
+     * @throws CTFException
+     *             If no CTF trace was found at the path
+     * @since 5.3
+     */
+    public CTFTrace(File path, @Nullable File packetIndexCacheDir) throws CTFException {
         fPath = path;
+        if (packetIndexCacheDir != null) {
+            fPacketIndexCacheFile = new File(packetIndexCacheDir, CTFPacketIndexCache.FILE_NAME);
+        }
         final Metadata metadata = new Metadata(this);
         metadata.checkCTFVersion();
 
@@ -235,9 +278,18 @@ public class CTFTrace implements IDefinitionScope {
         }
         Arrays.sort(files, METADATA_COMPARATOR);
 
+        File packetIndexCacheFile = fPacketIndexCacheFile;
+        if (packetIndexCacheFile != null) {
+            fPacketIndexCache = CTFPacketIndexCache.read(packetIndexCacheFile);
+        }
+
         /* Try to open each file */
-        for (File streamFile : files) {
-            openStreamInput(streamFile);
+        try {
+            for (File streamFile : files) {
+                openStreamInput(streamFile);
+            }
+        } finally {
+            fPacketIndexCache = null;
         }
 
         /* Create their index */
@@ -558,6 +610,13 @@ public class CTFTrace implements IDefinitionScope {
         /* Create the index from the index files in the CTF trace. */
         CTFStreamInput ctfStreamInput;
         StreamInputPacketIndex index = createIndex(streamFile, stream);
+        boolean fromIndexFile = (index != null);
+        boolean cached = false;
+        CTFPacketIndexCache packetIndexCache = fPacketIndexCache;
+        if (index == null && packetIndexCache != null) {
+            index = packetIndexCache.getIndex(streamFile);
+            cached = (index != null);
+        }
         if (index != null) {
             ctfStreamInput = new CTFStreamInput(ctfStream, streamFile, index);
             if (!index.isEmpty()) {
@@ -565,6 +624,12 @@ public class CTFTrace implements IDefinitionScope {
             }
         } else {
             ctfStreamInput = new CTFStreamInput(ctfStream, streamFile);
+            fPacketIndexCacheDirty = true;
+        }
+        if (cached) {
+            ctfStreamInput.restoreIndex();
+        } else if (fromIndexFile && isWholeFileIndexed(ctfStreamInput.getIndex(), streamFile)) {
+            ctfStreamInput.indexFileComplete();
         }
         /*
          * Create the stream input and add a reference to the streamInput in the
@@ -597,6 +662,46 @@ public class CTFTrace implements IDefinitionScope {
         }
     }
 
+    /**
+     * Called when the index of a stream file holds all its packets, writes
+     * the packet index cache once the indexes of all the stream files are
+     * complete
+     */
+    synchronized void packetIndexCompleted() {
+        File packetIndexCacheFile = fPacketIndexCacheFile;
+        if (packetIndexCacheFile == null || !fPacketIndexCacheDirty) {
+            return;
+        }
+        Map<File, StreamInputPacketIndex> indexes = new LinkedHashMap<>();
+        for (ICTFStream stream : getStreams()) {
+            for (CTFStreamInput streamInput : stream.getStreamInputs()) {
+                if (!streamInput.isIndexComplete()) {
+                    return;
+                }
+                indexes.put(streamInput.getFile(), streamInput.getIndex());
+            }
+        }
+        fPacketIndexCacheDirty = false;
+        try {
+            CTFPacketIndexCache.write(packetIndexCacheFile, indexes);
+        } catch (IOException e) {
+            CtfCoreLoggerUtil.logWarning("Unable to write CTF packet index cache: " + e.getMessage()); //$NON-NLS-1$
+        }
+    }
+
+    /*
+     * Whether the packets of an index read from an index file go up to the end
+     * of the stream file. Otherwise, the next packets are read from the stream
+     * file when they are needed.
+     */
+    private static boolean isWholeFileIndexed(StreamInputPacketIndex index, File streamFile) {
+        if (index.isEmpty()) {
+            return streamFile.length() == 0;
+        }
+        ICTFPacketDescriptor last = index.lastElement();
+        return last != null && last.getOffsetBits() + last.getPacketSizeBits() >= streamFile.length() * Byte.SIZE;
+    }
+
     private StreamInputPacketIndex createIndex(File streamFile, ICTFStream stream) throws CTFException {
         try (FileChannel fc = FileChannel.open(streamFile.toPath(), StandardOpenOption.READ)) {
             File indexFile = new File(streamFile.getParentFile(), INDEX_FILE_DIR + File.separator + streamFile.getName() + INDEX_EXTENSION);
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2011, 2014 Ericsson, Ecole Polytechnique de Montreal and others
+ * Copyright (c) 2011, 2026 Ericsson, Ecole Polytechnique de Montreal and others
  *
  * All rights reserved. This program and the accompanying materials are made
  * available under the terms of the Eclipse Public License 2.0 which
@@ -26,6 +26,7 @@ import java.util.Objects;
 import java.util.PriorityQueue;
 import java.util.Set;
 
+import org.eclipse.tracecompass.common.core.collect.LongLoserTree;
 import org.eclipse.tracecompass.ctf.core.CTFException;
 import org.eclipse.tracecompass.ctf.core.event.IEventDeclaration;
 import org.eclipse.tracecompass.ctf.core.event.IEventDefinition;
@@ -60,9 +61,15 @@ public class CTFTraceReader implements AutoCloseable {
     private final List<CTFStreamInputReader> fStreamInputReaders = Collections.synchronizedList(new ArrayList<CTFStreamInputReader>());
 
     /**
-     * Priority queue to order the trace file readers by timestamp.
+     * Tournament tree to order the trace file readers by timestamp, the slot of
+     * a reader is its index in {@link #fStreamInputReaders}
      */
-    private PriorityQueue<CTFStreamInputReader> fPrio;
+    private LongLoserTree fMerge = new LongLoserTree(0);
+
+    /**
+     * The readers by slot in {@link #fMerge}
+     */
+    private CTFStreamInputReader[] fMergedReaders = new CTFStreamInputReader[0];
 
     /**
      * Array to count the number of event per trace file.
@@ -84,6 +91,11 @@ public class CTFTraceReader implements AutoCloseable {
      */
     private boolean fClosed = false;
 
+    /**
+     * Whether the events of the streams are decoded ahead
+     */
+    private boolean fReadAhead = false;
+
     // ------------------------------------------------------------------------
     // Constructors
     // ------------------------------------------------------------------------
@@ -154,7 +166,8 @@ public class CTFTraceReader implements AutoCloseable {
             }
             fStreamInputReaders.clear();
         }
-        fPrio.clear();
+        fMerge = new LongLoserTree(0);
+        fMergedReaders = new CTFStreamInputReader[0];
         fClosed = true;
     }
 
@@ -185,10 +198,51 @@ public class CTFTraceReader implements AutoCloseable {
     /**
      * Get the priority queue of this trace reader.
      *
-     * @return The priority queue of input readers
+     * @return A copy of the priority queue of input readers
+     * @deprecated The readers are no longer ordered in a priority queue, use
+     *             {@link #getTopStream()} to get the reader with the oldest
+     *             event
      */
+    @Deprecated
     protected PriorityQueue<CTFStreamInputReader> getPrio() {
-        return fPrio;
+        PriorityQueue<CTFStreamInputReader> prio = new PriorityQueue<>(MIN_PRIO_SIZE,
+                new StreamInputReaderTimestampComparator()
+                .thenComparing(reader-> reader.getStreamInput().getFilename()));
+        prio.addAll(getActiveReaders());
+        return prio;
+    }
+
+    /**
+     * Get the readers that are being merged
+     */
+    private List<CTFStreamInputReader> getActiveReaders() {
+        List<CTFStreamInputReader> readers = new ArrayList<>();
+        for (int slot = 0; slot < fMerge.getCapacity(); slot++) {
+            if (fMerge.contains(slot)) {
+                readers.add(fMergedReaders[slot]);
+            }
+        }
+        return readers;
+    }
+
+    /**
+     * The key of a reader in the tree, the timestamps are compared as
+     * unsigned values
+     */
+    private static long getKey(CTFStreamInputReader reader) {
+        IEventDefinition currentEvent = reader.getCurrentEvent();
+        return (currentEvent == null ? 0 : currentEvent.getTimestamp()) ^ Long.MIN_VALUE;
+    }
+
+    /**
+     * Create the tree for the current readers, equal timestamps are ordered by
+     * file name
+     */
+    private static LongLoserTree createMerge(CTFStreamInputReader[] readers) {
+        return new LongLoserTree(readers.length, (a, b) -> {
+            int cmp = readers[a].getStreamInput().getFilename().compareTo(readers[b].getStreamInput().getFilename());
+            return cmp != 0 ? cmp : Integer.compare(a, b);
+        });
     }
 
     // ------------------------------------------------------------------------
@@ -254,6 +308,7 @@ public class CTFTraceReader implements AutoCloseable {
                 try (CTFStreamInputReader streamInputReader = new CTFStreamInputReader(requireNonNull(streamInput))) {
                     if (!fStreamInputReaders.contains(streamInputReader)) {
                         CTFStreamInputReader streamInputReaderToAdd = new CTFStreamInputReader(requireNonNull(streamInput));
+                        streamInputReaderToAdd.setReadAhead(fReadAhead);
                         streamInputReaderToAdd.readNextEvent();
                         fStreamInputReaders.add(streamInputReaderToAdd);
                         readers.add(streamInputReaderToAdd);
@@ -265,8 +320,17 @@ public class CTFTraceReader implements AutoCloseable {
         }
         long[] temp = fEventCountPerTraceFile;
         fEventCountPerTraceFile = new long[readers.size() + temp.length];
-        for (CTFStreamInputReader reader : readers) {
-            fPrio.add(reader);
+        if (!readers.isEmpty()) {
+            CTFStreamInputReader[] mergedReaders = fStreamInputReaders.toArray(new CTFStreamInputReader[0]);
+            LongLoserTree merge = createMerge(mergedReaders);
+            for (int slot = 0; slot < mergedReaders.length; slot++) {
+                CTFStreamInputReader reader = mergedReaders[slot];
+                if ((slot < fMerge.getCapacity() && fMerge.contains(slot)) || (readers.contains(reader) && reader.getCurrentEvent() != null)) {
+                    merge.set(slot, getKey(reader));
+                }
+            }
+            fMerge = merge;
+            fMergedReaders = mergedReaders;
         }
         System.arraycopy(temp, 0, fEventCountPerTraceFile, 0, temp.length);
     }
@@ -293,32 +357,20 @@ public class CTFTraceReader implements AutoCloseable {
      *             if an error occurs
      */
     private void populateStreamInputReaderHeap() throws CTFException {
-        if (fStreamInputReaders.isEmpty()) {
-            fPrio = new PriorityQueue<>(MIN_PRIO_SIZE,
-                    new StreamInputReaderTimestampComparator()
-                    .thenComparing(reader-> reader.getStreamInput().getFilename()));
-            return;
-        }
-
-        /*
-         * Create the priority queue with a size twice as bigger as the number of reader
-         * in order to avoid constant resizing.
-         */
-        fPrio = new PriorityQueue<>(
-                Math.max(fStreamInputReaders.size() * 2, MIN_PRIO_SIZE),
-                new StreamInputReaderTimestampComparator()
-                .thenComparing(reader-> reader.getStreamInput().getFilename()));
+        fMergedReaders = fStreamInputReaders.toArray(new CTFStreamInputReader[0]);
+        fMerge = createMerge(fMergedReaders);
 
         int pos = 0;
 
-        for (CTFStreamInputReader reader : fStreamInputReaders) {
+        for (int slot = 0; slot < fMergedReaders.length; slot++) {
+            CTFStreamInputReader reader = fMergedReaders[slot];
             /*
-             * Add each trace file reader in the priority queue, if we are able to read an
+             * Add each trace file reader in the tree, if we are able to read an
              * event from it.
              */
             CTFResponse readNextEvent = reader.readNextEvent();
             if (readNextEvent == CTFResponse.OK || readNextEvent == CTFResponse.WAIT) {
-                fPrio.add(reader);
+                fMerge.set(slot, getKey(reader));
 
                 fEventCountPerTraceFile[pos] = 0;
                 reader.setName(pos);
@@ -350,25 +402,27 @@ public class CTFTraceReader implements AutoCloseable {
      */
     public boolean advance() throws CTFException {
         /*
-         * Remove the reader from the top of the priority queue.
+         * Get the reader at the top of the tree.
          */
-        CTFStreamInputReader top = fPrio.poll();
+        int slot = fMerge.peek();
 
         /*
-         * If the queue was empty.
+         * If the tree was empty.
          */
-        if (top == null) {
+        if (slot < 0) {
             return false;
         }
+        CTFStreamInputReader top = fMergedReaders[slot];
         /*
          * Read the next event of this reader.
          */
         switch (top.readNextEvent()) {
         case OK: {
             /*
-             * Add it back in the queue.
+             * Update its place in the tree, this does not compare it with the
+             * other readers while it stays before all of them.
              */
-            fPrio.add(top);
+            fMerge.replaceTop(getKey(top));
             /*
              * We're in OK, there's a guaranteed top#getCurrentEvent() unless another thread
              * does something bad.
@@ -380,14 +434,16 @@ public class CTFTraceReader implements AutoCloseable {
             break;
         }
         case WAIT: {
-            fPrio.add(top);
+            /* Keep its place until it has an event */
             break;
         }
         case FINISH:
+            fMerge.removeTop();
             break;
         case ERROR:
         default:
             // something bad happend
+            fMerge.removeTop();
         }
         /*
          * If there is no reader in the queue, it means the trace reader reached the end
@@ -404,7 +460,7 @@ public class CTFTraceReader implements AutoCloseable {
      */
     public void goToLastEvent() throws CTFException {
         long endTime = Long.MIN_VALUE;
-        for (CTFStreamInputReader sir : fPrio) {
+        for (CTFStreamInputReader sir : getActiveReaders()) {
             sir.goToLastEvent();
             IEventDefinition currentEvent = sir.getCurrentEvent();
             if (currentEvent != null) {
@@ -435,20 +491,21 @@ public class CTFTraceReader implements AutoCloseable {
      */
     public boolean seek(long timestamp) throws CTFException {
         /*
-         * Remove all the trace readers from the priority queue
+         * Remove all the trace readers from the tree
          */
-        fPrio.clear();
-        for (CTFStreamInputReader streamInputReader : fStreamInputReaders) {
+        fMerge.clear();
+        for (int slot = 0; slot < fMerge.getCapacity(); slot++) {
+            CTFStreamInputReader streamInputReader = fMergedReaders[slot];
             /*
              * Seek the trace reader.
              */
             streamInputReader.seek(timestamp);
 
             /*
-             * Add it to the priority queue if there is a current event.
+             * Add it to the tree if there is a current event.
              */
             if (streamInputReader.getCurrentEvent() != null) {
-                fPrio.add(streamInputReader);
+                fMerge.set(slot, getKey(streamInputReader));
             }
         }
         return hasMoreEvents();
@@ -460,7 +517,8 @@ public class CTFTraceReader implements AutoCloseable {
      * @return the stream with the oldest event
      */
     public CTFStreamInputReader getTopStream() {
-        return fPrio.peek();
+        int slot = fMerge.peek();
+        return slot < 0 ? null : fMergedReaders[slot];
     }
 
     /**
@@ -469,7 +527,7 @@ public class CTFTraceReader implements AutoCloseable {
      * @return true if yes.
      */
     public final boolean hasMoreEvents() {
-        return !fPrio.isEmpty();
+        return !fMerge.isEmpty();
     }
 
     /**
@@ -537,7 +595,7 @@ public class CTFTraceReader implements AutoCloseable {
      *            whether the trace is live
      */
     public void setLive(boolean live) {
-        for (CTFStreamInputReader s : fPrio) {
+        for (CTFStreamInputReader s : getActiveReaders()) {
             s.setLive(live);
         }
     }
@@ -551,6 +609,35 @@ public class CTFTraceReader implements AutoCloseable {
         return getTopStream().isLive();
     }
 
+    /**
+     * Sets whether the events of each stream are decoded ahead, in parallel
+     * with the other streams, while this reader merges them on the calling
+     * thread. Meant for long sequential reads, as each stream then holds a
+     * few hundred decoded events.
+     *
+     * @param readAhead
+     *            whether the events are decoded ahead
+     * @since 5.3
+     */
+    public void setReadAhead(boolean readAhead) {
+        fReadAhead = readAhead;
+        synchronized (fStreamInputReaders) {
+            for (CTFStreamInputReader reader : fStreamInputReaders) {
+                reader.setReadAhead(readAhead);
+            }
+        }
+    }
+
+    /**
+     * Get whether the events of the streams are decoded ahead
+     *
+     * @return whether the events are decoded ahead
+     * @since 5.3
+     */
+    public boolean isReadAhead() {
+        return fReadAhead;
+    }
+
     @Override
     public int hashCode() {
         final int prime = 31;
@@ -612,7 +699,7 @@ public class CTFTraceReader implements AutoCloseable {
      * @since 1.0
      */
     public void populateIndex() throws CTFException {
-        for (CTFStreamInputReader sir : fPrio) {
+        for (CTFStreamInputReader sir : getActiveReaders()) {
             sir.goToLastEvent();
         }
         seek(0);
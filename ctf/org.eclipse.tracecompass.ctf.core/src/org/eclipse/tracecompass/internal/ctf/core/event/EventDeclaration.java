@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2011, 2014 Ericsson, Ecole Polytechnique de Montreal and others
+ * Copyright (c) 2011, 2026 Ericsson, Ecole Polytechnique de Montreal and others
  *
  * All rights reserved. This program and the accompanying materials are made
  * available under the terms of the Eclipse Public License 2.0 which
@@ -413,7 +413,19 @@ public class EventDeclaration implements IEventDeclaration {
         return calculateTimestamp(value, len, lastTimestamp);
     }
 
-    private static long calculateTimestamp(final long value, int len, long prevTimestamp) {
+    /**
+     * Calculates the timestamp value of an event from the possibly truncated
+     * value read in its header and the timestamp of the previous event.
+     *
+     * @param value
+     *            The value read
+     * @param len
+     *            The length in bits of the value
+     * @param prevTimestamp
+     *            The timestamp of the previous event
+     * @return The calculated timestamp value.
+     */
+    public static long calculateTimestamp(final long value, int len, long prevTimestamp) {
         long newval;
         long majorasbitmask;
         long lastTimestamp = prevTimestamp;
@@ -0,0 +1,436 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson and others
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.internal.ctf.core.event;
+
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.ctf.core.CTFException;
+import org.eclipse.tracecompass.ctf.core.CTFStrings;
+import org.eclipse.tracecompass.ctf.core.event.IEventDeclaration;
+import org.eclipse.tracecompass.ctf.core.event.IEventDefinition;
+import org.eclipse.tracecompass.ctf.core.event.ProjectedEventRecord;
+import org.eclipse.tracecompass.ctf.core.event.io.BitBuffer;
+import org.eclipse.tracecompass.ctf.core.event.types.EnumDeclaration;
+import org.eclipse.tracecompass.ctf.core.event.types.EnumDefinition;
+import org.eclipse.tracecompass.ctf.core.event.types.FloatDeclaration;
+import org.eclipse.tracecompass.ctf.core.event.types.ICompositeDefinition;
+import org.eclipse.tracecompass.ctf.core.event.types.IDeclaration;
+import org.eclipse.tracecompass.ctf.core.event.types.IDefinition;
+import org.eclipse.tracecompass.ctf.core.event.types.IntegerDeclaration;
+import org.eclipse.tracecompass.ctf.core.event.types.IntegerDefinition;
+import org.eclipse.tracecompass.ctf.core.event.types.StructDeclaration;
+import org.eclipse.tracecompass.internal.ctf.core.event.types.ArrayDeclaration;
+import org.eclipse.tracecompass.internal.ctf.core.event.types.composite.EventHeaderCompactDeclaration;
+import org.eclipse.tracecompass.internal.ctf.core.event.types.composite.EventHeaderLargeDeclaration;
+import org.eclipse.tracecompass.internal.ctf.core.utils.JsonMetadataStrings;
+
+/**
+ * Decoders of the events of a stream into a {@link ProjectedEventRecord}.
+ *
+ * The events whose header, stream event context, event context and payload
+ * all have a fixed size are read by a list of steps compiled once per event
+ * declaration. Each step aligns the buffer, then either skips some bits or
+ * reads an integer field of the record, so no definition is created. The
+ * steps skipping consecutive fields are merged when the alignment allows it.
+ *
+ * The other events, with strings, sequences or variants, cannot be read by
+ * steps: the reader creates their definitions and copies the fields with
+ * {@link #fill(ProjectedEventRecord, IEventDefinition)}.
+ */
+@NonNullByDefault
+public final class ProjectedEventDecoders {
+
+    private static final int ID = 0;
+    private static final int TIMESTAMP = 1;
+    private static final int TIMESTAMP_LENGTH = 2;
+    private static final String ID_FIELD = "id"; //$NON-NLS-1$
+    /* Arrays of other element types longer than this are not unrolled */
+    private static final int MAX_UNROLLED_ELEMENTS = 64;
+
+    private final ProjectedEventRecord fRecord;
+    private final List<@Nullable IEventDeclaration> fDeclarations;
+    private final @Nullable IDeclaration fEventHeaderDecl;
+    private final @Nullable StructDeclaration fStreamContextDecl;
+    private final @Nullable Steps fHeaderSteps;
+    private final int fHeaderTimestampLength;
+    private final @Nullable Steps[] fSteps;
+    private final boolean[] fCompiled;
+    private final long[] fHeader = new long[3];
+
+    /**
+     * Steps reading a fixed size part of an event
+     */
+    private static final class Steps {
+        private final long[] fAlignments;
+        private final long[] fLengths;
+        private final int[] fSlots;
+        private final boolean[] fSigned;
+        private final ByteOrder[] fByteOrders;
+
+        private Steps(StepsBuilder builder) {
+            int size = builder.fAlignments.size();
+            fAlignments = new long[size];
+            fLengths = new long[size];
+            fSlots = new int[size];
+            fSigned = new boolean[size];
+            fByteOrders = new ByteOrder[size];
+            for (int i = 0; i < size; i++) {
+                fAlignments[i] = builder.fAlignments.get(i);
+                fLengths[i] = builder.fLengths.get(i);
+                fSlots[i] = builder.fSlots.get(i);
+                fSigned[i] = builder.fSigned.get(i);
+                fByteOrders[i] = builder.fByteOrders.get(i);
+            }
+        }
+
+        /**
+         * Run the steps, the values are set in the record if there is one, or
+         * else in the header array
+         */
+        public void run(BitBuffer input, @Nullable ProjectedEventRecord record, long[] header) throws CTFException {
+            ByteOrder byteOrder = input.getByteOrder();
+            try {
+                for (int i = 0; i < fSlots.length; i++) {
+                    long mask = fAlignments[i] - 1;
+                    long pos = (input.position() + mask) & ~mask;
+                    int slot = fSlots[i];
+                    if (slot < 0) {
+                        input.position(pos + fLengths[i]);
+                        continue;
+                    }
+                    input.position(pos);
+                    input.setByteOrder(fByteOrders[i]);
+                    long value = input.get((int) fLengths[i], fSigned[i]);
+                    if (record != null) {
+                        record.setValue(slot, value);
+                    } else {
+                        header[slot] = value;
+                    }
+                }
+            } finally {
+                input.setByteOrder(byteOrder);
+            }
+        }
+    }
+
+    /**
+     * Builder of the steps, returning false when a declaration does not have a
+     * fixed size
+     */
+    private static final class StepsBuilder {
+        private final List<Long> fAlignments = new ArrayList<>();
+        private final List<Long> fLengths = new ArrayList<>();
+        private final List<Integer> fSlots = new ArrayList<>();
+        private final List<Boolean> fSigned = new ArrayList<>();
+        private final List<ByteOrder> fByteOrders = new ArrayList<>();
+
+        private void add(long alignment, long length, int slot, boolean signed, ByteOrder byteOrder) {
+            long align = Math.max(1, alignment);
+            int last = fSlots.size() - 1;
+            if (slot < 0 && last >= 0 && fSlots.get(last) < 0) {
+                /*
+                 * The end of the previous skip is already aligned if the
+                 * alignment divides both its alignment and its length
+                 */
+                long lastLength = fLengths.get(last);
+                if (align <= fAlignments.get(last) && lastLength % align == 0) {
+                    fLengths.set(last, lastLength + length);
+                    return;
+                }
+            }
+            fAlignments.add(align);
+            fLengths.add(length);
+            fSlots.add(slot);
+            fSigned.add(signed);
+            fByteOrders.add(byteOrder);
+        }
+
+        private void skip(long alignment, long length) {
+            add(alignment, length, -1, false, ByteOrder.BIG_ENDIAN);
+        }
+
+        public boolean addStruct(StructDeclaration struct, int[] slots) {
+            skip(struct.getAlignment(), 0);
+            int i = 0;
+            for (String name : struct.getFieldsList()) {
+                IDeclaration field = struct.getField(name);
+                if (field == null || !addField(field, slots.length == 0 ? -1 : slots[i])) {
+                    return false;
+                }
+                i++;
+            }
+            return true;
+        }
+
+        private boolean addField(IDeclaration declaration, int slot) {
+            if (declaration instanceof EnumDeclaration) {
+                EnumDeclaration enumDeclaration = (EnumDeclaration) declaration;
+                skip(enumDeclaration.getAlignment(), 0);
+                return addField(enumDeclaration.getContainerType(), slot);
+            }
+            if (declaration instanceof IntegerDeclaration) {
+                IntegerDeclaration integer = (IntegerDeclaration) declaration;
+                if (integer.isVarint() || integer.getLength() > Long.SIZE) {
+                    return false;
+                }
+                if (slot < 0) {
+                    skip(integer.getAlignment(), integer.getLength());
+                } else {
+                    add(integer.getAlignment(), integer.getLength(), slot, integer.isSigned(), integer.getByteOrder());
+                }
+                return true;
+            }
+            if (declaration instanceof FloatDeclaration) {
+                FloatDeclaration floatDeclaration = (FloatDeclaration) declaration;
+                int length = floatDeclaration.getExponent() + floatDeclaration.getMantissa();
+                if (length != Integer.SIZE && length != Long.SIZE) {
+                    return false;
+                }
+                skip(floatDeclaration.getAlignment(), length);
+                return true;
+            }
+            if (declaration instanceof ArrayDeclaration) {
+                return addArray((ArrayDeclaration) declaration);
+            }
+            if (declaration instanceof StructDeclaration) {
+                return addStruct((StructDeclaration) declaration, new int[0]);
+            }
+            return false;
+        }
+
+        private boolean addArray(ArrayDeclaration array) {
+            IDeclaration element = array.getElementType();
+            if (array.isAlignedBytes()) {
+                skip(array.getAlignment(), (long) array.getLength() * Byte.SIZE);
+                return true;
+            }
+            if (element instanceof IntegerDeclaration) {
+                IntegerDeclaration integer = (IntegerDeclaration) element;
+                if (!integer.isVarint() && integer.getLength() % Math.max(1, integer.getAlignment()) == 0) {
+                    /* Every element ends aligned for the next one */
+                    skip(integer.getAlignment(), (long) array.getLength() * integer.getLength());
+                    return true;
+                }
+            }
+            if (array.getLength() > MAX_UNROLLED_ELEMENTS) {
+                return false;
+            }
+            for (int i = 0; i < array.getLength(); i++) {
+                if (!addField(element, -1)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Constructor
+     *
+     * @param record
+     *            the record the events are read into
+     * @param declarations
+     *            the event declarations of the stream, by id
+     * @param eventHeaderDecl
+     *            the event header declaration of the stream
+     * @param streamContextDecl
+     *            the event context declaration of the stream
+     * @param isCTF2
+     *            whether the trace is a CTF 2 trace, where the timestamp is
+     *            found by its role
+     */
+    public ProjectedEventDecoders(ProjectedEventRecord record, List<@Nullable IEventDeclaration> declarations, @Nullable IDeclaration eventHeaderDecl, @Nullable StructDeclaration streamContextDecl, boolean isCTF2) {
+        fRecord = record;
+        fDeclarations = declarations;
+        fEventHeaderDecl = eventHeaderDecl;
+        fStreamContextDecl = streamContextDecl;
+        fSteps = new @Nullable Steps[declarations.size()];
+        fCompiled = new boolean[declarations.size()];
+
+        /* A struct header is read by steps if it has a timestamp */
+        Steps headerSteps = null;
+        int timestampLength = 0;
+        if (eventHeaderDecl instanceof StructDeclaration) {
+            StructDeclaration header = (StructDeclaration) eventHeaderDecl;
+            String timestampName = isCTF2 ? JsonMetadataStrings.DEFAULT_CLOCK_TIMESTAMP : CTFStrings.TIMESTAMP;
+            List<String> names = new ArrayList<>();
+            header.getFieldsList().forEach(names::add);
+            int[] slots = new int[names.size()];
+            for (int i = 0; i < slots.length; i++) {
+                IDeclaration field = header.getField(names.get(i));
+                slots[i] = -1;
+                if (field instanceof IntegerDeclaration && (timestampName.equals(names.get(i)) || timestampName.equals(field.getRole()))) {
+                    slots[i] = TIMESTAMP;
+                    timestampLength = ((IntegerDeclaration) field).getLength();
+                } else if ((field instanceof IntegerDeclaration || field instanceof EnumDeclaration) && (ID_FIELD.equals(names.get(i)) || JsonMetadataStrings.EVENT_RECORD_CLASS_ID.equals(field.getRole()))) {
+                    slots[i] = ID;
+                }
+            }
+            StepsBuilder builder = new StepsBuilder();
+            if (timestampLength > 0 && builder.addStruct(header, slots)) {
+                headerSteps = new Steps(builder);
+            }
+        }
+        fHeaderSteps = headerSteps;
+        fHeaderTimestampLength = timestampLength;
+    }
+
+    /**
+     * Get the record the events are read into
+     *
+     * @return the record
+     */
+    public ProjectedEventRecord getRecord() {
+        return fRecord;
+    }
+
+    /**
+     * Read the next event in the record, if it is of fixed size. If it is not,
+     * the position of the buffer is undefined and the event must be read from
+     * its start as a definition.
+     *
+     * @param input
+     *            the buffer, at the start of the event
+     * @param prevTimestamp
+     *            the timestamp of the previous event
+     * @param cpu
+     *            the cpu of the packet
+     * @return whether the event was read
+     * @throws CTFException
+     *             if the buffer could not be read
+     */
+    public boolean readEvent(BitBuffer input, long prevTimestamp, int cpu) throws CTFException {
+        if (!readHeader(input)) {
+            return false;
+        }
+        long id = fHeader[ID];
+        if (id == IEventDeclaration.UNSET_EVENT_ID && fDeclarations.size() == 1) {
+            id = 0;
+        }
+        if (id < 0 || id >= fDeclarations.size()) {
+            return false;
+        }
+        IEventDeclaration declaration = fDeclarations.get((int) id);
+        Steps steps = getSteps((int) id, declaration);
+        if (declaration == null || steps == null) {
+            return false;
+        }
+        long timestamp = EventDeclaration.calculateTimestamp(fHeader[TIMESTAMP], (int) fHeader[TIMESTAMP_LENGTH], prevTimestamp);
+        fRecord.reset(declaration, timestamp, cpu);
+        steps.run(input, fRecord, fHeader);
+        return true;
+    }
+
+    private boolean readHeader(BitBuffer input) throws CTFException {
+        IDeclaration header = fEventHeaderDecl;
+        if (header instanceof EventHeaderCompactDeclaration) {
+            ((EventHeaderCompactDeclaration) header).readHeader(input, fHeader);
+            return true;
+        }
+        if (header instanceof EventHeaderLargeDeclaration) {
+            ((EventHeaderLargeDeclaration) header).readHeader(input, fHeader);
+            return true;
+        }
+        Steps headerSteps = fHeaderSteps;
+        if (headerSteps == null) {
+            return false;
+        }
+        fHeader[ID] = IEventDeclaration.UNSET_EVENT_ID;
+        headerSteps.run(input, null, fHeader);
+        fHeader[TIMESTAMP_LENGTH] = fHeaderTimestampLength;
+        return true;
+    }
+
+    private @Nullable Steps getSteps(int id, @Nullable IEventDeclaration declaration) {
+        if (fCompiled[id]) {
+            return fSteps[id];
+        }
+        Steps steps = null;
+        if (declaration instanceof EventDeclaration) {
+            steps = compile((EventDeclaration) declaration);
+        }
+        fSteps[id] = steps;
+        fCompiled[id] = true;
+        return steps;
+    }
+
+    private @Nullable Steps compile(EventDeclaration declaration) {
+        StructDeclaration streamContext = fStreamContextDecl;
+        StructDeclaration context = declaration.getContext();
+        StructDeclaration fields = declaration.getFields();
+        List<String> names = fRecord.getFieldNames();
+
+        /* The payload hides the context, which hides the stream context */
+        StepsBuilder builder = new StepsBuilder();
+        if (streamContext != null && !builder.addStruct(streamContext, getSlots(streamContext, names, context, fields))) {
+            return null;
+        }
+        if (context != null && !builder.addStruct(context, getSlots(context, names, fields))) {
+            return null;
+        }
+        if (fields != null && !builder.addStruct(fields, getSlots(fields, names))) {
+            return null;
+        }
+        return new Steps(builder);
+    }
+
+    private static int[] getSlots(StructDeclaration struct, List<String> names, @Nullable StructDeclaration... hiding) {
+        List<Integer> slots = new ArrayList<>();
+        for (String field : struct.getFieldsList()) {
+            int slot = names.indexOf(field);
+            for (StructDeclaration other : hiding) {
+                if (other != null && other.hasField(field)) {
+                    slot = -1;
+                }
+            }
+            slots.add(slot);
+        }
+        return slots.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Copy the fields of an event definition in a record
+     *
+     * @param record
+     *            the record
+     * @param event
+     *            the event definition
+     */
+    public static void fill(ProjectedEventRecord record, IEventDefinition event) {
+        record.reset(event.getDeclaration(), event.getTimestamp(), event.getCPU());
+        List<String> names = record.getFieldNames();
+        ICompositeDefinition streamContext = (event instanceof EventDefinition) ? ((EventDefinition) event).getStreamContext() : null;
+        for (int i = 0; i < names.size(); i++) {
+            String name = names.get(i);
+            IDefinition definition = getDefinition(event.getFields(), name);
+            if (definition == null) {
+                definition = getDefinition(event.getEventContext(), name);
+            }
+            if (definition == null) {
+                definition = getDefinition(streamContext, name);
+            }
+            if (definition instanceof IntegerDefinition) {
+                record.setValue(i, ((IntegerDefinition) definition).getValue());
+            } else if (definition instanceof EnumDefinition) {
+                record.setValue(i, ((EnumDefinition) definition).getIntegerValue());
+            }
+        }
+    }
+
+    private static @Nullable IDefinition getDefinition(@Nullable ICompositeDefinition definition, String name) {
+        return definition == null ? null : definition.getDefinition(name);
+    }
+}
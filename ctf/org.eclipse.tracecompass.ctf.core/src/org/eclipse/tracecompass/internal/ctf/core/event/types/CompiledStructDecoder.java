@@ -0,0 +1,223 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson and others
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.internal.ctf.core.event.types;
+
+import java.nio.ByteOrder;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.ctf.core.CTFException;
+import org.eclipse.tracecompass.ctf.core.event.io.BitBuffer;
+import org.eclipse.tracecompass.ctf.core.event.types.EnumDeclaration;
+import org.eclipse.tracecompass.ctf.core.event.types.EnumDefinition;
+import org.eclipse.tracecompass.ctf.core.event.types.FloatDeclaration;
+import org.eclipse.tracecompass.ctf.core.event.types.IDeclaration;
+import org.eclipse.tracecompass.ctf.core.event.types.IDefinition;
+import org.eclipse.tracecompass.ctf.core.event.types.IntegerDeclaration;
+import org.eclipse.tracecompass.ctf.core.event.types.IntegerDefinition;
+import org.eclipse.tracecompass.ctf.core.event.types.StructDefinition;
+
+/**
+ * Decoder of a fixed layout structure, compiled once from its declaration.
+ *
+ * A structure has a fixed layout when all its fields have a fixed size and
+ * an alignment dividing the alignment of the structure. Since the structure
+ * itself is aligned, the bit offset of every field from the start of the
+ * structure is then known in advance. The decoder is a flat array of
+ * operations with these offsets: integers and enumerations are read
+ * directly, the other fields, floats and arrays, are read by their
+ * declaration at their offset.
+ */
+@NonNullByDefault
+public final class CompiledStructDecoder {
+
+    private static final byte INTEGER = 0;
+    private static final byte ENUM = 1;
+    private static final byte OTHER = 2;
+
+    private final String[] fNames;
+    private final byte[] fOps;
+    private final long[] fOffsets;
+    private final int[] fLengths;
+    private final boolean[] fSigned;
+    private final ByteOrder[] fByteOrders;
+    private final IDeclaration[] fDeclarations;
+    private final @Nullable IntegerDeclaration[] fIntegers;
+    private final @Nullable EnumDeclaration[] fEnums;
+    private final long fSize;
+
+    private CompiledStructDecoder(String[] names, IDeclaration[] declarations) {
+        int size = names.length;
+        fNames = names;
+        fDeclarations = declarations;
+        fOps = new byte[size];
+        fOffsets = new long[size];
+        fLengths = new int[size];
+        fSigned = new boolean[size];
+        fByteOrders = new ByteOrder[size];
+        fIntegers = new @Nullable IntegerDeclaration[size];
+        fEnums = new @Nullable EnumDeclaration[size];
+        long offset = 0;
+        for (int i = 0; i < size; i++) {
+            IDeclaration declaration = declarations[i];
+            IntegerDeclaration integer = null;
+            if (declaration instanceof EnumDeclaration) {
+                EnumDeclaration enumDeclaration = (EnumDeclaration) declaration;
+                integer = enumDeclaration.getContainerType();
+                fEnums[i] = enumDeclaration;
+                fOps[i] = ENUM;
+            } else if (declaration instanceof IntegerDeclaration) {
+                integer = (IntegerDeclaration) declaration;
+                fOps[i] = INTEGER;
+            } else {
+                fOps[i] = OTHER;
+            }
+            if (integer != null) {
+                offset = align(offset, integer.getAlignment());
+                fIntegers[i] = integer;
+                fLengths[i] = integer.getLength();
+                fSigned[i] = integer.isSigned();
+                fByteOrders[i] = integer.getByteOrder();
+                fOffsets[i] = offset;
+                offset += integer.getLength();
+            } else {
+                offset = align(offset, declaration.getAlignment());
+                fByteOrders[i] = ByteOrder.BIG_ENDIAN;
+                fOffsets[i] = offset;
+                offset += getFixedSize(declaration);
+            }
+        }
+        fSize = offset;
+    }
+
+    /**
+     * Compile the decoder of a structure
+     *
+     * @param alignment
+     *            the alignment of the structure
+     * @param names
+     *            the names of the fields
+     * @param declarations
+     *            the declarations of the fields
+     * @return the decoder, or null if the structure does not have a fixed
+     *         layout
+     */
+    public static @Nullable CompiledStructDecoder compile(long alignment, String[] names, IDeclaration[] declarations) {
+        if (!isPowerOfTwo(alignment)) {
+            return null;
+        }
+        for (IDeclaration declaration : declarations) {
+            if (getFixedSize(declaration) < 0 || !isPowerOfTwo(declaration.getAlignment()) || alignment % declaration.getAlignment() != 0) {
+                return null;
+            }
+        }
+        return new CompiledStructDecoder(names, declarations);
+    }
+
+    /**
+     * Get the size of a declaration, if all its definitions have the same size
+     *
+     * @return the size in bits, or -1 if it is not fixed or not supported
+     */
+    private static long getFixedSize(IDeclaration declaration) {
+        if (declaration instanceof EnumDeclaration) {
+            return getFixedSize(((EnumDeclaration) declaration).getContainerType());
+        }
+        if (declaration instanceof IntegerDeclaration) {
+            IntegerDeclaration integer = (IntegerDeclaration) declaration;
+            return (integer.isVarint() || integer.getLength() > Long.SIZE) ? -1 : integer.getLength();
+        }
+        if (declaration instanceof FloatDeclaration) {
+            FloatDeclaration floatDeclaration = (FloatDeclaration) declaration;
+            int length = floatDeclaration.getExponent() + floatDeclaration.getMantissa();
+            return (length == Integer.SIZE || length == Long.SIZE) ? length : -1;
+        }
+        if (declaration instanceof ArrayDeclaration) {
+            ArrayDeclaration array = (ArrayDeclaration) declaration;
+            if (array.isAlignedBytes()) {
+                return (long) array.getLength() * Byte.SIZE;
+            }
+            IDeclaration element = array.getElementType();
+            if (element instanceof IntegerDeclaration) {
+                IntegerDeclaration integer = (IntegerDeclaration) element;
+                /* Every element ends aligned for the next one */
+                if (!integer.isVarint() && isPowerOfTwo(integer.getAlignment()) && integer.getLength() % integer.getAlignment() == 0) {
+                    return (long) array.getLength() * integer.getLength();
+                }
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isPowerOfTwo(long value) {
+        return value > 0 && (value & (value - 1)) == 0;
+    }
+
+    private static long align(long offset, long alignment) {
+        long mask = Math.max(alignment, 1) - 1;
+        return (offset + mask) & ~mask;
+    }
+
+    /**
+     * Get the size of the structure
+     *
+     * @return the size in bits
+     */
+    public long getSize() {
+        return fSize;
+    }
+
+    /**
+     * Decode the fields of a structure
+     *
+     * @param input
+     *            the buffer, at the aligned start of the structure
+     * @param fields
+     *            the array of the field definitions to fill
+     * @param structDefinition
+     *            the definition of the structure, scope of its fields
+     * @throws CTFException
+     *             if the buffer could not be read
+     */
+    public void decode(BitBuffer input, IDefinition[] fields, StructDefinition structDefinition) throws CTFException {
+        long start = input.position();
+        ByteOrder byteOrder = input.getByteOrder();
+        try {
+            for (int i = 0; i < fOps.length; i++) {
+                input.position(start + fOffsets[i]);
+                String name = fNames[i];
+                switch (fOps[i]) {
+                case INTEGER: {
+                    input.setByteOrder(fByteOrders[i]);
+                    long value = input.get(fLengths[i], fSigned[i]);
+                    fields[i] = new IntegerDefinition(fIntegers[i], structDefinition, name, value);
+                    break;
+                }
+                case ENUM: {
+                    input.setByteOrder(fByteOrders[i]);
+                    long value = input.get(fLengths[i], fSigned[i]);
+                    IntegerDefinition integer = new IntegerDefinition(fIntegers[i], structDefinition, name, value);
+                    fields[i] = new EnumDefinition(fEnums[i], structDefinition, name, integer);
+                    break;
+                }
+                default:
+                    input.setByteOrder(byteOrder);
+                    fields[i] = fDeclarations[i].createDefinition(structDefinition, name, input);
+                    break;
+                }
+            }
+            input.position(start + fSize);
+        } finally {
+            input.setByteOrder(byteOrder);
+        }
+    }
+}
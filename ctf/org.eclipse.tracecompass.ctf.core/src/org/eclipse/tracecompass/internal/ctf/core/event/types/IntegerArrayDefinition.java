@@ -0,0 +1,167 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson and others
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.internal.ctf.core.event.types;
+
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.ctf.core.CTFException;
+import org.eclipse.tracecompass.ctf.core.event.io.BitBuffer;
+import org.eclipse.tracecompass.ctf.core.event.scope.IDefinitionScope;
+import org.eclipse.tracecompass.ctf.core.event.types.AbstractArrayDefinition;
+import org.eclipse.tracecompass.ctf.core.event.types.CompoundDeclaration;
+import org.eclipse.tracecompass.ctf.core.event.types.Definition;
+import org.eclipse.tracecompass.ctf.core.event.types.IDeclaration;
+import org.eclipse.tracecompass.ctf.core.event.types.IntegerDeclaration;
+import org.eclipse.tracecompass.ctf.core.event.types.IntegerDefinition;
+
+import com.google.common.base.Joiner;
+import com.google.common.collect.ImmutableList;
+
+/**
+ * An array or sequence of integers, read in bulk and backed by an array of
+ * longs. The definitions of the elements are only created if they are
+ * requested.
+ */
+@NonNullByDefault
+public final class IntegerArrayDefinition extends AbstractArrayDefinition {
+
+    private final IntegerDeclaration fElementType;
+    private final long[] fValues;
+    private transient @Nullable List<Definition> fDefs;
+
+    /**
+     * Constructor
+     *
+     * @param declaration
+     *            the array or sequence declaration
+     * @param definitionScope
+     *            the definition scope
+     * @param fieldName
+     *            the field name
+     * @param elementType
+     *            the declaration of the elements
+     * @param values
+     *            the values of the elements
+     */
+    public IntegerArrayDefinition(CompoundDeclaration declaration,
+            @Nullable IDefinitionScope definitionScope,
+            String fieldName,
+            IntegerDeclaration elementType,
+            long[] values) {
+        super(declaration, definitionScope, fieldName);
+        fElementType = elementType;
+        fValues = values;
+    }
+
+    /**
+     * Whether the elements of an array can be read in bulk: they are
+     * integers, but not characters, and each one ends aligned for the next
+     * one
+     *
+     * @param elementType
+     *            the declaration of the elements
+     * @return true if the elements can be read in bulk
+     */
+    static boolean canRead(IDeclaration elementType) {
+        if (!(elementType instanceof IntegerDeclaration)) {
+            return false;
+        }
+        IntegerDeclaration integer = (IntegerDeclaration) elementType;
+        return !integer.isVarint() && !integer.isCharacter() && integer.getLength() <= Long.SIZE &&
+                integer.getLength() % integer.getAlignment() == 0;
+    }
+
+    /**
+     * Read the elements of an array in bulk, the buffer must be aligned for
+     * the first element
+     *
+     * @param declaration
+     *            the array or sequence declaration
+     * @param definitionScope
+     *            the definition scope
+     * @param fieldName
+     *            the field name
+     * @param length
+     *            the number of elements
+     * @param input
+     *            the buffer
+     * @return the definition
+     * @throws CTFException
+     *             if the buffer could not be read
+     */
+    static IntegerArrayDefinition read(CompoundDeclaration declaration, @Nullable IDefinitionScope definitionScope,
+            String fieldName, int length, BitBuffer input) throws CTFException {
+        IntegerDeclaration elementType = (IntegerDeclaration) declaration.getElementType();
+        long[] values = new long[length];
+        ByteOrder byteOrder = input.getByteOrder();
+        input.setByteOrder(elementType.getByteOrder());
+        try {
+            input.get(values, 0, length, elementType.getLength(), elementType.isSigned());
+        } finally {
+            input.setByteOrder(byteOrder);
+        }
+        return new IntegerArrayDefinition(declaration, definitionScope, fieldName, elementType, values);
+    }
+
+    @Override
+    public int getLength() {
+        return fValues.length;
+    }
+
+    /**
+     * Get the value of an element
+     *
+     * @param index
+     *            the index of the element
+     * @return the value
+     */
+    public long getValue(int index) {
+        return fValues[index];
+    }
+
+    /**
+     * Get the values of the elements
+     *
+     * @return a copy of the values
+     */
+    public long[] getValues() {
+        return Arrays.copyOf(fValues, fValues.length);
+    }
+
+    @Override
+    public synchronized List<Definition> getDefinitions() {
+        List<Definition> defs = fDefs;
+        if (defs == null) {
+            ImmutableList.Builder<Definition> builder = new ImmutableList.Builder<>();
+            for (int i = 0; i < fValues.length; i++) {
+                String fieldName = getFieldName() + '[' + i + ']';
+                builder.add(new IntegerDefinition(fElementType, getDefinitionScope(), fieldName, fValues[i]));
+            }
+            defs = builder.build();
+            fDefs = defs;
+        }
+        return defs;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder b = new StringBuilder();
+        b.append('[');
+        Joiner.on(", ").appendTo(b, getDefinitions()); //$NON-NLS-1$
+        b.append(']');
+        return b.toString();
+    }
+}
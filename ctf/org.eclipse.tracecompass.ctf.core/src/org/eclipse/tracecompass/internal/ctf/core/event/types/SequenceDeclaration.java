@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2014 Ericsson, Ecole Polytechnique de Montreal and others
+ * Copyright (c) 2014, 2026 Ericsson, Ecole Polytechnique de Montreal and others
  *
  * All rights reserved. This program and the accompanying materials are made
  * available under the terms of the Eclipse Public License 2.0 which
@@ -134,6 +134,9 @@ public class SequenceDeclaration extends CompoundDeclaration {
             input.get(data);
             return new ByteArrayDefinition(this, definitionScope, fieldName, data);
         }
+        if (IntegerArrayDefinition.canRead(fElemType)) {
+            return IntegerArrayDefinition.read(this, definitionScope, fieldName, (int) length, input);
+        }
         Collection<String> collection = fPaths.get(fieldName);
         while (collection.size() < length) {
             fPaths.put(fieldName, fieldName + '[' + collection.size() + ']');
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2014 Ericsson
+ * Copyright (c) 2014, 2026 Ericsson
  *
  * All rights reserved. This program and the accompanying materials are made
  * available under the terms of the Eclipse Public License 2.0 which
@@ -174,6 +174,41 @@ public final class EventHeaderCompactDeclaration extends Declaration implements
 
     }
 
+    /**
+     * Read an event header without creating its definition
+     *
+     * @param input
+     *            the bitbuffer to read from
+     * @param header
+     *            the array receiving the id, the timestamp and the length in
+     *            bits of the timestamp
+     * @throws CTFException
+     *             an error in reading
+     */
+    public void readHeader(BitBuffer input, long[] header) throws CTFException {
+        alignRead(input);
+        ByteOrder bo = input.getByteOrder();
+        input.setByteOrder(fByteOrder);
+        int enumId = (int) input.get(COMPACT_ID, false);
+        if (enumId != EXTENDED_VALUE) {
+            header[0] = enumId;
+            header[1] = input.get(COMPACT_TS, false);
+            header[2] = COMPACT_TS;
+            input.setByteOrder(bo);
+            return;
+        }
+        // needed since we read 5 bits
+        input.position(input.position() + 3);
+        long id = input.get(ID_SIZE, false);
+        if (id > Integer.MAX_VALUE) {
+            throw new CTFException("ID " + id + " larger than " + Integer.MAX_VALUE + " is currently unsupported by the parser"); //$NON-NLS-1$//$NON-NLS-2$ //$NON-NLS-3$
+        }
+        header[0] = id;
+        header[1] = input.get(FULL_TS, false);
+        header[2] = FULL_TS;
+        input.setByteOrder(bo);
+    }
+
     @Override
     public long getAlignment() {
         return ALIGN_ON_8;
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2014 Ericsson
+ * Copyright (c) 2014, 2026 Ericsson
  *
  * All rights reserved. This program and the accompanying materials are made
  * available under the terms of the Eclipse Public License 2.0 which
@@ -197,6 +197,40 @@ public final class EventHeaderLargeDeclaration extends Declaration implements IE
         return new EventHeaderDefinition(this, (int) second, timestampLong, FULL_TS);
     }
 
+    /**
+     * Read an event header without creating its definition
+     *
+     * @param input
+     *            the bitbuffer to read from
+     * @param header
+     *            the array receiving the id, the timestamp and the length in
+     *            bits of the timestamp
+     * @throws CTFException
+     *             an error in reading
+     */
+    public void readHeader(BitBuffer input, long[] header) throws CTFException {
+        alignRead(input);
+        ByteOrder bo = input.getByteOrder();
+        input.setByteOrder(fByteOrder);
+        int first = (int) input.get(COMPACT_ID, false);
+        long second = input.get(COMPACT_TS, false);
+        if (first != EXTENDED_VALUE) {
+            input.setByteOrder(bo);
+            header[0] = first;
+            header[1] = second;
+            header[2] = COMPACT_TS;
+            return;
+        }
+        long timestampLong = input.get(FULL_TS, false);
+        input.setByteOrder(bo);
+        if (second > Integer.MAX_VALUE) {
+            throw new CTFException("ID " + second + " larger than " + Integer.MAX_VALUE + " is currently unsupported by the parser"); //$NON-NLS-1$//$NON-NLS-2$ //$NON-NLS-3$
+        }
+        header[0] = second;
+        header[1] = timestampLong;
+        header[2] = FULL_TS;
+    }
+
     @Override
     public long getAlignment() {
         return ALIGN_ON_8;
@@ -0,0 +1,296 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson and others
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.internal.ctf.core.trace;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.ctf.core.trace.ICTFPacketDescriptor;
+import org.eclipse.tracecompass.internal.ctf.core.CtfCoreLoggerUtil;
+
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * Packet index of all the stream files of a trace, saved in a single file so
+ * that a trace is opened without reading every packet header of its streams.
+ *
+ * The file starts with a magic number and a version, followed by a section
+ * per stream file. A section holds the name, size and modification time of the
+ * stream file, which validate it, then its packet descriptors. The packet
+ * context definitions are not saved, they are read again from the stream file
+ * when a packet is read. The strings are saved as their length followed by
+ * their UTF-8 bytes.
+ *
+ * Only the packet context attributes that are integers, floating point
+ * numbers, strings or enumerations can be saved. If a packet has another type
+ * of attribute, no cache is written for the trace.
+ */
+@NonNullByDefault
+public final class CTFPacketIndexCache {
+
+    /** Name of the packet index cache file of a trace */
+    public static final String FILE_NAME = "ctf-packet-index"; //$NON-NLS-1$
+
+    private static final int MAGIC = 0x54435049;
+    private static final int VERSION = 2;
+
+    private static final byte LONG_ATTRIBUTE = 'L';
+    private static final byte DOUBLE_ATTRIBUTE = 'D';
+    private static final byte STRING_ATTRIBUTE = 'S';
+    private static final byte ENUM_ATTRIBUTE = 'E';
+
+    private static final class Section {
+        private final long fLength;
+        private final long fLastModified;
+        private final List<ICTFPacketDescriptor> fEntries;
+
+        public Section(long length, long lastModified, List<ICTFPacketDescriptor> entries) {
+            fLength = length;
+            fLastModified = lastModified;
+            fEntries = entries;
+        }
+    }
+
+    private final Map<String, Section> fSections;
+
+    private CTFPacketIndexCache(Map<String, Section> sections) {
+        fSections = sections;
+    }
+
+    /**
+     * Read a packet index cache file
+     *
+     * @param file
+     *            the cache file
+     * @return the packet index cache, or null if the file does not exist or is
+     *         not a valid cache file of this version
+     */
+    public static @Nullable CTFPacketIndexCache read(File file) {
+        if (!file.isFile()) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(Files.readAllBytes(file.toPath())))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                return null;
+            }
+            int nbSections = in.readInt();
+            Map<String, Section> sections = new HashMap<>();
+            for (int i = 0; i < nbSections; i++) {
+                String name = readString(in);
+                long length = in.readLong();
+                long lastModified = in.readLong();
+                int nbEntries = in.readInt();
+                List<ICTFPacketDescriptor> entries = new ArrayList<>(nbEntries);
+                for (int j = 0; j < nbEntries; j++) {
+                    entries.add(readEntry(in));
+                }
+                sections.put(name, new Section(length, lastModified, entries));
+            }
+            return new CTFPacketIndexCache(sections);
+        } catch (IOException | RuntimeException e) {
+            CtfCoreLoggerUtil.logWarning("Unable to read CTF packet index cache " + file + ": " + e.getMessage()); //$NON-NLS-1$ //$NON-NLS-2$
+            return null;
+        }
+    }
+
+    /**
+     * Get the packet index of a stream file, if the stream file did not change
+     * since the cache was written
+     *
+     * @param streamFile
+     *            the stream file
+     * @return a new packet index, or null if the stream file is not in the
+     *         cache or changed since
+     */
+    public @Nullable StreamInputPacketIndex getIndex(File streamFile) {
+        Section section = fSections.get(streamFile.getName());
+        if (section == null || section.fLength != streamFile.length() || section.fLastModified != streamFile.lastModified()) {
+            return null;
+        }
+        StreamInputPacketIndex index = new StreamInputPacketIndex();
+        for (ICTFPacketDescriptor entry : section.fEntries) {
+            if (entry == null || !index.append(entry)) {
+                return null;
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Write a packet index cache file. The file is written next to its
+     * destination then moved, so a concurrent reader never sees it partially
+     * written.
+     *
+     * @param file
+     *            the cache file
+     * @param indexes
+     *            the complete packet index of each stream file of the trace
+     * @throws IOException
+     *             if the file could not be written, or a packet has an
+     *             attribute that cannot be saved
+     */
+    public static void write(File file, Map<File, StreamInputPacketIndex> indexes) throws IOException {
+        Path target = file.toPath();
+        Path parent = target.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path temp = Files.createTempFile(parent, file.getName(), ".tmp"); //$NON-NLS-1$
+        try {
+            try (OutputStream os = Files.newOutputStream(temp);
+                    DataOutputStream out = new DataOutputStream(new BufferedOutputStream(os))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeInt(indexes.size());
+                for (Entry<File, StreamInputPacketIndex> streamIndex : indexes.entrySet()) {
+                    File streamFile = streamIndex.getKey();
+                    StreamInputPacketIndex index = streamIndex.getValue();
+                    writeString(out, streamFile.getName());
+                    out.writeLong(streamFile.length());
+                    out.writeLong(streamFile.lastModified());
+                    int size = index.size();
+                    out.writeInt(size);
+                    for (int i = 0; i < size; i++) {
+                        writeEntry(out, index.getElement(i));
+                    }
+                }
+            }
+            try {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static void writeEntry(DataOutputStream out, ICTFPacketDescriptor entry) throws IOException {
+        out.writeLong(entry.getOffsetBits());
+        out.writeLong(entry.getPacketSizeBits());
+        out.writeLong(entry.getContentSizeBits());
+        out.writeLong(entry.getTimestampBegin());
+        out.writeLong(entry.getTimestampEnd());
+        out.writeLong(entry.getLostEvents());
+        out.writeLong(entry.getPayloadStartBits());
+        String target = entry.getTarget();
+        out.writeBoolean(target != null);
+        if (target != null) {
+            writeString(out, target);
+        }
+        out.writeLong(entry.getTargetId());
+
+        Map<String, Object> attributes = entry.getAttributes();
+        for (Entry<String, Object> attribute : attributes.entrySet()) {
+            Object value = attribute.getValue();
+            if (!(value instanceof Long || value instanceof Double || value instanceof String ||
+                    (value instanceof Entry && ((Entry<?, ?>) value).getKey() instanceof String && ((Entry<?, ?>) value).getValue() instanceof Long))) {
+                /* The packet could not be restored as is, do not write the cache */
+                throw new IOException("Packet attribute " + attribute.getKey() + " cannot be saved"); //$NON-NLS-1$ //$NON-NLS-2$
+            }
+        }
+        out.writeInt(attributes.size());
+        for (Entry<String, Object> attribute : attributes.entrySet()) {
+            writeString(out, attribute.getKey());
+            Object value = attribute.getValue();
+            if (value instanceof Long) {
+                out.writeByte(LONG_ATTRIBUTE);
+                out.writeLong((Long) value);
+            } else if (value instanceof Double) {
+                out.writeByte(DOUBLE_ATTRIBUTE);
+                out.writeDouble((Double) value);
+            } else if (value instanceof String) {
+                out.writeByte(STRING_ATTRIBUTE);
+                writeString(out, (String) value);
+            } else {
+                Entry<?, ?> enumValue = (Entry<?, ?>) value;
+                out.writeByte(ENUM_ATTRIBUTE);
+                writeString(out, (String) enumValue.getKey());
+                out.writeLong((Long) enumValue.getValue());
+            }
+        }
+    }
+
+    /*
+     * Strings are written with their length as an int, as the length of
+     * DataOutput.writeUTF() is limited to 64 KiB
+     */
+    private static void writeString(DataOutputStream out, String string) throws IOException {
+        byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0 || length > in.available()) {
+            throw new IOException("Invalid string length " + length); //$NON-NLS-1$
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static ICTFPacketDescriptor readEntry(DataInputStream in) throws IOException {
+        long offsetBits = in.readLong();
+        long packetSizeBits = in.readLong();
+        long contentSizeBits = in.readLong();
+        long timestampBegin = in.readLong();
+        long timestampEnd = in.readLong();
+        long lostEvents = in.readLong();
+        long payloadStartBits = in.readLong();
+        String target = in.readBoolean() ? readString(in) : null;
+        long targetId = in.readLong();
+        int nbAttributes = in.readInt();
+        ImmutableMap.Builder<String, Object> attributes = ImmutableMap.builder();
+        for (int i = 0; i < nbAttributes; i++) {
+            String key = readString(in);
+            byte type = in.readByte();
+            switch (type) {
+            case LONG_ATTRIBUTE:
+                attributes.put(key, in.readLong());
+                break;
+            case DOUBLE_ATTRIBUTE:
+                attributes.put(key, in.readDouble());
+                break;
+            case STRING_ATTRIBUTE:
+                attributes.put(key, readString(in));
+                break;
+            case ENUM_ATTRIBUTE:
+                attributes.put(key, new SimpleImmutableEntry<>(readString(in), in.readLong()));
+                break;
+            default:
+                throw new IOException("Unknown attribute type " + type); //$NON-NLS-1$
+            }
+        }
+        return new StreamInputPacketIndexEntry(offsetBits, packetSizeBits, contentSizeBits, timestampBegin, timestampEnd,
+                lostEvents, payloadStartBits, target, targetId, attributes.build());
+    }
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2015 Ericsson
+ * Copyright (c) 2015, 2026 Ericsson
  *
  * All rights reserved. This program and the accompanying materials are made
  * available under the terms of the Eclipse Public License 2.0 which
@@ -21,6 +21,7 @@ import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.tracecompass.ctf.core.CTFException;
 import org.eclipse.tracecompass.ctf.core.CTFStrings;
 import org.eclipse.tracecompass.ctf.core.event.IEventDeclaration;
+import org.eclipse.tracecompass.ctf.core.event.ProjectedEventRecord;
 import org.eclipse.tracecompass.ctf.core.event.io.BitBuffer;
 import org.eclipse.tracecompass.ctf.core.event.scope.IDefinitionScope;
 import org.eclipse.tracecompass.ctf.core.event.scope.ILexicalScope;
@@ -40,6 +41,7 @@ import org.eclipse.tracecompass.ctf.core.trace.IPacketReader;
 import org.eclipse.tracecompass.internal.ctf.core.event.EventDeclaration;
 import org.eclipse.tracecompass.internal.ctf.core.event.EventDefinition;
 import org.eclipse.tracecompass.internal.ctf.core.event.LostEventDeclaration;
+import org.eclipse.tracecompass.internal.ctf.core.event.ProjectedEventDecoders;
 import org.eclipse.tracecompass.internal.ctf.core.event.types.composite.EventHeaderDefinition;
 import org.eclipse.tracecompass.internal.ctf.core.utils.JsonMetadataStrings;
 
@@ -207,6 +209,38 @@ public final class CTFPacketReader implements IPacketReader, IDefinitionScope {
         return eventDef;
     }
 
+    /**
+     * Reads the next event of the packet into a record, decoding only the
+     * fields of the record. The events that cannot be decoded this way are
+     * read as definitions, then copied to the record.
+     *
+     * @param decoders
+     *            The decoders of the stream, with the record to fill
+     * @throws CTFException
+     *             If there was a problem reading the trace
+     */
+    public void readNextEvent(ProjectedEventDecoders decoders) throws CTFException {
+        final long posStart = fInput.position();
+        ProjectedEventRecord record = decoders.getRecord();
+        if (fHasLost && (posStart >= fPacketContext.getContentSizeBits())) {
+            fHasLost = false;
+            ProjectedEventDecoders.fill(record, createLostEvent(fPacketContext));
+            return;
+        }
+        if (!decoders.readEvent(fInput, fLastTimestamp, getCPU())) {
+            fInput.position(posStart);
+            ProjectedEventDecoders.fill(record, readNextEvent());
+            return;
+        }
+        if (posStart == fInput.position()) {
+            IEventDeclaration declaration = record.getDeclaration();
+            throw new CTFIOException("Empty event not allowed, event: " + (declaration == null ? null : declaration.getName())); //$NON-NLS-1$
+        }
+        fEventHeader = null;
+        fLastTimestamp = record.getTimestamp();
+        fPosition = posStart;
+    }
+
     private EventDefinition createLostEvent(final ICTFPacketDescriptor currentPacket) {
         IEventDeclaration lostEventDeclaration = LostEventDeclaration.INSTANCE;
         StructDeclaration lostFields = lostEventDeclaration.getFields();
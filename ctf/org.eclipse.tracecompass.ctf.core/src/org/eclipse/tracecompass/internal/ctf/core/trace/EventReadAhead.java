@@ -0,0 +1,206 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson and others
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.internal.ctf.core.trace;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.ctf.core.CTFException;
+import org.eclipse.tracecompass.ctf.core.event.IEventDefinition;
+
+/**
+ * Decodes the events of a stream ahead of their consumer, on a pool shared by
+ * all the streams, so the streams of a trace are decoded in parallel while
+ * the consumer merges them.
+ *
+ * The events are decoded in batches, and at most {@link #MAX_BATCHES} batches
+ * are decoded ahead. The decoding task of a stream ends when its buffer is
+ * full and is submitted again when the consumer takes a batch, so a stream
+ * never holds a thread of the pool while it waits for its consumer.
+ *
+ * Only one thread decodes at a time: the source is not read by the consumer
+ * while this read ahead runs, see {@link #stop()}.
+ */
+@NonNullByDefault
+public final class EventReadAhead {
+
+    /**
+     * Source of the events of a stream
+     */
+    @FunctionalInterface
+    public interface IEventSource {
+        /**
+         * Read the next event
+         *
+         * @return the event, or null at the end of the stream
+         * @throws CTFException
+         *             if the event could not be read
+         */
+        @Nullable IEventDefinition read() throws CTFException;
+    }
+
+    private static final ForkJoinPool POOL = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+    private static final int BATCH_SIZE = 128;
+    private static final int MAX_BATCHES = 2;
+
+    private final IEventSource fSource;
+    private final ReentrantLock fLock = new ReentrantLock();
+    private final Condition fChanged = fLock.newCondition();
+    private final Deque<IEventDefinition[]> fBatches = new ArrayDeque<>();
+
+    /* Only accessed by the consumer */
+    private IEventDefinition[] fCurrent = new IEventDefinition[0];
+    private int fIndex = 0;
+
+    /* Guarded by fLock */
+    private boolean fRunning = false;
+    private boolean fEnded = false;
+    private boolean fStopped = false;
+    private @Nullable CTFException fError = null;
+
+    /**
+     * Constructor, starts decoding the events
+     *
+     * @param source
+     *            the source of the events
+     */
+    public EventReadAhead(IEventSource source) {
+        fSource = source;
+        fLock.lock();
+        try {
+            schedule();
+        } finally {
+            fLock.unlock();
+        }
+    }
+
+    /**
+     * Get the next event, waiting for it to be decoded if needed
+     *
+     * @return the event, or null at the end of the stream, or when all the
+     *         events decoded before the read ahead was stopped were returned
+     * @throws CTFException
+     *             if the source failed to read an event, after the events it
+     *             read before
+     */
+    public @Nullable IEventDefinition next() throws CTFException {
+        if (fIndex < fCurrent.length) {
+            return fCurrent[fIndex++];
+        }
+        fLock.lock();
+        try {
+            while (true) {
+                IEventDefinition[] batch = fBatches.poll();
+                if (batch != null) {
+                    schedule();
+                    fCurrent = batch;
+                    fIndex = 1;
+                    return batch[0];
+                }
+                CTFException error = fError;
+                if (error != null) {
+                    fError = null;
+                    fEnded = true;
+                    throw error;
+                }
+                if (fEnded || (fStopped && !fRunning)) {
+                    return null;
+                }
+                schedule();
+                fChanged.awaitUninterruptibly();
+            }
+        } finally {
+            fLock.unlock();
+        }
+    }
+
+    /**
+     * Stop decoding and wait for the current batch to be done. The events
+     * decoded so far are still returned by {@link #next()}, and the source is
+     * then positioned right after the last of them.
+     */
+    public void stop() {
+        fLock.lock();
+        try {
+            fStopped = true;
+            while (fRunning) {
+                fChanged.awaitUninterruptibly();
+            }
+        } finally {
+            fLock.unlock();
+        }
+    }
+
+    /* Must be called with the lock held */
+    private void schedule() {
+        if (!fRunning && !fEnded && !fStopped && fError == null && fBatches.size() < MAX_BATCHES) {
+            fRunning = true;
+            POOL.execute(this::run);
+        }
+    }
+
+    private void run() {
+        while (true) {
+            fLock.lock();
+            try {
+                if (fStopped || fBatches.size() >= MAX_BATCHES) {
+                    fRunning = false;
+                    fChanged.signalAll();
+                    return;
+                }
+            } finally {
+                fLock.unlock();
+            }
+
+            IEventDefinition[] batch = new IEventDefinition[BATCH_SIZE];
+            int size = 0;
+            boolean ended = false;
+            CTFException error = null;
+            try {
+                while (size < BATCH_SIZE) {
+                    IEventDefinition event = fSource.read();
+                    if (event == null) {
+                        ended = true;
+                        break;
+                    }
+                    batch[size++] = event;
+                }
+            } catch (CTFException e) {
+                error = e;
+            } catch (RuntimeException e) {
+                error = new CTFException(e);
+            }
+
+            fLock.lock();
+            try {
+                if (size > 0) {
+                    fBatches.add(size == BATCH_SIZE ? batch : Arrays.copyOf(batch, size));
+                }
+                fEnded |= ended;
+                fError = error;
+                fChanged.signalAll();
+                if (ended || error != null) {
+                    fRunning = false;
+                    return;
+                }
+            } finally {
+                fLock.unlock();
+            }
+        }
+    }
+}
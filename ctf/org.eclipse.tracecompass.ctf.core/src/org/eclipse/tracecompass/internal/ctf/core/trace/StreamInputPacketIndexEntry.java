@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2011, 2015 Ericsson, Ecole Polytechnique de Montreal and others
+ * Copyright (c) 2011, 2026 Ericsson, Ecole Polytechnique de Montreal and others
  *
  * All rights reserved. This program and the accompanying materials are made
  * available under the terms of the Eclipse Public License 2.0 which
@@ -275,6 +275,47 @@ public class StreamInputPacketIndexEntry implements ICTFPacketDescriptor {
         fLostEvents = entryToAdd.getLostEvents();
     }
 
+    /**
+     * Constructor of an entry restored from a packet index cache, the packet
+     * context definition is read later, when the packet is read
+     *
+     * @param offsetBits
+     *            offset in the file for the start of the packet in bits
+     * @param packetSizeBits
+     *            packet size in bits
+     * @param contentSizeBits
+     *            content size in bits
+     * @param timestampBegin
+     *            begin timestamp
+     * @param timestampEnd
+     *            end timestamp
+     * @param lostEvents
+     *            number of events lost before this packet
+     * @param payloadStartBits
+     *            offset of the payload from the start of the packet in bits
+     * @param target
+     *            the target string
+     * @param targetId
+     *            the target ID
+     * @param attributes
+     *            the packet context attributes
+     */
+    public StreamInputPacketIndexEntry(long offsetBits, long packetSizeBits, long contentSizeBits, long timestampBegin, long timestampEnd,
+            long lostEvents, long payloadStartBits, String target, long targetId, @NonNull Map<String, Object> attributes) {
+        fStreamPacketContextDef = null;
+        fEndPacketHeaderBits = payloadStartBits;
+        fAttributes = attributes;
+        fContentSizeBits = contentSizeBits;
+        fPacketSizeBits = packetSizeBits;
+        fTimestampBegin = timestampBegin;
+        fTimestampEnd = timestampEnd;
+        fOffsetBits = offsetBits;
+        fOffsetBytes = bitsToBytes(offsetBits);
+        fTarget = target;
+        fTargetID = targetId;
+        fLostEvents = lostEvents;
+    }
+
     private static @NonNull Map<String, Object> computeAttributeMap(StructDefinition streamPacketContextDef) {
         Builder<String, Object> attributeBuilder = ImmutableMap.<String, Object> builder();
         StructDeclaration decl = streamPacketContextDef.getDeclaration();
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2012, 2014 Ericsson, École Polytechnique de Montréal
+ * Copyright (c) 2012, 2026 Ericsson, École Polytechnique de Montréal
  *
  * All rights reserved. This program and the accompanying materials are made
  * available under the terms of the Eclipse Public License 2.0 which
@@ -48,6 +48,13 @@ public class CtfIterator extends CTFTraceReader
     /** An invalid location */
     public static final CtfLocation NULL_LOCATION = new CtfLocation(CtfLocation.INVALID_LOCATION);
 
+    /**
+     * Number of events read without seeking after which the streams are
+     * decoded ahead. Iterators seeking often, like the ones of the events
+     * table, then do not keep decoded events in memory.
+     */
+    private static final long READ_AHEAD_THRESHOLD = 10000;
+
     private final @NonNull CtfTmfTrace fTrace;
 
     private CtfLocation fCurLocation;
@@ -56,6 +63,8 @@ public class CtfIterator extends CTFTraceReader
     private CtfLocation fPreviousLocation;
     private CtfTmfEvent fPreviousEvent;
 
+    private long fSequentialReads = 0;
+
     // ------------------------------------------------------------------------
     // Constructors
     // ------------------------------------------------------------------------
@@ -147,7 +156,7 @@ public class CtfIterator extends CTFTraceReader
      * @return CtfTmfEvent The current event
      */
     public synchronized CtfTmfEvent getCurrentEvent() {
-        final CTFStreamInputReader top = super.getPrio().peek();
+        final CTFStreamInputReader top = super.getTopStream();
         if (top != null) {
             if (!fCurLocation.equals(fPreviousLocation)) {
                 fPreviousLocation = fCurLocation;
@@ -165,7 +174,7 @@ public class CtfIterator extends CTFTraceReader
      * @return long The current timestamp location
      */
     public synchronized long getCurrentTimestamp() {
-        final CTFStreamInputReader top = super.getPrio().peek();
+        final CTFStreamInputReader top = super.getTopStream();
         if (top != null) {
             IEventDefinition currentEvent = top.getCurrentEvent();
             if (currentEvent != null) {
@@ -197,6 +206,8 @@ public class CtfIterator extends CTFTraceReader
         }
         /* Update location to make sure the current event is updated */
         fCurLocation = new CtfLocation(ctfLocationData);
+        fSequentialReads = 0;
+        setReadAhead(false);
 
         /* Adjust the timestamp depending on the trace's offset */
         final long seekToTimestamp = ctfLocationData.getTimestamp();
@@ -258,6 +269,9 @@ public class CtfIterator extends CTFTraceReader
         }
 
         if (ret) {
+            if (++fSequentialReads == READ_AHEAD_THRESHOLD) {
+                setReadAhead(true);
+            }
             long timestamp = fCurLocation.getLocationInfo().getTimestamp();
             final long timestampValue = getCurrentTimestamp();
             if (timestamp == timestampValue) {
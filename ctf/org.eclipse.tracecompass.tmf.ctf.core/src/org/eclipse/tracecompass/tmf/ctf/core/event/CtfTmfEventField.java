@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2011, 2024 Ericsson, École Polytechnique de Montréal
+ * Copyright (c) 2011, 2026 Ericsson, École Polytechnique de Montréal
  *
  * All rights reserved. This program and the accompanying materials are made
  * available under the terms of the Eclipse Public License 2.0 which
@@ -45,6 +45,7 @@ import org.eclipse.tracecompass.ctf.core.event.types.StringDefinition;
 import org.eclipse.tracecompass.ctf.core.event.types.StringDefinition2;
 import org.eclipse.tracecompass.ctf.core.event.types.VariantDefinition;
 import org.eclipse.tracecompass.internal.ctf.core.event.types.ByteArrayDefinition;
+import org.eclipse.tracecompass.internal.ctf.core.event.types.IntegerArrayDefinition;
 import org.eclipse.tracecompass.tmf.core.event.ITmfEventField;
 import org.eclipse.tracecompass.tmf.core.event.TmfEventField;
 import org.eclipse.tracecompass.tmf.ctf.core.CtfEnumPair;
@@ -162,6 +163,12 @@ public abstract class CtfTmfEventField extends TmfEventField {
                             elemIntType.getBase(),
                             elemIntType.isSigned());
 
+                } else if (arrayDef instanceof IntegerArrayDefinition) {
+                    /* it's a CTFIntegerArrayField, already backed by longs */
+                    field = new CTFIntegerArrayField(fieldName, ((IntegerArrayDefinition) arrayDef).getValues(),
+                            elemIntType.getBase(),
+                            elemIntType.isSigned());
+
                 } else {
                     /* it's a CTFIntegerArrayField */
                     int size = arrayDef.getLength();
@@ -0,0 +1,343 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson and others
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+
+package org.eclipse.tracecompass.datastore.core.tests.cache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import org.eclipse.tracecompass.internal.provisional.datastore.core.cache.EvictionPolicy;
+import org.eclipse.tracecompass.internal.provisional.datastore.core.cache.INodeCache;
+import org.eclipse.tracecompass.internal.provisional.datastore.core.cache.NodeCacheFactory;
+import org.eclipse.tracecompass.internal.provisional.datastore.core.cache.NodeCacheStatistics;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
+
+/**
+ * Test the node caches returned by the {@link NodeCacheFactory}, for each
+ * eviction policy
+ */
+@RunWith(Parameterized.class)
+public class NodeCacheTest {
+
+    private static final int NODE_WEIGHT = 4096;
+    private static final int NB_NODES = 100;
+    private static final long QUOTA = (long) NODE_WEIGHT * NB_NODES;
+    /* Nodes with a sequence number below this value are pinnable */
+    private static final int NB_CORE_NODES = 10;
+
+    private final EvictionPolicy fPolicy;
+    private INodeCache<TestNode> fCache;
+    private int fLoads = 0;
+
+    /**
+     * A simple node, identified by its sequence number
+     */
+    private static final class TestNode {
+        private final int fSeq;
+
+        public TestNode(int seq) {
+            fSeq = seq;
+        }
+
+        public int getSeq() {
+            return fSeq;
+        }
+    }
+
+    /**
+     * @return The arrays of parameters
+     */
+    @Parameters(name = "{index}: {0}")
+    public static Collection<Object[]> getParameters() {
+        return Arrays.asList(new Object[][] {
+                { EvictionPolicy.LRU },
+                { EvictionPolicy.TINY_LFU },
+        });
+    }
+
+    /**
+     * Constructor
+     *
+     * @param policy
+     *            The eviction policy of the cache to test
+     */
+    public NodeCacheTest(EvictionPolicy policy) {
+        fPolicy = policy;
+        fCache = createCache("test"); //$NON-NLS-1$
+    }
+
+    private INodeCache<TestNode> createCache(String name) {
+        return NodeCacheFactory.createCache(name, QUOTA, fPolicy, seq -> {
+            fLoads++;
+            return new TestNode(seq);
+        }, node -> NODE_WEIGHT, node -> node.getSeq() < NB_CORE_NODES);
+    }
+
+    /**
+     * Dispose of the cache
+     */
+    @After
+    public void cleanup() {
+        fCache.dispose();
+    }
+
+    /**
+     * Test that nodes are loaded once and then served from the cache
+     *
+     * @throws IOException
+     *             Exceptions thrown by the cache
+     */
+    @Test
+    public void testGet() throws IOException {
+        TestNode node = fCache.get(NB_CORE_NODES);
+        assertEquals(NB_CORE_NODES, node.getSeq());
+        assertSame(node, fCache.get(NB_CORE_NODES));
+        assertSame(node, fCache.getIfPresent(NB_CORE_NODES));
+        assertNull(fCache.getIfPresent(NB_CORE_NODES + 1));
+        assertEquals(1, fLoads);
+
+        NodeCacheStatistics stats = fCache.getStatistics();
+        /* A failed getIfPresent() is not a miss, nothing was loaded */
+        assertEquals(2, stats.getHitCount());
+        assertEquals(1, stats.getMissCount());
+        assertEquals(0, stats.getEvictionCount());
+        assertEquals(2.0 / 3.0, stats.getHitRate(), 0.001);
+
+        /* contains() does not count as an access */
+        assertTrue(fCache.contains(NB_CORE_NODES));
+        assertFalse(fCache.contains(NB_CORE_NODES + 1));
+        assertEquals(2, stats.getHitCount());
+        assertEquals(1, stats.getMissCount());
+    }
+
+    /**
+     * Test that the total weight of the cache never exceeds its quota
+     *
+     * @throws IOException
+     *             Exceptions thrown by the cache
+     */
+    @Test
+    public void testQuota() throws IOException {
+        for (int i = 0; i < NB_NODES * 10; i++) {
+            fCache.get(i);
+            assertTrue(fCache.getWeight() <= QUOTA);
+        }
+        for (int i = NB_NODES * 10; i < NB_NODES * 20; i++) {
+            fCache.put(i, new TestNode(i));
+            assertTrue(fCache.getWeight() <= QUOTA);
+        }
+        assertEquals(NB_NODES * 10, fLoads);
+        assertTrue(fCache.getStatistics().getEvictionCount() > 0);
+    }
+
+    /**
+     * Test that pinned nodes survive a scan of many other nodes
+     *
+     * @throws IOException
+     *             Exceptions thrown by the cache
+     */
+    @Test
+    public void testPinnedNodes() throws IOException {
+        for (int i = 0; i < NB_CORE_NODES; i++) {
+            fCache.put(i, new TestNode(i));
+        }
+        for (int i = NB_CORE_NODES; i < NB_NODES * 10; i++) {
+            fCache.get(i);
+        }
+        for (int i = 0; i < NB_CORE_NODES; i++) {
+            assertTrue(fCache.contains(i));
+        }
+    }
+
+    /**
+     * Test that frequently used nodes survive a scan of nodes used only once
+     * with the TinyLFU policy
+     *
+     * @throws IOException
+     *             Exceptions thrown by the cache
+     */
+    @Test
+    public void testScanResistance() throws IOException {
+        assumeTrue(fPolicy == EvictionPolicy.TINY_LFU);
+        int firstHot = NB_CORE_NODES;
+        int lastHot = firstHot + NB_NODES / 4;
+        for (int pass = 0; pass < 4; pass++) {
+            for (int i = firstHot; i < lastHot; i++) {
+                fCache.get(i);
+            }
+        }
+        for (int i = lastHot; i < lastHot + NB_NODES * 5; i++) {
+            fCache.get(i);
+        }
+        for (int i = firstHot; i < lastHot; i++) {
+            assertTrue(fCache.contains(i));
+        }
+    }
+
+    /**
+     * Test that filling a cache does not evict the nodes of another
+     *
+     * @throws IOException
+     *             Exceptions thrown by the cache
+     */
+    @Test
+    public void testIsolation() throws IOException {
+        INodeCache<TestNode> other = createCache("other"); //$NON-NLS-1$
+        try {
+            other.get(NB_CORE_NODES);
+            for (int i = 0; i < NB_NODES * 10; i++) {
+                fCache.get(i);
+            }
+            assertTrue(other.contains(NB_CORE_NODES));
+            assertEquals(0, other.getStatistics().getEvictionCount());
+        } finally {
+            other.dispose();
+        }
+    }
+
+    /**
+     * Test that the caches created without a quota share the budget
+     *
+     * @throws IOException
+     *             Exceptions thrown by the cache
+     */
+    @Test
+    public void testBudget() throws IOException {
+        long budget = 4 * NodeCacheFactory.MIN_QUOTA;
+        System.setProperty(NodeCacheFactory.BUDGET_PROPERTY, String.valueOf(budget));
+        try {
+            INodeCache<TestNode> first = createSharingCache("first"); //$NON-NLS-1$
+            INodeCache<TestNode> second = createSharingCache("second"); //$NON-NLS-1$
+            try {
+                assertTrue(NodeCacheFactory.getShare() <= budget / 2);
+                int nbNodes = (int) (budget / NODE_WEIGHT);
+                for (int i = 0; i < nbNodes; i++) {
+                    first.get(i);
+                    second.get(i);
+                }
+                assertTrue(first.getWeight() <= budget / 2);
+                assertTrue(second.getWeight() <= budget / 2);
+            } finally {
+                first.dispose();
+                second.dispose();
+            }
+        } finally {
+            System.clearProperty(NodeCacheFactory.BUDGET_PROPERTY);
+        }
+    }
+
+    /**
+     * Test that the shares of many caches do not add up to more than the
+     * budget
+     */
+    @Test
+    public void testBudgetManyCaches() {
+        long budget = 4 * NodeCacheFactory.MIN_QUOTA;
+        System.setProperty(NodeCacheFactory.BUDGET_PROPERTY, String.valueOf(budget));
+        List<INodeCache<TestNode>> caches = new ArrayList<>();
+        try {
+            for (int i = 0; i < 10; i++) {
+                caches.add(createSharingCache("cache" + i)); //$NON-NLS-1$
+            }
+            assertTrue(NodeCacheFactory.getShare() * caches.size() <= budget);
+        } finally {
+            caches.forEach(INodeCache::dispose);
+            System.clearProperty(NodeCacheFactory.BUDGET_PROPERTY);
+        }
+    }
+
+    private INodeCache<TestNode> createSharingCache(String name) {
+        return NodeCacheFactory.createCache(name, fPolicy, TestNode::new,
+                node -> NODE_WEIGHT, node -> node.getSeq() < NB_CORE_NODES);
+    }
+
+    /**
+     * Test that a node rejected by the TinyLFU policy does not evict anything,
+     * even when it would have to evict more than one node to be admitted
+     *
+     * @throws IOException
+     *             Exceptions thrown by the cache
+     */
+    @Test
+    public void testRejection() throws IOException {
+        assumeTrue(fPolicy == EvictionPolicy.TINY_LFU);
+        /* Nodes from NB_NODES on weigh as much as two others */
+        INodeCache<TestNode> cache = NodeCacheFactory.createCache("rejection", QUOTA, fPolicy, TestNode::new, //$NON-NLS-1$
+                node -> node.getSeq() < NB_NODES ? NODE_WEIGHT : 2 * NODE_WEIGHT, node -> false);
+        try {
+            /* Fill the cache with nodes accessed many times */
+            for (int pass = 0; pass < 10; pass++) {
+                for (int i = 0; i < NB_NODES; i++) {
+                    cache.get(i);
+                }
+            }
+            NodeCacheStatistics stats = cache.getStatistics();
+            long weight = cache.getWeight();
+            long evictions = stats.getEvictionCount();
+            long rejections = stats.getRejectionCount();
+
+            /*
+             * Heavier nodes read once are either rejected, or admitted in
+             * place of two nodes, so the weight of the cache does not change
+             */
+            for (int i = NB_NODES; i < NB_NODES + NB_NODES / 4; i++) {
+                cache.get(i);
+                assertEquals(weight, cache.getWeight());
+            }
+            assertTrue(stats.getRejectionCount() > rejections);
+            assertEquals(0, (stats.getEvictionCount() - evictions) % 2);
+        } finally {
+            cache.dispose();
+        }
+    }
+
+    /**
+     * Test invalidating and disposing of the cache
+     *
+     * @throws IOException
+     *             Exceptions thrown by the cache
+     */
+    @Test
+    public void testInvalidate() throws IOException {
+        for (int i = 0; i < NB_NODES / 2; i++) {
+            fCache.get(i);
+        }
+        assertTrue(fCache.getWeight() > 0);
+        assertTrue(NodeCacheFactory.getTotalWeight() >= fCache.getWeight());
+
+        fCache.invalidateAll();
+        assertEquals(0, fCache.getWeight());
+        for (int i = 0; i < NB_NODES / 2; i++) {
+            assertFalse(fCache.contains(i));
+        }
+        assertNotNull(fCache.get(0));
+        assertTrue(fCache.contains(0));
+
+        fCache.dispose();
+        assertFalse(fCache.contains(0));
+        assertEquals(0, fCache.getWeight());
+    }
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2010, 2025 École Polytechnique de Montréal and others
+ * Copyright (c) 2010, 2026 École Polytechnique de Montréal and others
  *
  * All rights reserved. This program and the accompanying materials are
  * made available under the terms of the Eclipse Public License 2.0 which
@@ -11,33 +11,29 @@
 
 package org.eclipse.tracecompass.internal.datastore.core.historytree;
 
-import static org.eclipse.tracecompass.common.core.NonNullUtils.checkNotNull;
-
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.nio.channels.ClosedChannelException;
 import java.nio.channels.FileChannel;
-import java.util.Objects;
-import java.util.concurrent.ExecutionException;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
-import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.tracecompass.common.core.log.TraceCompassLog;
 import org.eclipse.tracecompass.datastore.core.interval.IHTInterval;
 import org.eclipse.tracecompass.datastore.core.interval.IHTIntervalReader;
 import org.eclipse.tracecompass.internal.datastore.core.Activator;
+import org.eclipse.tracecompass.internal.provisional.datastore.core.cache.INodeCache;
+import org.eclipse.tracecompass.internal.provisional.datastore.core.cache.NodeCacheFactory;
+import org.eclipse.tracecompass.internal.provisional.datastore.core.cache.NodeCacheStatistics;
 import org.eclipse.tracecompass.internal.provisional.datastore.core.historytree.AbstractHistoryTree.IHTNodeFactory;
 import org.eclipse.tracecompass.internal.provisional.datastore.core.historytree.HTNode;
+import org.eclipse.tracecompass.internal.provisional.datastore.core.historytree.IHTNode.NodeType;
 import org.eclipse.tracecompass.internal.provisional.datastore.core.historytree.IHistoryTree;
 import org.eclipse.tracecompass.traceeventlogger.LogUtils;
 
 import com.google.common.annotations.VisibleForTesting;
-import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
 
 /**
  * This class abstracts inputs/outputs of the HistoryTree nodes.
@@ -60,71 +56,16 @@ public class HtIo<E extends IHTInterval, N extends HTNode<E>> {
     private static final Logger LOGGER = TraceCompassLog.getLogger(HtIo.class);
 
     // ------------------------------------------------------------------------
-    // Global cache of nodes
+    // Cache of nodes
     // ------------------------------------------------------------------------
 
-    private static final class CacheKey {
-
-        public final HtIo<IHTInterval, HTNode<IHTInterval>> fHistoryTreeIo;
-        public final int fSeqNumber;
-
-        public CacheKey(HtIo<IHTInterval, HTNode<IHTInterval>> htio, int seqNumber) {
-            fHistoryTreeIo = htio;
-            fSeqNumber = seqNumber;
-        }
-
-        @Override
-        public int hashCode() {
-            return Objects.hash(fHistoryTreeIo, fSeqNumber);
-        }
-
-        @Override
-        public boolean equals(@Nullable Object obj) {
-            if (this == obj) {
-                return true;
-            }
-            if (obj == null) {
-                return false;
-            }
-            if (getClass() != obj.getClass()) {
-                return false;
-            }
-            CacheKey other = (CacheKey) obj;
-            return (fHistoryTreeIo.equals(other.fHistoryTreeIo) &&
-                    fSeqNumber == other.fSeqNumber);
-        }
-    }
-
-    private static final int CACHE_SIZE = 230;
-
-    private static final LoadingCache<CacheKey, HTNode<IHTInterval>> NODE_CACHE = checkNotNull(CacheBuilder.newBuilder()
-            .maximumSize(CACHE_SIZE)
-            .build(new CacheLoader<CacheKey, HTNode<IHTInterval>>() {
-                @Override
-                public HTNode<IHTInterval> load(CacheKey key) throws IOException {
-                    HtIo<IHTInterval, HTNode<IHTInterval>> io = key.fHistoryTreeIo;
-                    int seqNb = key.fSeqNumber;
-
-                    LogUtils.traceInstant(LOGGER, Level.FINEST, "HtIo:CacheMiss", "seqNum", seqNb); //$NON-NLS-1$ //$NON-NLS-2$
-
-                    synchronized (io) {
-                        io.seekFCToNodePos(io.fFileChannelIn, seqNb);
-                        return HTNode.readNode(io.fBlockSize,
-                                io.fNodeMaxChildren,
-                                io.fFileChannelIn,
-                                io.fObjectReader,
-                                io.fNodeFactory);
-                    }
-                }
-            }));
-
     /**
-     * This method invalidates all data in the cache so nodes will have to be
+     * This method invalidates all data in the caches so nodes will have to be
      * read again
      */
     @VisibleForTesting
     public static void clearCache() {
-        NODE_CACHE.invalidateAll();
+        NodeCacheFactory.invalidateAll();
     }
 
     /**
@@ -139,9 +80,7 @@ public class HtIo<E extends IHTInterval, N extends HTNode<E>> {
      */
     @VisibleForTesting
     public static <E extends IHTInterval, N extends HTNode<E>> boolean isInCache(HtIo<E, N> htio, int seqNum) {
-        @SuppressWarnings("unchecked")
-        @Nullable HTNode<IHTInterval> present = NODE_CACHE.getIfPresent(new CacheKey((HtIo<IHTInterval, HTNode<IHTInterval>>) htio, seqNum));
-        return (present != null);
+        return htio.fNodeCache.contains(seqNum);
     }
 
     // ------------------------------------------------------------------------
@@ -161,6 +100,9 @@ public class HtIo<E extends IHTInterval, N extends HTNode<E>> {
     private final FileChannel fFileChannelIn;
     private final FileChannel fFileChannelOut;
 
+    /* Cache of the nodes of this tree, bounded by their size in bytes */
+    private final INodeCache<N> fNodeCache;
+
     // ------------------------------------------------------------------------
     // Methods
     // ------------------------------------------------------------------------
@@ -223,6 +165,30 @@ public class HtIo<E extends IHTInterval, N extends HTNode<E>> {
         }
         fFileChannelIn = fFileInputStream.getChannel();
         fFileChannelOut = fFileOutputStream.getChannel();
+        fNodeCache = NodeCacheFactory.createCache(fStateHistoryFile.getName(),
+                this::loadNode,
+                node -> node.getHeapSize(),
+                node -> node.getNodeType() == NodeType.CORE);
+    }
+
+    private N loadNode(int seqNumber) throws IOException {
+        synchronized (this) {
+            seekFCToNodePos(fFileChannelIn, seqNumber);
+            return HTNode.readNode(fBlockSize,
+                    fNodeMaxChildren,
+                    fFileChannelIn,
+                    fObjectReader,
+                    fNodeFactory);
+        }
+    }
+
+    /**
+     * Get the statistics of the node cache of this tree
+     *
+     * @return The cache statistics
+     */
+    public NodeCacheStatistics getCacheStatistics() {
+        return fNodeCache.getStatistics();
     }
 
     /**
@@ -236,20 +202,15 @@ public class HtIo<E extends IHTInterval, N extends HTNode<E>> {
      *             reading. Instead of using a big reader-writer lock, we'll
      *             just catch this exception.
      */
-    @SuppressWarnings("unchecked")
     public N readNode(int seqNumber) throws ClosedChannelException {
         /* Do a cache lookup. If it's not present it will be loaded from disk */
         LogUtils.traceInstant(LOGGER, Level.FINEST, "HtIo:CacheLookup", "seqNum", seqNumber); //$NON-NLS-1$ //$NON-NLS-2$
-        CacheKey key = new CacheKey((HtIo<IHTInterval, HTNode<IHTInterval>>) this, seqNumber);
         try {
-            return (N) checkNotNull(NODE_CACHE.get(key));
+            return fNodeCache.get(seqNumber);
 
-        } catch (ExecutionException e) {
-            /* Get the inner exception that was generated */
-            Throwable cause = e.getCause();
-            if (cause instanceof ClosedChannelException) {
-                throw (ClosedChannelException) cause;
-            }
+        } catch (ClosedChannelException e) {
+            throw e;
+        } catch (IOException e) {
             /*
              * Other types of IOExceptions shouldn't happen at this point
              * though.
@@ -265,14 +226,12 @@ public class HtIo<E extends IHTInterval, N extends HTNode<E>> {
      * @param node
      *            The node to write.
      */
-    @SuppressWarnings("unchecked")
     public void writeNode(N node) {
         try {
             int seqNumber = node.getSequenceNumber();
 
             /* "Write-back" the node into the cache */
-            CacheKey key = new CacheKey((HtIo<IHTInterval, HTNode<IHTInterval>>) this, seqNumber);
-            NODE_CACHE.put(key, (HTNode<IHTInterval>) node);
+            fNodeCache.put(seqNumber, node);
 
             /* Position ourselves at the start of the node and write it */
             synchronized (this) {
@@ -338,6 +297,7 @@ public class HtIo<E extends IHTInterval, N extends HTNode<E>> {
      * Close all file channels and streams.
      */
     public synchronized void closeFile() {
+        fNodeCache.dispose();
         try {
             fFileInputStream.close();
             fFileOutputStream.close();
@@ -0,0 +1,154 @@
+/*******************************************************************************
+ * Copyright (c) 2026 École Polytechnique de Montréal
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.internal.provisional.datastore.core.cache;
+
+import java.io.IOException;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.eclipse.tracecompass.common.core.log.TraceCompassLog;
+import org.eclipse.tracecompass.traceeventlogger.LogUtils;
+
+/**
+ * Base class for the node caches, with the configuration common to all
+ * eviction policies. A quarter of the quota is reserved for pinned nodes, the
+ * rest is for the nodes that can be evicted. The quota may change over time,
+ * when it is a share of a budget, so it is read again on each insertion.
+ *
+ * @param <N>
+ *            The type of nodes in the cache
+ */
+abstract class AbstractNodeCache<N> implements INodeCache<N> {
+
+    private static final Logger LOGGER = TraceCompassLog.getLogger(AbstractNodeCache.class);
+
+    private static final int PINNED_QUOTA_RATIO = 4;
+
+    private final String fName;
+    private final LongSupplier fQuota;
+    private final INodeLoader<N> fLoader;
+    private final ToIntFunction<N> fWeigher;
+    private final Predicate<N> fPinnable;
+    private final NodeCacheStatistics fStatistics = new NodeCacheStatistics();
+
+    /**
+     * Constructor
+     *
+     * @param name
+     *            The name of this cache, for logging
+     * @param quota
+     *            The supplier of the maximum weight of this cache, in bytes
+     * @param loader
+     *            The function to load the nodes that are not in the cache
+     * @param weigher
+     *            The function returning the weight of a node, in bytes
+     * @param pinnable
+     *            The predicate telling whether a node should be pinned in the
+     *            cache if there is room for it
+     */
+    protected AbstractNodeCache(String name, LongSupplier quota, INodeLoader<N> loader, ToIntFunction<N> weigher, Predicate<N> pinnable) {
+        fName = name;
+        fQuota = quota;
+        fLoader = loader;
+        fWeigher = weigher;
+        fPinnable = pinnable;
+    }
+
+    /**
+     * Get the current maximum weight of this cache
+     *
+     * @return The quota, in bytes
+     */
+    protected long getQuota() {
+        return fQuota.getAsLong();
+    }
+
+    /**
+     * Get the maximum weight of the pinned nodes
+     *
+     * @return The quota for pinned nodes, in bytes
+     */
+    protected long getPinnedQuota() {
+        return getQuota() / PINNED_QUOTA_RATIO;
+    }
+
+    /**
+     * Get the maximum weight of the nodes that can be evicted
+     *
+     * @return The quota for the other nodes, in bytes
+     */
+    protected long getEvictableQuota() {
+        long quota = getQuota();
+        return quota - quota / PINNED_QUOTA_RATIO;
+    }
+
+    /**
+     * Load a node that is not in the cache
+     *
+     * @param seqNumber
+     *            The sequence number of the node
+     * @return The node
+     * @throws IOException
+     *             Exceptions from the loader
+     */
+    protected N load(int seqNumber) throws IOException {
+        LogUtils.traceInstant(LOGGER, Level.FINEST, "NodeCache:CacheMiss", "cache", fName, "seqNum", seqNumber); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+        fStatistics.recordMiss();
+        return fLoader.load(seqNumber);
+    }
+
+    /**
+     * Get the weight of a node
+     *
+     * @param node
+     *            The node
+     * @return The weight, at least 1 byte
+     */
+    protected int weigh(N node) {
+        return Math.max(1, fWeigher.applyAsInt(node));
+    }
+
+    /**
+     * Get whether a node should be pinned if there is room for it
+     *
+     * @param node
+     *            The node
+     * @return <code>true</code> if the node should be pinned
+     */
+    protected boolean isPinnable(N node) {
+        return fPinnable.test(node);
+    }
+
+    @Override
+    public NodeCacheStatistics getStatistics() {
+        return fStatistics;
+    }
+
+    @Override
+    public void dispose() {
+        invalidateAll();
+        NodeCacheFactory.unregister(this);
+        LogUtils.traceInstant(LOGGER, Level.FINE, "NodeCache:Dispose", "cache", fName, //$NON-NLS-1$ //$NON-NLS-2$
+                "hits", fStatistics.getHitCount(), //$NON-NLS-1$
+                "misses", fStatistics.getMissCount(), //$NON-NLS-1$
+                "evictions", fStatistics.getEvictionCount(), //$NON-NLS-1$
+                "rejections", fStatistics.getRejectionCount()); //$NON-NLS-1$
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + '[' + fName + ", weight=" + getWeight() + ", " + fStatistics + ']'; //$NON-NLS-1$ //$NON-NLS-2$
+    }
+}
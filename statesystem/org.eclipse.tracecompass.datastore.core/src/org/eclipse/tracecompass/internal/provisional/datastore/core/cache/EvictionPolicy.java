@@ -0,0 +1,30 @@
+/*******************************************************************************
+ * Copyright (c) 2026 École Polytechnique de Montréal
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.internal.provisional.datastore.core.cache;
+
+/**
+ * The policies available to select the nodes to evict from an
+ * {@link INodeCache}
+ */
+public enum EvictionPolicy {
+    /**
+     * Evict the least recently used node
+     */
+    LRU,
+    /**
+     * Window TinyLFU: recently added nodes go through a small LRU window, then
+     * a node enters the main region only if it has been accessed more
+     * frequently than the node it would evict. This keeps the frequently used
+     * nodes when a large query scans many nodes only once.
+     */
+    TINY_LFU
+}
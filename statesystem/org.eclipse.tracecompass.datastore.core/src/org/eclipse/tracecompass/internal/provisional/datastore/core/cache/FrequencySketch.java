@@ -0,0 +1,97 @@
+/*******************************************************************************
+ * Copyright (c) 2026 École Polytechnique de Montréal
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.internal.provisional.datastore.core.cache;
+
+/**
+ * Count-min sketch of 4-bit counters estimating how often each key was
+ * accessed recently. All counters are halved once the number of increments
+ * reaches 10 times the expected number of keys, so that old accesses are
+ * progressively forgotten. This class is not thread-safe.
+ */
+class FrequencySketch {
+
+    private static final int MAX_COUNT = 15;
+    private static final int COUNTERS_PER_WORD = 16;
+    private static final long RESET_MASK = 0x7777777777777777L;
+    private static final int[] SEEDS = { 0x97cb3127, 0xb79c9257, 0xc2b2ae35, 0x85ebca6b };
+
+    private final long[] fTable;
+    private final int fCounterMask;
+    private final int fSampleSize;
+    private int fSize = 0;
+
+    /**
+     * Constructor
+     *
+     * @param expectedKeys
+     *            The expected number of distinct keys in the cache, at most
+     *            2^24
+     */
+    public FrequencySketch(int expectedKeys) {
+        /* One word of 16 counters per expected key, to limit collisions */
+        int words = Integer.highestOneBit(Math.max(1, expectedKeys - 1) << 1);
+        fTable = new long[words];
+        fCounterMask = words * COUNTERS_PER_WORD - 1;
+        fSampleSize = 10 * Math.max(1, expectedKeys);
+    }
+
+    /**
+     * Get the estimated number of accesses to a key
+     *
+     * @param key
+     *            The key
+     * @return The estimated frequency, between 0 and 15
+     */
+    public int frequency(int key) {
+        int frequency = MAX_COUNT;
+        for (int seed : SEEDS) {
+            int counter = indexOf(key, seed);
+            frequency = Math.min(frequency, (int) ((fTable[counter >>> 4] >>> ((counter & 0xF) << 2)) & MAX_COUNT));
+        }
+        return frequency;
+    }
+
+    /**
+     * Record an access to a key
+     *
+     * @param key
+     *            The key
+     */
+    public void increment(int key) {
+        boolean added = false;
+        for (int seed : SEEDS) {
+            int counter = indexOf(key, seed);
+            int word = counter >>> 4;
+            int offset = (counter & 0xF) << 2;
+            if (((fTable[word] >>> offset) & MAX_COUNT) < MAX_COUNT) {
+                fTable[word] += 1L << offset;
+                added = true;
+            }
+        }
+        if (added && ++fSize >= fSampleSize) {
+            reset();
+        }
+    }
+
+    private void reset() {
+        for (int i = 0; i < fTable.length; i++) {
+            fTable[i] = (fTable[i] >>> 1) & RESET_MASK;
+        }
+        fSize /= 2;
+    }
+
+    private int indexOf(int key, int seed) {
+        int hash = (key + seed) * seed;
+        hash ^= hash >>> 16;
+        return hash & fCounterMask;
+    }
+}
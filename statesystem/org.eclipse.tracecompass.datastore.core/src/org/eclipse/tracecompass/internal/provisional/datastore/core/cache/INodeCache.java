@@ -0,0 +1,117 @@
+/*******************************************************************************
+ * Copyright (c) 2026 École Polytechnique de Montréal
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.internal.provisional.datastore.core.cache;
+
+import java.io.IOException;
+
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * Cache of the nodes of one history tree, keyed by sequence number. The cache
+ * is bounded by the total weight, in bytes, of the nodes it contains. Some
+ * nodes, typically the root and core nodes, may be pinned in the cache, up to
+ * a fraction of the quota, so that they are never evicted by the leaves.
+ *
+ * Caches are obtained from the {@link NodeCacheFactory}.
+ *
+ * @param <N>
+ *            The type of nodes in the cache
+ */
+public interface INodeCache<N> {
+
+    /**
+     * Function to read a node that is not in the cache
+     *
+     * @param <N>
+     *            The type of nodes to load
+     */
+    @FunctionalInterface
+    interface INodeLoader<N> {
+
+        /**
+         * Load a node from the backing storage
+         *
+         * @param seqNumber
+         *            The sequence number of the node to load
+         * @return The node
+         * @throws IOException
+         *             If the node could not be read
+         */
+        N load(int seqNumber) throws IOException;
+    }
+
+    /**
+     * Get a node from the cache, loading it if it is not present
+     *
+     * @param seqNumber
+     *            The sequence number of the node
+     * @return The node
+     * @throws IOException
+     *             Exceptions thrown by the loader
+     */
+    N get(int seqNumber) throws IOException;
+
+    /**
+     * Get a node from the cache, only if it is present
+     *
+     * @param seqNumber
+     *            The sequence number of the node
+     * @return The node, or <code>null</code> if it is not in the cache
+     */
+    @Nullable N getIfPresent(int seqNumber);
+
+    /**
+     * Get whether a node is in the cache. Unlike the other methods, this does
+     * not count as an access to the node.
+     *
+     * @param seqNumber
+     *            The sequence number of the node
+     * @return <code>true</code> if the node is in the cache
+     */
+    boolean contains(int seqNumber);
+
+    /**
+     * Add a node to the cache, or replace the one that was there
+     *
+     * @param seqNumber
+     *            The sequence number of the node
+     * @param node
+     *            The node to add
+     */
+    void put(int seqNumber, N node);
+
+    /**
+     * Remove all nodes from the cache
+     */
+    void invalidateAll();
+
+    /**
+     * Get the total weight of the nodes currently in the cache, pinned ones
+     * included
+     *
+     * @return The weight, in bytes
+     */
+    long getWeight();
+
+    /**
+     * Get the statistics of this cache
+     *
+     * @return The hit, miss and eviction counters
+     */
+    NodeCacheStatistics getStatistics();
+
+    /**
+     * Empty the cache and unregister it from the factory. It should not be
+     * used afterwards.
+     */
+    void dispose();
+}
@@ -0,0 +1,148 @@
+/*******************************************************************************
+ * Copyright (c) 2026 École Polytechnique de Montréal
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.internal.provisional.datastore.core.cache;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
+
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * Node cache evicting the least recently used nodes. Pinned nodes are kept
+ * apart and are never evicted, the other nodes are kept in access order and
+ * the least recently used ones are evicted when their weight exceeds the
+ * evictable quota.
+ *
+ * Nodes are loaded outside of the lock, so two threads missing the same node
+ * at the same time may both read it, the last one read stays in the cache.
+ *
+ * @param <N>
+ *            The type of nodes in the cache
+ */
+class LruNodeCache<N> extends AbstractNodeCache<N> {
+
+    private static final class Entry<N> {
+        private final N fNode;
+        private final int fWeight;
+
+        public Entry(N node, int weight) {
+            fNode = node;
+            fWeight = weight;
+        }
+    }
+
+    /* All fields below are guarded by 'this' */
+    private final Map<Integer, Entry<N>> fPinned = new HashMap<>();
+    private final Map<Integer, Entry<N>> fNodes = new LinkedHashMap<>(16, 0.75f, true);
+    private long fPinnedWeight = 0;
+    private long fNodesWeight = 0;
+
+    /**
+     * Constructor
+     *
+     * @param name
+     *            The name of this cache, for logging
+     * @param quota
+     *            The supplier of the maximum weight of this cache, in bytes
+     * @param loader
+     *            The function to load the nodes that are not in the cache
+     * @param weigher
+     *            The function returning the weight of a node, in bytes
+     * @param pinnable
+     *            The predicate telling whether a node should be pinned in the
+     *            cache if there is room for it
+     */
+    public LruNodeCache(String name, LongSupplier quota, INodeLoader<N> loader, ToIntFunction<N> weigher, Predicate<N> pinnable) {
+        super(name, quota, loader, weigher, pinnable);
+    }
+
+    @Override
+    public N get(int seqNumber) throws IOException {
+        N node = getIfPresent(seqNumber);
+        if (node != null) {
+            return node;
+        }
+        node = load(seqNumber);
+        put(seqNumber, node);
+        return node;
+    }
+
+    @Override
+    public synchronized @Nullable N getIfPresent(int seqNumber) {
+        Entry<N> entry = fPinned.get(seqNumber);
+        if (entry == null) {
+            /* This node is now the most recently used */
+            entry = fNodes.get(seqNumber);
+        }
+        if (entry == null) {
+            return null;
+        }
+        getStatistics().recordHit();
+        return entry.fNode;
+    }
+
+    @Override
+    public synchronized boolean contains(int seqNumber) {
+        return fPinned.containsKey(seqNumber) || fNodes.containsKey(seqNumber);
+    }
+
+    @Override
+    public synchronized void put(int seqNumber, N node) {
+        remove(seqNumber);
+        Entry<N> entry = new Entry<>(node, weigh(node));
+        if (isPinnable(node) && fPinnedWeight + entry.fWeight <= getPinnedQuota()) {
+            fPinned.put(seqNumber, entry);
+            fPinnedWeight += entry.fWeight;
+            return;
+        }
+        fNodes.put(seqNumber, entry);
+        fNodesWeight += entry.fWeight;
+        long quota = getEvictableQuota();
+        Iterator<Entry<N>> iterator = fNodes.values().iterator();
+        while (fNodesWeight > quota && iterator.hasNext()) {
+            Entry<N> evicted = iterator.next();
+            iterator.remove();
+            fNodesWeight -= evicted.fWeight;
+            getStatistics().recordEviction();
+        }
+    }
+
+    private void remove(int seqNumber) {
+        Entry<N> previous = fPinned.remove(seqNumber);
+        if (previous != null) {
+            fPinnedWeight -= previous.fWeight;
+        }
+        previous = fNodes.remove(seqNumber);
+        if (previous != null) {
+            fNodesWeight -= previous.fWeight;
+        }
+    }
+
+    @Override
+    public synchronized void invalidateAll() {
+        fPinned.clear();
+        fNodes.clear();
+        fPinnedWeight = 0;
+        fNodesWeight = 0;
+    }
+
+    @Override
+    public synchronized long getWeight() {
+        return fPinnedWeight + fNodesWeight;
+    }
+}
@@ -0,0 +1,225 @@
+/*******************************************************************************
+ * Copyright (c) 2026 École Polytechnique de Montréal
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.internal.provisional.datastore.core.cache;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
+
+import org.eclipse.tracecompass.internal.provisional.datastore.core.cache.INodeCache.INodeLoader;
+
+/**
+ * Factory for the {@link INodeCache} of the history trees. Each history tree
+ * gets its own cache, so the nodes of one tree are never evicted to make room
+ * for the nodes of another one.
+ *
+ * By default, the caches of all the open trees share a process-wide memory
+ * budget: each one may hold an equal share of it, so together they never hold
+ * more than the budget. A cache that holds more than its share, because other
+ * caches were created since, trims itself on its next insertion. The weights
+ * of the nodes are estimates of their size in memory.
+ *
+ * The factory only keeps weak references to the caches, so a cache that was
+ * never disposed no longer counts against the budget once it is collected.
+ *
+ * The budget and the default eviction policy can be set with the
+ * {@value #BUDGET_PROPERTY} (in bytes) and {@value #POLICY_PROPERTY} (one of
+ * {@link EvictionPolicy}) system properties.
+ */
+public final class NodeCacheFactory {
+
+    /** System property for the memory budget of all the caches, in bytes */
+    public static final String BUDGET_PROPERTY = "org.eclipse.tracecompass.datastore.nodecache.budget"; //$NON-NLS-1$
+    /** System property for the default eviction policy */
+    public static final String POLICY_PROPERTY = "org.eclipse.tracecompass.datastore.nodecache.policy"; //$NON-NLS-1$
+
+    /**
+     * Minimum budget of the caches, about as many 64 KiB nodes as the former
+     * shared caches kept for one tree
+     */
+    public static final long MIN_QUOTA = 1024L * 1024;
+
+    private static final Set<INodeCache<?>> CACHES = Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+    private static final Set<INodeCache<?>> SHARING_CACHES = Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+
+    private NodeCacheFactory() {
+        // Do nothing
+    }
+
+    /**
+     * Create a node cache sharing the budget, with the default eviction policy
+     *
+     * @param name
+     *            The name of the cache, usually the name of the history file
+     * @param loader
+     *            The function to load the nodes that are not in the cache
+     * @param weigher
+     *            The function returning the weight of a node, in bytes
+     * @param pinnable
+     *            The predicate telling whether a node should be pinned in the
+     *            cache if there is room for it
+     * @param <N>
+     *            The type of nodes in the cache
+     * @return The new cache
+     */
+    public static <N> INodeCache<N> createCache(String name, INodeLoader<N> loader, ToIntFunction<N> weigher, Predicate<N> pinnable) {
+        return createCache(name, getDefaultPolicy(), loader, weigher, pinnable);
+    }
+
+    /**
+     * Create a node cache sharing the budget
+     *
+     * @param name
+     *            The name of the cache, usually the name of the history file
+     * @param policy
+     *            The policy to select the nodes to evict
+     * @param loader
+     *            The function to load the nodes that are not in the cache
+     * @param weigher
+     *            The function returning the weight of a node, in bytes
+     * @param pinnable
+     *            The predicate telling whether a node should be pinned in the
+     *            cache if there is room for it
+     * @param <N>
+     *            The type of nodes in the cache
+     * @return The new cache
+     */
+    public static <N> INodeCache<N> createCache(String name, EvictionPolicy policy,
+            INodeLoader<N> loader, ToIntFunction<N> weigher, Predicate<N> pinnable) {
+        INodeCache<N> cache = createCache(name, NodeCacheFactory::getShare, policy, loader, weigher, pinnable);
+        SHARING_CACHES.add(cache);
+        return cache;
+    }
+
+    /**
+     * Create a node cache with its own fixed quota, outside of the budget
+     *
+     * @param name
+     *            The name of the cache, usually the name of the history file
+     * @param quota
+     *            The maximum weight of the cache, in bytes. A quarter of it is
+     *            reserved for pinned nodes.
+     * @param policy
+     *            The policy to select the nodes to evict
+     * @param loader
+     *            The function to load the nodes that are not in the cache
+     * @param weigher
+     *            The function returning the weight of a node, in bytes
+     * @param pinnable
+     *            The predicate telling whether a node should be pinned in the
+     *            cache if there is room for it
+     * @param <N>
+     *            The type of nodes in the cache
+     * @return The new cache
+     */
+    public static <N> INodeCache<N> createCache(String name, long quota, EvictionPolicy policy,
+            INodeLoader<N> loader, ToIntFunction<N> weigher, Predicate<N> pinnable) {
+        return createCache(name, () -> quota, policy, loader, weigher, pinnable);
+    }
+
+    private static <N> INodeCache<N> createCache(String name, LongSupplier quota, EvictionPolicy policy,
+            INodeLoader<N> loader, ToIntFunction<N> weigher, Predicate<N> pinnable) {
+        INodeCache<N> cache;
+        switch (policy) {
+        case TINY_LFU:
+            cache = new TinyLfuNodeCache<>(name, quota, loader, weigher, pinnable);
+            break;
+        case LRU:
+        default:
+            cache = new LruNodeCache<>(name, quota, loader, weigher, pinnable);
+            break;
+        }
+        CACHES.add(cache);
+        return cache;
+    }
+
+    /**
+     * Get the memory budget shared by the caches, from the
+     * {@value #BUDGET_PROPERTY} system property. It defaults to 1/32 of the
+     * maximum heap size, and is never less than {@link #MIN_QUOTA}.
+     *
+     * @return The budget, in bytes
+     */
+    public static long getBudget() {
+        Long budget = Long.getLong(BUDGET_PROPERTY);
+        return Math.max(MIN_QUOTA, (budget == null || budget <= 0) ? Runtime.getRuntime().maxMemory() / 32 : budget);
+    }
+
+    /**
+     * Get the current quota of each cache sharing the budget
+     *
+     * @return The share of the budget, in bytes
+     */
+    public static long getShare() {
+        return getBudget() / Math.max(1, SHARING_CACHES.size());
+    }
+
+    /**
+     * Get the default eviction policy of the caches, from the
+     * {@value #POLICY_PROPERTY} system property
+     *
+     * @return The eviction policy
+     */
+    public static EvictionPolicy getDefaultPolicy() {
+        String policy = System.getProperty(POLICY_PROPERTY);
+        if (policy != null) {
+            for (EvictionPolicy value : EvictionPolicy.values()) {
+                if (value.name().equalsIgnoreCase(policy)) {
+                    return value;
+                }
+            }
+        }
+        return EvictionPolicy.LRU;
+    }
+
+    /**
+     * Get the total weight of all the caches currently in use
+     *
+     * @return The total weight, in bytes
+     */
+    public static long getTotalWeight() {
+        long weight = 0;
+        for (INodeCache<?> cache : getCaches()) {
+            weight += cache.getWeight();
+        }
+        return weight;
+    }
+
+    /**
+     * Empty all the caches currently in use
+     */
+    public static void invalidateAll() {
+        for (INodeCache<?> cache : getCaches()) {
+            cache.invalidateAll();
+        }
+    }
+
+    /**
+     * Get a copy of the caches currently in use, to work on them without
+     * holding the lock of the set
+     */
+    private static List<INodeCache<?>> getCaches() {
+        synchronized (CACHES) {
+            return new ArrayList<>(CACHES);
+        }
+    }
+
+    static void unregister(INodeCache<?> cache) {
+        CACHES.remove(cache);
+        SHARING_CACHES.remove(cache);
+    }
+}
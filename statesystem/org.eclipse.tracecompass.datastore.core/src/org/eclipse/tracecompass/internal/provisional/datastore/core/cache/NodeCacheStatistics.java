@@ -0,0 +1,110 @@
+/*******************************************************************************
+ * Copyright (c) 2026 École Polytechnique de Montréal
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.internal.provisional.datastore.core.cache;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters of the accesses to an {@link INodeCache}. The counters can be
+ * updated concurrently.
+ */
+public final class NodeCacheStatistics {
+
+    private final LongAdder fHits = new LongAdder();
+    private final LongAdder fMisses = new LongAdder();
+    private final LongAdder fEvictions = new LongAdder();
+    private final LongAdder fRejections = new LongAdder();
+
+    /**
+     * Record a request that was served from the cache
+     */
+    public void recordHit() {
+        fHits.increment();
+    }
+
+    /**
+     * Record a request for which the node had to be loaded
+     */
+    public void recordMiss() {
+        fMisses.increment();
+    }
+
+    /**
+     * Record a node that was evicted from the cache to make room for others
+     */
+    public void recordEviction() {
+        fEvictions.increment();
+    }
+
+    /**
+     * Record a node that was not kept in the cache, because it was less
+     * frequently used than the nodes it would have evicted
+     */
+    public void recordRejection() {
+        fRejections.increment();
+    }
+
+    /**
+     * Get the number of requests served from the cache
+     *
+     * @return The number of hits
+     */
+    public long getHitCount() {
+        return fHits.sum();
+    }
+
+    /**
+     * Get the number of requests for which the node had to be loaded
+     *
+     * @return The number of misses
+     */
+    public long getMissCount() {
+        return fMisses.sum();
+    }
+
+    /**
+     * Get the number of nodes evicted because the cache was full
+     *
+     * @return The number of evictions
+     */
+    public long getEvictionCount() {
+        return fEvictions.sum();
+    }
+
+    /**
+     * Get the number of nodes that were not admitted in the cache
+     *
+     * @return The number of rejections
+     */
+    public long getRejectionCount() {
+        return fRejections.sum();
+    }
+
+    /**
+     * Get the ratio of requests served from the cache
+     *
+     * @return The hit ratio, between 0 and 1, or 1 if there was no request
+     */
+    public double getHitRate() {
+        long hits = getHitCount();
+        long total = hits + getMissCount();
+        return (total == 0) ? 1.0 : (double) hits / total;
+    }
+
+    @Override
+    public String toString() {
+        return "hits=" + getHitCount() + //$NON-NLS-1$
+                ", misses=" + getMissCount() + //$NON-NLS-1$
+                ", evictions=" + getEvictionCount() + //$NON-NLS-1$
+                ", rejections=" + getRejectionCount(); //$NON-NLS-1$
+    }
+}
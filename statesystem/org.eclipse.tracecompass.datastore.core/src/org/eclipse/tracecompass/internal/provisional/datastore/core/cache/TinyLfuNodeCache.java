@@ -0,0 +1,296 @@
+/*******************************************************************************
+ * Copyright (c) 2026 École Polytechnique de Montréal
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.internal.provisional.datastore.core.cache;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
+
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * Node cache using the Window TinyLFU policy. New nodes enter a small LRU
+ * window. Nodes leaving the window are admitted in the main region, a
+ * segmented LRU, only if the {@link FrequencySketch} estimates they are used
+ * more often than the node they would evict. A node read once by a long scan
+ * thus does not evict the nodes that all queries go through.
+ *
+ * Nodes are loaded outside of the lock, so two threads missing the same node
+ * at the same time may both read it, the last one read stays in the cache.
+ *
+ * @param <N>
+ *            The type of nodes in the cache
+ */
+class TinyLfuNodeCache<N> extends AbstractNodeCache<N> {
+
+    /** Percentage of the evictable quota used by the window */
+    private static final int WINDOW_PERCENT = 1;
+    /** Percentage of the main region used by the protected segment */
+    private static final int PROTECTED_PERCENT = 80;
+    /**
+     * Weight used to estimate the number of nodes, for the sketch. The sketch
+     * uses 8 bytes per expected node, so about 0.2% of the quota.
+     */
+    private static final int EXPECTED_NODE_WEIGHT = 4096;
+    /** Bound of the sketch, 8 MB, reached with a quota of 4 GB */
+    private static final int MAX_EXPECTED_NODES = 1 << 20;
+
+    private enum Region {
+        PINNED, WINDOW, PROBATION, PROTECTED
+    }
+
+    private static final class Entry<N> {
+        private final int fKey;
+        private final N fNode;
+        private final int fWeight;
+        private Region fRegion;
+
+        public Entry(int key, N node, int weight, Region region) {
+            fKey = key;
+            fNode = node;
+            fWeight = weight;
+            fRegion = region;
+        }
+    }
+
+    private final FrequencySketch fSketch;
+
+    /* All fields below are guarded by 'this' */
+    private final Map<Integer, Entry<N>> fEntries = new HashMap<>();
+    private final Map<Integer, Entry<N>> fPinned = new LinkedHashMap<>();
+    private final Map<Integer, Entry<N>> fWindow = new LinkedHashMap<>();
+    private final Map<Integer, Entry<N>> fProbation = new LinkedHashMap<>();
+    private final Map<Integer, Entry<N>> fProtected = new LinkedHashMap<>();
+    private final long[] fRegionWeights = new long[Region.values().length];
+
+    /**
+     * Constructor
+     *
+     * @param name
+     *            The name of this cache, for logging
+     * @param quota
+     *            The supplier of the maximum weight of this cache, in bytes.
+     *            The frequency sketch is sized from its initial value.
+     * @param loader
+     *            The function to load the nodes that are not in the cache
+     * @param weigher
+     *            The function returning the weight of a node, in bytes
+     * @param pinnable
+     *            The predicate telling whether a node should be pinned in the
+     *            cache if there is room for it
+     */
+    public TinyLfuNodeCache(String name, LongSupplier quota, INodeLoader<N> loader, ToIntFunction<N> weigher, Predicate<N> pinnable) {
+        super(name, quota, loader, weigher, pinnable);
+        fSketch = new FrequencySketch((int) Math.min(MAX_EXPECTED_NODES, getQuota() / EXPECTED_NODE_WEIGHT));
+    }
+
+    private long getWindowQuota() {
+        return Math.max(1, getEvictableQuota() * WINDOW_PERCENT / 100);
+    }
+
+    private long getMainQuota() {
+        long evictable = getEvictableQuota();
+        return evictable - Math.max(1, evictable * WINDOW_PERCENT / 100);
+    }
+
+    @Override
+    public N get(int seqNumber) throws IOException {
+        N node = getIfPresent(seqNumber);
+        if (node != null) {
+            return node;
+        }
+        node = load(seqNumber);
+        synchronized (this) {
+            fSketch.increment(seqNumber);
+            insert(seqNumber, node);
+        }
+        return node;
+    }
+
+    @Override
+    public synchronized @Nullable N getIfPresent(int seqNumber) {
+        Entry<N> entry = fEntries.get(seqNumber);
+        if (entry == null) {
+            return null;
+        }
+        getStatistics().recordHit();
+        fSketch.increment(seqNumber);
+        onAccess(entry);
+        return entry.fNode;
+    }
+
+    @Override
+    public synchronized boolean contains(int seqNumber) {
+        return fEntries.containsKey(seqNumber);
+    }
+
+    @Override
+    public synchronized void put(int seqNumber, N node) {
+        fSketch.increment(seqNumber);
+        insert(seqNumber, node);
+    }
+
+    @Override
+    public synchronized void invalidateAll() {
+        fEntries.clear();
+        for (Region region : Region.values()) {
+            regionMap(region).clear();
+            fRegionWeights[region.ordinal()] = 0;
+        }
+    }
+
+    @Override
+    public synchronized long getWeight() {
+        long weight = 0;
+        for (long regionWeight : fRegionWeights) {
+            weight += regionWeight;
+        }
+        return weight;
+    }
+
+    // ------------------------------------------------------------------------
+    // Region management, must be called with the lock held
+    // ------------------------------------------------------------------------
+
+    private void insert(int seqNumber, N node) {
+        Entry<N> previous = fEntries.get(seqNumber);
+        if (previous != null) {
+            remove(previous);
+        }
+        int weight = weigh(node);
+        if (isPinnable(node) && weightOf(Region.PINNED) + weight <= getPinnedQuota()) {
+            add(new Entry<>(seqNumber, node, weight, Region.PINNED));
+            return;
+        }
+        add(new Entry<>(seqNumber, node, weight, Region.WINDOW));
+        long windowQuota = getWindowQuota();
+        long mainQuota = getMainQuota();
+        while (weightOf(Region.WINDOW) > windowQuota) {
+            Entry<N> candidate = head(Region.WINDOW);
+            if (candidate == null) {
+                break;
+            }
+            remove(candidate);
+            admit(candidate, mainQuota);
+        }
+    }
+
+    /**
+     * Move a node evicted from the window to the probation segment if it is
+     * more frequently used than all the nodes it has to evict. The victims are
+     * only evicted once the candidate is admitted.
+     */
+    private void admit(Entry<N> candidate, long mainQuota) {
+        if (candidate.fWeight > mainQuota) {
+            getStatistics().recordRejection();
+            return;
+        }
+        int candidateFrequency = fSketch.frequency(candidate.fKey);
+        long excess = weightOf(Region.PROBATION) + weightOf(Region.PROTECTED) + candidate.fWeight - mainQuota;
+        List<Entry<N>> victims = new ArrayList<>();
+        Iterator<Entry<N>> probation = fProbation.values().iterator();
+        Iterator<Entry<N>> protectedEntries = fProtected.values().iterator();
+        while (excess > 0) {
+            Entry<N> victim;
+            if (probation.hasNext()) {
+                victim = probation.next();
+            } else if (protectedEntries.hasNext()) {
+                victim = protectedEntries.next();
+            } else {
+                break;
+            }
+            if (candidateFrequency <= fSketch.frequency(victim.fKey)) {
+                getStatistics().recordRejection();
+                return;
+            }
+            victims.add(victim);
+            excess -= victim.fWeight;
+        }
+        for (Entry<N> victim : victims) {
+            remove(victim);
+            getStatistics().recordEviction();
+        }
+        candidate.fRegion = Region.PROBATION;
+        add(candidate);
+    }
+
+    private void onAccess(Entry<N> entry) {
+        switch (entry.fRegion) {
+        case WINDOW:
+        case PROTECTED:
+            /* Move to the most recently used position */
+            remove(entry);
+            add(entry);
+            break;
+        case PROBATION:
+            remove(entry);
+            entry.fRegion = Region.PROTECTED;
+            add(entry);
+            long protectedQuota = getMainQuota() * PROTECTED_PERCENT / 100;
+            while (weightOf(Region.PROTECTED) > protectedQuota) {
+                Entry<N> demoted = head(Region.PROTECTED);
+                if (demoted == null) {
+                    break;
+                }
+                remove(demoted);
+                demoted.fRegion = Region.PROBATION;
+                add(demoted);
+            }
+            break;
+        case PINNED:
+        default:
+            break;
+        }
+    }
+
+    private void add(Entry<N> entry) {
+        fEntries.put(entry.fKey, entry);
+        regionMap(entry.fRegion).put(entry.fKey, entry);
+        fRegionWeights[entry.fRegion.ordinal()] += entry.fWeight;
+    }
+
+    private void remove(Entry<N> entry) {
+        fEntries.remove(entry.fKey);
+        regionMap(entry.fRegion).remove(entry.fKey);
+        fRegionWeights[entry.fRegion.ordinal()] -= entry.fWeight;
+    }
+
+    private @Nullable Entry<N> head(Region region) {
+        Iterator<Entry<N>> iterator = regionMap(region).values().iterator();
+        return iterator.hasNext() ? iterator.next() : null;
+    }
+
+    private long weightOf(Region region) {
+        return fRegionWeights[region.ordinal()];
+    }
+
+    private Map<Integer, Entry<N>> regionMap(Region region) {
+        switch (region) {
+        case PINNED:
+            return fPinned;
+        case WINDOW:
+            return fWindow;
+        case PROBATION:
+            return fProbation;
+        case PROTECTED:
+        default:
+            return fProtected;
+        }
+    }
+}
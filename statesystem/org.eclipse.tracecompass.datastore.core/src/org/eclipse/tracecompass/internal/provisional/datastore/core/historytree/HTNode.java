@@ -71,6 +71,12 @@ public class HTNode<E extends IHTInterval> implements IHTNode<E> {
             + 3 * Integer.BYTES
             + Byte.BYTES;
 
+    /**
+     * Estimate of the heap used by an interval on top of its serialized size:
+     * the header of the interval object and the reference to it.
+     */
+    private static final int INTERVAL_HEAP_OVERHEAD = 24;
+
     private static final IntPredicate ALWAYS_TRUE = i -> true;
 
     // ------------------------------------------------------------------------
@@ -898,6 +904,21 @@ public class HTNode<E extends IHTInterval> implements IHTNode<E> {
         }
     }
 
+    /**
+     * Estimate the heap used by this node, from the size of its data and the
+     * number of its intervals
+     *
+     * @return The estimated size of this node in memory (in bytes)
+     */
+    public int getHeapSize() {
+        fRwl.readLock().lock();
+        try {
+            return getDataSectionEndOffset() + fIntervals.size() * INTERVAL_HEAP_OVERHEAD;
+        } finally {
+            fRwl.readLock().unlock();
+        }
+    }
+
     @Override
     public long getNodeUsagePercent() {
         fRwl.readLock().lock();
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2016 Ericsson
+ * Copyright (c) 2016, 2026 Ericsson
  *
  * All rights reserved. This program and the accompanying materials are
  * made available under the terms of the Eclipse Public License 2.0 which
@@ -24,8 +24,11 @@ import java.util.Comparator;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Objects;
+import java.util.Random;
 
 import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.tracecompass.common.core.NonNullUtils;
 import org.eclipse.tracecompass.datastore.core.interval.IHTIntervalReader;
 import org.eclipse.tracecompass.datastore.core.serialization.ISafeByteBufferWriter;
@@ -154,6 +157,20 @@ public abstract class AbstractTestSegmentStore {
             buffer.putString(fPayload);
         }
 
+        @Override
+        public int hashCode() {
+            return Objects.hash(fStart, fEnd, fPayload);
+        }
+
+        @Override
+        public boolean equals(@Nullable Object obj) {
+            if (!(obj instanceof TestSegment)) {
+                return false;
+            }
+            TestSegment other = (TestSegment) obj;
+            return fStart == other.fStart && fEnd == other.fEnd && fPayload.equals(other.fPayload);
+        }
+
     }
 
     /**
@@ -418,6 +435,37 @@ public abstract class AbstractTestSegmentStore {
         assertSegmentsEqual(SEGMENT_2_6, Iterables.getOnlyElement(intersectingElements));
     }
 
+    /**
+     * Testing method
+     * {@link ISegmentStore#getIntersectingElements(long start, long end)} with
+     * segments of very different durations, some of them spanning most of the
+     * store
+     */
+    @Test
+    public void testGetIntersectingElementsLongSegments() {
+        ISegmentStore<@NonNull TestSegment> store = getSegmentStore();
+        List<@NonNull TestSegment> segments = new ArrayList<>();
+        Random rnd = new Random(42);
+        for (int i = 0; i < 1000; i++) {
+            long start = rnd.nextInt(100000);
+            long duration = (i % 50 == 0) ? rnd.nextInt(100000) : rnd.nextInt(100);
+            TestSegment segment = new TestSegment(start, start + duration, "seg" + i);
+            segments.add(segment);
+            store.add(segment);
+        }
+        for (int i = 0; i < 100; i++) {
+            long start = rnd.nextInt(110000) - 5000;
+            long end = start + rnd.nextInt(i < 50 ? 100 : 10000);
+            long count = segments.stream().filter(segment -> segment.getStart() <= end && segment.getEnd() >= start).count();
+            Iterable<@NonNull TestSegment> intersecting = store.getIntersectingElements(start, end);
+            assertEquals(count, Iterables.size(intersecting));
+            for (TestSegment segment : intersecting) {
+                assertTrue(segment.getStart() <= end && segment.getEnd() >= start);
+            }
+        }
+        store.dispose();
+    }
+
     /**
      * Testing method {@link ISegmentStore#getIntersectingElements(long time)}
      */
@@ -533,6 +581,24 @@ public abstract class AbstractTestSegmentStore {
         assertEquals(lastExpected, fixture);
     }
 
+    /**
+     * Test that parallel streams over the store see every segment once
+     */
+    @Test
+    public void testParallelStream() {
+        ISegmentStore<@NonNull TestSegment> store = getSegmentStore();
+        long expectedLength = 0;
+        for (int i = 0; i < 10000; i++) {
+            TestSegment segment = new TestSegment(i, i + i % 100, "seg" + i);
+            expectedLength += segment.getLength();
+            store.add(segment);
+        }
+        assertEquals(10000, store.parallelStream().count());
+        assertEquals(expectedLength, store.parallelStream().mapToLong(ISegment::getLength).sum());
+        assertEquals(10000, store.parallelStream().map(TestSegment::getPayload).distinct().count());
+        store.dispose();
+    }
+
     /**
      * Test to check ordered iterators
      */
@@ -0,0 +1,271 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson and others
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.segmentstore.core.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.internal.segmentstore.core.adaptive.AdaptiveSegmentStore;
+import org.eclipse.tracecompass.internal.segmentstore.core.segmentHistoryTree.HistoryTreeSegmentStore;
+import org.eclipse.tracecompass.segmentstore.core.ISegmentStore;
+import org.junit.After;
+import org.junit.Test;
+
+import com.google.common.collect.Iterables;
+
+/**
+ * Unit tests for the {@link AdaptiveSegmentStore}. The tests of the parent
+ * class use a budget large enough to keep the segments in memory.
+ */
+public class AdaptiveSegmentStoreTest extends AbstractTestSegmentStore {
+
+    private static final int VERSION = 1;
+    private static final long LARGE_BUDGET = 1L << 30;
+    private static final long SMALL_BUDGET = 10000;
+
+    /* Not initialized in its declaration, it is set by the parent constructor */
+    private @Nullable Path fDir;
+
+    private Path getDir() {
+        Path dir = fDir;
+        if (dir == null) {
+            try {
+                dir = Files.createTempDirectory("adaptiveSegStore");
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+            fDir = dir;
+        }
+        return dir;
+    }
+
+    private Path getFile() {
+        return getDir().resolve("store.ss");
+    }
+
+    @Override
+    protected ISegmentStore<@NonNull TestSegment> getSegmentStore() {
+        return new AdaptiveSegmentStore<>(getFile(), TestSegment.DESERIALISER, VERSION, LARGE_BUDGET);
+    }
+
+    @Override
+    protected ISegmentStore<@NonNull TestSegment> getSegmentStore(@NonNull TestSegment @NonNull [] data) {
+        ISegmentStore<@NonNull TestSegment> store = getSegmentStore();
+        store.addAll(Arrays.asList(data));
+        return store;
+    }
+
+    /**
+     * Dispose of the segment store and delete its directory
+     */
+    @Override
+    @After
+    public void teardown() {
+        super.teardown();
+        Path dir = fDir;
+        if (dir != null) {
+            try {
+                Files.deleteIfExists(getFile());
+                Files.delete(dir);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    /**
+     * Test that the segments are moved to disk when they exceed the budget,
+     * while they can be queried, and that the file can be reopened when the
+     * store is closed
+     */
+    @Test
+    public void testMoveToDisk() {
+        Path file = getFile();
+        AdaptiveSegmentStore<@NonNull TestSegment> store = new AdaptiveSegmentStore<>(file, TestSegment.DESERIALISER, VERSION, SMALL_BUDGET);
+        List<@NonNull TestSegment> segments = new ArrayList<>();
+        Random rnd = new Random(7);
+        for (int i = 0; i < 5000; i++) {
+            long start = rnd.nextInt(100000);
+            TestSegment segment = new TestSegment(start, start + rnd.nextInt(1000), "seg" + i);
+            segments.add(segment);
+            store.add(segment);
+            if (i % 500 == 0) {
+                assertEquals(i + 1, store.size());
+                assertIntersecting(segments, store, start - 500, start + 500);
+            }
+        }
+        assertTrue(store.isOnDisk());
+        assertTrue(Files.exists(file));
+        assertEquals(segments.size(), store.size());
+        assertIntersecting(segments, store, 20000, 30000);
+        assertTrue(store.contains(segments.get(10)));
+        assertTrue(store.contains(segments.get(segments.size() - 1)));
+
+        /* Closing the store writes all the segments to the file */
+        store.close(false);
+        assertEquals(segments.size(), store.size());
+        assertEquals(segments.size(), Iterables.size(store));
+        assertIntersecting(segments, store, 50000, 50100);
+        store.dispose();
+
+        try {
+            HistoryTreeSegmentStore<@NonNull TestSegment> reopened = new HistoryTreeSegmentStore<>(file, TestSegment.DESERIALISER, VERSION);
+            assertEquals(segments.size(), reopened.size());
+            reopened.dispose();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Test that a store within its budget keeps its segments in memory, and
+     * saves them to a file that can be reopened when it is closed
+     */
+    @Test
+    public void testStayInMemory() {
+        Path file = getFile();
+        AdaptiveSegmentStore<@NonNull TestSegment> store = new AdaptiveSegmentStore<>(file, TestSegment.DESERIALISER, VERSION, SMALL_BUDGET);
+        for (int i = 0; i < 10; i++) {
+            store.add(new TestSegment(i, i + 5, "seg" + i));
+        }
+        assertFalse(Files.exists(file));
+        store.close(false);
+        assertFalse(store.isOnDisk());
+        assertEquals(10, store.size());
+        store.dispose();
+
+        try {
+            HistoryTreeSegmentStore<@NonNull TestSegment> reopened = new HistoryTreeSegmentStore<>(file, TestSegment.DESERIALISER, VERSION);
+            assertEquals(10, reopened.size());
+            assertEquals(7, Iterables.size(reopened.getIntersectingElements(6, 7)));
+            reopened.dispose();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Test that closing a store within its budget and deleting its files
+     * leaves no file
+     */
+    @Test
+    public void testStayInMemoryDeleteFiles() {
+        AdaptiveSegmentStore<@NonNull TestSegment> store = new AdaptiveSegmentStore<>(getFile(), TestSegment.DESERIALISER, VERSION, SMALL_BUDGET);
+        for (int i = 0; i < 10; i++) {
+            store.add(new TestSegment(i, i + 5, "seg" + i));
+        }
+        store.close(true);
+        assertFalse(Files.exists(getFile()));
+        store.dispose();
+    }
+
+    /**
+     * Test that disposing of a store before it is closed deletes its
+     * incomplete file
+     */
+    @Test
+    public void testDisposeIncomplete() {
+        AdaptiveSegmentStore<@NonNull TestSegment> store = new AdaptiveSegmentStore<>(getFile(), TestSegment.DESERIALISER, VERSION, SMALL_BUDGET);
+        for (int i = 0; i < 2000; i++) {
+            store.add(new TestSegment(i, i + 5, "seg" + i));
+        }
+        assertTrue(store.isOnDisk());
+        store.dispose();
+        assertFalse(Files.exists(getFile()));
+    }
+
+    /**
+     * Test that a store keeping its segments in columns fits more segments in
+     * its budget, and still moves them to disk when they exceed it
+     */
+    @Test
+    public void testCompactMemory() {
+        Path file = getFile();
+        AdaptiveSegmentStore<@NonNull TestSegment> store = new AdaptiveSegmentStore<>(file, TestSegment.DESERIALISER, VERSION, SMALL_BUDGET, CompactSegmentStoreTest.CODEC);
+        List<@NonNull TestSegment> segments = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            TestSegment segment = new TestSegment(i, i + 5, "seg" + i % 10);
+            segments.add(segment);
+            store.add(segment);
+        }
+        /* 300 segments as objects would exceed the budget */
+        assertFalse(store.isOnDisk());
+        assertIntersecting(segments, store, 100, 200);
+
+        for (int i = 300; i < 5000; i++) {
+            TestSegment segment = new TestSegment(i, i + 5, "seg" + i % 10);
+            segments.add(segment);
+            store.add(segment);
+        }
+        assertTrue(store.isOnDisk());
+        assertEquals(segments.size(), store.size());
+        assertIntersecting(segments, store, 1000, 4000);
+
+        store.close(false);
+        assertEquals(segments.size(), Iterables.size(store));
+        store.dispose();
+    }
+
+    /**
+     * Test that the segments returned while the store is built are those it
+     * had when they were queried, each once, even if segments are added and
+     * moved to disk during the iteration
+     */
+    @Test
+    public void testIterateWhileBuilding() {
+        AdaptiveSegmentStore<@NonNull TestSegment> store = new AdaptiveSegmentStore<>(getFile(), TestSegment.DESERIALISER, VERSION, SMALL_BUDGET);
+        Set<@NonNull TestSegment> segments = new HashSet<>();
+        for (int i = 0; i < 2000; i++) {
+            TestSegment segment = new TestSegment(i, i + 5, "seg" + i);
+            segments.add(segment);
+            store.add(segment);
+        }
+        assertTrue(store.isOnDisk());
+
+        Iterable<@NonNull TestSegment> all = store.getIntersectingElements(Long.MIN_VALUE, Long.MAX_VALUE);
+        Iterator<@NonNull TestSegment> iterator = all.iterator();
+        Set<@NonNull TestSegment> iterated = new HashSet<>();
+        assertTrue(iterated.add(iterator.next()));
+        for (int i = 2000; i < 6000; i++) {
+            store.add(new TestSegment(i, i + 5, "seg" + i));
+        }
+        while (iterator.hasNext()) {
+            assertTrue(iterated.add(iterator.next()));
+        }
+        assertEquals(segments, iterated);
+        assertEquals(segments.size(), Iterables.size(all));
+        assertEquals(6000, store.size());
+        store.dispose();
+    }
+
+    private static void assertIntersecting(List<@NonNull TestSegment> segments, ISegmentStore<@NonNull TestSegment> store, long start, long end) {
+        long expected = segments.stream().filter(segment -> segment.getStart() <= end && segment.getEnd() >= start).count();
+        Iterable<@NonNull TestSegment> intersecting = store.getIntersectingElements(start, end);
+        assertNotNull(intersecting);
+        assertEquals(expected, Iterables.size(intersecting));
+    }
+}
@@ -0,0 +1,101 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson and others
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.segmentstore.core.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.internal.segmentstore.core.compact.CompactSegmentStore;
+import org.eclipse.tracecompass.segmentstore.core.ICompactSegmentCodec;
+import org.eclipse.tracecompass.segmentstore.core.ISegment;
+import org.eclipse.tracecompass.segmentstore.core.ISegmentStore;
+import org.junit.Test;
+
+/**
+ * Unit tests for the {@link CompactSegmentStore}
+ */
+public class CompactSegmentStoreTest extends AbstractTestSegmentStore {
+
+    /** Codec of the test segments, which keeps their payload as name */
+    static final ICompactSegmentCodec<@NonNull TestSegment> CODEC = new ICompactSegmentCodec<@NonNull TestSegment>() {
+
+        @Override
+        public int getNbValues() {
+            return 0;
+        }
+
+        @Override
+        public @Nullable String getName(@NonNull TestSegment segment) {
+            return segment.getPayload();
+        }
+
+        @Override
+        public int getValue(@NonNull TestSegment segment, int index) {
+            throw new IndexOutOfBoundsException();
+        }
+
+        @Override
+        public @NonNull TestSegment createSegment(long start, long end, @Nullable String name, int[] values) {
+            assertNotNull(name);
+            return new TestSegment(start, end, name);
+        }
+    };
+
+    @Override
+    protected ISegmentStore<@NonNull TestSegment> getSegmentStore() {
+        return new CompactSegmentStore<>(CODEC);
+    }
+
+    @Override
+    protected ISegmentStore<@NonNull TestSegment> getSegmentStore(@NonNull TestSegment @NonNull [] data) {
+        ISegmentStore<@NonNull TestSegment> store = new CompactSegmentStore<>(CODEC);
+        store.addAll(Arrays.asList(data));
+        return store;
+    }
+
+    /**
+     * Test that the sorted segments view returns the segments sorted by start
+     * and end times, and does not change when segments are added
+     */
+    @Test
+    public void testSortedSegments() {
+        CompactSegmentStore<@NonNull TestSegment> store = new CompactSegmentStore<>(CODEC);
+        store.add(new TestSegment(5, 8, "c"));
+        store.add(new TestSegment(1, 9, "b"));
+        store.add(new TestSegment(1, 3, "a"));
+        List<@NonNull TestSegment> sorted = store.getSortedSegments();
+        store.add(new TestSegment(0, 1, "d"));
+
+        assertEquals(Arrays.asList(new TestSegment(1, 3, "a"), new TestSegment(1, 9, "b"), new TestSegment(5, 8, "c")), sorted);
+        assertEquals(new TestSegment(5, 8, "c"), sorted.get(2));
+        assertEquals(4, store.size());
+        store.dispose();
+    }
+
+    /**
+     * The segments are recreated from the columns of the store, so they are
+     * not the same objects as the original segments, compare their columns.
+     */
+    @Override
+    protected void assertSegmentsEqual(@Nullable ISegment expected, @Nullable ISegment actual) {
+        assertNotNull(expected);
+        assertNotNull(actual);
+        assertEquals(expected.getStart(), actual.getStart());
+        assertEquals(expected.getEnd(), actual.getEnd());
+        assertEquals(((TestSegment) expected).getPayload(), ((TestSegment) actual).getPayload());
+    }
+}
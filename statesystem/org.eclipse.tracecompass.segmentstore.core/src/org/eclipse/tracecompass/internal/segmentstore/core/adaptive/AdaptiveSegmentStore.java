@@ -0,0 +1,574 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson and others
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.internal.segmentstore.core.adaptive;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.datastore.core.interval.IHTIntervalReader;
+import org.eclipse.tracecompass.internal.segmentstore.core.Activator;
+import org.eclipse.tracecompass.internal.segmentstore.core.arraylist.LazyArrayListStore;
+import org.eclipse.tracecompass.internal.segmentstore.core.compact.CompactSegmentStore;
+import org.eclipse.tracecompass.internal.segmentstore.core.segmentHistoryTree.HistoryTreeSegmentStore;
+import org.eclipse.tracecompass.segmentstore.core.ICompactSegmentCodec;
+import org.eclipse.tracecompass.segmentstore.core.ISegment;
+import org.eclipse.tracecompass.segmentstore.core.ISegmentStore;
+
+import com.google.common.collect.Iterables;
+
+/**
+ * Segment store that starts in memory and moves its segments to a
+ * {@link HistoryTreeSegmentStore} once they exceed a memory budget, so that
+ * small stores do not pay the cost of the disk and large stores do not run out
+ * of memory.
+ *
+ * When the estimated size of the segments in memory exceeds the budget, they
+ * are sorted and written to the history tree by a background thread, in
+ * chunks, while new segments are added to a new in-memory store. Only one run
+ * is written at a time: if the next run fills up before, adding segments waits
+ * for it. Until the store is closed, queries merge the in-memory segments, the
+ * part of the run not yet written and the history tree. When it is closed, the
+ * segments still in memory are written too if the history tree was created,
+ * so that the file holds all the segments and can be reopened by a
+ * {@link HistoryTreeSegmentStore}. If it was not, the segments are saved to the
+ * file but stay in memory for the queries.
+ *
+ * If a codec is given, the segments in memory are kept in a
+ * {@link CompactSegmentStore}, so that many more of them fit in the budget.
+ *
+ * Removal operations are not supported.
+ *
+ * @param <E>
+ *            The type of segment held in this store
+ */
+public class AdaptiveSegmentStore<@NonNull E extends ISegment> implements ISegmentStore<E> {
+
+    /** Estimated memory used by a segment, besides its serialized size */
+    private static final long SEGMENT_OVERHEAD = 64;
+    /** Estimated memory used by a row of a compact store, besides its values */
+    private static final long ROW_SIZE = 2 * Long.BYTES + Integer.BYTES;
+    /** Number of segments written to the history tree at once */
+    private static final int CHUNK_SIZE = 4096;
+
+    private final Path fFile;
+    private final IHTIntervalReader<E> fReader;
+    private final int fVersion;
+    private final long fMemoryBudget;
+    private final @Nullable ICompactSegmentCodec<E> fCodec;
+
+    private final ReentrantLock fLock = new ReentrantLock(false);
+    private final Condition fRunWritten = fLock.newCondition();
+
+    /* The following fields are guarded by fLock */
+    private ISegmentStore<E> fMemory;
+    private long fMemorySize = 0;
+    private @Nullable Run<E> fRun = null;
+    private @Nullable HistoryTreeSegmentStore<E> fDisk = null;
+    private boolean fDiskFailed = false;
+    private boolean fClosed = false;
+    private boolean fDisposed = false;
+    /* Whether the segments in memory were saved to the file when closed */
+    private boolean fSaved = false;
+
+    /**
+     * Sorted segments being written to the history tree. The list is never
+     * modified, it can be a view of the columns of a compact store.
+     */
+    private static final class Run<E> {
+        private final List<E> fSegments;
+        private int fWritten = 0;
+
+        public Run(List<E> segments) {
+            fSegments = segments;
+        }
+    }
+
+    /**
+     * Constructor
+     *
+     * @param file
+     *            The file of the history tree, which is created when the
+     *            segments exceed the memory budget or when the store is closed
+     * @param reader
+     *            The reader of the segments from the history tree
+     * @param version
+     *            The version number of the segment reader/writer
+     * @param memoryBudget
+     *            The estimated size, in bytes, the segments can take in memory
+     */
+    public AdaptiveSegmentStore(Path file, IHTIntervalReader<E> reader, int version, long memoryBudget) {
+        this(file, reader, version, memoryBudget, null);
+    }
+
+    /**
+     * Constructor for a store keeping its segments in memory in columns
+     *
+     * @param file
+     *            The file of the history tree, which is created when the
+     *            segments exceed the memory budget or when the store is closed
+     * @param reader
+     *            The reader of the segments from the history tree
+     * @param version
+     *            The version number of the segment reader/writer
+     * @param memoryBudget
+     *            The estimated size, in bytes, the segments can take in memory
+     * @param codec
+     *            The codec converting the segments in memory to and from
+     *            columns, or <code>null</code> to keep them as objects
+     */
+    public AdaptiveSegmentStore(Path file, IHTIntervalReader<E> reader, int version, long memoryBudget, @Nullable ICompactSegmentCodec<E> codec) {
+        fFile = file;
+        fReader = reader;
+        fVersion = version;
+        fMemoryBudget = memoryBudget;
+        fCodec = codec;
+        fMemory = createMemoryStore();
+    }
+
+    private ISegmentStore<E> createMemoryStore() {
+        ICompactSegmentCodec<E> codec = fCodec;
+        return (codec == null) ? new LazyArrayListStore<>() : new CompactSegmentStore<>(codec);
+    }
+
+    /*
+     * The estimated memory used by a segment in memory: a compact store only
+     * keeps its times, its name index and its values
+     */
+    private long getMemorySize(E segment) {
+        ICompactSegmentCodec<E> codec = fCodec;
+        if (codec == null) {
+            return SEGMENT_OVERHEAD + segment.getSizeOnDisk();
+        }
+        return ROW_SIZE + (long) Integer.BYTES * codec.getNbValues();
+    }
+
+    /**
+     * Get whether segments were moved to the history tree
+     *
+     * @return Whether the history tree was created
+     */
+    public boolean isOnDisk() {
+        fLock.lock();
+        try {
+            return fDisk != null;
+        } finally {
+            fLock.unlock();
+        }
+    }
+
+    // ------------------------------------------------------------------------
+    // Methods from Collection
+    // ------------------------------------------------------------------------
+
+    @Override
+    public boolean add(@Nullable E val) {
+        if (val == null) {
+            throw new IllegalArgumentException("Cannot add null value"); //$NON-NLS-1$
+        }
+        fLock.lock();
+        try {
+            fMemory.add(val);
+            fMemorySize += getMemorySize(val);
+            if (fMemorySize > fMemoryBudget && !fDiskFailed && !fClosed) {
+                startRun();
+            }
+            return true;
+        } finally {
+            fLock.unlock();
+        }
+    }
+
+    @Override
+    public boolean addAll(@Nullable Collection<? extends E> c) {
+        if (c == null) {
+            throw new IllegalArgumentException();
+        }
+        c.forEach(this::add);
+        return true;
+    }
+
+    @Override
+    public int size() {
+        fLock.lock();
+        try {
+            int size = fMemory.size();
+            Run<E> run = fRun;
+            if (run != null) {
+                size += run.fSegments.size() - run.fWritten;
+            }
+            HistoryTreeSegmentStore<E> disk = fDisk;
+            if (disk != null) {
+                size += disk.size();
+            }
+            return size;
+        } finally {
+            fLock.unlock();
+        }
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    @Override
+    public boolean contains(@Nullable Object o) {
+        fLock.lock();
+        try {
+            if (fMemory.contains(o)) {
+                return true;
+            }
+            Run<E> run = fRun;
+            if (run != null && run.fSegments.subList(run.fWritten, run.fSegments.size()).contains(o)) {
+                return true;
+            }
+            HistoryTreeSegmentStore<E> disk = fDisk;
+            return disk != null && disk.contains(o);
+        } finally {
+            fLock.unlock();
+        }
+    }
+
+    @Override
+    public boolean containsAll(@Nullable Collection<?> c) {
+        if (c == null) {
+            return false;
+        }
+        fLock.lock();
+        try {
+            for (Object o : c) {
+                if (!contains(o)) {
+                    return false;
+                }
+            }
+            return true;
+        } finally {
+            fLock.unlock();
+        }
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return getIntersectingElements(Long.MIN_VALUE, Long.MAX_VALUE).iterator();
+    }
+
+    @Override
+    public Object[] toArray() {
+        fLock.lock();
+        try {
+            if (fDisk != null) {
+                throw new UnsupportedOperationException("This segment store can potentially cause OutOfMemoryExceptions"); //$NON-NLS-1$
+            }
+            return fMemory.toArray();
+        } finally {
+            fLock.unlock();
+        }
+    }
+
+    @Override
+    public <T> T[] toArray(T[] a) {
+        fLock.lock();
+        try {
+            if (fDisk != null) {
+                throw new UnsupportedOperationException("This segment store can potentially cause OutOfMemoryExceptions"); //$NON-NLS-1$
+            }
+            return fMemory.toArray(a);
+        } finally {
+            fLock.unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        fLock.lock();
+        try {
+            waitForRun();
+            fMemory.clear();
+            fMemorySize = 0;
+            HistoryTreeSegmentStore<E> disk = fDisk;
+            if (disk != null) {
+                disk.removeFiles();
+                fDisk = null;
+            }
+            deleteSavedFile();
+            fClosed = false;
+        } finally {
+            fLock.unlock();
+        }
+    }
+
+    // ------------------------------------------------------------------------
+    // Methods added by ISegmentStore
+    // ------------------------------------------------------------------------
+
+    @Override
+    public Iterable<E> getIntersectingElements(long start, long end) {
+        fLock.lock();
+        try {
+            HistoryTreeSegmentStore<E> disk = fDisk;
+            if (disk == null) {
+                return fMemory.getIntersectingElements(start, end);
+            }
+            if (fClosed && fMemory.isEmpty()) {
+                return disk.getIntersectingElements(start, end);
+            }
+            /*
+             * The segments move between the parts of the store while it is
+             * built. The history tree is read as it is now, and the snapshots
+             * of the run and of the memory store are taken now, so that each
+             * segment is returned once. Only the open nodes of the history
+             * tree are read now, the other parts are read as the iteration
+             * goes, outside of the lock.
+             */
+            Iterable<E> diskSegments = disk.getSHT().getIntersectingElementsSnapshot(start, end);
+            Iterable<E> runSegments = Collections.emptyList();
+            Run<E> run = fRun;
+            if (run != null) {
+                List<E> toWrite = run.fSegments.subList(run.fWritten, run.fSegments.size());
+                /* The run is sorted by start times */
+                runSegments = () -> toWrite.stream()
+                        .takeWhile(segment -> segment.getStart() <= end)
+                        .filter(segment -> segment.getEnd() >= start)
+                        .iterator();
+            }
+            Iterable<E> memorySegments = fMemory.getIntersectingElements(start, end);
+            return Iterables.concat(diskSegments, runSegments, memorySegments);
+        } finally {
+            fLock.unlock();
+        }
+    }
+
+    @Override
+    public void close(boolean deleteFiles) {
+        fLock.lock();
+        try {
+            waitForRun();
+            HistoryTreeSegmentStore<E> disk = fDisk;
+            if (disk == null) {
+                if (deleteFiles) {
+                    deleteSavedFile();
+                } else if (!fClosed) {
+                    saveMemory();
+                }
+                fClosed = true;
+                return;
+            }
+            if (deleteFiles) {
+                disk.removeFiles();
+                fDisk = null;
+                return;
+            }
+            /* Write the remaining segments, for the file to be complete */
+            if (!fMemory.isEmpty() && !fDiskFailed) {
+                Run<E> run = new Run<>(sortedSegments(fMemory));
+                fMemory = createMemoryStore();
+                fMemorySize = 0;
+                write(disk, run, run.fSegments.size());
+            }
+            if (!fDiskFailed) {
+                disk.close(false);
+            }
+            fClosed = true;
+        } finally {
+            fLock.unlock();
+        }
+    }
+
+    @Override
+    public void dispose() {
+        fLock.lock();
+        try {
+            fDisposed = true;
+            waitForRun();
+            fMemory.dispose();
+            fMemorySize = 0;
+            HistoryTreeSegmentStore<E> disk = fDisk;
+            if (disk != null) {
+                /* This deletes the file if it was not completely written */
+                disk.dispose();
+                fDisk = null;
+            }
+        } finally {
+            fLock.unlock();
+        }
+    }
+
+    // ------------------------------------------------------------------------
+    // Helpers
+    // ------------------------------------------------------------------------
+
+    /**
+     * Move the segments in memory to a run written to the history tree by a
+     * background thread. DO NOT CALL FROM OUTSIDE OF A LOCK!
+     */
+    private void startRun() {
+        waitForRun();
+        if (fMemorySize <= fMemoryBudget || fDiskFailed || fClosed) {
+            /* Another insertion started a run while this one was waiting */
+            return;
+        }
+        HistoryTreeSegmentStore<E> disk = fDisk;
+        if (disk == null) {
+            try {
+                disk = new HistoryTreeSegmentStore<>(fFile, fReader, fVersion);
+            } catch (IOException e) {
+                Activator.instance().logError("Error creating the history tree, the segments stay in memory", e); //$NON-NLS-1$
+                fDiskFailed = true;
+                return;
+            }
+            fDisk = disk;
+        }
+        Run<E> run = new Run<>(sortedSegments(fMemory));
+        fMemory = createMemoryStore();
+        fMemorySize = 0;
+        fRun = run;
+
+        HistoryTreeSegmentStore<E> target = disk;
+        Thread thread = new Thread(() -> writeRun(target, run), "Segment store writer: " + fFile.getFileName()); //$NON-NLS-1$
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void writeRun(HistoryTreeSegmentStore<E> disk, Run<E> run) {
+        int nbSegments = run.fSegments.size();
+        try {
+            boolean done = false;
+            while (!done) {
+                /* Release the lock between chunks, for queries and insertions */
+                fLock.lock();
+                try {
+                    if (fDisposed) {
+                        return;
+                    }
+                    write(disk, run, Math.min(nbSegments, run.fWritten + CHUNK_SIZE));
+                    done = fDiskFailed || run.fWritten == nbSegments;
+                } finally {
+                    fLock.unlock();
+                }
+            }
+        } finally {
+            fLock.lock();
+            try {
+                fRun = null;
+                fRunWritten.signalAll();
+            } finally {
+                fLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Write the segments of a run to the history tree, up to an index. If the
+     * history tree fails, the segments not written are put back in memory and
+     * the next segments will stay there. DO NOT CALL FROM OUTSIDE OF A LOCK!
+     */
+    private void write(HistoryTreeSegmentStore<E> disk, Run<E> run, int to) {
+        List<E> segments = run.fSegments;
+        try {
+            while (run.fWritten < to) {
+                disk.add(segments.get(run.fWritten));
+                run.fWritten++;
+            }
+        } catch (RuntimeException e) {
+            Activator.instance().logError("Error writing segments to the history tree, the next segments stay in memory", e); //$NON-NLS-1$
+            fDiskFailed = true;
+            for (int i = run.fWritten; i < segments.size(); i++) {
+                fMemory.add(segments.get(i));
+            }
+            run.fWritten = segments.size();
+        }
+    }
+
+    /**
+     * Save the segments in memory to a new history tree, so that the next
+     * executions can reopen the file instead of building the segments again.
+     * They stay in memory for the queries. DO NOT CALL FROM OUTSIDE OF A LOCK!
+     */
+    private void saveMemory() {
+        if (fDiskFailed) {
+            return;
+        }
+        HistoryTreeSegmentStore<E> disk;
+        try {
+            Files.deleteIfExists(fFile);
+            disk = new HistoryTreeSegmentStore<>(fFile, fReader, fVersion);
+        } catch (IOException e) {
+            Activator.instance().logError("Error creating the history tree, the segments are not saved", e); //$NON-NLS-1$
+            return;
+        }
+        try {
+            /* The memory stores iterate on their segments sorted */
+            fMemory.forEach(disk::add);
+            disk.close(false);
+            fSaved = true;
+        } catch (RuntimeException e) {
+            Activator.instance().logError("Error writing segments to the history tree, the segments are not saved", e); //$NON-NLS-1$
+        } finally {
+            /* This deletes the file if it was not completely written */
+            disk.dispose();
+        }
+    }
+
+    /**
+     * Delete the file the segments in memory were saved to, if any. DO NOT
+     * CALL FROM OUTSIDE OF A LOCK!
+     */
+    private void deleteSavedFile() {
+        if (!fSaved) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(fFile);
+        } catch (IOException e) {
+            Activator.instance().logError("Error deleting the segment store file", e); //$NON-NLS-1$
+        }
+        fSaved = false;
+    }
+
+    /**
+     * Wait for the run being written, if any. DO NOT CALL FROM OUTSIDE OF A
+     * LOCK!
+     */
+    private void waitForRun() {
+        while (fRun != null) {
+            fRunWritten.awaitUninterruptibly();
+        }
+    }
+
+    /**
+     * Get the sorted segments of a memory store, to write them to the history
+     * tree. The segments of a compact store are recreated from its columns one
+     * by one as they are written, the array of the other store only holds
+     * references to its segments.
+     */
+    @SuppressWarnings("unchecked")
+    private static <@NonNull E extends ISegment> List<E> sortedSegments(ISegmentStore<E> store) {
+        if (store instanceof CompactSegmentStore) {
+            return ((CompactSegmentStore<E>) store).getSortedSegments();
+        }
+        if (store.isEmpty()) {
+            return Collections.emptyList();
+        }
+        /* The array is sorted by the store */
+        return (List<E>) (List<?>) Arrays.asList(store.toArray());
+    }
+}
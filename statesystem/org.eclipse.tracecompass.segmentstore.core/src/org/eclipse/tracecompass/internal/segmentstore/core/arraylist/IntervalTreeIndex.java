@@ -0,0 +1,178 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson and others
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.internal.segmentstore.core.arraylist;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.segmentstore.core.ISegment;
+
+/**
+ * Augmented interval tree over a list of segments sorted by start time, to
+ * find the segments intersecting a time range in O(log n + k) whatever their
+ * durations, instead of scanning all the segments that start before the end
+ * of the range.
+ *
+ * The tree is implicit: the sorted list is the in-order traversal of a
+ * perfect binary tree, the node at index i being at the level of the number of
+ * trailing ones of i. Only the maximum end time of the subtree of each node is
+ * kept, in an array beside the list.
+ *
+ * The index is immutable and must be rebuilt when the list changes.
+ *
+ * @param <E>
+ *            The type of segment
+ */
+class IntervalTreeIndex<@NonNull E extends ISegment> {
+
+    /** Subtrees of this level or below are scanned instead of traversed */
+    private static final int SCAN_LEVEL = 3;
+
+    private final List<E> fSegments;
+    private final long[] fMaxEnds;
+    private final int fRootLevel;
+
+    /**
+     * Constructor
+     *
+     * @param segments
+     *            The segments, sorted by start time and randomly accessible,
+     *            which must not be modified while the index is used
+     */
+    public IntervalTreeIndex(List<E> segments) {
+        fSegments = segments;
+        int n = segments.size();
+        fMaxEnds = new long[n];
+        if (n == 0) {
+            fRootLevel = -1;
+            return;
+        }
+
+        /* The leaves, at even indexes */
+        int lastIndex = 0;
+        long lastMax = Long.MIN_VALUE;
+        for (int i = 0; i < n; i += 2) {
+            fMaxEnds[i] = segments.get(i).getEnd();
+            lastIndex = i;
+            lastMax = fMaxEnds[i];
+        }
+        /*
+         * The inner nodes, level by level. The right child of a node may be
+         * past the end of the list, in which case the maximum of the last
+         * existing node of that subtree is used.
+         */
+        int level = 1;
+        for (; (1L << level) <= n; level++) {
+            int half = 1 << (level - 1);
+            long step = (long) half << 2;
+            for (long i = (half << 1) - 1; i < n; i += step) {
+                int node = (int) i;
+                long leftMax = fMaxEnds[node - half];
+                long rightMax = node + half < n ? fMaxEnds[node + half] : lastMax;
+                fMaxEnds[node] = Math.max(segments.get(node).getEnd(), Math.max(leftMax, rightMax));
+            }
+            lastIndex = ((lastIndex >> level) & 1) != 0 ? lastIndex - half : lastIndex + half;
+            if (lastIndex < n) {
+                lastMax = Math.max(lastMax, fMaxEnds[lastIndex]);
+            }
+        }
+        fRootLevel = level - 1;
+    }
+
+    /**
+     * Get the segments intersecting a time range
+     *
+     * @param start
+     *            The start of the range, inclusive
+     * @param end
+     *            The end of the range, inclusive
+     * @return The intersecting segments, in the order of the list
+     */
+    public List<E> getIntersectingElements(long start, long end) {
+        if (fRootLevel < 0) {
+            return Collections.emptyList();
+        }
+        List<E> segments = fSegments;
+        int n = segments.size();
+        @Nullable ArrayList<E> result = null;
+
+        /*
+         * Iterative in-order traversal. Each stack entry is a node index and
+         * its level, with a flag telling whether its left subtree was already
+         * visited.
+         */
+        int[] nodes = new int[2 * (fRootLevel + 2)];
+        int[] levels = new int[nodes.length];
+        boolean[] leftDone = new boolean[nodes.length];
+        int top = 0;
+        nodes[top] = (1 << fRootLevel) - 1;
+        levels[top] = fRootLevel;
+        leftDone[top] = false;
+        top++;
+        while (top > 0) {
+            top--;
+            int node = nodes[top];
+            int level = levels[top];
+            if (level <= SCAN_LEVEL) {
+                /* Scan the small subtree in order */
+                int first = (node >> level) << level;
+                int last = Math.min(n, first + (1 << (level + 1)) - 1);
+                for (int i = first; i < last; i++) {
+                    E segment = segments.get(i);
+                    if (segment.getStart() > end) {
+                        break;
+                    }
+                    if (segment.getEnd() >= start) {
+                        result = add(result, segment);
+                    }
+                }
+            } else if (!leftDone[top]) {
+                /* Revisit the node after its left subtree, if it may intersect */
+                leftDone[top] = true;
+                top++;
+                int left = node - (1 << (level - 1));
+                if (left >= n || fMaxEnds[left] >= start) {
+                    nodes[top] = left;
+                    levels[top] = level - 1;
+                    leftDone[top] = false;
+                    top++;
+                }
+            } else if (node < n && segments.get(node).getStart() <= end) {
+                E segment = segments.get(node);
+                if (segment.getEnd() >= start) {
+                    result = add(result, segment);
+                }
+                nodes[top] = node + (1 << (level - 1));
+                levels[top] = level - 1;
+                leftDone[top] = false;
+                top++;
+            }
+        }
+        if (result == null) {
+            return Collections.emptyList();
+        }
+        result.trimToSize();
+        return result;
+    }
+
+    private static <@NonNull E> ArrayList<E> add(@Nullable ArrayList<E> result, E segment) {
+        ArrayList<E> list = result;
+        if (list == null) {
+            list = new ArrayList<>();
+        }
+        list.add(segment);
+        return list;
+    }
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2016 Ericsson
+ * Copyright (c) 2016, 2026 Ericsson
  *
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -15,16 +15,15 @@ import static org.eclipse.tracecompass.common.core.NonNullUtils.checkNotNull;
 
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Spliterator;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Function;
 
 import org.eclipse.jdt.annotation.NonNull;
 import org.eclipse.jdt.annotation.Nullable;
-import org.eclipse.tracecompass.segmentstore.core.BasicSegment;
 import org.eclipse.tracecompass.segmentstore.core.ISegment;
 import org.eclipse.tracecompass.segmentstore.core.ISegmentStore;
 
@@ -47,6 +46,10 @@ import com.google.common.collect.ImmutableList;
  * should be faster at building when receiving shuffled datasets than the
  * {@link ArrayListStore}.
  *
+ * The intersecting elements are found with an interval tree, built on the
+ * first query after the store was modified, so the queries do not depend on
+ * the durations of the segments.
+ *
  * Removal operations are not supported.
  *
  * @param <E>
@@ -70,6 +73,7 @@ public class LazyArrayListStore<@NonNull E extends ISegment> implements ISegment
     protected final List<E> fStore;
 
     private @Nullable transient Iterable<E> fLastSnapshot = null;
+    private @Nullable transient IntervalTreeIndex<E> fIndex = null;
 
     private volatile boolean fDirty = false;
     private volatile long fStart = Long.MAX_VALUE;
@@ -124,26 +128,49 @@ public class LazyArrayListStore<@NonNull E extends ISegment> implements ISegment
     public Iterator<E> iterator() {
         fLock.lock();
         try {
-            if (fDirty) {
-                sortStore();
-            }
-            Iterable<E> lastSnapshot = fLastSnapshot;
-            if (lastSnapshot == null) {
-                lastSnapshot = ImmutableList.copyOf(fStore);
-                fLastSnapshot = lastSnapshot;
-            }
-            return checkNotNull(lastSnapshot.iterator());
+            return checkNotNull(getSnapshot().iterator());
+        } finally {
+            fLock.unlock();
+        }
+    }
+
+    /**
+     * The spliterator of a sorted snapshot of the store, which splits evenly
+     * for parallel streams.
+     */
+    @Override
+    public Spliterator<E> spliterator() {
+        fLock.lock();
+        try {
+            return checkNotNull(getSnapshot().spliterator());
         } finally {
             fLock.unlock();
         }
     }
 
+    /**
+     * Get an immutable copy of the sorted store, kept until the next
+     * modification. DO NOT CALL FROM OUTSIDE OF A LOCK!
+     */
+    private Iterable<E> getSnapshot() {
+        if (fDirty) {
+            sortStore();
+        }
+        Iterable<E> lastSnapshot = fLastSnapshot;
+        if (lastSnapshot == null) {
+            lastSnapshot = ImmutableList.copyOf(fStore);
+            fLastSnapshot = lastSnapshot;
+        }
+        return lastSnapshot;
+    }
+
     /**
      * Sort the backing ArrayList using the order defined by the internal
      * comparator. DO NOT CALL FROM OUTSIDE OF A LOCK!
      */
     protected void sortStore() {
         fStore.sort(COMPARATOR);
+        fIndex = null;
         fDirty = false;
     }
 
@@ -158,6 +185,7 @@ public class LazyArrayListStore<@NonNull E extends ISegment> implements ISegment
             setDirtyIfNeeded(val);
             fStore.add(getInsertionPoint(val), val);
             fLastSnapshot = null;
+            fIndex = null;
             fStart = Math.min(fStart, val.getStart());
             fEnd = Math.max(fEnd, val.getEnd());
             return true;
@@ -269,6 +297,7 @@ public class LazyArrayListStore<@NonNull E extends ISegment> implements ISegment
         try {
             fStore.clear();
             fLastSnapshot = null;
+            fIndex = null;
             fDirty = false;
         } finally {
             fLock.unlock();
@@ -287,44 +316,14 @@ public class LazyArrayListStore<@NonNull E extends ISegment> implements ISegment
         }
         try {
             if (start <= fStart && end >= fEnd) {
-                Iterable<E> lastSnapshot = fLastSnapshot;
-                if (lastSnapshot == null) {
-                    lastSnapshot = ImmutableList.copyOf(fStore);
-                    fLastSnapshot = lastSnapshot;
-                }
-                return checkNotNull(lastSnapshot);
-            }
-            /*
-             * Compute the index of the last Segment we will find in here,
-             * correct the negative insertion point and add 1 for array size.
-             */
-            int arraySize = Collections.binarySearch(fStore, new BasicSegment(end, Long.MAX_VALUE));
-            arraySize = (arraySize >= 0) ? arraySize + 1 : -arraySize;
-            /*
-             * Create the ArrayList as late as possible, with size = (first
-             * intersecting segment index) - (last intersecting segment index).
-             */
-            ArrayList<E> iterable = null;
-            for (E seg : fStore) {
-                if (seg.getStart() <= end && seg.getEnd() >= start) {
-                    if (iterable == null) {
-                        iterable = new ArrayList<>(arraySize);
-                    }
-                    iterable.add(seg);
-                } else if (seg.getStart() > end) {
-                    /*
-                     * Since segments are sorted by start times, there is no
-                     * point in searching segments that start too late.
-                     */
-                    break;
-                }
-                arraySize--;
+                return getSnapshot();
             }
-            if (iterable != null) {
-                iterable.trimToSize();
-                return iterable;
+            IntervalTreeIndex<E> index = fIndex;
+            if (index == null) {
+                index = new IntervalTreeIndex<>(fStore);
+                fIndex = index;
             }
-            return Collections.emptyList();
+            return index.getIntersectingElements(start, end);
         } finally {
             fLock.unlock();
         }
@@ -0,0 +1,579 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson and others
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.internal.segmentstore.core.compact;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.Spliterator;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.segmentstore.core.ICompactSegmentCodec;
+import org.eclipse.tracecompass.segmentstore.core.ISegment;
+import org.eclipse.tracecompass.segmentstore.core.ISegmentStore;
+
+/**
+ * Implementation of an {@link ISegmentStore} which keeps its segments in
+ * columns of primitive values instead of objects: one array for the start
+ * times, one for the end times, one for the indexes of the interned names and
+ * one per integer value of the segments. The segments are recreated by an
+ * {@link ICompactSegmentCodec} when they are read, so this store uses a
+ * fraction of the memory of the {@link ISegmentStore}s holding the segments,
+ * at the cost of creating short-lived objects on every read.
+ *
+ * Like the LazyArrayListStore, the segments are sorted in a lazy way by start
+ * and end times, the next read after an out of order insertion sorting the
+ * columns. Segments with the same start and end times are kept in insertion
+ * order.
+ *
+ * Removal operations are not supported.
+ *
+ * @param <E>
+ *            The type of segment held in this store
+ */
+public class CompactSegmentStore<@NonNull E extends ISegment> implements ISegmentStore<E> {
+
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int INSERTION_SORT_THRESHOLD = 16;
+    private static final int NO_NAME = -1;
+
+    private final ICompactSegmentCodec<E> fCodec;
+    private final int fNbValues;
+    private final ReentrantLock fLock = new ReentrantLock(false);
+
+    /* The interned names */
+    private final Map<String, Integer> fNameIds = new HashMap<>();
+    private @Nullable String[] fNames = new String[16];
+
+    /* The columns, the values being stored by value index then by row */
+    private int fSize = 0;
+    private long[] fStarts = new long[INITIAL_CAPACITY];
+    private long[] fEnds = new long[INITIAL_CAPACITY];
+    private int[] fNameIndexes = new int[INITIAL_CAPACITY];
+    private int[][] fValues;
+
+    private boolean fDirty = false;
+    private long fStart = Long.MAX_VALUE;
+    private long fEnd = Long.MIN_VALUE;
+
+    /**
+     * Constructor
+     *
+     * @param codec
+     *            The codec converting the segments to and from columns
+     */
+    public CompactSegmentStore(ICompactSegmentCodec<E> codec) {
+        fCodec = codec;
+        fNbValues = codec.getNbValues();
+        fValues = new int[fNbValues][INITIAL_CAPACITY];
+    }
+
+    /**
+     * An immutable view of the first rows of the columns. The columns are
+     * only appended to, and replaced by new arrays when they are sorted or
+     * grown, so the rows of a view never change.
+     */
+    private final class Snapshot implements Iterable<E> {
+        private final int fNbRows;
+        private final long[] fSnapshotStarts;
+        private final long[] fSnapshotEnds;
+        private final int[] fSnapshotNames;
+        private final int[][] fSnapshotValues;
+        private final @Nullable String[] fSnapshotNameTable;
+
+        public Snapshot() {
+            fNbRows = fSize;
+            fSnapshotStarts = fStarts;
+            fSnapshotEnds = fEnds;
+            fSnapshotNames = fNameIndexes;
+            fSnapshotValues = fValues;
+            fSnapshotNameTable = fNames;
+        }
+
+        public E get(int row, int[] values) {
+            for (int i = 0; i < fNbValues; i++) {
+                values[i] = fSnapshotValues[i][row];
+            }
+            int name = fSnapshotNames[row];
+            return fCodec.createSegment(fSnapshotStarts[row], fSnapshotEnds[row], name == NO_NAME ? null : fSnapshotNameTable[name], values);
+        }
+
+        @Override
+        public Iterator<E> iterator() {
+            return new Iterator<E>() {
+                private final int[] fRowValues = new int[fNbValues];
+                private int fRow = 0;
+
+                @Override
+                public boolean hasNext() {
+                    return fRow < fNbRows;
+                }
+
+                @Override
+                public E next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    return get(fRow++, fRowValues);
+                }
+            };
+        }
+
+        @Override
+        public Spliterator<E> spliterator() {
+            return new RowSpliterator(0, fNbRows);
+        }
+
+        /**
+         * Spliterator over a range of rows, split in halves for parallel
+         * streams
+         */
+        private final class RowSpliterator implements Spliterator<E> {
+            private final int[] fRowValues = new int[fNbValues];
+            private int fRow;
+            private final int fEnd;
+
+            public RowSpliterator(int row, int end) {
+                fRow = row;
+                fEnd = end;
+            }
+
+            @Override
+            public boolean tryAdvance(@Nullable Consumer<? super E> action) {
+                if (action == null) {
+                    throw new NullPointerException();
+                }
+                if (fRow >= fEnd) {
+                    return false;
+                }
+                action.accept(get(fRow++, fRowValues));
+                return true;
+            }
+
+            @Override
+            public @Nullable Spliterator<E> trySplit() {
+                int middle = (fRow + fEnd) >>> 1;
+                if (middle <= fRow) {
+                    return null;
+                }
+                Spliterator<E> prefix = new RowSpliterator(fRow, middle);
+                fRow = middle;
+                return prefix;
+            }
+
+            @Override
+            public long estimateSize() {
+                return (long) fEnd - fRow;
+            }
+
+            @Override
+            public int characteristics() {
+                return ORDERED | SIZED | SUBSIZED | NONNULL | IMMUTABLE;
+            }
+        }
+    }
+
+    /*
+     * Get a view of the sorted rows. DO NOT CALL FROM OUTSIDE OF A LOCK!
+     */
+    private Snapshot getSnapshot() {
+        if (fDirty) {
+            sortStore();
+        }
+        return new Snapshot();
+    }
+
+    // ------------------------------------------------------------------------
+    // Methods from Collection
+    // ------------------------------------------------------------------------
+
+    @Override
+    public Iterator<E> iterator() {
+        fLock.lock();
+        try {
+            return getSnapshot().iterator();
+        } finally {
+            fLock.unlock();
+        }
+    }
+
+    @Override
+    public Spliterator<E> spliterator() {
+        fLock.lock();
+        try {
+            return getSnapshot().spliterator();
+        } finally {
+            fLock.unlock();
+        }
+    }
+
+    @Override
+    public boolean add(@Nullable E val) {
+        if (val == null) {
+            throw new IllegalArgumentException("Cannot add null value"); //$NON-NLS-1$
+        }
+
+        fLock.lock();
+        try {
+            int row = fSize;
+            if (row == fStarts.length) {
+                grow();
+            }
+            long start = val.getStart();
+            long end = val.getEnd();
+            if (row > 0 && compare(fStarts[row - 1], fEnds[row - 1], start, end) > 0) {
+                fDirty = true;
+            }
+            fStarts[row] = start;
+            fEnds[row] = end;
+            fNameIndexes[row] = internName(fCodec.getName(val));
+            for (int i = 0; i < fNbValues; i++) {
+                fValues[i][row] = fCodec.getValue(val, i);
+            }
+            fSize++;
+            fStart = Math.min(fStart, start);
+            fEnd = Math.max(fEnd, end);
+            return true;
+        } finally {
+            fLock.unlock();
+        }
+    }
+
+    private int internName(@Nullable String name) {
+        if (name == null) {
+            return NO_NAME;
+        }
+        Integer index = fNameIds.get(name);
+        if (index == null) {
+            index = fNameIds.size();
+            if (index == fNames.length) {
+                fNames = Arrays.copyOf(fNames, index * 2);
+            }
+            fNames[index] = name;
+            fNameIds.put(name, index);
+        }
+        return index;
+    }
+
+    private void grow() {
+        int capacity = fStarts.length + (fStarts.length >> 1);
+        fStarts = Arrays.copyOf(fStarts, capacity);
+        fEnds = Arrays.copyOf(fEnds, capacity);
+        fNameIndexes = Arrays.copyOf(fNameIndexes, capacity);
+        int[][] values = new int[fNbValues][];
+        for (int i = 0; i < fNbValues; i++) {
+            values[i] = Arrays.copyOf(fValues[i], capacity);
+        }
+        fValues = values;
+    }
+
+    private static int compare(long start1, long end1, long start2, long end2) {
+        int ret = Long.compare(start1, start2);
+        return (ret != 0) ? ret : Long.compare(end1, end2);
+    }
+
+    private int compareRows(int row1, int row2) {
+        return compare(fStarts[row1], fEnds[row1], fStarts[row2], fEnds[row2]);
+    }
+
+    /**
+     * Sort the columns by start and end times, with a stable sort of the
+     * order of the rows, then a copy of the columns in that order. DO NOT CALL
+     * FROM OUTSIDE OF A LOCK!
+     */
+    private void sortStore() {
+        int[] order = new int[fSize];
+        for (int i = 0; i < fSize; i++) {
+            order[i] = i;
+        }
+        mergeSort(order, new int[fSize], 0, fSize);
+
+        int capacity = fStarts.length;
+        long[] starts = new long[capacity];
+        long[] ends = new long[capacity];
+        int[] names = new int[capacity];
+        int[][] values = new int[fNbValues][capacity];
+        for (int i = 0; i < fSize; i++) {
+            int row = order[i];
+            starts[i] = fStarts[row];
+            ends[i] = fEnds[row];
+            names[i] = fNameIndexes[row];
+            for (int j = 0; j < fNbValues; j++) {
+                values[j][i] = fValues[j][row];
+            }
+        }
+        fStarts = starts;
+        fEnds = ends;
+        fNameIndexes = names;
+        fValues = values;
+        fDirty = false;
+    }
+
+    private void mergeSort(int[] order, int[] tmp, int from, int to) {
+        if (to - from <= INSERTION_SORT_THRESHOLD) {
+            for (int i = from + 1; i < to; i++) {
+                int row = order[i];
+                int j = i - 1;
+                while (j >= from && compareRows(order[j], row) > 0) {
+                    order[j + 1] = order[j];
+                    j--;
+                }
+                order[j + 1] = row;
+            }
+            return;
+        }
+        int mid = (from + to) >>> 1;
+        mergeSort(order, tmp, from, mid);
+        mergeSort(order, tmp, mid, to);
+        if (compareRows(order[mid - 1], order[mid]) <= 0) {
+            /* Already in order, as for mostly sorted segments */
+            return;
+        }
+        System.arraycopy(order, from, tmp, from, to - from);
+        int left = from;
+        int right = mid;
+        for (int i = from; i < to; i++) {
+            if (right >= to || (left < mid && compareRows(tmp[left], tmp[right]) <= 0)) {
+                order[i] = tmp[left++];
+            } else {
+                order[i] = tmp[right++];
+            }
+        }
+    }
+
+    @Override
+    public int size() {
+        fLock.lock();
+        try {
+            return fSize;
+        } finally {
+            fLock.unlock();
+        }
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    @Override
+    public boolean contains(@Nullable Object o) {
+        if (!(o instanceof ISegment)) {
+            return false;
+        }
+        long start = ((ISegment) o).getStart();
+        fLock.lock();
+        try {
+            Snapshot snapshot = getSnapshot();
+            int[] values = new int[fNbValues];
+            /* Compare with the segments with the same start time */
+            for (int row = lowerBound(snapshot, start); row < snapshot.fNbRows && snapshot.fSnapshotStarts[row] == start; row++) {
+                if (snapshot.get(row, values).equals(o)) {
+                    return true;
+                }
+            }
+            return false;
+        } finally {
+            fLock.unlock();
+        }
+    }
+
+    @Override
+    public boolean containsAll(@Nullable Collection<?> c) {
+        if (c == null) {
+            return false;
+        }
+        for (Object o : c) {
+            if (!contains(o)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public Object[] toArray() {
+        fLock.lock();
+        try {
+            List<E> list = new ArrayList<>(fSize);
+            getSnapshot().forEach(list::add);
+            return list.toArray();
+        } finally {
+            fLock.unlock();
+        }
+    }
+
+    @Override
+    public <T> T[] toArray(T[] a) {
+        fLock.lock();
+        try {
+            List<E> list = new ArrayList<>(fSize);
+            getSnapshot().forEach(list::add);
+            return list.toArray(a);
+        } finally {
+            fLock.unlock();
+        }
+    }
+
+    @Override
+    public boolean addAll(@Nullable Collection<? extends E> c) {
+        if (c == null) {
+            throw new IllegalArgumentException();
+        }
+
+        fLock.lock();
+        try {
+            c.forEach(this::add);
+            return true;
+        } finally {
+            fLock.unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        fLock.lock();
+        try {
+            fSize = 0;
+            fStarts = new long[INITIAL_CAPACITY];
+            fEnds = new long[INITIAL_CAPACITY];
+            fNameIndexes = new int[INITIAL_CAPACITY];
+            fValues = new int[fNbValues][INITIAL_CAPACITY];
+            fNameIds.clear();
+            fNames = new String[16];
+            fDirty = false;
+            fStart = Long.MAX_VALUE;
+            fEnd = Long.MIN_VALUE;
+        } finally {
+            fLock.unlock();
+        }
+    }
+
+    // ------------------------------------------------------------------------
+    // Methods added by ISegmentStore
+    // ------------------------------------------------------------------------
+
+    @Override
+    public Iterable<E> getIntersectingElements(long start, long end) {
+        fLock.lock();
+        try {
+            Snapshot snapshot = getSnapshot();
+            if (start <= fStart && end >= fEnd) {
+                return snapshot;
+            }
+            /*
+             * Only the segments before the first one starting after the end
+             * can intersect, scan their end times and recreate the matching
+             * segments only.
+             */
+            int last = lowerBound(snapshot, end == Long.MAX_VALUE ? end : end + 1);
+            int[] values = new int[fNbValues];
+            List<E> iterable = null;
+            for (int row = 0; row < last; row++) {
+                if (snapshot.fSnapshotEnds[row] >= start) {
+                    if (iterable == null) {
+                        iterable = new ArrayList<>();
+                    }
+                    iterable.add(snapshot.get(row, values));
+                }
+            }
+            return (iterable != null) ? iterable : Collections.emptyList();
+        } finally {
+            fLock.unlock();
+        }
+    }
+
+    /*
+     * The first row of the snapshot whose start time is equal to or greater
+     * than the given time
+     */
+    private static int lowerBound(CompactSegmentStore<?>.Snapshot snapshot, long time) {
+        int low = 0;
+        int high = snapshot.fNbRows;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (snapshot.fSnapshotStarts[mid] < time) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    @Override
+    public void dispose() {
+        clear();
+    }
+
+    /**
+     * Get an immutable list of the segments sorted by start and end times. The
+     * list is a view of the columns, each segment being recreated when it is
+     * read, so that the segments can be moved elsewhere without creating them
+     * all at once.
+     *
+     * @return The sorted segments
+     */
+    public List<E> getSortedSegments() {
+        fLock.lock();
+        try {
+            Snapshot snapshot = getSnapshot();
+            return new SortedRows(snapshot);
+        } finally {
+            fLock.unlock();
+        }
+    }
+
+    /**
+     * List view of the rows of a snapshot
+     */
+    private final class SortedRows extends AbstractList<E> implements RandomAccess {
+        private final Snapshot fSnapshot;
+
+        public SortedRows(Snapshot snapshot) {
+            fSnapshot = snapshot;
+        }
+
+        @Override
+        public E get(int index) {
+            Objects.checkIndex(index, fSnapshot.fNbRows);
+            return fSnapshot.get(index, new int[fNbValues]);
+        }
+
+        @Override
+        public int size() {
+            return fSnapshot.fNbRows;
+        }
+
+        @Override
+        public Iterator<E> iterator() {
+            return fSnapshot.iterator();
+        }
+
+        @Override
+        public Spliterator<E> spliterator() {
+            return fSnapshot.spliterator();
+        }
+    }
+}
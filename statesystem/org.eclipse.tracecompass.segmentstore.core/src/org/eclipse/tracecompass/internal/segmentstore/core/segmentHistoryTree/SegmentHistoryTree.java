@@ -14,11 +14,15 @@ package org.eclipse.tracecompass.internal.segmentstore.core.segmentHistoryTree;
 import java.io.File;
 import java.io.IOException;
 import java.nio.channels.ClosedChannelException;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.Deque;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedList;
+import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.PriorityQueue;
 
@@ -247,6 +251,78 @@ public class SegmentHistoryTree<E extends ISegment> extends AbstractOverlappingH
         };
     }
 
+    /**
+     * Return an iterator for a range over the segments in the tree at the time
+     * of the call, that ignores the segments inserted afterwards. The segments
+     * of the nodes of the latest branch, which can still receive segments, are
+     * read now, the closed nodes are read as the iteration goes. The caller
+     * must make sure no segment is inserted during this call.
+     *
+     * @param start
+     *            The start of the range
+     * @param end
+     *            The end of the range
+     * @return The iterable
+     */
+    public Iterable<@NonNull E> getIntersectingElementsSnapshot(final long start, final long end) {
+        final TimeRangeCondition rc = TimeRangeCondition.forContinuousRange(start, end);
+        final int nodeCount = getNodeCount();
+        final int rootSeq = getRootNode().getSequenceNumber();
+        /* The matching segments and children of the nodes still open */
+        final Map<Integer, Collection<E>> openIntervals = new HashMap<>();
+        final Map<Integer, Collection<Integer>> openChildren = new HashMap<>();
+        for (SegmentTreeNode<E> node : getLatestBranch()) {
+            openIntervals.put(node.getSequenceNumber(), node.getMatchingIntervals(rc, interval -> true));
+            if (node.getNodeType() == IHTNode.NodeType.CORE) {
+                openChildren.put(node.getSequenceNumber(), new ArrayList<>(node.selectNextChildren(rc)));
+            }
+        }
+        return () -> new Iterator<E>() {
+
+            private Deque<Integer> queue = new LinkedList<>(Collections.singleton(rootSeq));
+            private Deque<E> intersecting = new LinkedList<>();
+
+            @Override
+            public @NonNull E next() {
+                if (hasNext()) {
+                    return NonNullUtils.checkNotNull(intersecting.removeFirst());
+                }
+                throw new NoSuchElementException();
+            }
+
+            @Override
+            public boolean hasNext() {
+                while (intersecting.isEmpty() && !queue.isEmpty()) {
+                    int seq = queue.pop();
+                    Collection<E> intervals = openIntervals.get(seq);
+                    Collection<Integer> children;
+                    if (intervals != null) {
+                        children = openChildren.getOrDefault(seq, Collections.emptyList());
+                    } else {
+                        SegmentTreeNode<E> currentNode;
+                        try {
+                            currentNode = readNode(seq);
+                        } catch (ClosedChannelException e) {
+                            Activator.instance().logError(e.getMessage(), e);
+                            return false;
+                        }
+                        intervals = currentNode.getMatchingIntervals(rc, interval -> true);
+                        children = (currentNode.getNodeType() == IHTNode.NodeType.CORE) ?
+                                currentNode.selectNextChildren(rc) : Collections.emptyList();
+                    }
+                    for (int child : children) {
+                        /* Skip the nodes created after the call */
+                        if (child < nodeCount) {
+                            queue.add(child);
+                        }
+                    }
+                    intersecting.addAll(intervals);
+                }
+                return !intersecting.isEmpty();
+            }
+        };
+    }
+
     /**
      * Return an iterator for a range where segments are sorted
      *
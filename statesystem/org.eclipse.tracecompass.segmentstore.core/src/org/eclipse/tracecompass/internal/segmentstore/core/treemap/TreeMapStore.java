@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2015 EfficiOS Inc., Alexandre Montplaisir and others.
+ * Copyright (c) 2015, 2026 EfficiOS Inc., Alexandre Montplaisir and others.
  *
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -22,6 +22,7 @@ import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
 import java.util.NavigableSet;
+import java.util.Spliterator;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.function.Function;
@@ -93,6 +94,19 @@ public class TreeMapStore<@NonNull E extends ISegment> implements ISegmentStore<
 
     @Override
     public Iterator<E> iterator() {
+        return checkNotNull(getSnapshot().iterator());
+    }
+
+    /**
+     * The spliterator of a snapshot of the store, which splits evenly for
+     * parallel streams.
+     */
+    @Override
+    public Spliterator<E> spliterator() {
+        return checkNotNull(getSnapshot().spliterator());
+    }
+
+    private Iterable<E> getSnapshot() {
         fLock.readLock().lock();
         try {
             Iterable<E> lastSnapshot = fLastSnapshot;
@@ -100,7 +114,7 @@ public class TreeMapStore<@NonNull E extends ISegment> implements ISegmentStore<
                 lastSnapshot = ImmutableList.copyOf(fStartTimesIndex.values());
                 fLastSnapshot = lastSnapshot;
             }
-            return checkNotNull(lastSnapshot.iterator());
+            return lastSnapshot;
         } finally {
             fLock.readLock().unlock();
         }
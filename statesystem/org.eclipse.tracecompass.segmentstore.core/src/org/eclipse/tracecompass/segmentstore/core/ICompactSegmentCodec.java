@@ -0,0 +1,76 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson and others
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.segmentstore.core;
+
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.segmentstore.core.SegmentStoreFactory.SegmentStoreType;
+
+/**
+ * Converts segments to and from the columns of a
+ * {@link SegmentStoreType#Compact} segment store. That store does not keep the
+ * segments, only their start and end times, their name, which is interned, and
+ * a fixed number of integer values. The segments are recreated from those
+ * columns when they are read, so two segments with the same columns must be
+ * equivalent.
+ *
+ * @param <E>
+ *            The type of segment
+ * @since 3.2
+ */
+public interface ICompactSegmentCodec<E extends ISegment> {
+
+    /**
+     * Get the number of integer values saved for each segment
+     *
+     * @return The number of values
+     */
+    int getNbValues();
+
+    /**
+     * Get the name of a segment, many segments being expected to have the same
+     * name
+     *
+     * @param segment
+     *            The segment
+     * @return The name of the segment, or <code>null</code> if it has none
+     */
+    @Nullable String getName(E segment);
+
+    /**
+     * Get an integer value of a segment
+     *
+     * @param segment
+     *            The segment
+     * @param index
+     *            The index of the value, from 0 to {@link #getNbValues()} - 1
+     * @return The value
+     */
+    int getValue(E segment, int index);
+
+    /**
+     * Recreate a segment from its columns
+     *
+     * @param start
+     *            The start time of the segment
+     * @param end
+     *            The end time of the segment
+     * @param name
+     *            The name of the segment, as returned by
+     *            {@link #getName(ISegment)}
+     * @param values
+     *            The values of the segment, as returned by
+     *            {@link #getValue(ISegment, int)}. This array is reused for
+     *            the next segments and should not be kept.
+     * @return The segment
+     */
+    E createSegment(long start, long end, @Nullable String name, int[] values);
+}
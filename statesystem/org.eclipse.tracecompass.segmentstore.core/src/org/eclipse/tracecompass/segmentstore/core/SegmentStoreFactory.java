@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2016 Polytechnique
+ * Copyright (c) 2016, 2026 Polytechnique
  *
  * All rights reserved. This program and the accompanying materials are
  * made available under the terms of the Eclipse Public License 2.0 which
@@ -22,8 +22,10 @@ import java.util.Set;
 import org.eclipse.jdt.annotation.NonNull;
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.tracecompass.datastore.core.interval.IHTIntervalReader;
+import org.eclipse.tracecompass.internal.segmentstore.core.adaptive.AdaptiveSegmentStore;
 import org.eclipse.tracecompass.internal.segmentstore.core.arraylist.ArrayListStore;
 import org.eclipse.tracecompass.internal.segmentstore.core.arraylist.LazyArrayListStore;
+import org.eclipse.tracecompass.internal.segmentstore.core.compact.CompactSegmentStore;
 import org.eclipse.tracecompass.internal.segmentstore.core.segmentHistoryTree.HistoryTreeSegmentStore;
 import org.eclipse.tracecompass.internal.segmentstore.core.treemap.TreeMapStore;
 
@@ -69,7 +71,36 @@ public final class SegmentStoreFactory<E> {
          *
          * @since 2.0
          */
-        OnDisk
+        OnDisk,
+        /**
+         * Segment store that keeps the segments in columns of primitive values
+         * instead of objects, ideal for very large numbers of segments made of
+         * a few numbers and a name, like system calls. The segments are
+         * recreated when they are read. These kind of stores should be created
+         * using the
+         * {@link SegmentStoreFactory#createCompactSegmentStore(ICompactSegmentCodec)}
+         * factory method
+         *
+         * @since 3.2
+         */
+        Compact,
+        /**
+         * Segment store that starts in memory and moves its segments to disk
+         * when they exceed a memory budget, ideal when the number of segments
+         * is not known in advance. When the store is closed, the file holds
+         * all the segments and can be reopened as an {@link #OnDisk} store,
+         * even if they did not exceed the budget and stay in memory. These
+         * kind of stores should be created using
+         * the
+         * {@link SegmentStoreFactory#createAdaptiveSegmentStore(Path, IHTIntervalReader, int, long)}
+         * factory method, or with
+         * {@link SegmentStoreFactory#createAdaptiveSegmentStore(Path, IHTIntervalReader, int, long, ICompactSegmentCodec)}
+         * to keep the segments in memory in columns, like a {@link #Compact}
+         * store
+         *
+         * @since 3.2
+         */
+        Adaptive
     }
 
     private SegmentStoreFactory() {
@@ -148,6 +179,65 @@ public final class SegmentStoreFactory<E> {
         return new HistoryTreeSegmentStore<>(segmentFile, segmentReader, version);
     }
 
+    /**
+     * SegmentStore factory method that creates a segment store keeping the
+     * segments in columns of primitive values
+     *
+     * @param codec
+     *            The codec converting the segments to and from the columns of
+     *            the store
+     * @return an {@link ISegmentStore}
+     * @since 3.2
+     */
+    public static <E extends ISegment> ISegmentStore<E> createCompactSegmentStore(ICompactSegmentCodec<E> codec) {
+        return new CompactSegmentStore<>(codec);
+    }
+
+    /**
+     * SegmentStore factory method that creates a segment store in memory,
+     * which moves its segments to disk when their estimated size exceeds a
+     * budget
+     *
+     * @param segmentFile
+     *            The file where to store the segments, created if they exceed
+     *            the budget or when the store is closed
+     * @param segmentReader
+     *            The factory to read the segments from a safe byte buffer
+     * @param version
+     *            The version number of the segment reader/writer
+     * @param memoryBudget
+     *            The estimated size, in bytes, the segments can take in memory
+     * @return an {@link ISegmentStore}
+     * @since 3.2
+     */
+    public static <E extends ISegment> ISegmentStore<E> createAdaptiveSegmentStore(Path segmentFile, IHTIntervalReader<E> segmentReader, int version, long memoryBudget) {
+        return new AdaptiveSegmentStore<>(segmentFile, segmentReader, version, memoryBudget);
+    }
+
+    /**
+     * SegmentStore factory method that creates a segment store in memory,
+     * which keeps its segments in columns of primitive values and moves them
+     * to disk when their estimated size exceeds a budget
+     *
+     * @param segmentFile
+     *            The file where to store the segments, created if they exceed
+     *            the budget or when the store is closed
+     * @param segmentReader
+     *            The factory to read the segments from a safe byte buffer
+     * @param version
+     *            The version number of the segment reader/writer
+     * @param memoryBudget
+     *            The estimated size, in bytes, the segments can take in memory
+     * @param codec
+     *            The codec converting the segments in memory to and from
+     *            columns
+     * @return an {@link ISegmentStore}
+     * @since 3.2
+     */
+    public static <E extends ISegment> ISegmentStore<E> createAdaptiveSegmentStore(Path segmentFile, IHTIntervalReader<E> segmentReader, int version, long memoryBudget, ICompactSegmentCodec<E> codec) {
+        return new AdaptiveSegmentStore<>(segmentFile, segmentReader, version, memoryBudget, codec);
+    }
+
     private static Set<@NonNull SegmentStoreType> getListOfFlags(SegmentStoreType... segmentTypes) {
         Set<@NonNull SegmentStoreType> segments = new HashSet<>();
         for(@Nullable SegmentStoreType segmentType : segmentTypes ) {
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2015, 2016 Ericsson
+ * Copyright (c) 2015, 2026 Ericsson
  *
  * All rights reserved. This program and the accompanying materials are
  * made available under the terms of the Eclipse Public License 2.0 which
@@ -20,7 +20,11 @@ import static org.junit.Assert.assertNotEquals;
 
 import java.io.File;
 import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.eclipse.tracecompass.internal.statesystem.core.AttributeTree;
 import org.eclipse.tracecompass.internal.statesystem.core.StateSystem;
@@ -125,4 +129,75 @@ public class AttributeTreeTest {
             file.delete();
         }
     }
+
+    /**
+     * Test reading an attribute tree file section written in the serialized
+     * format of the previous versions, whose path elements equal to those of
+     * the previous attribute are replaced with "*".
+     *
+     * @throws IOException
+     *             if there is an error accessing the test file
+     */
+    @Test
+    public void testReadPreviousFormat() throws IOException {
+        File file = File.createTempFile("AttributeTreeTest", ".ht");
+        try (ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(file))) {
+            oos.writeInt(0x06EC3671);
+            ArrayList<String[]> list = new ArrayList<>();
+            list.add(new String[] { THREADS });
+            list.add(new String[] { "*", "1" });
+            list.add(new String[] { "*", "*", STATUS });
+            list.add(new String[] { "*", "2" });
+            list.add(new String[] { "*", "*", STATUS });
+            oos.writeObject(list);
+        }
+
+        IStateHistoryBackend backend = StateHistoryBackendFactory.createNullBackend("test");
+        StateSystem ss = new StateSystem(backend);
+        try (FileInputStream fis = new FileInputStream(file)) {
+            AttributeTree attributeTree = new AttributeTree(ss, fis);
+            assertEquals(5, attributeTree.getNbAttributes());
+            assertEquals(2, attributeTree.getQuarkDontAdd(ITmfStateSystem.ROOT_ATTRIBUTE, THREADS, "1", STATUS));
+            assertEquals(4, attributeTree.getQuarkDontAdd(ITmfStateSystem.ROOT_ATTRIBUTE, THREADS, "2", STATUS));
+            assertEquals(THREADS + "/2/" + STATUS, attributeTree.getFullAttributeName(4));
+        } finally {
+            ss.dispose();
+            file.delete();
+        }
+    }
+
+    /**
+     * Test that the sub-attributes are returned in insertion order, depth
+     * first, and that lookups are still correct after the tree has grown.
+     */
+    @Test
+    public void testSubAttributes() {
+        IStateHistoryBackend backend = StateHistoryBackendFactory.createNullBackend("test");
+        StateSystem ss = new StateSystem(backend);
+        try {
+            AttributeTree attributeTree = new AttributeTree(ss);
+            int threadsQuark = attributeTree.getQuarkAndAdd(ITmfStateSystem.ROOT_ATTRIBUTE, THREADS);
+            List<Integer> expectedChildren = new ArrayList<>();
+            List<Integer> expectedDescendants = new ArrayList<>();
+            for (int i = 1000; i > 0; i--) {
+                int threadQuark = attributeTree.getQuarkAndAdd(threadsQuark, String.valueOf(i));
+                int statusQuark = attributeTree.getQuarkAndAdd(threadQuark, STATUS);
+                expectedChildren.add(threadQuark);
+                expectedDescendants.add(threadQuark);
+                expectedDescendants.add(statusQuark);
+            }
+            assertEquals(2001, attributeTree.getNbAttributes());
+            assertEquals(expectedChildren, attributeTree.getSubAttributes(threadsQuark, false));
+            assertEquals(expectedDescendants, attributeTree.getSubAttributes(threadsQuark, true));
+            for (int i = 1000; i > 0; i--) {
+                int quark = attributeTree.getQuarkDontAdd(ITmfStateSystem.ROOT_ATTRIBUTE, THREADS, String.valueOf(i), STATUS);
+                assertEquals(quark, attributeTree.getQuarkAndAdd(ITmfStateSystem.ROOT_ATTRIBUTE, THREADS, String.valueOf(i), STATUS));
+                assertEquals(String.valueOf(i), attributeTree.getAttributeName(attributeTree.getParentAttributeQuark(quark)));
+            }
+            assertEquals(ITmfStateSystem.INVALID_ATTRIBUTE, attributeTree.getQuarkDontAdd(threadsQuark, STATUS));
+            assertEquals(2001, attributeTree.getNbAttributes());
+        } finally {
+            ss.dispose();
+        }
+    }
 }
@@ -0,0 +1,188 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson and others
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+
+package org.eclipse.tracecompass.statesystem.core.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.tracecompass.statesystem.core.ITmfStateSystem;
+import org.eclipse.tracecompass.statesystem.core.ITmfStateSystemBuilder;
+import org.eclipse.tracecompass.statesystem.core.StateSystemFactory;
+import org.eclipse.tracecompass.statesystem.core.backend.StateHistoryBackendFactory;
+import org.eclipse.tracecompass.statesystem.core.exceptions.AttributeNotFoundException;
+import org.eclipse.tracecompass.statesystem.core.exceptions.StateSystemDisposedException;
+import org.eclipse.tracecompass.statesystem.core.exceptions.TimeRangeException;
+import org.eclipse.tracecompass.statesystem.core.interval.ITmfStateInterval;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Test the federated state system, which exposes several state systems as one
+ */
+public class FederatedStateSystemTest {
+
+    private static final String CPUS = "CPUs";
+    private static final int NB_SHARDS = 3;
+    private static final int CPUS_PER_SHARD = 2;
+    private static final long END_TIME = 1000;
+
+    private final List<ITmfStateSystemBuilder> fShards = new ArrayList<>();
+    private ITmfStateSystem fFederated;
+
+    /**
+     * Build shards holding the states of different CPUs. The CPUs are
+     * distributed round-robin, like they would be by a sharded analysis, and
+     * each shard ends a bit earlier than the previous one.
+     */
+    @Before
+    public void setUp() {
+        List<ITmfStateSystem> shards = new ArrayList<>();
+        for (int shard = 0; shard < NB_SHARDS; shard++) {
+            ITmfStateSystemBuilder ss = StateSystemFactory.newStateSystem(StateHistoryBackendFactory.createInMemoryBackend("shard" + shard, 0));
+            long end = END_TIME - shard * 100;
+            for (int cpu = shard; cpu < NB_SHARDS * CPUS_PER_SHARD; cpu += NB_SHARDS) {
+                int quark = ss.getQuarkAbsoluteAndAdd(CPUS, String.valueOf(cpu));
+                for (long t = 0; t < end; t += 10) {
+                    ss.modifyAttribute(t, cpu * 10000 + (int) t, quark);
+                }
+            }
+            ss.closeHistory(end);
+            fShards.add(ss);
+            shards.add(ss);
+        }
+        fFederated = StateSystemFactory.newFederatedStateSystem("federated", shards);
+    }
+
+    /**
+     * Dispose the state systems
+     */
+    @After
+    public void tearDown() {
+        fFederated.dispose();
+    }
+
+    /**
+     * Test the merged attribute tree
+     *
+     * @throws AttributeNotFoundException
+     *             Should not happen
+     */
+    @Test
+    public void testAttributeTree() throws AttributeNotFoundException {
+        /* The CPUs attribute is merged */
+        assertEquals(1 + NB_SHARDS * CPUS_PER_SHARD, fFederated.getNbAttributes());
+        int cpusQuark = fFederated.getQuarkAbsolute(CPUS);
+        assertEquals(NB_SHARDS * CPUS_PER_SHARD, fFederated.getSubAttributes(cpusQuark, false).size());
+        assertEquals(NB_SHARDS * CPUS_PER_SHARD, fFederated.getQuarks(CPUS, "*").size());
+        for (int cpu = 0; cpu < NB_SHARDS * CPUS_PER_SHARD; cpu++) {
+            int quark = fFederated.getQuarkRelative(cpusQuark, String.valueOf(cpu));
+            assertEquals(CPUS + '/' + cpu, fFederated.getFullAttributePath(quark));
+            assertEquals(cpusQuark, fFederated.getParentAttributeQuark(quark));
+        }
+        assertEquals(ITmfStateSystem.INVALID_ATTRIBUTE, fFederated.optQuarkAbsolute(CPUS, "missing"));
+
+        /* Attributes added to a shard later appear in the merged tree */
+        fShards.get(1).getQuarkAbsoluteAndAdd("Other");
+        assertEquals(2 + NB_SHARDS * CPUS_PER_SHARD, fFederated.getNbAttributes());
+        assertEquals("Other", fFederated.getFullAttributePath(fFederated.getQuarkAbsolute("Other")));
+    }
+
+    /**
+     * Test that single and full queries return the states of the shards, and
+     * null states after the end of a shard
+     *
+     * @throws AttributeNotFoundException
+     *             Should not happen
+     * @throws StateSystemDisposedException
+     *             Should not happen
+     */
+    @Test
+    public void testQueries() throws AttributeNotFoundException, StateSystemDisposedException {
+        assertEquals(0, fFederated.getStartTime());
+        assertEquals(END_TIME, fFederated.getCurrentEndTime());
+
+        for (long t : new long[] { 0, 255, 850, END_TIME }) {
+            List<ITmfStateInterval> fullState = fFederated.queryFullState(t);
+            assertEquals(fFederated.getNbAttributes(), fullState.size());
+            for (int cpu = 0; cpu < NB_SHARDS * CPUS_PER_SHARD; cpu++) {
+                int quark = fFederated.getQuarkAbsolute(CPUS, String.valueOf(cpu));
+                ITmfStateInterval interval = fFederated.querySingleState(t, quark);
+                assertEquals(quark, interval.getAttribute());
+                assertEquals(fullState.get(quark).getValue(), interval.getValue());
+                int shard = cpu % NB_SHARDS;
+                if (t > END_TIME - shard * 100) {
+                    assertNull(interval.getValue());
+                } else {
+                    ITmfStateSystem ss = fShards.get(shard);
+                    int shardQuark = ss.getQuarkAbsolute(CPUS, String.valueOf(cpu));
+                    assertEquals(ss.querySingleState(t, shardQuark).getValue(), interval.getValue());
+                    assertEquals(ss.querySingleState(t, shardQuark).getStartTime(), interval.getStartTime());
+                }
+            }
+        }
+    }
+
+    /**
+     * Test a query outside of the range of all the shards
+     *
+     * @throws StateSystemDisposedException
+     *             Should not happen
+     */
+    @Test(expected = TimeRangeException.class)
+    public void testQueryOutOfRange() throws StateSystemDisposedException {
+        fFederated.queryFullState(END_TIME + 1);
+    }
+
+    /**
+     * Test that the 2D queries return the intervals of all the shards, with
+     * the quarks of the federated state system
+     *
+     * @throws StateSystemDisposedException
+     *             Should not happen
+     */
+    @Test
+    public void testQuery2D() throws StateSystemDisposedException {
+        List<Integer> quarks = fFederated.getQuarks(CPUS, "*");
+        Set<String> expected = new HashSet<>();
+        for (int quark : quarks) {
+            for (long t = 95; t <= 205; t++) {
+                ITmfStateInterval interval = fFederated.querySingleState(t, quark);
+                expected.add(quark + ":" + interval.getStartTime() + ":" + interval.getValue());
+            }
+        }
+        Set<String> actual = new HashSet<>();
+        for (ITmfStateInterval interval : fFederated.query2D(quarks, 95, 205)) {
+            actual.add(interval.getAttribute() + ":" + interval.getStartTime() + ":" + interval.getValue());
+        }
+        assertEquals(expected, actual);
+
+        /*
+         * Discrete times, the second one after the end of two of the shards,
+         * which have no interval then
+         */
+        actual.clear();
+        for (ITmfStateInterval interval : fFederated.query2D(quarks, ImmutableList.of(100L, 950L))) {
+            assertNotNull(interval.getValue());
+            actual.add(interval.getAttribute() + ":" + interval.getValue());
+        }
+        assertEquals(quarks.size() + CPUS_PER_SHARD, actual.size());
+    }
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2016 École Polytechnique de Montréal
+ * Copyright (c) 2016, 2026 École Polytechnique de Montréal
  *
  * All rights reserved. This program and the accompanying materials are
  * made available under the terms of the Eclipse Public License 2.0 which
@@ -18,16 +18,19 @@ import static org.junit.Assert.assertTrue;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 import org.eclipse.jdt.annotation.NonNull;
 import org.eclipse.tracecompass.common.core.NonNullUtils;
 import org.eclipse.tracecompass.statesystem.core.ITmfStateSystem;
 import org.eclipse.tracecompass.statesystem.core.ITmfStateSystemBuilder;
+import org.eclipse.tracecompass.statesystem.core.Query2DRequest;
 import org.eclipse.tracecompass.statesystem.core.StateSystemFactory;
 import org.eclipse.tracecompass.statesystem.core.StateSystemUtils;
 import org.eclipse.tracecompass.statesystem.core.backend.IStateHistoryBackend;
@@ -339,4 +342,65 @@ public class StateSystem2DTest {
         testContinuous(iterable, quarks, START_TIME, end, 11);
     }
 
+    /**
+     * Test the batched 2D query method, with both continuous and discrete
+     * requests in the same batch.
+     *
+     * @throws AttributeNotFoundException
+     *             if the requested attribute simply did not exist in the system.
+     * @throws StateSystemDisposedException
+     *             If the query is sent after the state system has been disposed
+     * @throws TimeRangeException
+     *             If the smallest time is before the state system start time.
+     * @throws IndexOutOfBoundsException
+     *             If the smallest attribute is <0 or if the largest is >= to the
+     *             number of attributes.
+     */
+    @Test
+    public void testBatch2DQuery() throws AttributeNotFoundException, IndexOutOfBoundsException, TimeRangeException, StateSystemDisposedException {
+        ITmfStateSystem ss = fStateSystem;
+        assertNotNull(ss);
+        long end = ss.getCurrentEndTime();
+        Collection<Long> times = StateSystemUtils.getTimes(START_TIME, end, 30L);
+
+        int stringQuark = fStateSystem.getQuarkAbsolute(STRING_ATTRIBUTE);
+        int integerQuark = fStateSystem.getQuarkAbsolute(INTEGER_ATTRIBUTE);
+        Collection<Integer> quarks = ImmutableList.of(stringQuark, integerQuark);
+
+        List<ITmfStateInterval> strings = new ArrayList<>();
+        List<ITmfStateInterval> integers = new ArrayList<>();
+        List<ITmfStateInterval> all = new ArrayList<>();
+        List<ITmfStateInterval> discrete = new ArrayList<>();
+        ss.batchQuery2D(ImmutableList.of(
+                new Query2DRequest(Collections.singleton(stringQuark), START_TIME, end, strings::add),
+                new Query2DRequest(Collections.singleton(integerQuark), START_TIME, end, integers::add),
+                new Query2DRequest(quarks, end, START_TIME, all::add),
+                new Query2DRequest(quarks, times, discrete::add)));
+
+        testContinuous(strings, Collections.singleton(stringQuark), START_TIME, end, 5);
+        testContinuous(integers, Collections.singleton(integerQuark), START_TIME, end, 6);
+        testContinuous(all, quarks, START_TIME, end, 11);
+        testDiscrete(discrete, quarks, times, 8);
+    }
+
+    /**
+     * Test index out of bound requests in batched queries
+     *
+     * @throws StateSystemDisposedException
+     *             ss was closed
+     * @throws TimeRangeException
+     *             time was out of range
+     * @throws IndexOutOfBoundsException
+     *             queried an attribute that was out of bounds
+     */
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testIOOBBatch2DQuery() throws IndexOutOfBoundsException, TimeRangeException, StateSystemDisposedException {
+        ITmfStateSystem ss = fStateSystem;
+        assertNotNull(ss);
+
+        ss.batchQuery2D(ImmutableList.of(
+                new Query2DRequest(Collections.singleton(0), START_TIME, 77L, interval -> { }),
+                new Query2DRequest(Collections.singleton(Integer.MAX_VALUE), START_TIME, 77L, interval -> { })));
+    }
+
 }
@@ -0,0 +1,172 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson and others
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+
+package org.eclipse.tracecompass.statesystem.core.tests;
+
+import static org.eclipse.tracecompass.common.core.NonNullUtils.checkNotNull;
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.tracecompass.internal.statesystem.core.backend.historytree.HistoryTreeBackend;
+import org.eclipse.tracecompass.statesystem.core.ITmfStateSystem;
+import org.eclipse.tracecompass.statesystem.core.ITmfStateSystemBuilder;
+import org.eclipse.tracecompass.statesystem.core.StateSystemFactory;
+import org.eclipse.tracecompass.statesystem.core.backend.IStateHistoryBackend;
+import org.eclipse.tracecompass.statesystem.core.backend.StateHistoryBackendFactory;
+import org.eclipse.tracecompass.statesystem.core.exceptions.StateSystemDisposedException;
+import org.eclipse.tracecompass.statesystem.core.interval.ITmfStateInterval;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
+
+/**
+ * Test resuming the construction of a closed state history, as when its trace
+ * has grown since it was built
+ */
+@RunWith(Parameterized.class)
+public class StateSystemResumeTest {
+
+    private static final String SSID = "resume-test";
+    private static final int NB_ATTRIBUTES = 12;
+    private static final int BLOCK_SIZE = 4096;
+    private static final int MAX_CHILDREN = 3;
+    private static final long SPLIT_TIME = 3000;
+    private static final long END_TIME = 6000;
+
+    private final int fQueueSize;
+    private final boolean fCompressed;
+    private final List<File> fFiles = new ArrayList<>();
+
+    /**
+     * @return The arrays of parameters
+     */
+    @Parameters(name = "queue size {0}, compressed {1}")
+    public static Iterable<Object[]> getParameters() {
+        return Arrays.asList(new Object[][] {
+                { 0, false },
+                { 1000, false },
+                { 0, true },
+                { 1000, true }
+        });
+    }
+
+    /**
+     * Constructor
+     *
+     * @param queueSize
+     *            The size of the insertion queue of the resumed backend
+     * @param compressed
+     *            Whether the history file is compressed
+     */
+    public StateSystemResumeTest(Integer queueSize, Boolean compressed) {
+        fQueueSize = queueSize;
+        fCompressed = compressed;
+    }
+
+    /**
+     * Delete the history files
+     */
+    @After
+    public void tearDown() {
+        for (File file : fFiles) {
+            file.delete();
+        }
+    }
+
+    private File newFile() throws IOException {
+        File file = checkNotNull(File.createTempFile("StateSystemResumeTest", ".ht"));
+        fFiles.add(file);
+        return file;
+    }
+
+    private ITmfStateSystemBuilder newStateSystem(File file) throws IOException {
+        IStateHistoryBackend backend = new HistoryTreeBackend(SSID, file, 1, 0, BLOCK_SIZE, MAX_CHILDREN, fCompressed);
+        return StateSystemFactory.newStateSystem(backend);
+    }
+
+    /**
+     * Insert the state changes of a time range. The last attribute only
+     * appears after the split time.
+     */
+    private static void build(ITmfStateSystemBuilder ss, long start, long end) {
+        for (long t = start; t < end; t++) {
+            int attribute = (int) (t % NB_ATTRIBUTES);
+            if (attribute == NB_ATTRIBUTES - 1 && t < SPLIT_TIME) {
+                continue;
+            }
+            int quark = ss.getQuarkAbsoluteAndAdd("Attribute", String.valueOf(attribute));
+            Object value = (attribute % 2 == 0) ? (Object) (int) (t / 7) : "state" + (t / 13) % 5;
+            ss.modifyAttribute(t, (t % 5 == 0) ? null : value, quark);
+        }
+    }
+
+    /**
+     * Test that a history built in two parts, the second part appended to the
+     * closed history of the first, has the same states as a history built in
+     * one go
+     *
+     * @throws IOException
+     *             If the history files cannot be created
+     * @throws StateSystemDisposedException
+     *             Should not happen
+     */
+    @Test
+    public void testResume() throws IOException, StateSystemDisposedException {
+        File referenceFile = newFile();
+        ITmfStateSystemBuilder reference = newStateSystem(referenceFile);
+        build(reference, 0, END_TIME);
+        reference.closeHistory(END_TIME - 1);
+        reference.dispose();
+
+        File resumedFile = newFile();
+        ITmfStateSystemBuilder first = newStateSystem(resumedFile);
+        build(first, 0, SPLIT_TIME);
+        first.closeHistory(SPLIT_TIME - 1);
+        first.dispose();
+
+        IStateHistoryBackend appendBackend = StateHistoryBackendFactory.createHistoryTreeBackendAppendFile(SSID, resumedFile, 1, fQueueSize);
+        ITmfStateSystemBuilder resumed = StateSystemFactory.resumeStateSystem(appendBackend);
+        assertEquals(SPLIT_TIME - 1, resumed.getCurrentEndTime());
+        /* The parent attribute and all the attributes but the last one */
+        assertEquals(NB_ATTRIBUTES, resumed.getNbAttributes());
+        build(resumed, SPLIT_TIME, END_TIME);
+        resumed.closeHistory(END_TIME - 1);
+        resumed.dispose();
+
+        ITmfStateSystem expected = StateSystemFactory.newStateSystem(StateHistoryBackendFactory.createHistoryTreeBackendExistingFile(SSID, referenceFile, 1), false);
+        ITmfStateSystem actual = StateSystemFactory.newStateSystem(StateHistoryBackendFactory.createHistoryTreeBackendExistingFile(SSID, resumedFile, 1), false);
+        try {
+            assertEquals(expected.getStartTime(), actual.getStartTime());
+            assertEquals(expected.getCurrentEndTime(), actual.getCurrentEndTime());
+            assertEquals(expected.getNbAttributes(), actual.getNbAttributes());
+            for (int quark = 0; quark < expected.getNbAttributes(); quark++) {
+                assertEquals(expected.getFullAttributePath(quark), actual.getFullAttributePath(quark));
+            }
+            for (long t = 0; t < END_TIME; t += 37) {
+                List<ITmfStateInterval> expectedStates = expected.queryFullState(t);
+                List<ITmfStateInterval> actualStates = actual.queryFullState(t);
+                for (int quark = 0; quark < expected.getNbAttributes(); quark++) {
+                    assertEquals("Quark " + quark + " at " + t, expectedStates.get(quark).getValue(), actualStates.get(quark).getValue());
+                }
+            }
+        } finally {
+            expected.dispose();
+            actual.dispose();
+        }
+    }
+}
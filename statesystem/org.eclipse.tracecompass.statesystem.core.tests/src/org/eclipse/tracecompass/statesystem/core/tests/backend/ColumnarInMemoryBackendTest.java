@@ -0,0 +1,120 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson and others
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+
+package org.eclipse.tracecompass.statesystem.core.tests.backend;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.internal.provisional.datastore.core.condition.IntegerRangeCondition;
+import org.eclipse.tracecompass.internal.provisional.datastore.core.condition.TimeRangeCondition;
+import org.eclipse.tracecompass.statesystem.core.backend.IStateHistoryBackend;
+import org.eclipse.tracecompass.statesystem.core.backend.StateHistoryBackendFactory;
+import org.eclipse.tracecompass.statesystem.core.exceptions.StateSystemDisposedException;
+import org.eclipse.tracecompass.statesystem.core.interval.ITmfStateInterval;
+import org.eclipse.tracecompass.statesystem.core.interval.TmfStateInterval;
+import org.junit.Test;
+
+import com.google.common.collect.ContiguousSet;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+
+/**
+ * Test cases for the columnar in-memory backend
+ */
+public class ColumnarInMemoryBackendTest extends StateHistoryBackendTestBase {
+
+    private static final String SSID = "test-ss";
+
+    @Override
+    protected IStateHistoryBackend getBackendForBuilding(long startTime) {
+        return StateHistoryBackendFactory.createColumnarInMemoryBackend(SSID, startTime);
+    }
+
+    /**
+     * Test that the columnar backend returns the same intervals as the
+     * in-memory backend, for all the value types
+     *
+     * @throws StateSystemDisposedException
+     *             Should not happen
+     */
+    @Test
+    public void testSameAsInMemory() throws StateSystemDisposedException {
+        IStateHistoryBackend columnar = getBackendForBuilding(0);
+        IStateHistoryBackend reference = StateHistoryBackendFactory.createInMemoryBackend(SSID, 0);
+        final int nbAttr = 5;
+        List<ITmfStateInterval> intervals = new ArrayList<>();
+        for (long t = 0; t < 1000; t += 10) {
+            intervals.add(new TmfStateInterval(t, t + 9, 0, (int) t));
+            intervals.add(new TmfStateInterval(t, t + 9, 1, t * Integer.MAX_VALUE));
+            intervals.add(new TmfStateInterval(t, t + 9, 2, t / 3.0));
+            intervals.add(new TmfStateInterval(t, t + 9, 3, "state" + (t % 30)));
+            intervals.add(new TmfStateInterval(t, t + 9, 4, (t % 20 == 0) ? null : (Object) t));
+        }
+        insertIntervals(columnar, intervals);
+        insertIntervals(reference, intervals);
+        columnar.finishedBuilding(999);
+        reference.finishedBuilding(999);
+
+        for (long t : new long[] { 0, 9, 10, 555, 999 }) {
+            List<@Nullable ITmfStateInterval> expected = new ArrayList<>();
+            List<@Nullable ITmfStateInterval> actual = new ArrayList<>();
+            for (int i = 0; i < nbAttr; i++) {
+                expected.add(null);
+                actual.add(null);
+            }
+            reference.doQuery(expected, t);
+            columnar.doQuery(actual, t);
+            assertEquals(toKeys(expected), toKeys(actual));
+            for (int quark = 0; quark < nbAttr; quark++) {
+                assertEquals(toKeys(Collections.singleton(reference.doSingularQuery(t, quark))),
+                        toKeys(Collections.singleton(columnar.doSingularQuery(t, quark))));
+            }
+        }
+
+        IntegerRangeCondition quarks = IntegerRangeCondition.forDiscreteRange(ContiguousSet.closed(0, nbAttr - 1));
+        TimeRangeCondition times = TimeRangeCondition.forContinuousRange(95, 505);
+        List<ITmfStateInterval> expected = Lists.newArrayList(reference.query2D(quarks, times));
+        List<ITmfStateInterval> actual = Lists.newArrayList(columnar.query2D(quarks, times));
+        assertEquals(expected.size(), actual.size());
+        assertEquals(toKeys(expected), toKeys(actual));
+    }
+
+    /**
+     * Test that intervals which are not inserted in order are still found
+     *
+     * @throws StateSystemDisposedException
+     *             Should not happen
+     */
+    @Test
+    public void testOutOfOrderInsertion() throws StateSystemDisposedException {
+        IStateHistoryBackend backend = getBackendForBuilding(0);
+        insertIntervals(backend, ImmutableList.of(
+                new TmfStateInterval(20, 29, 0, 3),
+                new TmfStateInterval(0, 9, 0, 1),
+                new TmfStateInterval(10, 19, 0, 2)));
+        backend.finishedBuilding(29);
+
+        for (int i = 0; i < 3; i++) {
+            ITmfStateInterval interval = backend.doSingularQuery(i * 10 + 5, 0);
+            assertNotNull(interval);
+            assertEquals(i * 10, interval.getStartTime());
+            assertEquals(i + 1, interval.getStateValue().unboxInt());
+        }
+        assertNull(backend.doSingularQuery(5, 1));
+    }
+}
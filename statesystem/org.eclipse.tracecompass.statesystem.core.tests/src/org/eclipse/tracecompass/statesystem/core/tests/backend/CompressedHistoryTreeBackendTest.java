@@ -0,0 +1,109 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson and others
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.statesystem.core.tests.backend;
+
+import static org.eclipse.tracecompass.common.core.NonNullUtils.checkNotNull;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.tracecompass.internal.provisional.datastore.core.condition.IntegerRangeCondition;
+import org.eclipse.tracecompass.internal.provisional.datastore.core.condition.TimeRangeCondition;
+import org.eclipse.tracecompass.internal.statesystem.core.backend.historytree.HistoryTreeBackend;
+import org.eclipse.tracecompass.statesystem.core.backend.IStateHistoryBackend;
+import org.eclipse.tracecompass.statesystem.core.interval.ITmfStateInterval;
+import org.eclipse.tracecompass.statesystem.core.interval.TmfStateInterval;
+import org.junit.Test;
+
+import com.google.common.collect.ContiguousSet;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+
+/**
+ * Test the {@link HistoryTreeBackend} class with the compressed history file
+ * format.
+ */
+public class CompressedHistoryTreeBackendTest extends HistoryTreeBackendTest {
+
+    /**
+     * Constructor
+     *
+     * @param reOpen
+     *            True if the backend should be disposed and re-opened as a new
+     *            backend from the file, or false to use the backend as-is
+     */
+    public CompressedHistoryTreeBackendTest(Boolean reOpen) {
+        super(reOpen);
+    }
+
+    @Override
+    protected IStateHistoryBackend getBackendForBuilding(long startTime) throws IOException {
+        File historyTreeFile = checkNotNull(File.createTempFile("CompressedHistoryTreeBackendTest", ".ht"));
+        fHistoryTreeFiles.add(historyTreeFile);
+        HistoryTreeBackend backend = new HistoryTreeBackend(SSID, historyTreeFile, PROVIDER_VERSION, startTime, fBlockSize, fMaxChildren, true);
+        fBackendMap.put(backend, historyTreeFile);
+        return backend;
+    }
+
+    /**
+     * Test that a compressed history is smaller than the same history in fixed
+     * size blocks, and that both return the same intervals, including when the
+     * compressed history is re-opened memory-mapped.
+     *
+     * @throws IOException
+     *             if the history files could not be created
+     */
+    @Test
+    public void testCompressedFile() throws IOException {
+        final int nbAttr = 20;
+        final long startTime = 0;
+        final long endTime = 10000;
+
+        List<ITmfStateInterval> intervals = new ArrayList<>();
+        for (int attr = 0; attr < nbAttr; attr++) {
+            for (long t = startTime; t < endTime; t += attr + 2) {
+                intervals.add(new TmfStateInterval(t, Math.min(endTime, t + attr + 1), attr, attr % 2 == 0 ? t : "state" + (t % 5)));
+            }
+        }
+        HistoryTreeBackend compressed = (HistoryTreeBackend) prepareBackend(startTime, endTime, intervals);
+        assertNotNull(compressed);
+
+        File classicFile = checkNotNull(File.createTempFile("CompressedHistoryTreeBackendTest", ".ht"));
+        fHistoryTreeFiles.add(classicFile);
+        HistoryTreeBackend classic = new HistoryTreeBackend(SSID, classicFile, PROVIDER_VERSION, startTime, fBlockSize, fMaxChildren, false);
+        fBackendMap.put(classic, classicFile);
+        insertIntervals(classic, intervals);
+        classic.finishedBuilding(endTime);
+
+        assertTrue("Compressed: " + compressed.getFileSize() + ", classic: " + classic.getFileSize(),
+                compressed.getFileSize() < classic.getFileSize() / 2);
+
+        File compressedFile = checkNotNull(fBackendMap.get(compressed));
+        HistoryTreeBackend mapped = new HistoryTreeBackend(SSID, compressedFile, PROVIDER_VERSION, true);
+        fBackendMap.put(mapped, compressedFile);
+
+        IntegerRangeCondition quarks = IntegerRangeCondition.forDiscreteRange(ContiguousSet.closed(0, nbAttr - 1));
+        TimeRangeCondition times = TimeRangeCondition.forContinuousRange(startTime, endTime);
+        List<ITmfStateInterval> expected = Lists.newArrayList(classic.query2D(quarks, times));
+        assertEquals(intervals.size(), expected.size());
+        for (HistoryTreeBackend backend : new HistoryTreeBackend[] { compressed, mapped }) {
+            List<ITmfStateInterval> actual = Lists.newArrayList(backend.query2D(quarks, times));
+            assertEquals(expected.size(), actual.size());
+            assertEquals(ImmutableSet.copyOf(expected), ImmutableSet.copyOf(actual));
+        }
+    }
+}
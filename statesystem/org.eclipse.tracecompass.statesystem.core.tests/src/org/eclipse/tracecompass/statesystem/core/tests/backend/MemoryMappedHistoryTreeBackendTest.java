@@ -0,0 +1,132 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson and others
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.statesystem.core.tests.backend;
+
+import static org.eclipse.tracecompass.common.core.NonNullUtils.checkNotNull;
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.eclipse.tracecompass.internal.provisional.datastore.core.condition.IntegerRangeCondition;
+import org.eclipse.tracecompass.internal.provisional.datastore.core.condition.TimeRangeCondition;
+import org.eclipse.tracecompass.internal.statesystem.core.backend.historytree.HistoryTreeBackend;
+import org.eclipse.tracecompass.statesystem.core.backend.IStateHistoryBackend;
+import org.eclipse.tracecompass.statesystem.core.backend.StateHistoryBackendFactory;
+import org.eclipse.tracecompass.statesystem.core.interval.ITmfStateInterval;
+import org.eclipse.tracecompass.statesystem.core.interval.TmfStateInterval;
+import org.junit.After;
+import org.junit.Test;
+
+import com.google.common.collect.ContiguousSet;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+
+/**
+ * Test the {@link HistoryTreeBackend} class when the history file is read
+ * through a memory-mapped view of the file.
+ */
+public class MemoryMappedHistoryTreeBackendTest extends StateHistoryBackendTestBase {
+
+    private static final String SSID = "test";
+    private static final int PROVIDER_VERSION = 0;
+    private static final int MAX_CHILDREN = 3;
+    private static final int BLOCK_SIZE = 4096;
+
+    private final List<File> fHistoryTreeFiles = new ArrayList<>();
+    private final List<IStateHistoryBackend> fBackends = new ArrayList<>();
+
+    /**
+     * Test cleanup
+     */
+    @After
+    public void teardown() {
+        for (IStateHistoryBackend backend : fBackends) {
+            backend.dispose();
+        }
+        for (File historyTreeFile : fHistoryTreeFiles) {
+            historyTreeFile.delete();
+        }
+    }
+
+    @Override
+    protected IStateHistoryBackend getBackendForBuilding(long startTime) throws IOException {
+        File historyTreeFile = checkNotNull(File.createTempFile("MemoryMappedHistoryTreeBackendTest", ".ht"));
+        fHistoryTreeFiles.add(historyTreeFile);
+        return new HistoryTreeBackend(SSID, historyTreeFile, PROVIDER_VERSION, startTime, BLOCK_SIZE, MAX_CHILDREN);
+    }
+
+    @Override
+    protected IStateHistoryBackend getBackendForQuerying(IStateHistoryBackend backend) throws IOException {
+        backend.dispose();
+        File historyTreeFile = fHistoryTreeFiles.get(fHistoryTreeFiles.size() - 1);
+        IStateHistoryBackend mapped = StateHistoryBackendFactory.createHistoryTreeBackendExistingFile(SSID, historyTreeFile, PROVIDER_VERSION, true);
+        fBackends.add(mapped);
+        return mapped;
+    }
+
+    /**
+     * Test that a memory-mapped history and a history read through the file
+     * channel return the same intervals for 2D queries, including when the
+     * mapped history is queried by many threads concurrently.
+     *
+     * @throws Exception
+     *             if an exception occurred
+     */
+    @Test
+    public void testEquivalentQueries() throws Exception {
+        final int nbAttr = 50;
+        final long startTime = 0;
+        final long endTime = 20000;
+
+        List<ITmfStateInterval> intervals = new ArrayList<>();
+        for (int attr = 0; attr < nbAttr; attr++) {
+            for (long t = startTime; t < endTime; t += attr + 7) {
+                intervals.add(new TmfStateInterval(t, Math.min(endTime, t + attr + 6), attr, t * attr));
+            }
+        }
+        IStateHistoryBackend mapped = prepareBackend(startTime, endTime, intervals);
+        File historyTreeFile = fHistoryTreeFiles.get(0);
+        IStateHistoryBackend regular = StateHistoryBackendFactory.createHistoryTreeBackendExistingFile(SSID, historyTreeFile, PROVIDER_VERSION, false);
+        fBackends.add(regular);
+
+        IntegerRangeCondition allQuarks = IntegerRangeCondition.forDiscreteRange(ContiguousSet.closed(0, nbAttr - 1));
+        IntegerRangeCondition quarks = IntegerRangeCondition.forDiscreteRange(ImmutableList.of(0, nbAttr / 2, nbAttr - 1));
+        TimeRangeCondition times = TimeRangeCondition.forContinuousRange(startTime, endTime);
+        List<ITmfStateInterval> expected = Lists.newArrayList(regular.query2D(allQuarks, times));
+        List<ITmfStateInterval> actual = Lists.newArrayList(checkNotNull(mapped).query2D(allQuarks, times));
+        assertEquals(expected.size(), actual.size());
+        assertEquals(ImmutableSet.copyOf(expected), ImmutableSet.copyOf(actual));
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<List<ITmfStateInterval>>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(executor.submit(() -> Lists.newArrayList(checkNotNull(mapped).query2D(quarks, times))));
+            }
+            List<ITmfStateInterval> expectedSubset = Lists.newArrayList(regular.query2D(quarks, times));
+            for (Future<List<ITmfStateInterval>> future : futures) {
+                List<ITmfStateInterval> result = future.get();
+                assertEquals(expectedSubset.size(), result.size());
+                assertEquals(ImmutableSet.copyOf(expectedSubset), ImmutableSet.copyOf(result));
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
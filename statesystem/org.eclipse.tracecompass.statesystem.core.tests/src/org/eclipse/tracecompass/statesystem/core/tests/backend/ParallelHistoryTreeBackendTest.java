@@ -0,0 +1,107 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson and others
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.statesystem.core.tests.backend;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.tracecompass.internal.provisional.datastore.core.condition.IntegerRangeCondition;
+import org.eclipse.tracecompass.internal.provisional.datastore.core.condition.TimeRangeCondition;
+import org.eclipse.tracecompass.internal.statesystem.core.backend.historytree.HistoryTreeBackend;
+import org.eclipse.tracecompass.statesystem.core.backend.IStateHistoryBackend;
+import org.eclipse.tracecompass.statesystem.core.interval.ITmfStateInterval;
+import org.eclipse.tracecompass.statesystem.core.interval.TmfStateInterval;
+import org.junit.Test;
+
+import com.google.common.collect.ContiguousSet;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+
+/**
+ * Test the {@link HistoryTreeBackend} class when the 2D queries read the nodes
+ * in parallel.
+ */
+public class ParallelHistoryTreeBackendTest extends HistoryTreeBackendTest {
+
+    private static final int PARALLELISM = 4;
+
+    /**
+     * Constructor
+     *
+     * @param reOpen
+     *            True if the backend should be disposed and re-opened as a new
+     *            backend from the file, or false to use the backend as-is
+     */
+    public ParallelHistoryTreeBackendTest(Boolean reOpen) {
+        super(reOpen);
+    }
+
+    @Override
+    protected IStateHistoryBackend getBackendForBuilding(long startTime) throws IOException {
+        IStateHistoryBackend backend = super.getBackendForBuilding(startTime);
+        ((HistoryTreeBackend) backend).setQueryParallelism(PARALLELISM);
+        return backend;
+    }
+
+    @Override
+    protected IStateHistoryBackend getBackendForQuerying(IStateHistoryBackend backend) throws IOException {
+        IStateHistoryBackend queryBackend = super.getBackendForQuerying(backend);
+        ((HistoryTreeBackend) queryBackend).setQueryParallelism(PARALLELISM);
+        return queryBackend;
+    }
+
+    /**
+     * Test that the parallel and the sequential 2D queries return the same
+     * intervals, in both directions, on a tree with many nodes.
+     */
+    @Test
+    public void testParallelQuery2D() {
+        final int nbAttr = 40;
+        final long startTime = 0;
+        final long endTime = 20000;
+        fMaxChildren = 4;
+
+        List<ITmfStateInterval> intervals = new ArrayList<>();
+        for (int attr = 0; attr < nbAttr; attr++) {
+            for (long t = startTime; t < endTime; t += attr + 3) {
+                intervals.add(new TmfStateInterval(t, Math.min(endTime, t + attr + 2), attr, t * attr));
+            }
+        }
+        HistoryTreeBackend backend = (HistoryTreeBackend) prepareBackend(startTime, endTime, intervals);
+        assertNotNull(backend);
+
+        List<IntegerRangeCondition> quarks = ImmutableList.of(
+                IntegerRangeCondition.forDiscreteRange(ContiguousSet.closed(0, nbAttr - 1)),
+                IntegerRangeCondition.forDiscreteRange(ImmutableList.of(3, 20, nbAttr - 1)));
+        List<TimeRangeCondition> times = ImmutableList.of(
+                TimeRangeCondition.forContinuousRange(startTime, endTime),
+                TimeRangeCondition.forContinuousRange(5000, 5100),
+                TimeRangeCondition.forDiscreteRange(ImmutableList.of(1L, 7777L, 19999L)));
+        for (IntegerRangeCondition quarkCondition : quarks) {
+            for (TimeRangeCondition timeCondition : times) {
+                for (boolean reverse : new boolean[] { false, true }) {
+                    backend.setQueryParallelism(1);
+                    List<ITmfStateInterval> expected = Lists.newArrayList(backend.query2D(quarkCondition, timeCondition, reverse));
+                    backend.setQueryParallelism(PARALLELISM);
+                    List<ITmfStateInterval> actual = Lists.newArrayList(backend.query2D(quarkCondition, timeCondition, reverse));
+                    assertEquals(expected.size(), actual.size());
+                    assertEquals(ImmutableSet.copyOf(expected), ImmutableSet.copyOf(actual));
+                }
+            }
+        }
+    }
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2016 Ericsson and others
+ * Copyright (c) 2016, 2026 Ericsson and others
  *
  * All rights reserved. This program and the accompanying materials are
  * made available under the terms of the Eclipse Public License 2.0 which
@@ -11,6 +11,7 @@
 
 package org.eclipse.tracecompass.statesystem.core.tests.backend;
 
+import static org.eclipse.tracecompass.common.core.NonNullUtils.checkNotNull;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
@@ -18,9 +19,16 @@ import static org.junit.Assert.fail;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.internal.provisional.datastore.core.condition.IntegerRangeCondition;
+import org.eclipse.tracecompass.internal.provisional.datastore.core.condition.TimeRangeCondition;
+import org.eclipse.tracecompass.statesystem.core.Query2DRequest;
 import org.eclipse.tracecompass.statesystem.core.backend.IStateHistoryBackend;
 import org.eclipse.tracecompass.statesystem.core.exceptions.StateSystemDisposedException;
 import org.eclipse.tracecompass.statesystem.core.exceptions.TimeRangeException;
@@ -30,7 +38,9 @@ import org.eclipse.tracecompass.statesystem.core.statevalue.ITmfStateValue;
 import org.eclipse.tracecompass.statesystem.core.tests.stubs.statevalues.CustomStateValueStub;
 import org.junit.Test;
 
+import com.google.common.collect.ContiguousSet;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
 
 /**
  * Abstract class to test implementations of the {@link IStateHistoryBackend}
@@ -479,4 +489,78 @@ public abstract class StateHistoryBackendTestBase {
         assertEquals(-11L, poisonInterval.getValue());
     }
 
+    /**
+     * Test that a batched 2D query returns the same intervals to each request
+     * as the individual 2D queries.
+     *
+     * @throws StateSystemDisposedException
+     *             if the state system was disposed
+     */
+    @Test
+    public void testBatchQuery2D() throws StateSystemDisposedException {
+        final int nbAttr = 30;
+        final long startTime = 0;
+        final long endTime = 5000;
+
+        List<ITmfStateInterval> intervals = new ArrayList<>();
+        for (int attr = 0; attr < nbAttr; attr++) {
+            for (long t = startTime; t < endTime; t += attr + 5) {
+                intervals.add(new TmfStateInterval(t, Math.min(endTime, t + attr + 4), attr, t));
+            }
+        }
+        IStateHistoryBackend backend = prepareBackend(startTime, endTime, intervals);
+        assertNotNull(backend);
+
+        List<Collection<Integer>> quarks = ImmutableList.of(
+                ContiguousSet.closed(0, nbAttr - 1),
+                ImmutableList.of(0, 1, 2),
+                ImmutableList.of(1, 15, nbAttr - 1),
+                ImmutableList.of(7));
+        List<List<ITmfStateInterval>> results = new ArrayList<>();
+        List<Query2DRequest> requests = new ArrayList<>();
+        for (Collection<Integer> quarkSet : quarks) {
+            List<ITmfStateInterval> continuous = new ArrayList<>();
+            requests.add(new Query2DRequest(quarkSet, startTime, endTime, continuous::add));
+            results.add(continuous);
+            List<ITmfStateInterval> reversed = new ArrayList<>();
+            requests.add(new Query2DRequest(quarkSet, 3000L, 1000L, reversed::add));
+            results.add(reversed);
+            List<ITmfStateInterval> discrete = new ArrayList<>();
+            requests.add(new Query2DRequest(quarkSet, ImmutableList.of(10L, 2000L, 4999L), discrete::add));
+            results.add(discrete);
+        }
+        /* Requests without quarks or times do not return anything */
+        List<ITmfStateInterval> empty = new ArrayList<>();
+        requests.add(new Query2DRequest(Collections.emptyList(), startTime, endTime, empty::add));
+        requests.add(new Query2DRequest(ImmutableList.of(0), Collections.emptyList(), empty::add));
+
+        backend.batchQuery2D(requests);
+
+        assertTrue(empty.isEmpty());
+        for (int i = 0; i < results.size(); i++) {
+            Query2DRequest request = requests.get(i);
+            IntegerRangeCondition quarkCondition = checkNotNull(request.getQuarkCondition());
+            TimeRangeCondition timeCondition = checkNotNull(request.getTimeCondition());
+            List<ITmfStateInterval> expected = Lists.newArrayList(backend.query2D(quarkCondition, timeCondition));
+            assertEquals(request.toString(), expected.size(), results.get(i).size());
+            assertEquals(request.toString(), toKeys(expected), toKeys(results.get(i)));
+        }
+    }
+
+    /**
+     * Get comparable keys for intervals, as some backends create a new
+     * interval object on each query
+     *
+     * @param intervals
+     *            The intervals
+     * @return The set of the keys of the intervals
+     */
+    protected static Set<String> toKeys(Iterable<ITmfStateInterval> intervals) {
+        Set<String> keys = new HashSet<>();
+        for (ITmfStateInterval interval : intervals) {
+            keys.add(interval.getStartTime() + "," + interval.getEndTime() + "," + interval.getAttribute() + "," + interval.getValue());
+        }
+        return keys;
+    }
+
 }
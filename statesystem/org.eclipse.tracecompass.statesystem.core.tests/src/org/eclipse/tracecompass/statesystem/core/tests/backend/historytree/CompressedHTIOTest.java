@@ -0,0 +1,179 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson and others
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.statesystem.core.tests.backend.historytree;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.internal.provisional.datastore.core.condition.IntegerRangeCondition;
+import org.eclipse.tracecompass.internal.provisional.datastore.core.condition.TimeRangeCondition;
+import org.eclipse.tracecompass.internal.statesystem.core.backend.historytree.HTConfig;
+import org.eclipse.tracecompass.internal.statesystem.core.backend.historytree.HTInterval;
+import org.eclipse.tracecompass.internal.statesystem.core.backend.historytree.HTNode;
+import org.eclipse.tracecompass.internal.statesystem.core.backend.historytree.HT_IO;
+import org.eclipse.tracecompass.internal.statesystem.core.backend.historytree.IHistoryTree;
+import org.eclipse.tracecompass.internal.statesystem.core.backend.historytree.IHistoryTree.IHTNodeFactory;
+import org.eclipse.tracecompass.internal.statesystem.core.backend.historytree.LeafNode;
+import org.eclipse.tracecompass.internal.statesystem.core.backend.historytree.classic.CoreNode;
+import org.eclipse.tracecompass.statesystem.core.statevalue.TmfStateValue;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+
+/**
+ * Test the records of the nodes in a compressed history file, when the nodes
+ * are written again
+ */
+public class CompressedHTIOTest {
+
+    private static final int BLOCK_SIZE = 4096;
+    private static final int NB_INTERVALS = 20;
+
+    private static final IHTNodeFactory NODE_FACTORY = new IHTNodeFactory() {
+        @Override
+        public HTNode createCoreNode(HTConfig config, int seqNumber, int parentSeqNumber, long start) {
+            return new CoreNode(config, seqNumber, parentSeqNumber, start);
+        }
+
+        @Override
+        public HTNode createLeafNode(HTConfig config, int seqNumber, int parentSeqNumber, long start) {
+            return new LeafNode(config, seqNumber, parentSeqNumber, start);
+        }
+    };
+
+    private @Nullable File fTempFile;
+    private final Random fRandom = new Random(42);
+    private long fTime = 0;
+
+    /**
+     * Create the temporary file for the history
+     *
+     * @throws IOException
+     *             If the file could not be created
+     */
+    @Before
+    public void setUp() throws IOException {
+        fTempFile = File.createTempFile("CompressedHTIOTest", ".ht");
+    }
+
+    /**
+     * Delete the temporary file
+     */
+    @After
+    public void cleanup() {
+        File file = fTempFile;
+        if (file != null) {
+            file.delete();
+        }
+    }
+
+    private HTConfig getConfig() {
+        File file = fTempFile;
+        assertNotNull(file);
+        return new HTConfig(file, BLOCK_SIZE, 3, 1, 0, false, true);
+    }
+
+    /**
+     * Add intervals with values that do not compress well to a node
+     */
+    private void addIntervals(HTNode node, int nbIntervals) {
+        for (int i = 0; i < nbIntervals; i++) {
+            node.addInterval(new HTInterval(fTime, fTime + 1, 1, TmfStateValue.newValueLong(fRandom.nextLong())));
+            fTime += 2;
+        }
+    }
+
+    /**
+     * Test that a node written again without changes reuses its record
+     *
+     * @throws IOException
+     *             If the file could not be written
+     */
+    @Test
+    public void testRewriteInPlace() throws IOException {
+        HT_IO io = new HT_IO(getConfig(), true, NODE_FACTORY);
+        try {
+            HTNode node = new LeafNode(getConfig(), 0, -1, 0);
+            addIntervals(node, NB_INTERVALS);
+            io.writeNode(node);
+            long end = io.getNodeSectionEnd(1);
+
+            io.writeNode(node);
+            assertEquals(end, io.getNodeSectionEnd(1));
+            assertEquals(0, io.getDeadBytes());
+        } finally {
+            io.closeFile();
+        }
+    }
+
+    /**
+     * Test that the records of a node that outgrows them are dropped when the
+     * node section is compacted, and that the node can then be read back
+     *
+     * @throws IOException
+     *             If the file could not be written or read
+     */
+    @Test
+    public void testCompaction() throws IOException {
+        HTNode node = new LeafNode(getConfig(), 0, -1, 0);
+        HTNode other = new LeafNode(getConfig(), 1, -1, 0);
+        addIntervals(other, NB_INTERVALS);
+        long indexPosition;
+        HT_IO io = new HT_IO(getConfig(), true, NODE_FACTORY);
+        try {
+            /* Each version of the node is larger than the previous one */
+            for (int i = 0; i < 5; i++) {
+                addIntervals(node, NB_INTERVALS);
+                io.writeNode(node);
+                if (i == 0) {
+                    io.writeNode(other);
+                }
+            }
+            long deadBytes = io.getDeadBytes();
+            assertTrue(deadBytes > 0);
+            long sectionSize = io.getNodeSectionEnd(2) - IHistoryTree.TREE_HEADER_SIZE;
+
+            indexPosition = io.writeNodeIndex(2);
+            assertEquals(0, io.getDeadBytes());
+            assertEquals(IHistoryTree.TREE_HEADER_SIZE + sectionSize - deadBytes, indexPosition);
+        } finally {
+            io.closeFile();
+        }
+
+        /* Read the nodes back from the file */
+        io = new HT_IO(getConfig(), false, NODE_FACTORY);
+        try {
+            io.readNodeIndex(indexPosition, 2, 0);
+            assertIntervals(node, io.readNode(0));
+            assertIntervals(other, io.readNode(1));
+        } finally {
+            io.closeFile();
+        }
+    }
+
+    private static void assertIntervals(HTNode expected, HTNode actual) {
+        IntegerRangeCondition quarks = IntegerRangeCondition.forDiscreteRange(Collections.singleton(1));
+        TimeRangeCondition times = TimeRangeCondition.forContinuousRange(0, Long.MAX_VALUE);
+        List<HTInterval> expectedIntervals = Lists.newArrayList(expected.iterable2D(quarks, times));
+        assertEquals(expectedIntervals, Lists.newArrayList(actual.iterable2D(quarks, times)));
+    }
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2012, 2016 Ericsson
+ * Copyright (c) 2012, 2026 Ericsson
  * Copyright (c) 2010, 2011 École Polytechnique de Montréal
  * Copyright (c) 2010, 2011 Alexandre Montplaisir <alexandre.montplaisir@gmail.com>
  *
@@ -17,21 +17,27 @@
 
 package org.eclipse.tracecompass.internal.statesystem.core;
 
-import static org.eclipse.tracecompass.common.core.NonNullUtils.checkNotNull;
 import static org.eclipse.tracecompass.statesystem.core.ITmfStateSystem.INVALID_ATTRIBUTE;
 import static org.eclipse.tracecompass.statesystem.core.ITmfStateSystem.ROOT_ATTRIBUTE;
 
 import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
 import java.io.PrintWriter;
 import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import org.eclipse.jdt.annotation.NonNull;
@@ -42,6 +48,12 @@ import org.eclipse.tracecompass.statesystem.core.ITmfStateSystem;
  * Each node of this tree is both like a file and a directory in the
  * "file system".
  *
+ * The tree is stored in arrays of primitives indexed by quark rather than in
+ * one object per attribute, as state systems can have millions of attributes.
+ * The base names of the attributes are interned, as the same names are
+ * repeated under many parents, and the children of all the attributes are
+ * found in a single hash table keyed by parent quark and name.
+ *
  * @author alexmont
  *
  */
@@ -50,17 +62,47 @@ public final class AttributeTree {
     /* "Magic number" for attribute tree files or file sections */
     private static final int ATTRIB_TREE_MAGIC_NUMBER = 0x06EC3671;
 
+    /*
+     * Magic number of the compact format, which saves the interned names and
+     * the parent and name of each attribute
+     */
+    private static final int COMPACT_ATTRIB_TREE_MAGIC_NUMBER = 0x06EC3672;
+
     /**
      * Character used to indicate an attribute path element is the same as the
      * previous attribute. Used for serialization.
      */
     private static final String SERIALIZATION_WILDCARD = "*"; //$NON-NLS-1$
 
+    private static final int INITIAL_CAPACITY = 64;
+    private static final long EMPTY_KEY = -1L;
+
     private final StateSystem fSs;
-    private final List<Attribute> fAttributeList;
-    private final Attribute fAttributeTreeRoot;
     private final ReentrantReadWriteLock fLock = new ReentrantReadWriteLock();
 
+    /* The interned base names, and their index in that list */
+    private final List<@NonNull String> fNames = new ArrayList<>();
+    private final Map<String, Integer> fNameIds = new HashMap<>();
+
+    /*
+     * The attributes, at index quark + 1, the root attribute being at index 0.
+     * The children of an attribute are linked from its first to its last child
+     * in insertion order.
+     */
+    private int fNbAttributes = 0;
+    private int[] fParents = new int[INITIAL_CAPACITY];
+    private int[] fNameIndexes = new int[INITIAL_CAPACITY];
+    private int[] fFirstChildren = new int[INITIAL_CAPACITY];
+    private int[] fLastChildren = new int[INITIAL_CAPACITY];
+    private int[] fNextSiblings = new int[INITIAL_CAPACITY];
+
+    /*
+     * Open addressing hash table of the children, from their parent quark and
+     * name to their quark
+     */
+    private long[] fChildKeys = newChildKeys(INITIAL_CAPACITY * 2);
+    private int[] fChildQuarks = new int[INITIAL_CAPACITY * 2];
+
     /**
      * Standard constructor, create a new empty Attribute Tree
      *
@@ -69,8 +111,11 @@ public final class AttributeTree {
      */
     public AttributeTree(StateSystem ss) {
         fSs = ss;
-        fAttributeList = new ArrayList<>();
-        fAttributeTreeRoot = new Attribute(null, "root", ROOT_ATTRIBUTE); //$NON-NLS-1$
+        fParents[0] = ROOT_ATTRIBUTE;
+        fNameIndexes[0] = -1;
+        fFirstChildren[0] = INVALID_ATTRIBUTE;
+        fLastChildren[0] = INVALID_ATTRIBUTE;
+        fNextSiblings[0] = INVALID_ATTRIBUTE;
     }
 
     /**
@@ -87,8 +132,41 @@ public final class AttributeTree {
      */
     public AttributeTree(StateSystem ss, FileInputStream fis) throws IOException {
         this(ss);
-        ObjectInputStream ois = new ObjectInputStream(new BufferedInputStream(fis));
+        BufferedInputStream bis = new BufferedInputStream(fis);
+        bis.mark(Integer.BYTES);
+        DataInputStream dis = new DataInputStream(bis);
+        if (dis.readInt() == COMPACT_ATTRIB_TREE_MAGIC_NUMBER) {
+            readCompact(dis);
+        } else {
+            /* Attribute tree section written by a previous version */
+            bis.reset();
+            readSerialized(new ObjectInputStream(bis));
+        }
+    }
 
+    private void readCompact(DataInputStream dis) throws IOException {
+        int nbNames = dis.readInt();
+        for (int i = 0; i < nbNames; i++) {
+            byte[] bytes = new byte[dis.readInt()];
+            dis.readFully(bytes);
+            internName(new String(bytes, StandardCharsets.UTF_8));
+        }
+        if (fNames.size() != nbNames) {
+            throw new IOException("The attribute tree file section is either invalid or corrupted."); //$NON-NLS-1$
+        }
+        int nbAttributes = dis.readInt();
+        for (int quark = 0; quark < nbAttributes; quark++) {
+            int parent = dis.readInt();
+            int name = dis.readInt();
+            if (parent < ROOT_ATTRIBUTE || parent >= quark || name < 0 || name >= nbNames ||
+                    getChild(parent, name) != INVALID_ATTRIBUTE) {
+                throw new IOException("The attribute tree file section is either invalid or corrupted."); //$NON-NLS-1$
+            }
+            addChild(parent, name);
+        }
+    }
+
+    private void readSerialized(ObjectInputStream ois) throws IOException {
         /* Read the header of the Attribute Tree file (or file section) */
         int res = ois.readInt(); /* Magic number */
         if (res != ATTRIB_TREE_MAGIC_NUMBER) {
@@ -130,21 +208,23 @@ public final class AttributeTree {
         try (FileOutputStream fos = new FileOutputStream(file, true);
                 FileChannel fc = fos.getChannel();) {
             fc.position(pos);
-            try (ObjectOutputStream oos = new ObjectOutputStream(fos)) {
+            try (DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(fos))) {
 
                 /* Write the almost-magic number */
-                oos.writeInt(ATTRIB_TREE_MAGIC_NUMBER);
-
-                /* Compute the serialized list of attributes and write it */
-                List<String[]> list = new ArrayList<>(fAttributeList.size());
-                String[] prevFullAttribute = null;
-                for (Attribute entry : fAttributeList) {
-                    String[] curFullAttribute = entry.getFullAttribute();
-                    String[] curEncodedAttribute = encodeFullAttribute(prevFullAttribute, entry.getFullAttribute());
-                    list.add(curEncodedAttribute);
-                    prevFullAttribute = curFullAttribute;
+                dos.writeInt(COMPACT_ATTRIB_TREE_MAGIC_NUMBER);
+
+                /* Write the interned names, then the parent and name of each attribute */
+                dos.writeInt(fNames.size());
+                for (String name : fNames) {
+                    byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+                    dos.writeInt(bytes.length);
+                    dos.write(bytes);
+                }
+                dos.writeInt(fNbAttributes);
+                for (int quark = 0; quark < fNbAttributes; quark++) {
+                    dos.writeInt(fParents[quark + 1]);
+                    dos.writeInt(fNameIndexes[quark + 1]);
                 }
-                oos.writeObject(list);
             }
         } catch (IOException e) {
             Activator.getDefault().logError("Error writing the file " + file, e); //$NON-NLS-1$
@@ -154,35 +234,9 @@ public final class AttributeTree {
     }
 
     /**
-     * Avoid repeating path elements that are the same from one attribute to the
-     * next, and replace identical path elements with "*".
-     *
-     * @param prevPath
-     *            The previous attribute's full attribute path
-     * @param curPath
-     *            The current attribute's full attribute path
-     * @return An encoded version of the current entry's full attribute path
-     *         where subpaths[i] equal to that of prevEntry's subpaths[i] is
-     *         replaced by "*" or curPath if prevPath is null.
-     */
-    private static String[] encodeFullAttribute(String[] prevPath, String[] curPath) {
-        if (prevPath == null) {
-            return curPath;
-        }
-        String[] diff = new String[curPath.length];
-        for (int i = 0; i < curPath.length; i++) {
-            if (i < prevPath.length && prevPath[i].equals(curPath[i])) {
-                diff[i] = SERIALIZATION_WILDCARD;
-            } else {
-                diff[i] = curPath[i];
-            }
-        }
-        return diff;
-    }
-
-    /**
-     * Decode a full attribute path that was encoded by
-     * {@link #encodeFullAttribute}.
+     * Decode a full attribute path that was encoded by the previous versions
+     * of the attribute tree, which avoided repeating path elements that are
+     * the same from one attribute to the next.
      *
      * @param prevPath
      *            The previous attribute's decoded full attribute path
@@ -217,7 +271,7 @@ public final class AttributeTree {
     public int getNbAttributes() {
         fLock.readLock().lock();
         try {
-            return fAttributeList.size();
+            return fNbAttributes;
         } finally {
             fLock.readLock().unlock();
         }
@@ -248,10 +302,20 @@ public final class AttributeTree {
 
         fLock.readLock().lock();
         try {
-
-            /* Get the "starting node" */
-            Attribute startingNode = getAttribute(startingNodeQuark);
-            return startingNode.getSubAttributeQuark(subPath);
+            checkQuark(startingNodeQuark);
+            int quark = startingNodeQuark;
+            for (String name : subPath) {
+                Integer nameIndex = fNameIds.get(name);
+                if (nameIndex == null) {
+                    /* No attribute has that name */
+                    return INVALID_ATTRIBUTE;
+                }
+                quark = getChild(quark, nameIndex);
+                if (quark == INVALID_ATTRIBUTE) {
+                    return INVALID_ATTRIBUTE;
+                }
+            }
+            return quark;
         } finally {
             fLock.readLock().unlock();
         }
@@ -273,33 +337,26 @@ public final class AttributeTree {
      *             If the starting node quark is out of range
      */
     public int getQuarkAndAdd(int startingNodeQuark, String... subPath) {
+        /* Most calls are for existing attributes, which only need the read lock */
+        int knownQuark = getQuarkDontAdd(startingNodeQuark, subPath);
+        if (knownQuark != INVALID_ATTRIBUTE) {
+            return knownQuark;
+        }
+
         fLock.writeLock().lock();
         try {
-            /* Get the "starting node" */
-            Attribute prevNode = getAttribute(startingNodeQuark);
-
-            int knownQuark = prevNode.getSubAttributeQuark(subPath);
-            if (knownQuark == INVALID_ATTRIBUTE) {
-                /*
-                 * The attribute was not in the table previously, and we want to add it
-                 */
-                for (String curDirectory : subPath) {
-                    Attribute nextNode = prevNode.getSubAttributeNode(curDirectory);
-                    if (nextNode == null) {
-                        /* This is where we need to start adding */
-                        nextNode = new Attribute(prevNode, checkNotNull(curDirectory), fAttributeList.size());
-                        prevNode.addSubAttribute(nextNode);
-                        fAttributeList.add(nextNode);
-                        fSs.addEmptyAttribute();
-                    }
-                    prevNode = nextNode;
+            checkQuark(startingNodeQuark);
+            int quark = startingNodeQuark;
+            for (String curDirectory : subPath) {
+                int nameIndex = internName(Objects.requireNonNull(curDirectory));
+                int nextQuark = getChild(quark, nameIndex);
+                if (nextQuark == INVALID_ATTRIBUTE) {
+                    /* This is where we need to start adding */
+                    nextQuark = addChild(quark, nameIndex);
                 }
-                return fAttributeList.size() - 1;
+                quark = nextQuark;
             }
-            /*
-             * The attribute already existed, return the quark of that attribute
-             */
-            return knownQuark;
+            return quark;
         } finally {
             fLock.writeLock().unlock();
         }
@@ -321,12 +378,11 @@ public final class AttributeTree {
     public @NonNull List<@NonNull Integer> getSubAttributes(int attributeQuark, boolean recursive) {
         fLock.readLock().lock();
         try {
+            checkQuark(attributeQuark);
             List<@NonNull Integer> listOfChildren = new ArrayList<>();
-            /* Set up the node from which we'll start the search */
-            Attribute startingAttribute = getAttribute(attributeQuark);
 
             /* Iterate through the sub-attributes and add them to the list */
-            addSubAttributes(listOfChildren, startingAttribute, recursive);
+            addSubAttributes(listOfChildren, attributeQuark, recursive);
 
             return listOfChildren;
         } finally {
@@ -334,13 +390,6 @@ public final class AttributeTree {
         }
     }
 
-    private Attribute getAttribute(int startingNodeQuark) {
-        if (startingNodeQuark == ROOT_ATTRIBUTE) {
-            return fAttributeTreeRoot;
-        }
-        return fAttributeList.get(startingNodeQuark);
-    }
-
     /**
      * Returns the parent quark of the attribute. The root attribute has no
      * parent and will return {@link ITmfStateSystem#ROOT_ATTRIBUTE}.
@@ -358,18 +407,18 @@ public final class AttributeTree {
         }
         fLock.readLock().lock();
         try {
-            return fAttributeList.get(quark).getParentAttributeQuark();
+            checkAttribute(quark);
+            return fParents[quark + 1];
         } finally {
             fLock.readLock().unlock();
         }
     }
 
-    private void addSubAttributes(List<Integer> list, Attribute curAttribute,
-            boolean recursive) {
-        for (Attribute childNode : curAttribute.getSubAttributes()) {
-            list.add(childNode.getQuark());
+    private void addSubAttributes(List<Integer> list, int quark, boolean recursive) {
+        for (int child = fFirstChildren[quark + 1]; child != INVALID_ATTRIBUTE; child = fNextSiblings[child + 1]) {
+            list.add(child);
             if (recursive) {
-                addSubAttributes(list, childNode, true);
+                addSubAttributes(list, child, true);
             }
         }
     }
@@ -386,7 +435,8 @@ public final class AttributeTree {
     public @NonNull String getAttributeName(int quark) {
         fLock.readLock().lock();
         try {
-            return fAttributeList.get(quark).getName();
+            checkAttribute(quark);
+            return fNames.get(fNameIndexes[quark + 1]);
         } finally {
             fLock.readLock().unlock();
         }
@@ -402,12 +452,7 @@ public final class AttributeTree {
      *             If the quark is out of range
      */
     public @NonNull String getFullAttributeName(int quark) {
-        fLock.readLock().lock();
-        try {
-            return fAttributeList.get(quark).getFullAttributeName();
-        } finally {
-            fLock.readLock().unlock();
-        }
+        return Objects.requireNonNull(String.join("/", getFullAttributePathArray(quark))); //$NON-NLS-1$
     }
 
     /**
@@ -423,7 +468,16 @@ public final class AttributeTree {
     public String @NonNull [] getFullAttributePathArray(int quark) {
         fLock.readLock().lock();
         try {
-            return fAttributeList.get(quark).getFullAttribute();
+            checkAttribute(quark);
+            int depth = 0;
+            for (int cur = quark; cur != ROOT_ATTRIBUTE; cur = fParents[cur + 1]) {
+                depth++;
+            }
+            @NonNull String[] path = new @NonNull String[depth];
+            for (int cur = quark; cur != ROOT_ATTRIBUTE; cur = fParents[cur + 1]) {
+                path[--depth] = fNames.get(fNameIndexes[cur + 1]);
+            }
+            return path;
         } finally {
             fLock.readLock().unlock();
         }
@@ -436,12 +490,142 @@ public final class AttributeTree {
      *            The writer where to print the output
      */
     public void debugPrint(PrintWriter writer) {
+        /* Only used for debugging, shouldn't be externalized */
         fLock.readLock().lock();
         try {
-            fAttributeTreeRoot.debugPrint(writer);
+            writer.println("------------------------------"); //$NON-NLS-1$
+            writer.println("Attribute tree: (quark)\n"); //$NON-NLS-1$
+            writer.println("root (" + ROOT_ATTRIBUTE + ')'); //$NON-NLS-1$
+            debugPrint(writer, ROOT_ATTRIBUTE, 1);
+            writer.print('\n');
         } finally {
             fLock.readLock().unlock();
         }
     }
 
+    private void debugPrint(PrintWriter writer, int quark, int depth) {
+        for (int child = fFirstChildren[quark + 1]; child != INVALID_ATTRIBUTE; child = fNextSiblings[child + 1]) {
+            for (int j = 0; j < depth; j++) {
+                writer.print("  "); //$NON-NLS-1$
+            }
+            writer.println(fNames.get(fNameIndexes[child + 1]) + " (" + child + ')'); //$NON-NLS-1$
+            debugPrint(writer, child, depth + 1);
+        }
+    }
+
+    // ------------------------------------------------------------------------
+    // Storage of the attributes, with the write lock held for modifications
+    // ------------------------------------------------------------------------
+
+    /* Same exception as the list of attributes used to throw */
+    private void checkQuark(int quark) {
+        if (quark < ROOT_ATTRIBUTE || quark >= fNbAttributes) {
+            throw new IndexOutOfBoundsException("Quark " + quark + " out of range"); //$NON-NLS-1$ //$NON-NLS-2$
+        }
+    }
+
+    private void checkAttribute(int quark) {
+        if (quark < 0 || quark >= fNbAttributes) {
+            throw new IndexOutOfBoundsException("Quark " + quark + " out of range"); //$NON-NLS-1$ //$NON-NLS-2$
+        }
+    }
+
+    private int internName(@NonNull String name) {
+        Integer index = fNameIds.get(name);
+        if (index == null) {
+            index = fNames.size();
+            fNames.add(name);
+            fNameIds.put(name, index);
+        }
+        return index;
+    }
+
+    private static long childKey(int parent, int nameIndex) {
+        /* The parent quark is at least ROOT_ATTRIBUTE, so the key is never EMPTY_KEY */
+        return ((long) (parent + 1) << 32) | nameIndex;
+    }
+
+    private static int slot(long key, int mask) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash >>> 32) & mask;
+    }
+
+    private static long[] newChildKeys(int size) {
+        long[] keys = new long[size];
+        Arrays.fill(keys, EMPTY_KEY);
+        return keys;
+    }
+
+    private int getChild(int parent, int nameIndex) {
+        long key = childKey(parent, nameIndex);
+        long[] keys = fChildKeys;
+        int mask = keys.length - 1;
+        for (int i = slot(key, mask); keys[i] != EMPTY_KEY; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                return fChildQuarks[i];
+            }
+        }
+        return INVALID_ATTRIBUTE;
+    }
+
+    private int addChild(int parent, int nameIndex) {
+        int quark = fNbAttributes;
+        int index = quark + 1;
+        if (index == fParents.length) {
+            int capacity = fParents.length * 2;
+            fParents = Arrays.copyOf(fParents, capacity);
+            fNameIndexes = Arrays.copyOf(fNameIndexes, capacity);
+            fFirstChildren = Arrays.copyOf(fFirstChildren, capacity);
+            fLastChildren = Arrays.copyOf(fLastChildren, capacity);
+            fNextSiblings = Arrays.copyOf(fNextSiblings, capacity);
+        }
+        fParents[index] = parent;
+        fNameIndexes[index] = nameIndex;
+        fFirstChildren[index] = INVALID_ATTRIBUTE;
+        fLastChildren[index] = INVALID_ATTRIBUTE;
+        fNextSiblings[index] = INVALID_ATTRIBUTE;
+
+        /* Link the attribute after the last child of its parent */
+        int lastSibling = fLastChildren[parent + 1];
+        if (lastSibling == INVALID_ATTRIBUTE) {
+            fFirstChildren[parent + 1] = quark;
+        } else {
+            fNextSiblings[lastSibling + 1] = quark;
+        }
+        fLastChildren[parent + 1] = quark;
+
+        /* Keep the hash table at most half full */
+        if ((quark + 1) * 2 > fChildKeys.length) {
+            rehash(fChildKeys.length * 2);
+        }
+        putChild(childKey(parent, nameIndex), quark);
+
+        fNbAttributes++;
+        fSs.addEmptyAttribute();
+        return quark;
+    }
+
+    private void putChild(long key, int quark) {
+        long[] keys = fChildKeys;
+        int mask = keys.length - 1;
+        int i = slot(key, mask);
+        while (keys[i] != EMPTY_KEY) {
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        fChildQuarks[i] = quark;
+    }
+
+    private void rehash(int size) {
+        long[] oldKeys = fChildKeys;
+        int[] oldQuarks = fChildQuarks;
+        fChildKeys = newChildKeys(size);
+        fChildQuarks = new int[size];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY_KEY) {
+                putChild(oldKeys[i], oldQuarks[i]);
+            }
+        }
+    }
+
 }
@@ -0,0 +1,477 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson and others
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.internal.statesystem.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.statesystem.core.ITmfStateSystem;
+import org.eclipse.tracecompass.statesystem.core.exceptions.AttributeNotFoundException;
+import org.eclipse.tracecompass.statesystem.core.exceptions.StateSystemDisposedException;
+import org.eclipse.tracecompass.statesystem.core.exceptions.TimeRangeException;
+import org.eclipse.tracecompass.statesystem.core.interval.ITmfStateInterval;
+import org.eclipse.tracecompass.statesystem.core.interval.TmfStateInterval;
+import org.eclipse.tracecompass.statesystem.core.statevalue.ITmfStateValue;
+
+import com.google.common.collect.ImmutableCollection.Builder;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterables;
+
+/**
+ * A read-only state system which exposes several state systems, its shards, as
+ * a single one. The attribute trees of the shards are merged by path, and each
+ * attribute takes its states from the first shard in which it appears.
+ *
+ * The shards are meant to hold disjoint parts of the same model, for instance
+ * the per-CPU attributes of a trace built in parallel, so only their common
+ * ancestors, whose states are normally null, should appear in several shards.
+ * The shards may still be building: their new attributes are added to the
+ * merged attribute tree as they are found.
+ *
+ * Full and single queries at a time outside of the range of a shard return
+ * null states for its attributes, while 2D queries return no interval for them
+ * outside of that range.
+ */
+public class FederatedStateSystem implements ITmfStateSystem {
+
+    private static final String PARENT = ".."; //$NON-NLS-1$
+    private static final String WILDCARD = "*"; //$NON-NLS-1$
+
+    /** An attribute of the merged tree */
+    private static final class Node {
+        private final String fName;
+        private final int fParent;
+        private final int fShard;
+        private final int fShardQuark;
+        private final Map<String, Integer> fChildren = new LinkedHashMap<>();
+
+        public Node(String name, int parent, int shard, int shardQuark) {
+            fName = name;
+            fParent = parent;
+            fShard = shard;
+            fShardQuark = shardQuark;
+        }
+    }
+
+    private final @NonNull String fSsid;
+    private final List<@NonNull ITmfStateSystem> fShards;
+
+    /* The merged attribute tree, guarded by this */
+    private final Node fRoot = new Node("", ROOT_ATTRIBUTE, -1, ROOT_ATTRIBUTE); //$NON-NLS-1$
+    private final List<Node> fNodes = new ArrayList<>();
+    /* For each shard, the quarks of its attributes in the merged tree */
+    private final List<List<Integer>> fShardToFederated = new ArrayList<>();
+
+    private volatile boolean fIsDisposed = false;
+
+    /**
+     * Constructor
+     *
+     * @param ssid
+     *            The ID of this state system
+     * @param shards
+     *            The state systems to expose, in order of priority
+     */
+    public FederatedStateSystem(@NonNull String ssid, Collection<@NonNull ITmfStateSystem> shards) {
+        if (shards.isEmpty()) {
+            throw new IllegalArgumentException("A federated state system needs at least one shard"); //$NON-NLS-1$
+        }
+        fSsid = ssid;
+        fShards = ImmutableList.copyOf(shards);
+        for (int i = 0; i < fShards.size(); i++) {
+            fShardToFederated.add(new ArrayList<>());
+        }
+    }
+
+    /**
+     * Get the state systems exposed by this one
+     *
+     * @return The shards
+     */
+    public List<@NonNull ITmfStateSystem> getShards() {
+        return fShards;
+    }
+
+    // ------------------------------------------------------------------------
+    // Merged attribute tree
+    // ------------------------------------------------------------------------
+
+    /**
+     * Add the attributes that were added to the shards since the last call to
+     * the merged attribute tree. The attributes of a shard are never removed
+     * and a parent attribute always has a lower quark than its children, so
+     * only the new quarks need to be read.
+     */
+    private synchronized void sync() {
+        for (int shard = 0; shard < fShards.size(); shard++) {
+            ITmfStateSystem ss = fShards.get(shard);
+            List<Integer> toFederated = fShardToFederated.get(shard);
+            int nbAttributes = ss.getNbAttributes();
+            for (int shardQuark = toFederated.size(); shardQuark < nbAttributes; shardQuark++) {
+                int shardParent = ss.getParentAttributeQuark(shardQuark);
+                int parent = (shardParent == ROOT_ATTRIBUTE) ? ROOT_ATTRIBUTE : toFederated.get(shardParent);
+                String name = ss.getAttributeName(shardQuark);
+                Node parentNode = getNode(parent);
+                Integer quark = parentNode.fChildren.get(name);
+                if (quark == null) {
+                    quark = fNodes.size();
+                    fNodes.add(new Node(name, parent, shard, shardQuark));
+                    parentNode.fChildren.put(name, quark);
+                }
+                toFederated.add(quark);
+            }
+        }
+    }
+
+    private Node getNode(int quark) {
+        return (quark == ROOT_ATTRIBUTE) ? fRoot : fNodes.get(quark);
+    }
+
+    private synchronized Node getSyncedNode(int quark) {
+        if (quark != ROOT_ATTRIBUTE && quark >= fNodes.size()) {
+            sync();
+        }
+        return getNode(quark);
+    }
+
+    @Override
+    public synchronized int getNbAttributes() {
+        sync();
+        return fNodes.size();
+    }
+
+    @Override
+    public int getQuarkAbsolute(String... attribute) throws AttributeNotFoundException {
+        int quark = optQuarkAbsolute(attribute);
+        if (quark == INVALID_ATTRIBUTE) {
+            throw new AttributeNotFoundException(getSSID() + " Path:" + Arrays.toString(attribute)); //$NON-NLS-1$
+        }
+        return quark;
+    }
+
+    @Override
+    public int optQuarkAbsolute(String... attribute) {
+        return optQuarkRelative(ROOT_ATTRIBUTE, attribute);
+    }
+
+    @Override
+    public int getQuarkRelative(int startingNodeQuark, String... subPath) throws AttributeNotFoundException {
+        int quark = optQuarkRelative(startingNodeQuark, subPath);
+        if (quark == INVALID_ATTRIBUTE) {
+            throw new AttributeNotFoundException(getSSID() + " Quark:" + startingNodeQuark + ", SubPath:" + Arrays.toString(subPath)); //$NON-NLS-1$ //$NON-NLS-2$
+        }
+        return quark;
+    }
+
+    @Override
+    public synchronized int optQuarkRelative(int startingNodeQuark, String... subPath) {
+        sync();
+        int quark = startingNodeQuark;
+        for (String name : subPath) {
+            Integer child = getNode(quark).fChildren.get(name);
+            if (child == null) {
+                return INVALID_ATTRIBUTE;
+            }
+            quark = child;
+        }
+        return quark;
+    }
+
+    @Override
+    public synchronized List<@NonNull Integer> getSubAttributes(int quark, boolean recursive) {
+        sync();
+        List<@NonNull Integer> list = new ArrayList<>();
+        addSubAttributes(list, getNode(quark), recursive);
+        return list;
+    }
+
+    private void addSubAttributes(List<@NonNull Integer> list, Node node, boolean recursive) {
+        for (Integer child : node.fChildren.values()) {
+            list.add(child);
+            if (recursive) {
+                addSubAttributes(list, fNodes.get(child), true);
+            }
+        }
+    }
+
+    @Override
+    public List<@NonNull Integer> getSubAttributes(int quark, boolean recursive, String pattern) {
+        Pattern regex = Pattern.compile(pattern, Pattern.MULTILINE | Pattern.DOTALL);
+        List<@NonNull Integer> ret = new ArrayList<>();
+        for (Integer subQuark : getSubAttributes(quark, recursive)) {
+            if (regex.matcher(getAttributeName(subQuark)).matches()) {
+                ret.add(subQuark);
+            }
+        }
+        return ret;
+    }
+
+    @Override
+    public List<@NonNull Integer> getQuarks(String... pattern) {
+        return getQuarks(ROOT_ATTRIBUTE, pattern);
+    }
+
+    @Override
+    public List<@NonNull Integer> getQuarks(int startingNodeQuark, String... pattern) {
+        Builder<@NonNull Integer> builder = ImmutableSet.builder();
+        if (pattern.length > 0) {
+            getQuarks(builder, startingNodeQuark, Arrays.asList(pattern));
+        } else {
+            builder.add(startingNodeQuark);
+        }
+        return builder.build().asList();
+    }
+
+    private void getQuarks(Builder<@NonNull Integer> builder, int quark, List<String> pattern) {
+        String element = pattern.get(0);
+        List<String> remainder = pattern.subList(1, pattern.size());
+        List<Integer> matches;
+        if (element.equals(WILDCARD)) {
+            matches = getSubAttributes(quark, false);
+        } else if (element.equals(PARENT)) {
+            matches = Collections.singletonList(getParentAttributeQuark(quark));
+        } else {
+            int subQuark = optQuarkRelative(quark, element);
+            matches = (subQuark == INVALID_ATTRIBUTE) ? Collections.emptyList() : Collections.singletonList(subQuark);
+        }
+        for (Integer match : matches) {
+            if (remainder.isEmpty()) {
+                builder.add(match);
+            } else {
+                getQuarks(builder, match, remainder);
+            }
+        }
+    }
+
+    @Override
+    public @NonNull String getAttributeName(int attributeQuark) {
+        return getSyncedNode(attributeQuark).fName;
+    }
+
+    @Override
+    public @NonNull String getFullAttributePath(int attributeQuark) {
+        return String.join("/", getFullAttributePathArray(attributeQuark)); //$NON-NLS-1$
+    }
+
+    @Override
+    public synchronized String @NonNull [] getFullAttributePathArray(int attributeQuark) {
+        List<String> path = new ArrayList<>();
+        int quark = attributeQuark;
+        while (quark != ROOT_ATTRIBUTE) {
+            Node node = getSyncedNode(quark);
+            path.add(0, node.fName);
+            quark = node.fParent;
+        }
+        return path.toArray(new String[path.size()]);
+    }
+
+    @Override
+    public int getParentAttributeQuark(int attributeQuark) {
+        return getSyncedNode(attributeQuark).fParent;
+    }
+
+    // ------------------------------------------------------------------------
+    // State system
+    // ------------------------------------------------------------------------
+
+    @Override
+    public @NonNull String getSSID() {
+        return fSsid;
+    }
+
+    @Override
+    public long getStartTime() {
+        long start = Long.MAX_VALUE;
+        for (ITmfStateSystem shard : fShards) {
+            start = Math.min(start, shard.getStartTime());
+        }
+        return start;
+    }
+
+    @Override
+    public long getCurrentEndTime() {
+        long end = Long.MIN_VALUE;
+        for (ITmfStateSystem shard : fShards) {
+            end = Math.max(end, shard.getCurrentEndTime());
+        }
+        return end;
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return fShards.stream().anyMatch(ITmfStateSystem::isCancelled);
+    }
+
+    @Override
+    public void waitUntilBuilt() {
+        fShards.forEach(ITmfStateSystem::waitUntilBuilt);
+    }
+
+    @Override
+    public boolean waitUntilBuilt(long timeout) {
+        long deadline = System.currentTimeMillis() + timeout;
+        for (ITmfStateSystem shard : fShards) {
+            if (!shard.waitUntilBuilt(Math.max(0, deadline - System.currentTimeMillis()))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void dispose() {
+        fIsDisposed = true;
+        fShards.forEach(ITmfStateSystem::dispose);
+    }
+
+    // ------------------------------------------------------------------------
+    // Queries
+    // ------------------------------------------------------------------------
+
+    @Override
+    public @NonNull ITmfStateValue queryOngoingState(int attributeQuark) {
+        Node node = getSyncedNode(attributeQuark);
+        return fShards.get(node.fShard).queryOngoingState(node.fShardQuark);
+    }
+
+    @Override
+    public long getOngoingStartTime(int attributeQuark) {
+        Node node = getSyncedNode(attributeQuark);
+        return fShards.get(node.fShard).getOngoingStartTime(node.fShardQuark);
+    }
+
+    private static boolean isInRange(ITmfStateSystem shard, long t) {
+        return t >= shard.getStartTime() && t <= shard.getCurrentEndTime();
+    }
+
+    private void checkValidTime(long t) throws StateSystemDisposedException {
+        if (fIsDisposed) {
+            throw new StateSystemDisposedException();
+        }
+        if (t < getStartTime() || t > getCurrentEndTime()) {
+            throw new TimeRangeException(fSsid + " Time:" + t + ", Start:" + getStartTime() + ", End:" + getCurrentEndTime()); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+        }
+    }
+
+    @Override
+    public @NonNull List<@NonNull ITmfStateInterval> queryFullState(long t) throws StateSystemDisposedException {
+        checkValidTime(t);
+        List<Node> nodes;
+        synchronized (this) {
+            sync();
+            nodes = new ArrayList<>(fNodes);
+        }
+        List<@Nullable List<ITmfStateInterval>> shardStates = new ArrayList<>();
+        for (ITmfStateSystem shard : fShards) {
+            shardStates.add(isInRange(shard, t) ? shard.queryFullState(t) : null);
+        }
+        List<@NonNull ITmfStateInterval> states = new ArrayList<>(nodes.size());
+        for (int quark = 0; quark < nodes.size(); quark++) {
+            Node node = nodes.get(quark);
+            List<ITmfStateInterval> shardState = shardStates.get(node.fShard);
+            states.add((shardState == null) ?
+                    new TmfStateInterval(t, t, quark, (Object) null) :
+                    toFederated(shardState.get(node.fShardQuark), quark));
+        }
+        return states;
+    }
+
+    @Override
+    public @NonNull ITmfStateInterval querySingleState(long t, int attributeQuark) throws StateSystemDisposedException {
+        checkValidTime(t);
+        Node node = getSyncedNode(attributeQuark);
+        ITmfStateSystem shard = fShards.get(node.fShard);
+        if (!isInRange(shard, t)) {
+            return new TmfStateInterval(t, t, attributeQuark, (Object) null);
+        }
+        return toFederated(shard.querySingleState(t, node.fShardQuark), attributeQuark);
+    }
+
+    @Override
+    public Iterable<@NonNull ITmfStateInterval> query2D(@NonNull Collection<Integer> quarks, @NonNull Collection<Long> times)
+            throws StateSystemDisposedException {
+        if (fIsDisposed) {
+            throw new StateSystemDisposedException();
+        }
+        List<Iterable<@NonNull ITmfStateInterval>> iterables = new ArrayList<>();
+        for (Map.Entry<Integer, Map<Integer, Integer>> entry : groupByShard(quarks).entrySet()) {
+            ITmfStateSystem shard = fShards.get(entry.getKey());
+            List<@NonNull Long> shardTimes = new ArrayList<>();
+            for (Long time : times) {
+                if (isInRange(shard, time)) {
+                    shardTimes.add(time);
+                }
+            }
+            if (!shardTimes.isEmpty()) {
+                iterables.add(toFederated(shard.query2D(entry.getValue().keySet(), shardTimes), entry.getValue()));
+            }
+        }
+        return Iterables.concat(iterables);
+    }
+
+    @Override
+    public Iterable<@NonNull ITmfStateInterval> query2D(@NonNull Collection<Integer> quarks, long start, long end)
+            throws StateSystemDisposedException {
+        if (fIsDisposed) {
+            throw new StateSystemDisposedException();
+        }
+        boolean reverse = start > end;
+        List<Iterable<@NonNull ITmfStateInterval>> iterables = new ArrayList<>();
+        for (Map.Entry<Integer, Map<Integer, Integer>> entry : groupByShard(quarks).entrySet()) {
+            ITmfStateSystem shard = fShards.get(entry.getKey());
+            long low = Math.max(Math.min(start, end), shard.getStartTime());
+            long high = Math.min(Math.max(start, end), shard.getCurrentEndTime());
+            if (low <= high) {
+                Iterable<@NonNull ITmfStateInterval> intervals = reverse ?
+                        shard.query2D(entry.getValue().keySet(), high, low) :
+                        shard.query2D(entry.getValue().keySet(), low, high);
+                iterables.add(toFederated(intervals, entry.getValue()));
+            }
+        }
+        return Iterables.concat(iterables);
+    }
+
+    /*
+     * Map each shard to the quarks in this shard of the requested attributes,
+     * and the merged quarks of these attributes.
+     */
+    private synchronized Map<Integer, Map<Integer, Integer>> groupByShard(Collection<Integer> quarks) {
+        sync();
+        Map<Integer, Map<Integer, Integer>> byShard = new HashMap<>();
+        for (Integer quark : quarks) {
+            if (quark < 0 || quark >= fNodes.size()) {
+                throw new IndexOutOfBoundsException();
+            }
+            Node node = fNodes.get(quark);
+            byShard.computeIfAbsent(node.fShard, shard -> new HashMap<>()).put(node.fShardQuark, quark);
+        }
+        return byShard;
+    }
+
+    private static Iterable<@NonNull ITmfStateInterval> toFederated(Iterable<@NonNull ITmfStateInterval> intervals, Map<Integer, Integer> quarks) {
+        return Iterables.transform(intervals, interval -> toFederated(interval, quarks.get(interval.getAttribute())));
+    }
+
+    private static @NonNull ITmfStateInterval toFederated(ITmfStateInterval interval, int quark) {
+        return new TmfStateInterval(interval.getStartTime(), interval.getEndTime(), quark, interval.getValue());
+    }
+}
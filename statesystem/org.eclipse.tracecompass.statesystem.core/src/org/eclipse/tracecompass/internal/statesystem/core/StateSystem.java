@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2012, 2025 Ericsson and others
+ * Copyright (c) 2012, 2026 Ericsson and others
  *
  * All rights reserved. This program and the accompanying materials are
  * made available under the terms of the Eclipse Public License 2.0 which
@@ -16,6 +16,7 @@
 package org.eclipse.tracecompass.internal.statesystem.core;
 
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -35,6 +36,7 @@ import org.eclipse.tracecompass.common.core.log.TraceCompassLog;
 import org.eclipse.tracecompass.internal.provisional.datastore.core.condition.IntegerRangeCondition;
 import org.eclipse.tracecompass.internal.provisional.datastore.core.condition.TimeRangeCondition;
 import org.eclipse.tracecompass.statesystem.core.ITmfStateSystemBuilder;
+import org.eclipse.tracecompass.statesystem.core.Query2DRequest;
 import org.eclipse.tracecompass.statesystem.core.backend.IStateHistoryBackend;
 import org.eclipse.tracecompass.statesystem.core.exceptions.AttributeNotFoundException;
 import org.eclipse.tracecompass.statesystem.core.exceptions.StateSystemDisposedException;
@@ -121,6 +123,62 @@ public class StateSystem implements ITmfStateSystemBuilder {
         }
     }
 
+    /**
+     * Resume constructor, to continue building the existing, closed history
+     * of a back-end which accepts new intervals after its end time.
+     *
+     * The states at the end time of the history become the ongoing states,
+     * so the attributes whose state does not change at that time will have
+     * two consecutive intervals with the same value.
+     *
+     * @param backend
+     *            The "state history storage" back-end to use, which must be
+     *            opened to append to an existing history
+     * @param attributeTreeReader
+     *            Reader of the attribute tree of the existing history
+     * @throws IOException
+     *             If there was a problem reading the existing history
+     * @throws StateSystemDisposedException
+     *             If the back-end was disposed while reading it
+     */
+    private StateSystem(@NonNull IStateHistoryBackend backend, @NonNull FileInputStream attributeTreeReader)
+            throws IOException, StateSystemDisposedException {
+        this.backend = backend;
+        this.transState = new TransientState(backend);
+        this.attributeTree = new AttributeTree(this, attributeTreeReader);
+
+        long endTime = backend.getEndTime();
+        List<@Nullable ITmfStateInterval> endStates = new ArrayList<>(getNbAttributes());
+        for (int i = 0; i < getNbAttributes(); i++) {
+            endStates.add(null);
+        }
+        backend.doQuery(endStates, endTime);
+        transState.resume(endStates, endTime);
+    }
+
+    /**
+     * Create a state system which continues building the existing, closed
+     * history of a back-end which accepts new intervals after its end time.
+     *
+     * @param backend
+     *            The back-end, opened to append to an existing history
+     * @return The state system, which must be closed with
+     *         {@link #closeHistory(long)} like a new one
+     * @throws IOException
+     *             If there was a problem reading the existing history
+     */
+    public static StateSystem resume(@NonNull IStateHistoryBackend backend) throws IOException {
+        FileInputStream attributeTreeReader = backend.supplyAttributeTreeReader();
+        if (attributeTreeReader == null) {
+            throw new IOException("The backend " + backend.getSSID() + " has no existing history to resume"); //$NON-NLS-1$ //$NON-NLS-2$
+        }
+        try {
+            return new StateSystem(backend, attributeTreeReader);
+        } catch (StateSystemDisposedException e) {
+            throw new IOException(e);
+        }
+    }
+
     @Override
     public String getSSID() {
         return backend.getSSID();
@@ -666,6 +724,36 @@ public class StateSystem implements ITmfStateSystemBuilder {
         return Iterables.concat(transStateIterable, backendIterable);
     }
 
+    @Override
+    public void batchQuery2D(Collection<@NonNull Query2DRequest> requests)
+            throws StateSystemDisposedException, TimeRangeException, IndexOutOfBoundsException {
+        if (isDisposed) {
+            throw new StateSystemDisposedException();
+        }
+        for (Query2DRequest request : requests) {
+            TimeRangeCondition timeCondition = request.getTimeCondition();
+            if (timeCondition != null && timeCondition.min() < getStartTime()) {
+                throw new TimeRangeException("Time conditions " + timeCondition.min() + " is lower than state system start time: " + getStartTime()); //$NON-NLS-1$ //$NON-NLS-2$
+            }
+            IntegerRangeCondition quarkCondition = request.getQuarkCondition();
+            if (quarkCondition != null && (quarkCondition.min() < 0 || quarkCondition.max() >= getNbAttributes())) {
+                throw new IndexOutOfBoundsException();
+            }
+        }
+
+        try (ScopeLog log = new ScopeLog(LOGGER, Level.FINER, "StateSystem:BatchQuery2D", //$NON-NLS-1$
+                "ssid", getSSID(), //$NON-NLS-1$
+                "nbRequests", requests.size())) { //$NON-NLS-1$
+            for (Query2DRequest request : requests) {
+                TimeRangeCondition timeCondition = request.getTimeCondition();
+                if (request.getQuarkCondition() != null && timeCondition != null) {
+                    transState.query2D(request.getQuarks(), timeCondition).forEach(request.getConsumer());
+                }
+            }
+            backend.batchQuery2D(requests);
+        }
+    }
+
     @Override
     public void removeFiles() {
         backend.removeFiles();
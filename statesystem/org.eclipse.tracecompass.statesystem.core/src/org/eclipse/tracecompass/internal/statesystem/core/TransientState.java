@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2012, 2025 Ericsson
+ * Copyright (c) 2012, 2026 Ericsson
  * Copyright (c) 2010, 2011 École Polytechnique de Montréal
  * Copyright (c) 2010, 2011 Alexandre Montplaisir <alexandre.montplaisir@gmail.com>
  *
@@ -243,6 +243,29 @@ public class TransientState {
         }
     }
 
+    /**
+     * Resume the transient state of a history which was closed at a given
+     * time, to continue building it. The states at the end of the history
+     * become the ongoing states, starting right after the end time, since the
+     * history already covers them up to it.
+     *
+     * @param endStates
+     *            The states of all the attributes at the end of the history,
+     *            the entries of attributes without a state may be null
+     * @param endTime
+     *            The end time of the history
+     */
+    public void resume(List<@Nullable ITmfStateInterval> endStates, long endTime) {
+        List<ITmfStateInterval> ongoing = new ArrayList<>(endStates.size());
+        for (int quark = 0; quark < endStates.size(); quark++) {
+            ITmfStateInterval interval = endStates.get(quark);
+            ongoing.add(new TmfStateInterval(endTime + 1, endTime + 1, quark, interval == null ? null : interval.getValue()));
+        }
+        replaceOngoingState(ongoing);
+        fLatestTime = endTime;
+        fIsActive = true;
+    }
+
     /**
      * Add an "empty line" to both "ongoing..." vectors. This is needed so the
      * Ongoing... tables can stay in sync with the number of attributes in the
@@ -0,0 +1,358 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson and others
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+
+package org.eclipse.tracecompass.internal.statesystem.core.backend;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.common.core.log.TraceCompassLog;
+import org.eclipse.tracecompass.internal.provisional.datastore.core.condition.IntegerRangeCondition;
+import org.eclipse.tracecompass.internal.provisional.datastore.core.condition.TimeRangeCondition;
+import org.eclipse.tracecompass.statesystem.core.backend.IStateHistoryBackend;
+import org.eclipse.tracecompass.statesystem.core.exceptions.TimeRangeException;
+import org.eclipse.tracecompass.statesystem.core.interval.ITmfStateInterval;
+import org.eclipse.tracecompass.statesystem.core.interval.TmfStateInterval;
+import org.eclipse.tracecompass.traceeventlogger.LogUtils.ScopeLog;
+
+/**
+ * State history back-end that stores its intervals in RAM, in primitive
+ * columns instead of one object per interval.
+ *
+ * The intervals are partitioned by quark, so the quark column is implicit.
+ * For each quark, the start times, end times and values are kept in parallel
+ * arrays sorted by end time. Integer, long and double values are stored as
+ * their raw bits in a long column, next to a byte column with the type of the
+ * value. Strings and custom state values are interned in a dictionary shared
+ * by all the quarks, and the long column holds their index in it. The
+ * intervals of a quark do not overlap, so a binary search on the end times
+ * finds the interval at a given time.
+ *
+ * Like the {@link InMemoryBackend}, it cannot be saved to disk and is limited
+ * to 2^31 intervals per quark.
+ */
+public class ColumnarInMemoryBackend implements IStateHistoryBackend {
+
+    private static final @NonNull Logger LOGGER = TraceCompassLog.getLogger(ColumnarInMemoryBackend.class);
+
+    private static final byte TYPE_NULL = 0;
+    private static final byte TYPE_INTEGER = 1;
+    private static final byte TYPE_LONG = 2;
+    private static final byte TYPE_DOUBLE = 3;
+    private static final byte TYPE_OBJECT = 4;
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final @NonNull String fSsid;
+    private final long fStartTime;
+
+    /** The columns of each quark, guarded by itself */
+    private final List<QuarkColumns> fColumns = new ArrayList<>();
+
+    /** Dictionary of the string and custom values, guarded by itself */
+    private final List<Object> fObjects = new ArrayList<>();
+    private final Map<Object, Integer> fObjectIds = new HashMap<>();
+
+    private volatile long fLatestTime;
+
+    /**
+     * The intervals of one quark, sorted by end time
+     */
+    private final class QuarkColumns {
+        private final int fQuark;
+        private long[] fStarts = new long[INITIAL_CAPACITY];
+        private long[] fEnds = new long[INITIAL_CAPACITY];
+        private long[] fValues = new long[INITIAL_CAPACITY];
+        private byte[] fTypes = new byte[INITIAL_CAPACITY];
+        private int fSize = 0;
+
+        public QuarkColumns(int quark) {
+            fQuark = quark;
+        }
+
+        public synchronized void insert(long start, long end, byte type, long value) {
+            if (fSize == fStarts.length) {
+                int capacity = Math.max(INITIAL_CAPACITY, fSize + (fSize >> 1));
+                fStarts = Arrays.copyOf(fStarts, capacity);
+                fEnds = Arrays.copyOf(fEnds, capacity);
+                fValues = Arrays.copyOf(fValues, capacity);
+                fTypes = Arrays.copyOf(fTypes, capacity);
+            }
+            /*
+             * The state system inserts the intervals of a quark in order, but
+             * the backend contract does not require it.
+             */
+            int index = fSize;
+            if (fSize > 0 && fEnds[fSize - 1] > end) {
+                index = firstEndingAtOrAfter(end);
+                System.arraycopy(fStarts, index, fStarts, index + 1, fSize - index);
+                System.arraycopy(fEnds, index, fEnds, index + 1, fSize - index);
+                System.arraycopy(fValues, index, fValues, index + 1, fSize - index);
+                System.arraycopy(fTypes, index, fTypes, index + 1, fSize - index);
+            }
+            fStarts[index] = start;
+            fEnds[index] = end;
+            fValues[index] = value;
+            fTypes[index] = type;
+            fSize++;
+        }
+
+        public synchronized @Nullable ITmfStateInterval query(long t) {
+            int index = firstEndingAtOrAfter(t);
+            if (index < fSize && fStarts[index] <= t) {
+                return toInterval(index);
+            }
+            return null;
+        }
+
+        public synchronized void query2D(TimeRangeCondition times, List<@NonNull ITmfStateInterval> results) {
+            long max = times.max();
+            for (int i = firstEndingAtOrAfter(times.min()); i < fSize && fStarts[i] <= max; i++) {
+                if (times.intersects(fStarts[i], fEnds[i])) {
+                    results.add(toInterval(i));
+                }
+            }
+        }
+
+        public synchronized void trim() {
+            fStarts = Arrays.copyOf(fStarts, fSize);
+            fEnds = Arrays.copyOf(fEnds, fSize);
+            fValues = Arrays.copyOf(fValues, fSize);
+            fTypes = Arrays.copyOf(fTypes, fSize);
+        }
+
+        /**
+         * Binary search for the first interval whose end time is at or after
+         * the given time. Must be called with the lock held.
+         */
+        private int firstEndingAtOrAfter(long t) {
+            int low = 0;
+            int high = fSize;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (fEnds[mid] < t) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        private @NonNull ITmfStateInterval toInterval(int index) {
+            return new TmfStateInterval(fStarts[index], fEnds[index], fQuark, decodeValue(fTypes[index], fValues[index]));
+        }
+    }
+
+    /**
+     * Constructor
+     *
+     * @param ssid
+     *            The state system's ID
+     * @param startTime
+     *            The start time of this interval store
+     */
+    public ColumnarInMemoryBackend(@NonNull String ssid, long startTime) {
+        fSsid = ssid;
+        fStartTime = startTime;
+        fLatestTime = startTime;
+    }
+
+    @Override
+    public String getSSID() {
+        return fSsid;
+    }
+
+    @Override
+    public long getStartTime() {
+        return fStartTime;
+    }
+
+    @Override
+    public long getEndTime() {
+        return fLatestTime;
+    }
+
+    @Override
+    public void insertPastState(long stateStartTime, long stateEndTime,
+            int quark, @Nullable Object value) throws TimeRangeException {
+        /* Make sure the passed start/end times make sense */
+        if (stateStartTime > stateEndTime || stateStartTime < fStartTime) {
+            throw new TimeRangeException(fSsid + " Interval Start:" + stateStartTime + ", Interval End:" + stateEndTime + ", Backend Start:" + fStartTime); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+        }
+
+        QuarkColumns columns;
+        synchronized (fColumns) {
+            while (fColumns.size() <= quark) {
+                fColumns.add(new QuarkColumns(fColumns.size()));
+            }
+            columns = fColumns.get(quark);
+        }
+        if (value == null) {
+            columns.insert(stateStartTime, stateEndTime, TYPE_NULL, 0);
+        } else if (value instanceof Integer) {
+            columns.insert(stateStartTime, stateEndTime, TYPE_INTEGER, (Integer) value);
+        } else if (value instanceof Long) {
+            columns.insert(stateStartTime, stateEndTime, TYPE_LONG, (Long) value);
+        } else if (value instanceof Double) {
+            columns.insert(stateStartTime, stateEndTime, TYPE_DOUBLE, Double.doubleToRawLongBits((Double) value));
+        } else {
+            columns.insert(stateStartTime, stateEndTime, TYPE_OBJECT, internObject(value));
+        }
+
+        /* Update the "latest seen time" */
+        if (stateEndTime > fLatestTime) {
+            fLatestTime = stateEndTime;
+        }
+    }
+
+    private int internObject(Object value) {
+        synchronized (fObjects) {
+            Integer id = fObjectIds.get(value);
+            if (id == null) {
+                id = fObjects.size();
+                fObjects.add(value);
+                fObjectIds.put(value, id);
+            }
+            return id;
+        }
+    }
+
+    private @Nullable Object decodeValue(byte type, long value) {
+        switch (type) {
+        case TYPE_INTEGER:
+            return (int) value;
+        case TYPE_LONG:
+            return value;
+        case TYPE_DOUBLE:
+            return Double.longBitsToDouble(value);
+        case TYPE_OBJECT:
+            synchronized (fObjects) {
+                return fObjects.get((int) value);
+            }
+        case TYPE_NULL:
+        default:
+            return null;
+        }
+    }
+
+    private @Nullable QuarkColumns getColumns(int quark) {
+        synchronized (fColumns) {
+            return (quark >= 0 && quark < fColumns.size()) ? fColumns.get(quark) : null;
+        }
+    }
+
+    @Override
+    public void doQuery(List<ITmfStateInterval> currentStateInfo, long t)
+            throws TimeRangeException {
+        if (!checkValidTime(t)) {
+            throw new TimeRangeException(fSsid + " Time:" + t + ", Start:" + fStartTime + ", End:" + fLatestTime); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+        }
+        for (int quark = 0; quark < currentStateInfo.size(); quark++) {
+            QuarkColumns columns = getColumns(quark);
+            if (columns == null) {
+                break;
+            }
+            ITmfStateInterval interval = columns.query(t);
+            if (interval != null) {
+                currentStateInfo.set(quark, interval);
+            }
+        }
+    }
+
+    @Override
+    public @Nullable ITmfStateInterval doSingularQuery(long t, int attributeQuark)
+            throws TimeRangeException {
+        if (!checkValidTime(t)) {
+            throw new TimeRangeException(fSsid + " Time:" + t + ", Start:" + fStartTime + ", End:" + fLatestTime); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+        }
+        QuarkColumns columns = getColumns(attributeQuark);
+        return columns == null ? null : columns.query(t);
+    }
+
+    private boolean checkValidTime(long t) {
+        return (t >= fStartTime && t <= fLatestTime);
+    }
+
+    @Override
+    public Iterable<@NonNull ITmfStateInterval> query2D(IntegerRangeCondition quarks, TimeRangeCondition times)
+            throws TimeRangeException {
+        try (ScopeLog log = new ScopeLog(LOGGER, Level.FINER, "ColumnarInMemoryBackend:query2D", //$NON-NLS-1$
+                "ssid", getSSID(), //$NON-NLS-1$
+                "quarks", quarks, //$NON-NLS-1$
+                "times", times)) { //$NON-NLS-1$
+            int nbQuarks;
+            synchronized (fColumns) {
+                nbQuarks = fColumns.size();
+            }
+            int max = Math.min(quarks.max(), nbQuarks - 1);
+            if (max < 0) {
+                return Collections.emptyList();
+            }
+            List<@NonNull ITmfStateInterval> results = new ArrayList<>();
+            for (int quark = Math.max(0, quarks.min()); quark <= max; quark++) {
+                QuarkColumns columns = getColumns(quark);
+                if (columns != null && quarks.test(quark)) {
+                    columns.query2D(times, results);
+                }
+            }
+            return results;
+        }
+    }
+
+    @Override
+    public void finishedBuilding(long endTime) throws TimeRangeException {
+        /* Release the unused capacity of the columns */
+        synchronized (fColumns) {
+            for (QuarkColumns columns : fColumns) {
+                columns.trim();
+            }
+        }
+    }
+
+    @Override
+    public @Nullable FileInputStream supplyAttributeTreeReader() {
+        /* Saving to disk not supported */
+        return null;
+    }
+
+    @Override
+    public @Nullable File supplyAttributeTreeWriterFile() {
+        /* Saving to disk not supported */
+        return null;
+    }
+
+    @Override
+    public long supplyAttributeTreeWriterFilePosition() {
+        /* Saving to disk not supported */
+        return -1;
+    }
+
+    @Override
+    public void removeFiles() {
+        /* Nothing to do */
+    }
+
+    @Override
+    public void dispose() {
+        /* Nothing to do */
+    }
+}
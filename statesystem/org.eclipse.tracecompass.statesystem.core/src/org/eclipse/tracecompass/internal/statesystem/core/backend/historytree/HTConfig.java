@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2012, 2014 Ericsson
+ * Copyright (c) 2012, 2026 Ericsson
  * Copyright (c) 2010, 2011 École Polytechnique de Montréal
  * Copyright (c) 2010, 2011 Alexandre Montplaisir <alexandre.montplaisir@gmail.com>
  *
@@ -31,6 +31,8 @@ public final class HTConfig {
     private final int maxChildren;
     private final int providerVersion;
     private final long treeStart;
+    private final boolean memoryMapped;
+    private final boolean compressed;
 
     /**
      * Full constructor.
@@ -49,14 +51,74 @@ public final class HTConfig {
      *            uselessly.
      * @param startTime
      *            The start time of the history
+     * @param memoryMapped
+     *            Whether the nodes of an existing, complete history file should
+     *            be read through a memory-mapped view of the file instead of
+     *            the file channel. Has no effect on new files, nor on
+     *            compressed files.
+     * @param compressed
+     *            Whether the nodes are stored compressed, with a variable size
+     *            on disk, instead of in fixed-size blocks
      */
     public HTConfig(File newStateFile, int blockSize, int maxChildren,
-            int providerVersion, long startTime) {
+            int providerVersion, long startTime, boolean memoryMapped, boolean compressed) {
         this.stateFile = newStateFile;
         this.blockSize = blockSize;
         this.maxChildren = maxChildren;
         this.providerVersion = providerVersion;
         this.treeStart = startTime;
+        this.memoryMapped = memoryMapped;
+        this.compressed = compressed;
+    }
+
+    /**
+     * Constructor for histories whose nodes are stored in fixed-size blocks.
+     *
+     * @param newStateFile
+     *            The name of the history file
+     * @param blockSize
+     *            The size of each "block" on disk. One node will always fit in
+     *            one block.
+     * @param maxChildren
+     *            The maximum number of children allowed per core (non-leaf)
+     *            node.
+     * @param providerVersion
+     *            The version of the state provider. If a file already exists,
+     *            and their versions match, the history file will not be rebuilt
+     *            uselessly.
+     * @param startTime
+     *            The start time of the history
+     * @param memoryMapped
+     *            Whether the nodes of an existing, complete history file should
+     *            be read through a memory-mapped view of the file instead of
+     *            the file channel. Has no effect on new files.
+     */
+    public HTConfig(File newStateFile, int blockSize, int maxChildren,
+            int providerVersion, long startTime, boolean memoryMapped) {
+        this(newStateFile, blockSize, maxChildren, providerVersion, startTime, memoryMapped, false);
+    }
+
+    /**
+     * Constructor for histories read through the file channel.
+     *
+     * @param newStateFile
+     *            The name of the history file
+     * @param blockSize
+     *            The size of each "block" on disk. One node will always fit in
+     *            one block.
+     * @param maxChildren
+     *            The maximum number of children allowed per core (non-leaf)
+     *            node.
+     * @param providerVersion
+     *            The version of the state provider. If a file already exists,
+     *            and their versions match, the history file will not be rebuilt
+     *            uselessly.
+     * @param startTime
+     *            The start time of the history
+     */
+    public HTConfig(File newStateFile, int blockSize, int maxChildren,
+            int providerVersion, long startTime) {
+        this(newStateFile, blockSize, maxChildren, providerVersion, startTime, false);
     }
 
     /**
@@ -124,4 +186,23 @@ public final class HTConfig {
     public long getTreeStart() {
         return treeStart;
     }
+
+    /**
+     * Get whether the nodes should be read from a memory-mapped view of the
+     * history file.
+     *
+     * @return True if the history file should be memory-mapped for reading
+     */
+    public boolean isMemoryMapped() {
+        return memoryMapped;
+    }
+
+    /**
+     * Get whether the nodes are stored compressed in the history file.
+     *
+     * @return True if the nodes are compressed
+     */
+    public boolean isCompressed() {
+        return compressed;
+    }
 }
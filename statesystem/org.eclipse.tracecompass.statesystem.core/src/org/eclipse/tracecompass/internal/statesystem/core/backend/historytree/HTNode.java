@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2010, 2025 Ericsson, École Polytechnique de Montréal, and others
+ * Copyright (c) 2010, 2026 Ericsson, École Polytechnique de Montréal, and others
  *
  * All rights reserved. This program and the accompanying materials are
  * made available under the terms of the Eclipse Public License 2.0 which
@@ -117,6 +117,13 @@ public abstract class HTNode {
             + 3 * Integer.BYTES
             + 2 * Integer.BYTES;
 
+    /**
+     * Estimate of the heap used by an interval on top of its serialized size:
+     * the headers of the interval and state value objects, and the references
+     * to them.
+     */
+    private static final int INTERVAL_HEAP_OVERHEAD = 48;
+
     // ------------------------------------------------------------------------
     // Attributes
     // ------------------------------------------------------------------------
@@ -226,6 +233,28 @@ public abstract class HTNode {
      *             If there was an error writing
      */
     public final void writeSelf(FileChannel channel) throws IOException {
+        final int blockSize = fConfig.getBlockSize();
+        ByteBuffer buffer = serialize();
+
+        /* The rest of the block is already filled with zeros */
+        buffer.limit(blockSize);
+
+        /* Finally, write everything in the Buffer to disk */
+        int res = channel.write(buffer);
+        if (res != blockSize) {
+            throw new IllegalStateException("Wrong size of block written: Actual: " + res + ", Expected: " + blockSize); //$NON-NLS-1$ //$NON-NLS-2$
+        }
+        fIsOnDisk = true;
+    }
+
+    /**
+     * Serialize the header and the intervals of this node in a new buffer of
+     * the block size. The buffer is flipped, its limit is the end of the data
+     * section and the rest of the block is filled with zeros.
+     *
+     * @return The buffer containing the serialized node
+     */
+    public final ByteBuffer serialize() {
         /*
          * Yes, we are taking the *read* lock here, because we are reading the
          * information in the node to write it to disk.
@@ -256,24 +285,11 @@ public abstract class HTNode {
             if (blockSize - buffer.position() != getNodeFreeSpace()) {
                 throw new IllegalStateException("Wrong free space: Actual: " + (blockSize - buffer.position()) + ", Expected: " + getNodeFreeSpace()); //$NON-NLS-1$ //$NON-NLS-2$
             }
-            /*
-             * Fill the rest with zeros
-             */
-            while (buffer.position() < blockSize) {
-                buffer.put((byte) 0);
-            }
-
-            /* Finally, write everything in the Buffer to disk */
             buffer.flip();
-            int res = channel.write(buffer);
-            if (res != blockSize) {
-                throw new IllegalStateException("Wrong size of block written: Actual: " + res + ", Expected: " + blockSize); //$NON-NLS-1$ //$NON-NLS-2$
-            }
-
+            return buffer;
         } finally {
             fRwl.readLock().unlock();
         }
-        fIsOnDisk = true;
     }
 
     // ------------------------------------------------------------------------
@@ -341,6 +357,14 @@ public abstract class HTNode {
         fParentSequenceNumber = newParent;
     }
 
+    /**
+     * Mark this node as written to disk, by a writer which serialized it with
+     * {@link #serialize()}.
+     */
+    void setOnDisk() {
+        fIsOnDisk = true;
+    }
+
     /**
      * Return if this node is "done" (full and written to disk).
      *
@@ -569,6 +593,21 @@ public abstract class HTNode {
         }
     }
 
+    /**
+     * Estimate the heap used by this node, from the size of its data and the
+     * number of its intervals
+     *
+     * @return The estimated size of this node in memory (in bytes)
+     */
+    public int getHeapSize() {
+        fRwl.readLock().lock();
+        try {
+            return getDataSectionEndOffset() + fIntervals.size() * INTERVAL_HEAP_OVERHEAD;
+        } finally {
+            fRwl.readLock().unlock();
+        }
+    }
+
     /**
      * Returns the current space utilization of this node, as a percentage.
      * (used space / total usable space, which excludes the header)
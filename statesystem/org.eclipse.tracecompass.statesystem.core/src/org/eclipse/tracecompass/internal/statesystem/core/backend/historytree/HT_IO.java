@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2012, 2025 Ericsson
+ * Copyright (c) 2012, 2026 Ericsson
  * Copyright (c) 2010, 2011 École Polytechnique de Montréal
  * Copyright (c) 2010, 2011 Alexandre Montplaisir <alexandre.montplaisir@gmail.com>
  *
@@ -19,27 +19,34 @@ import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
 import java.nio.channels.ClosedChannelException;
 import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
 import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.Deque;
 import java.util.Iterator;
-import java.util.Objects;
-import java.util.concurrent.ExecutionException;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.stream.IntStream;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
 
 import org.eclipse.jdt.annotation.NonNull;
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.tracecompass.common.core.log.TraceCompassLog;
+import org.eclipse.tracecompass.internal.provisional.datastore.core.cache.INodeCache;
+import org.eclipse.tracecompass.internal.provisional.datastore.core.cache.NodeCacheFactory;
+import org.eclipse.tracecompass.internal.provisional.datastore.core.cache.NodeCacheStatistics;
 import org.eclipse.tracecompass.internal.statesystem.core.Activator;
 import org.eclipse.tracecompass.internal.statesystem.core.backend.historytree.IHistoryTree.IHTNodeFactory;
 import org.eclipse.tracecompass.traceeventlogger.LogUtils;
 
-import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
-
 /**
  * This class abstracts inputs/outputs of the HistoryTree nodes.
  *
@@ -55,72 +62,17 @@ public class HT_IO {
 
     private static final @NonNull Logger LOGGER = TraceCompassLog.getLogger(HT_IO.class);
 
-    // ------------------------------------------------------------------------
-    // Global cache of nodes
-    // ------------------------------------------------------------------------
-
-    private static final class CacheKey {
-
-        public final HT_IO fStateHistory;
-        public final int fSeqNumber;
-
-        public CacheKey(HT_IO stateHistory, int seqNumber) {
-            fStateHistory = stateHistory;
-            fSeqNumber = seqNumber;
-        }
-
-        @Override
-        public int hashCode() {
-            return Objects.hash(fStateHistory.fConfig.getStateFile().getAbsolutePath(), fSeqNumber);
-        }
-
-        @Override
-        public boolean equals(@Nullable Object obj) {
-            if (this == obj) {
-                return true;
-            }
-            if (obj == null) {
-                return false;
-            }
-            if (getClass() != obj.getClass()) {
-                return false;
-            }
-            CacheKey other = (CacheKey) obj;
-            return (fStateHistory.equals(other.fStateHistory) &&
-                    fSeqNumber == other.fSeqNumber);
-        }
-    }
-
-    private static final int CACHE_SIZE = 200;
-
-    private static final class HTNodeCacheLoader extends CacheLoader<CacheKey, HTNode> {
-        @Override
-        public HTNode load(CacheKey key) throws IOException {
-            HT_IO io = key.fStateHistory;
-            int seqNb = key.fSeqNumber;
-
-            LogUtils.traceInstant(LOGGER, Level.FINEST, "Ht_Io:CacheMiss", "seqNum", seqNb); //$NON-NLS-1$ //$NON-NLS-2$
-
-            HTConfig config = io.fConfig;
-            /* Allocate buffer */
-            ByteBuffer buffer = HTNode.allocateNode(config);
-            /* read buffer */
-            int res = -1;
-            synchronized (io) {
-                res = HTNode.readToBuffer(io.fFileChannelIn, seqNb, config.getBlockSize(), buffer);
-            }
-            if (res != config.getBlockSize()) {
-                throw new IOException("Expected " + config.getBlockSize() + " block size, but got " + res); //$NON-NLS-1$//$NON-NLS-2$
-            }
-            buffer.flip();
-            return HTNode.parseNode(config, buffer, key.fStateHistory.fNodeFactory);
-        }
-    }
-
-    private static final HTNodeCacheLoader NODE_LOADER = new HTNodeCacheLoader();
+    /**
+     * Header of a compressed node: the size of the serialized node, then the
+     * size of the compressed data that follows.
+     */
+    private static final int COMPRESSED_HEADER_SIZE = 2 * Integer.BYTES;
 
-    private static final LoadingCache<CacheKey, HTNode> NODE_CACHE = CacheBuilder.newBuilder()
-            .maximumSize(CACHE_SIZE).build(NODE_LOADER);
+    /**
+     * The node section of a compressed file is compacted when it is closed if
+     * more than 1/COMPACTION_RATIO of it is dead records
+     */
+    private static final int COMPACTION_RATIO = 4;
 
     // ------------------------------------------------------------------------
     // Instance fields
@@ -131,12 +83,42 @@ public class HT_IO {
 
     /* Fields related to the file I/O */
     private final FileInputStream fFileInputStream;
-    private final FileOutputStream fFileOutputStream;
     private final FileChannel fFileChannelIn;
     private final FileChannel fFileChannelOut;
 
     private final IHTNodeFactory fNodeFactory;
 
+    /* Cache of the nodes of this tree, bounded by their size in bytes */
+    private final INodeCache<@NonNull HTNode> fNodeCache;
+
+    /*
+     * Read-only mappings of the node section of the file, when the tree is
+     * configured to be memory-mapped. Each segment holds a whole number of
+     * nodes, so a node never spans two segments. The array is never modified
+     * once published, so readers use it without locking. Closing the file only
+     * drops the reference, the mappings are released by the garbage collector.
+     */
+    private volatile MappedByteBuffer @Nullable [] fMappedSegments;
+    private final boolean fIsMapped;
+    private final int fNodesPerSegment;
+    private volatile boolean fIsClosed = false;
+
+    /*
+     * Compressed nodes have a variable size, so they are appended to the node
+     * section in the order they are written and located through an index of
+     * their offsets, which is written after the nodes when the tree is closed.
+     * A node that is written again, as the latest branch of a resumed tree,
+     * reuses its record if the new one fits, otherwise the old record is dead
+     * and counted until the node section is compacted. Readers check that no
+     * record was overwritten or moved while they read theirs. These fields are
+     * guarded by this object's lock.
+     */
+    private long[] fNodeOffsets = new long[0];
+    private long fAppendPosition = IHistoryTree.TREE_HEADER_SIZE;
+    private long fNodeIndexEnd = -1;
+    private long fDeadBytes = 0;
+    private int fOverwrites = 0;
+
     // ------------------------------------------------------------------------
     // Methods
     // ------------------------------------------------------------------------
@@ -147,7 +129,11 @@ public class HT_IO {
      * @param config
      *            The configuration object for the StateHistoryTree
      * @param newFile
-     *            Flag indicating that the file must be created from scratch
+     *            Flag indicating that the file must be created from scratch.
+     *            Existing files are memory-mapped for reading if the
+     *            configuration asks for it, unless they are compressed. The
+     *            node index of existing compressed files must then be loaded
+     *            with {@link #readNodeIndex(long, int, long)}.
      * @param nodeFactory
      *            The factory to create new nodes for this tree
      *
@@ -155,6 +141,28 @@ public class HT_IO {
      *             An exception can be thrown when file cannot be accessed
      */
     public HT_IO(HTConfig config, boolean newFile, IHTNodeFactory nodeFactory) throws IOException {
+        this(config, newFile, false, nodeFactory);
+    }
+
+    /**
+     * Constructor, with the option of opening an existing file to append new
+     * nodes to it.
+     *
+     * @param config
+     *            The configuration object for the StateHistoryTree
+     * @param newFile
+     *            Flag indicating that the file must be created from scratch.
+     * @param append
+     *            For an existing file, whether new nodes will be written to
+     *            it. Such files are never memory-mapped, and the new nodes
+     *            overwrite whatever follows the existing ones.
+     * @param nodeFactory
+     *            The factory to create new nodes for this tree
+     *
+     * @throws IOException
+     *             An exception can be thrown when file cannot be accessed
+     */
+    public HT_IO(HTConfig config, boolean newFile, boolean append, IHTNodeFactory nodeFactory) throws IOException {
         fConfig = config;
 
         File historyTreeFile = config.getStateFile();
@@ -174,18 +182,385 @@ public class HT_IO {
                         historyTreeFile.getName());
             }
             fFileInputStream = new FileInputStream(historyTreeFile);
-            fFileOutputStream = new FileOutputStream(historyTreeFile, false);
+            fFileChannelOut = new FileOutputStream(historyTreeFile, false).getChannel();
+        } else if (append) {
+            /*
+             * Nodes are written at their own position, so the file must not be
+             * opened in append mode, which would write everything at its end.
+             */
+            fFileInputStream = new FileInputStream(historyTreeFile);
+            fFileChannelOut = FileChannel.open(historyTreeFile.toPath(), StandardOpenOption.WRITE);
         } else {
             /*
              * We want to open an existing file, make sure we don't squash the
              * existing content when opening the fos!
              */
             fFileInputStream = new FileInputStream(historyTreeFile);
-            fFileOutputStream = new FileOutputStream(historyTreeFile, true);
+            fFileChannelOut = new FileOutputStream(historyTreeFile, true).getChannel();
         }
         fFileChannelIn = fFileInputStream.getChannel();
-        fFileChannelOut = fFileOutputStream.getChannel();
         fNodeFactory = nodeFactory;
+
+        fNodesPerSegment = Integer.MAX_VALUE / config.getBlockSize();
+        fMappedSegments = (!newFile && !append && config.isMemoryMapped() && !config.isCompressed()) ? mapNodeSection() : null;
+        fIsMapped = fMappedSegments != null;
+        fNodeCache = NodeCacheFactory.createCache(historyTreeFile.getName(),
+                this::loadNode,
+                HTNode::getHeapSize,
+                node -> node.getNodeType() == HTNode.NodeType.CORE);
+    }
+
+    private @NonNull HTNode loadNode(int seqNb) throws IOException {
+        if (fConfig.isCompressed()) {
+            return readCompressedNode(seqNb);
+        }
+        if (fIsMapped) {
+            /* No need to lock the channel, every reader works on its own view */
+            return readMappedNode(seqNb);
+        }
+        /* Allocate buffer */
+        ByteBuffer buffer = HTNode.allocateNode(fConfig);
+        /* read buffer */
+        int res = -1;
+        synchronized (this) {
+            res = HTNode.readToBuffer(fFileChannelIn, seqNb, fConfig.getBlockSize(), buffer);
+        }
+        if (res != fConfig.getBlockSize()) {
+            throw new IOException("Expected " + fConfig.getBlockSize() + " block size, but got " + res); //$NON-NLS-1$//$NON-NLS-2$
+        }
+        buffer.flip();
+        return HTNode.parseNode(fConfig, buffer, fNodeFactory);
+    }
+
+    /**
+     * Get the statistics of the node cache of this tree
+     *
+     * @return The cache statistics
+     */
+    public NodeCacheStatistics getCacheStatistics() {
+        return fNodeCache.getStatistics();
+    }
+
+    /**
+     * Map the node section of the history file in read-only segments of at
+     * most {@link Integer#MAX_VALUE} bytes.
+     */
+    private MappedByteBuffer[] mapNodeSection() throws IOException {
+        long segmentSize = (long) fNodesPerSegment * fConfig.getBlockSize();
+        long sectionSize = Math.max(0, fFileChannelIn.size() - IHistoryTree.TREE_HEADER_SIZE);
+        int nbSegments = (int) ((sectionSize + segmentSize - 1) / segmentSize);
+        MappedByteBuffer[] segments = new MappedByteBuffer[nbSegments];
+        for (int i = 0; i < nbSegments; i++) {
+            long position = IHistoryTree.TREE_HEADER_SIZE + i * segmentSize;
+            long size = Math.min(segmentSize, sectionSize - i * segmentSize);
+            segments[i] = fFileChannelIn.map(MapMode.READ_ONLY, position, size);
+        }
+        LogUtils.traceInstant(LOGGER, Level.FINE, "Ht_Io:MapFile", "segments", nbSegments, "size", sectionSize); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+        return segments;
+    }
+
+    /**
+     * Parse a node directly from the memory-mapped view of the file. This does
+     * not touch the shared file channel, so it can be called concurrently.
+     *
+     * @param seqNumber
+     *            The sequence number of the node to read
+     * @return The node
+     * @throws IOException
+     *             If the file was closed or the node is outside the mapped
+     *             section
+     */
+    private @NonNull HTNode readMappedNode(int seqNumber) throws IOException {
+        MappedByteBuffer[] segments = fMappedSegments;
+        if (segments == null || fIsClosed) {
+            throw new ClosedChannelException();
+        }
+        int blockSize = fConfig.getBlockSize();
+        int segment = seqNumber / fNodesPerSegment;
+        int offset = (seqNumber % fNodesPerSegment) * blockSize;
+        if (segment >= segments.length || offset + blockSize > segments[segment].capacity()) {
+            throw new IOException("Node " + seqNumber + " is outside the mapped history file"); //$NON-NLS-1$ //$NON-NLS-2$
+        }
+        ByteBuffer buffer = segments[segment].slice(offset, blockSize);
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        /* The parsed node copies everything it needs out of the mapping */
+        return HTNode.parseNode(fConfig, buffer, fNodeFactory);
+    }
+
+    /**
+     * Drop the mappings of the node section. The JDK has no supported way to
+     * unmap a buffer, so the mappings, and the file they keep open, are
+     * released when the buffers are garbage collected. On Windows, the file
+     * cannot be deleted until then. A reader that already got the array may
+     * still parse a node from it, which is safe as long as it is reachable.
+     */
+    private void unmapNodeSection() {
+        fMappedSegments = null;
+    }
+
+    /**
+     * Read and inflate a compressed node. This uses positional reads, which do
+     * not change the position of the shared file channel, so it can be called
+     * concurrently. The read is retried if records were overwritten meanwhile.
+     */
+    private @NonNull HTNode readCompressedNode(int seqNumber) throws IOException {
+        while (true) {
+            long offset;
+            int overwrites;
+            synchronized (this) {
+                if (seqNumber < 0 || seqNumber >= fNodeOffsets.length || fNodeOffsets[seqNumber] == 0) {
+                    throw new IOException("Node " + seqNumber + " is not in the history file"); //$NON-NLS-1$ //$NON-NLS-2$
+                }
+                offset = fNodeOffsets[seqNumber];
+                overwrites = fOverwrites;
+            }
+            try {
+                HTNode node = inflateNode(seqNumber, offset);
+                synchronized (this) {
+                    if (overwrites == fOverwrites) {
+                        return node;
+                    }
+                }
+            } catch (IOException | RuntimeException e) {
+                synchronized (this) {
+                    if (overwrites == fOverwrites) {
+                        throw e;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Read and inflate the record of a node at an offset of the file
+     */
+    private @NonNull HTNode inflateNode(int seqNumber, long offset) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(COMPRESSED_HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        readFully(fFileChannelIn, header, offset);
+        header.flip();
+        int size = header.getInt();
+        int compressedSize = header.getInt();
+        if (size < 0 || size > fConfig.getBlockSize() || compressedSize < 0 || compressedSize > 2 * fConfig.getBlockSize()) {
+            throw new IOException("Invalid compressed node " + seqNumber + ": size " + size + ", compressed size " + compressedSize); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+        }
+        ByteBuffer data = ByteBuffer.allocate(compressedSize);
+        readFully(fFileChannelIn, data, offset + COMPRESSED_HEADER_SIZE);
+
+        ByteBuffer buffer = HTNode.allocateNode(fConfig);
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(data.array());
+            int inflated = 0;
+            while (inflated < size && !inflater.finished()) {
+                int res = inflater.inflate(buffer.array(), inflated, size - inflated);
+                if (res == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                inflated += res;
+            }
+            if (inflated != size) {
+                throw new IOException("Expected " + size + " bytes in compressed node " + seqNumber + ", but got " + inflated); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+            }
+        } catch (DataFormatException e) {
+            throw new IOException(e);
+        } finally {
+            inflater.end();
+        }
+        buffer.limit(size);
+        return HTNode.parseNode(fConfig, buffer, fNodeFactory);
+    }
+
+    /**
+     * Deflate a node and write it to the node section of the file, in its
+     * previous record if it fits, or else at the end of the section.
+     */
+    private void writeCompressedNode(HTNode node) throws IOException {
+        ByteBuffer buffer = node.serialize();
+        int size = buffer.remaining();
+        byte[] compressed = new byte[size + size / 16 + 64];
+        int compressedSize = 0;
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(buffer.array(), 0, size);
+            deflater.finish();
+            while (!deflater.finished()) {
+                if (compressedSize == compressed.length) {
+                    compressed = Arrays.copyOf(compressed, compressed.length * 2);
+                }
+                compressedSize += deflater.deflate(compressed, compressedSize, compressed.length - compressedSize);
+            }
+        } finally {
+            deflater.end();
+        }
+        ByteBuffer record = ByteBuffer.allocate(COMPRESSED_HEADER_SIZE + compressedSize).order(ByteOrder.LITTLE_ENDIAN);
+        record.putInt(size);
+        record.putInt(compressedSize);
+        record.put(compressed, 0, compressedSize);
+        record.flip();
+
+        int recordSize = COMPRESSED_HEADER_SIZE + compressedSize;
+        int seqNumber = node.getSequenceNumber();
+        synchronized (this) {
+            long offset = fAppendPosition;
+            long previous = seqNumber < fNodeOffsets.length ? fNodeOffsets[seqNumber] : 0;
+            if (previous != 0) {
+                int previousSize = readRecordSize(previous);
+                if (recordSize <= previousSize) {
+                    offset = previous;
+                    fOverwrites++;
+                    fDeadBytes += previousSize - recordSize;
+                } else {
+                    fDeadBytes += previousSize;
+                }
+            }
+            writeFully(fFileChannelOut, record, offset);
+            if (offset == fAppendPosition) {
+                fAppendPosition += recordSize;
+            }
+            if (seqNumber >= fNodeOffsets.length) {
+                fNodeOffsets = Arrays.copyOf(fNodeOffsets, Math.max(seqNumber + 1, fNodeOffsets.length * 2));
+            }
+            fNodeOffsets[seqNumber] = offset;
+        }
+        node.setOnDisk();
+    }
+
+    /**
+     * Get the size of the record of a compressed node, from its header
+     */
+    private int readRecordSize(long offset) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(COMPRESSED_HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        readFully(fFileChannelIn, header, offset);
+        header.flip();
+        header.getInt();
+        return COMPRESSED_HEADER_SIZE + header.getInt();
+    }
+
+    /**
+     * Move the records of the nodes to the start of the node section, in the
+     * order they are in the file, to drop the dead records between them.
+     */
+    private void compactNodeSection(int nodeCount) throws IOException {
+        long[] offsets = fNodeOffsets;
+        int[] order = IntStream.range(0, Math.min(nodeCount, offsets.length))
+                .filter(i -> offsets[i] != 0)
+                .boxed()
+                .sorted(Comparator.comparingLong(i -> offsets[i]))
+                .mapToInt(Integer::intValue)
+                .toArray();
+        fOverwrites++;
+        long position = IHistoryTree.TREE_HEADER_SIZE;
+        for (int seqNumber : order) {
+            long offset = offsets[seqNumber];
+            int size = readRecordSize(offset);
+            if (offset != position) {
+                ByteBuffer record = ByteBuffer.allocate(size);
+                readFully(fFileChannelIn, record, offset);
+                record.flip();
+                writeFully(fFileChannelOut, record, position);
+                offsets[seqNumber] = position;
+            }
+            position += size;
+        }
+        LogUtils.traceInstant(LOGGER, Level.FINE, "Ht_Io:Compact", "dead", fDeadBytes, "size", position - IHistoryTree.TREE_HEADER_SIZE); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+        fAppendPosition = position;
+        fDeadBytes = 0;
+    }
+
+    /**
+     * Get the number of bytes of the node section of a compressed file used
+     * by records that were replaced
+     *
+     * @return The number of dead bytes
+     */
+    public synchronized long getDeadBytes() {
+        return fDeadBytes;
+    }
+
+    /**
+     * Write the index of the compressed nodes after the last node. This should
+     * be called once all the nodes are written, when closing the tree. The
+     * node section is first compacted if too much of it is dead.
+     *
+     * @param nodeCount
+     *            The number of nodes in the tree
+     * @return The position of the index in the file
+     * @throws IOException
+     *             If the index could not be written
+     */
+    public synchronized long writeNodeIndex(int nodeCount) throws IOException {
+        if (fDeadBytes * COMPACTION_RATIO > fAppendPosition - IHistoryTree.TREE_HEADER_SIZE) {
+            compactNodeSection(nodeCount);
+        }
+        long position = fAppendPosition;
+        ByteBuffer buffer = ByteBuffer.allocate(nodeCount * Long.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; i < nodeCount; i++) {
+            buffer.putLong(i < fNodeOffsets.length ? fNodeOffsets[i] : 0);
+        }
+        buffer.flip();
+        writeFully(fFileChannelOut, buffer, position);
+        fNodeIndexEnd = position + (long) nodeCount * Long.BYTES;
+        return position;
+    }
+
+    /**
+     * Load the index of the compressed nodes of an existing file.
+     *
+     * @param position
+     *            The position of the index in the file
+     * @param nodeCount
+     *            The number of nodes in the tree
+     * @param deadBytes
+     *            The number of dead bytes in the node section, see
+     *            {@link #getDeadBytes()}
+     * @throws IOException
+     *             If the index could not be read
+     */
+    public synchronized void readNodeIndex(long position, int nodeCount, long deadBytes) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(nodeCount * Long.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        readFully(fFileChannelIn, buffer, position);
+        buffer.flip();
+        long[] offsets = new long[nodeCount];
+        for (int i = 0; i < nodeCount; i++) {
+            offsets[i] = buffer.getLong();
+        }
+        fNodeOffsets = offsets;
+        fAppendPosition = position;
+        fDeadBytes = deadBytes;
+        fNodeIndexEnd = position + (long) nodeCount * Long.BYTES;
+    }
+
+    /**
+     * Get the position in the file where the node section ends, which is where
+     * the attribute tree is written.
+     *
+     * @param nodeCount
+     *            The number of nodes in the tree
+     * @return The end of the node section
+     */
+    public synchronized long getNodeSectionEnd(int nodeCount) {
+        if (fConfig.isCompressed()) {
+            return fNodeIndexEnd >= 0 ? fNodeIndexEnd : fAppendPosition;
+        }
+        return IHistoryTree.TREE_HEADER_SIZE + (long) nodeCount * fConfig.getBlockSize();
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        long pos = position;
+        while (buffer.hasRemaining()) {
+            int res = channel.read(buffer, pos);
+            if (res < 0) {
+                throw new IOException("Unexpected end of history file at " + pos); //$NON-NLS-1$
+            }
+            pos += res;
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        long pos = position;
+        while (buffer.hasRemaining()) {
+            pos += channel.write(buffer, pos);
+        }
     }
 
     /**
@@ -202,16 +577,12 @@ public class HT_IO {
     public @NonNull HTNode readNode(int seqNumber) throws ClosedChannelException {
         /* Do a cache lookup. If it's not present it will be loaded from disk */
         LogUtils.traceInstant(LOGGER, Level.FINEST, "Ht_Io:CacheLookup", "seqNum", seqNumber); //$NON-NLS-1$ //$NON-NLS-2$
-        CacheKey key = new CacheKey(this, seqNumber);
         try {
-            return Objects.requireNonNull(NODE_CACHE.get(key));
+            return fNodeCache.get(seqNumber);
 
-        } catch (ExecutionException e) {
-            /* Get the inner exception that was generated */
-            Throwable cause = e.getCause();
-            if (cause instanceof ClosedChannelException) {
-                throw (ClosedChannelException) cause;
-            }
+        } catch (ClosedChannelException e) {
+            throw e;
+        } catch (IOException e) {
             /*
              * Other types of IOExceptions shouldn't happen at this point
              * though.
@@ -241,8 +612,7 @@ public class HT_IO {
         Iterator<Integer> iterator = queue.iterator();
         while (iterator.hasNext()) {
             Integer seqNumber = iterator.next();
-            CacheKey key = new CacheKey(this, seqNumber);
-            HTNode node = NODE_CACHE.getIfPresent(key);
+            HTNode node = fNodeCache.getIfPresent(seqNumber);
             if (node != null) {
                 iterator.remove();
                 return node;
@@ -263,8 +633,12 @@ public class HT_IO {
             int seqNumber = node.getSequenceNumber();
 
             /* "Write-back" the node into the cache */
-            CacheKey key = new CacheKey(this, seqNumber);
-            NODE_CACHE.put(key, node);
+            fNodeCache.put(seqNumber, node);
+
+            if (fConfig.isCompressed()) {
+                writeCompressedNode(node);
+                return;
+            }
 
             /* Position ourselves at the start of the node and write it */
             synchronized (this) {
@@ -300,7 +674,7 @@ public class HT_IO {
              * Position ourselves at the start of the Mapping section in the
              * file (which is right after the Blocks)
              */
-            IHistoryTree.seekFCToNodePos(fFileChannelIn, fConfig.getBlockSize(), nodeOffset);
+            fFileChannelIn.position(getNodeSectionEnd(nodeOffset));
         } catch (IOException e) {
             Activator.getDefault().logError(e.getMessage(), e);
         }
@@ -311,9 +685,12 @@ public class HT_IO {
      * Close all file channels and streams.
      */
     public synchronized void closeFile() {
+        fIsClosed = true;
+        fNodeCache.dispose();
+        unmapNodeSection();
         try {
             fFileInputStream.close();
-            fFileOutputStream.close();
+            fFileChannelOut.close();
         } catch (IOException e) {
             Activator.getDefault().logError(e.getMessage(), e);
         }
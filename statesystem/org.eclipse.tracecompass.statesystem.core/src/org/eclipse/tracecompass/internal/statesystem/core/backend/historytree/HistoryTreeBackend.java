@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2012, 2025 Ericsson
+ * Copyright (c) 2012, 2026 Ericsson
  * Copyright (c) 2010, 2011 École Polytechnique de Montréal
  * Copyright (c) 2010, 2011 Alexandre Montplaisir <alexandre.montplaisir@gmail.com>
  *
@@ -22,6 +22,7 @@ import java.io.FileInputStream;
 import java.io.IOException;
 import java.nio.channels.ClosedChannelException;
 import java.util.ArrayDeque;
+import java.util.Collection;
 import java.util.Deque;
 import java.util.List;
 import java.util.Objects;
@@ -33,6 +34,7 @@ import org.eclipse.tracecompass.common.core.log.TraceCompassLog;
 import org.eclipse.tracecompass.internal.provisional.datastore.core.condition.IntegerRangeCondition;
 import org.eclipse.tracecompass.internal.provisional.datastore.core.condition.TimeRangeCondition;
 import org.eclipse.tracecompass.internal.statesystem.core.Activator;
+import org.eclipse.tracecompass.statesystem.core.Query2DRequest;
 import org.eclipse.tracecompass.statesystem.core.backend.IStateHistoryBackend;
 import org.eclipse.tracecompass.statesystem.core.exceptions.StateSystemDisposedException;
 import org.eclipse.tracecompass.statesystem.core.exceptions.TimeRangeException;
@@ -53,8 +55,25 @@ public class HistoryTreeBackend implements IStateHistoryBackend {
 
     private static final @NonNull Logger LOGGER = TraceCompassLog.getLogger(HistoryTreeBackend.class);
 
+    /**
+     * System property for the default number of threads used to read the
+     * nodes of a 2D query. With 1, the default, queries run on the calling
+     * thread.
+     */
+    public static final String QUERY_PARALLELISM_PROPERTY = "org.eclipse.tracecompass.statesystem.historytree.query.parallelism"; //$NON-NLS-1$
+
+    /**
+     * System property to write new history files in the compressed node
+     * format, when they are created by the
+     * {@link org.eclipse.tracecompass.statesystem.core.backend.StateHistoryBackendFactory}.
+     * Existing files are read in the format they were written in.
+     */
+    public static final String COMPRESSION_PROPERTY = "org.eclipse.tracecompass.statesystem.historytree.compressed"; //$NON-NLS-1$
+
     private final @NonNull String fSsid;
 
+    private volatile int fQueryParallelism = Math.max(1, Integer.getInteger(QUERY_PARALLELISM_PROPERTY, 1));
+
     /**
      * The history tree that sits underneath.
      */
@@ -117,6 +136,44 @@ public class HistoryTreeBackend implements IStateHistoryBackend {
         fSht = initializeSHT(conf);
     }
 
+    /**
+     * Constructor for new history files, choosing whether the nodes are
+     * compressed in the file.
+     *
+     * @param ssid
+     *            The state system's ID
+     * @param newStateFile
+     *            The filename/location where to store the state history (Should
+     *            end in .ht)
+     * @param providerVersion
+     *            Version of of the state provider. We will only try to reopen
+     *            existing files if this version matches the one in the
+     *            framework.
+     * @param startTime
+     *            The earliest time stamp that will be stored in the history
+     * @param blockSize
+     *            The size of the blocks in the history file. This should be a
+     *            multiple of 4096.
+     * @param maxChildren
+     *            The maximum number of children each core node can have
+     * @param compressed
+     *            Whether to compress the nodes in the history file
+     * @throws IOException
+     *             Thrown if we can't create the file for some reason
+     */
+    public HistoryTreeBackend(@NonNull String ssid,
+            File newStateFile,
+            int providerVersion,
+            long startTime,
+            int blockSize,
+            int maxChildren,
+            boolean compressed) throws IOException {
+        fSsid = ssid;
+        final HTConfig conf = new HTConfig(newStateFile, blockSize, maxChildren,
+                providerVersion, startTime, false, compressed);
+        fSht = initializeSHT(conf);
+    }
+
     /**
      * Constructor for new history files. Use this when creating a new history
      * from scratch. This version supplies sane defaults for the configuration
@@ -139,7 +196,32 @@ public class HistoryTreeBackend implements IStateHistoryBackend {
      */
     public HistoryTreeBackend(@NonNull String ssid, File newStateFile, int providerVersion, long startTime)
             throws IOException {
-        this(ssid, newStateFile, providerVersion, startTime, 64 * 1024, 50);
+        this(ssid, newStateFile, providerVersion, startTime, false);
+    }
+
+    /**
+     * Constructor for new history files, with the default configuration
+     * parameters, choosing whether the nodes are compressed in the file.
+     *
+     * @param ssid
+     *            The state system's id
+     * @param newStateFile
+     *            The filename/location where to store the state history (Should
+     *            end in .ht)
+     * @param providerVersion
+     *            Version of of the state provider. We will only try to reopen
+     *            existing files if this version matches the one in the
+     *            framework.
+     * @param startTime
+     *            The earliest time stamp that will be stored in the history
+     * @param compressed
+     *            Whether to compress the nodes in the history file
+     * @throws IOException
+     *             Thrown if we can't create the file for some reason
+     */
+    public HistoryTreeBackend(@NonNull String ssid, File newStateFile, int providerVersion, long startTime, boolean compressed)
+            throws IOException {
+        this(ssid, newStateFile, providerVersion, startTime, 64 * 1024, 50, compressed);
     }
 
     /**
@@ -163,6 +245,69 @@ public class HistoryTreeBackend implements IStateHistoryBackend {
         fFinishedBuilding = true;
     }
 
+    /**
+     * Existing history constructor, with the option of reading the nodes
+     * through a memory-mapped view of the file. A memory-mapped history lets
+     * concurrent queries read nodes in parallel instead of serializing on the
+     * file channel.
+     *
+     * @param ssid
+     *            The state system's id
+     * @param existingStateFile
+     *            Filename/location of the history we want to load
+     * @param providerVersion
+     *            Expected version of of the state provider plugin.
+     * @param memoryMapped
+     *            Whether to memory-map the history file for reading
+     * @throws IOException
+     *             If we can't read the file, if it doesn't exist, is not
+     *             recognized, or if the version of the file does not match the
+     *             expected providerVersion.
+     */
+    public HistoryTreeBackend(@NonNull String ssid, @NonNull File existingStateFile, int providerVersion, boolean memoryMapped)
+            throws IOException {
+        fSsid = ssid;
+        fSht = initializeSHT(existingStateFile, providerVersion, memoryMapped);
+        fFinishedBuilding = true;
+    }
+
+    /**
+     * Existing history constructor, to resume building a history which was
+     * closed. The new intervals must start after the end time of the existing
+     * history.
+     *
+     * @param ssid
+     *            The state system's id
+     * @param existingStateFile
+     *            Filename/location of the history we want to append to
+     * @param providerVersion
+     *            Expected version of of the state provider plugin.
+     * @return The state history backend, which must be closed with
+     *         {@link #finishedBuilding(long)} like a new one
+     * @throws IOException
+     *             If we can't read or write the file, if it doesn't exist, is
+     *             not recognized, or if the version of the file does not match
+     *             the expected providerVersion.
+     */
+    public static @NonNull HistoryTreeBackend openForAppend(@NonNull String ssid, @NonNull File existingStateFile, int providerVersion)
+            throws IOException {
+        return new HistoryTreeBackend(ssid, HistoryTreeFactory.openForAppend(existingStateFile.toPath(), providerVersion));
+    }
+
+    /**
+     * Constructor wrapping a history tree which is still being built, like a
+     * tree opened for appending.
+     *
+     * @param ssid
+     *            The state system's id
+     * @param sht
+     *            The history tree
+     */
+    protected HistoryTreeBackend(@NonNull String ssid, @NonNull IHistoryTree sht) {
+        fSsid = ssid;
+        fSht = sht;
+    }
+
     /**
      * New-tree initializer for the History Tree wrapped by this backend. Can be
      * overriden to use different implementations.
@@ -196,6 +341,29 @@ public class HistoryTreeBackend implements IStateHistoryBackend {
         return HistoryTreeFactory.createFromFile(existingStateFile.toPath(), providerVersion);
     }
 
+    /**
+     * Existing-tree initializer for the History Tree wrapped by this backend,
+     * with the choice of the read mode. By default, non-mapped trees are
+     * initialized by {@link #initializeSHT(File, int)}.
+     *
+     * @param existingStateFile
+     *            The file to open
+     * @param providerVersion
+     *            The expected state provider version
+     * @param memoryMapped
+     *            Whether to memory-map the history file for reading
+     * @return The history tree opened from the given file
+     * @throws IOException
+     *             If there was a problem during creation
+     */
+    @VisibleForTesting
+    protected @NonNull IHistoryTree initializeSHT(@NonNull File existingStateFile, int providerVersion, boolean memoryMapped) throws IOException {
+        if (!memoryMapped) {
+            return initializeSHT(existingStateFile, providerVersion);
+        }
+        return HistoryTreeFactory.createFromFile(existingStateFile.toPath(), providerVersion, true);
+    }
+
     /**
      * Get the History Tree built by this backend.
      *
@@ -357,15 +525,59 @@ public class HistoryTreeBackend implements IStateHistoryBackend {
 
     @Override
     public Iterable<@NonNull ITmfStateInterval> query2D(IntegerRangeCondition quarks, TimeRangeCondition times, boolean reverse) {
+        int parallelism = fQueryParallelism;
         try (FlowScopeLog log = new FlowScopeLogBuilder(LOGGER, Level.FINER,
                 "HistoryTreeBackend:query2D:init", //$NON-NLS-1$
                 "ssid", getSSID(), //$NON-NLS-1$
                 "quarks", quarks, //$NON-NLS-1$
-                "timeCondition", times).build()) { //$NON-NLS-1$
+                "timeCondition", times, //$NON-NLS-1$
+                "parallelism", parallelism).build()) { //$NON-NLS-1$
+            if (parallelism > 1) {
+                return () -> new HistoryTreeBackendParallelIterator(getSHT(), quarks, times, reverse, parallelism, Objects.requireNonNull(log));
+            }
             return () -> new HistoryTreeBackendIterator(getSHT(), quarks, times, reverse, Objects.requireNonNull(log));
         }
     }
 
+    /**
+     * Set the number of threads used to read the nodes of the 2D queries of
+     * this backend. With a parallelism level of 1, the queries run on the
+     * calling thread.
+     *
+     * @param parallelism
+     *            The parallelism level, at least 1
+     */
+    public void setQueryParallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism level should be at least 1: " + parallelism); //$NON-NLS-1$
+        }
+        fQueryParallelism = parallelism;
+    }
+
+    /**
+     * Get the number of threads used to read the nodes of the 2D queries of
+     * this backend.
+     *
+     * @return The parallelism level
+     */
+    public int getQueryParallelism() {
+        return fQueryParallelism;
+    }
+
+    @Override
+    public void batchQuery2D(Collection<@NonNull Query2DRequest> requests) throws StateSystemDisposedException {
+        HistoryTreeBackendBatchQuery query = new HistoryTreeBackendBatchQuery(getSHT(), requests);
+        try (FlowScopeLog log = new FlowScopeLogBuilder(LOGGER, Level.FINER,
+                "HistoryTreeBackend:batchQuery2D", //$NON-NLS-1$
+                "ssid", getSSID(), //$NON-NLS-1$
+                "nbRequests", query.getNbRequests()).build()) { //$NON-NLS-1$
+            int nbNodes = query.run();
+            log.addData("nbNodes", nbNodes); //$NON-NLS-1$
+        } catch (ClosedChannelException e) {
+            throw new StateSystemDisposedException(e);
+        }
+    }
+
     /**
      * Return the size of the tree history file
      *
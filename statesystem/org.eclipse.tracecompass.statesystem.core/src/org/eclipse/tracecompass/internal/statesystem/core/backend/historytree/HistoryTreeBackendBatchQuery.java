@@ -0,0 +1,110 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson and others
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.internal.statesystem.core.backend.historytree;
+
+import java.nio.channels.ClosedChannelException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.tracecompass.internal.provisional.datastore.core.condition.IntegerRangeCondition;
+import org.eclipse.tracecompass.internal.provisional.datastore.core.condition.TimeRangeCondition;
+import org.eclipse.tracecompass.statesystem.core.Query2DRequest;
+import org.eclipse.tracecompass.statesystem.core.interval.ITmfStateInterval;
+
+/**
+ * Runs a batch of 2D queries on a history tree in a single walk. The nodes
+ * are visited in sequence number order, and each node is read once, along
+ * with the set of requests for which it is relevant. The intervals are pushed
+ * to the consumers of the requests as the nodes are read.
+ */
+class HistoryTreeBackendBatchQuery {
+
+    private final @NonNull IHistoryTree fSht;
+    private final List<IntegerRangeCondition> fQuarks = new ArrayList<>();
+    private final List<TimeRangeCondition> fTimes = new ArrayList<>();
+    private final List<Consumer<ITmfStateInterval>> fConsumers = new ArrayList<>();
+
+    HistoryTreeBackendBatchQuery(@NonNull IHistoryTree sht, Collection<@NonNull Query2DRequest> requests) {
+        fSht = sht;
+        for (Query2DRequest request : requests) {
+            IntegerRangeCondition quarks = request.getQuarkCondition();
+            TimeRangeCondition times = request.getTimeCondition();
+            if (quarks != null && times != null) {
+                fQuarks.add(quarks);
+                fTimes.add(times);
+                fConsumers.add(request.getConsumer());
+            }
+        }
+    }
+
+    /**
+     * @return The number of requests which have something to query
+     */
+    int getNbRequests() {
+        return fConsumers.size();
+    }
+
+    /**
+     * Walk the tree and stream the intervals to the consumers.
+     *
+     * @return The number of nodes which were read
+     * @throws ClosedChannelException
+     *             If the history tree file was closed during the walk
+     */
+    int run() throws ClosedChannelException {
+        if (fConsumers.isEmpty()) {
+            return 0;
+        }
+        /* Sequence numbers of the nodes to read, with the requests for each */
+        NavigableMap<Integer, BitSet> pending = new TreeMap<>();
+        BitSet all = new BitSet(fConsumers.size());
+        all.set(0, fConsumers.size());
+        pending.put(fSht.getRootNode().getSequenceNumber(), all);
+
+        Deque<Integer> children = new ArrayDeque<>();
+        int nbNodes = 0;
+        Entry<Integer, BitSet> entry = pending.pollFirstEntry();
+        while (entry != null) {
+            HTNode node = fSht.readNode(entry.getKey());
+            nbNodes++;
+            BitSet requests = entry.getValue();
+            for (int i = requests.nextSetBit(0); i >= 0; i = requests.nextSetBit(i + 1)) {
+                IntegerRangeCondition quarks = fQuarks.get(i);
+                TimeRangeCondition times = fTimes.get(i);
+                /* Same reductions as the single query iterator */
+                TimeRangeCondition subTimes = node.getParentSequenceNumber() == -1 ? times :
+                    times.subCondition(node.getNodeStart(), node.getNodeEnd());
+                if (subTimes == null || !quarks.intersects(node.getMinQuark(), node.getMaxQuark())) {
+                    continue;
+                }
+                if (node.getNodeType() == HTNode.NodeType.CORE) {
+                    ((ParentNode) node).queueNextChildren2D(quarks, subTimes, children, false);
+                    while (!children.isEmpty()) {
+                        pending.computeIfAbsent(children.pop(), seq -> new BitSet()).set(i);
+                    }
+                }
+                node.iterable2D(quarks, subTimes).forEach(fConsumers.get(i));
+            }
+            entry = pending.pollFirstEntry();
+        }
+        return nbNodes;
+    }
+}
@@ -0,0 +1,172 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson and others
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.internal.statesystem.core.backend.historytree;
+
+import java.nio.channels.ClosedChannelException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.common.core.log.TraceCompassLog;
+import org.eclipse.tracecompass.internal.provisional.datastore.core.condition.IntegerRangeCondition;
+import org.eclipse.tracecompass.internal.provisional.datastore.core.condition.TimeRangeCondition;
+import org.eclipse.tracecompass.statesystem.core.interval.ITmfStateInterval;
+import org.eclipse.tracecompass.traceeventlogger.LogUtils.FlowScopeLog;
+import org.eclipse.tracecompass.traceeventlogger.LogUtils.FlowScopeLogBuilder;
+
+/**
+ * Variant of the {@link HistoryTreeBackendIterator} which reads the nodes
+ * ahead of the iteration in a {@link ForkJoinPool}.
+ *
+ * The same nodes as the sequential iterator are visited, but the nodes already
+ * in the window precede the children of the node being iterated, so the order
+ * of the intervals may differ. A fixed window of the next nodes of the queue
+ * are read by tasks, each handing back
+ * the matching intervals and the relevant children of its node. The children
+ * are queued when the iteration reaches the intervals of their parent, then
+ * new tasks fill the window. The nodes read and kept ahead of the iteration
+ * are thus bounded by the window, whatever the size of the query, and an
+ * iteration that stops early only pays for the reads of the window.
+ */
+class HistoryTreeBackendParallelIterator implements Iterator<@NonNull ITmfStateInterval> {
+    private static final @NonNull Logger LOGGER = TraceCompassLog.getLogger(HistoryTreeBackendParallelIterator.class);
+
+    /** Number of nodes read ahead per thread of the pool */
+    private static final int NODES_PER_THREAD = 2;
+
+    /** Pools shared by all the queries with the same parallelism level */
+    private static final Map<Integer, ForkJoinPool> POOLS = new ConcurrentHashMap<>();
+
+    private final @NonNull IHistoryTree fSht;
+    private final IntegerRangeCondition fQuarks;
+    private final TimeRangeCondition fTimes;
+    private final boolean fReverse;
+    private final ForkJoinPool fPool;
+    private final int fWindow;
+    private final @NonNull FlowScopeLog fParentLog;
+
+    private final Deque<Integer> fSeqNumberQueue;
+    private final Deque<ForkJoinTask<@Nullable NodeBatch>> fReads = new ArrayDeque<>();
+    private Iterator<@NonNull HTInterval> fIntervals = Collections.emptyIterator();
+
+    /**
+     * The matching intervals and the relevant children of a node
+     */
+    private static final class NodeBatch {
+        private final List<@NonNull HTInterval> fNodeIntervals;
+        private final Deque<Integer> fChildren;
+
+        public NodeBatch(List<@NonNull HTInterval> intervals, Deque<Integer> children) {
+            fNodeIntervals = intervals;
+            fChildren = children;
+        }
+    }
+
+    HistoryTreeBackendParallelIterator(@NonNull IHistoryTree sht, IntegerRangeCondition quarks, TimeRangeCondition times,
+            boolean reverse, int parallelism, @NonNull FlowScopeLog parentLog) {
+        fSht = sht;
+        fQuarks = quarks;
+        fTimes = times;
+        fReverse = reverse;
+        fPool = POOLS.computeIfAbsent(parallelism, ForkJoinPool::new);
+        fWindow = parallelism * NODES_PER_THREAD;
+        fParentLog = parentLog;
+        fSeqNumberQueue = new ArrayDeque<>(Collections.singleton(fSht.getRootNode().getSequenceNumber()));
+    }
+
+    /**
+     * Read a node and get its intervals which match the conditions and its
+     * relevant children, with the same reductions as the sequential iterator.
+     *
+     * @return The batch of the node, or null if the tree is closed
+     */
+    private @Nullable NodeBatch readNode(int seqNumber) {
+        HTNode node;
+        try {
+            node = fSht.readNode(seqNumber);
+        } catch (ClosedChannelException e) {
+            return null;
+        }
+        Deque<Integer> children = new ArrayDeque<>();
+        TimeRangeCondition subTimes = node.getParentSequenceNumber() == -1 ? fTimes :
+            fTimes.subCondition(node.getNodeStart(), node.getNodeEnd());
+        if (subTimes == null || !fQuarks.intersects(node.getMinQuark(), node.getMaxQuark())) {
+            return new NodeBatch(Collections.emptyList(), children);
+        }
+        if (node.getNodeType() == HTNode.NodeType.CORE) {
+            ((ParentNode) node).queueNextChildren2D(fQuarks, subTimes, children, fReverse);
+        }
+        List<@NonNull HTInterval> intervals = new ArrayList<>();
+        node.iterable2D(fQuarks, subTimes).forEach(intervals::add);
+        return new NodeBatch(intervals, children);
+    }
+
+    /**
+     * Submit the reads of the next nodes of the queue, up to the window
+     */
+    private void fillWindow() {
+        while (fReads.size() < fWindow && !fSeqNumberQueue.isEmpty()) {
+            int seqNumber = fSeqNumberQueue.pop();
+            fReads.add(fPool.submit(() -> readNode(seqNumber)));
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (!fIntervals.hasNext()) {
+            fillWindow();
+            ForkJoinTask<@Nullable NodeBatch> read = fReads.poll();
+            if (read == null) {
+                break;
+            }
+            NodeBatch batch = read.join();
+            if (batch == null) {
+                try (FlowScopeLog closedChannelLog = new FlowScopeLogBuilder(LOGGER, Level.FINER,
+                        "HistoryTreeBackendParallelIterator:query2D:channelClosed").setParentScope(fParentLog).build()) { //$NON-NLS-1$
+                    fReads.forEach(task -> task.cancel(false));
+                    fReads.clear();
+                    fSeqNumberQueue.clear();
+                    return false;
+                }
+            }
+            /* Queue the children first, like the sequential iterator */
+            Iterator<Integer> children = batch.fChildren.descendingIterator();
+            while (children.hasNext()) {
+                fSeqNumberQueue.addFirst(children.next());
+            }
+            fIntervals = batch.fNodeIntervals.iterator();
+        }
+        boolean hasNext = fIntervals.hasNext();
+        if (!hasNext) {
+            try (FlowScopeLog noNext = new FlowScopeLogBuilder(LOGGER, Level.FINER,
+                    "HistoryTreeBackendParallelIterator:query2D:iteratorEnd").setParentScope(fParentLog).build()) { //$NON-NLS-1$
+            }
+        }
+        return hasNext;
+    }
+
+    @Override
+    public ITmfStateInterval next() {
+        return fIntervals.next();
+    }
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2016 École Polytechnique de Montréal
+ * Copyright (c) 2016, 2026 École Polytechnique de Montréal
  *
  * All rights reserved. This program and the accompanying materials are
  * made available under the terms of the Eclipse Public License 2.0 which
@@ -61,6 +61,46 @@ public final class HistoryTreeFactory {
      *             If an error happens reading the file
      */
     public static IHistoryTree createFromFile(Path existingStateFile, int expectedProviderVersion) throws IOException {
+        return createFromFile(existingStateFile, expectedProviderVersion, false);
+    }
+
+    /**
+     * "Reader" factory : instantiate a SHTree from an existing tree file on
+     * disk, optionally reading the nodes through a memory-mapped view of the
+     * file. Memory-mapping lets many threads read nodes in parallel.
+     *
+     * @param existingStateFile
+     *            Path/filename of the history-file we are to open
+     * @param expectedProviderVersion
+     *            The expected version of the state provider
+     * @param memoryMapped
+     *            Whether to memory-map the file to read the nodes
+     * @return The history tree
+     * @throws IOException
+     *             If an error happens reading the file
+     */
+    public static IHistoryTree createFromFile(Path existingStateFile, int expectedProviderVersion, boolean memoryMapped) throws IOException {
+        return createFromFile(existingStateFile, expectedProviderVersion, memoryMapped, false);
+    }
+
+    /**
+     * "Appender" factory : instantiate a SHTree from an existing, closed tree
+     * file on disk, to insert intervals which start after its end time. The
+     * tree must be closed again once the new intervals are inserted.
+     *
+     * @param existingStateFile
+     *            Path/filename of the history-file we are to open
+     * @param expectedProviderVersion
+     *            The expected version of the state provider
+     * @return The history tree
+     * @throws IOException
+     *             If an error happens reading the file
+     */
+    public static IHistoryTree openForAppend(Path existingStateFile, int expectedProviderVersion) throws IOException {
+        return createFromFile(existingStateFile, expectedProviderVersion, false, true);
+    }
+
+    private static IHistoryTree createFromFile(Path existingStateFile, int expectedProviderVersion, boolean memoryMapped, boolean append) throws IOException {
         /*
          * Check the file exists and has a positive length. These verifications
          * will also be done in the HT's constructor.
@@ -87,7 +127,7 @@ public final class HistoryTreeFactory {
         int magicNumber = buffer.getInt();
         switch (magicNumber) {
         case HistoryTreeClassic.HISTORY_FILE_MAGIC_NUMBER:
-            return new HistoryTreeClassic(existingStateFile.toFile(), expectedProviderVersion);
+            return new HistoryTreeClassic(existingStateFile.toFile(), expectedProviderVersion, memoryMapped, append);
         default:
             throw new IOException("Not a known history tree file"); //$NON-NLS-1$
         }
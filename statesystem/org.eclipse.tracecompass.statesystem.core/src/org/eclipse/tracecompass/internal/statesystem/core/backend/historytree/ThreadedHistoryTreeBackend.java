@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2012, 2025 Ericsson
+ * Copyright (c) 2012, 2026 Ericsson
  * Copyright (c) 2010, 2011 École Polytechnique de Montréal
  * Copyright (c) 2010, 2011 Alexandre Montplaisir <alexandre.montplaisir@gmail.com>
  *
@@ -18,6 +18,7 @@ package org.eclipse.tracecompass.internal.statesystem.core.backend.historytree;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.Collection;
 import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -28,6 +29,7 @@ import org.eclipse.tracecompass.common.core.log.TraceCompassLog;
 import org.eclipse.tracecompass.internal.provisional.datastore.core.condition.IntegerRangeCondition;
 import org.eclipse.tracecompass.internal.provisional.datastore.core.condition.TimeRangeCondition;
 import org.eclipse.tracecompass.internal.statesystem.core.Activator;
+import org.eclipse.tracecompass.statesystem.core.Query2DRequest;
 import org.eclipse.tracecompass.statesystem.core.exceptions.StateSystemDisposedException;
 import org.eclipse.tracecompass.statesystem.core.exceptions.TimeRangeException;
 import org.eclipse.tracecompass.statesystem.core.interval.ITmfStateInterval;
@@ -126,7 +128,40 @@ public final class ThreadedHistoryTreeBackend extends HistoryTreeBackend
             long startTime,
             int queueSize)
                     throws IOException {
-        super(ssid, newStateFile, providerVersion, startTime);
+        this(ssid, newStateFile, providerVersion, startTime, queueSize, false);
+    }
+
+    /**
+     * New State History constructor, with default values for blockSize and
+     * maxChildren, choosing whether the nodes are compressed in the file.
+     *
+     * @param ssid
+     *            The state system's id
+     * @param newStateFile
+     *            The name of the history file that will be created. Should end
+     *            in ".ht"
+     * @param providerVersion
+     *            Version of of the state provider. We will only try to reopen
+     *            existing files if this version matches the one in the
+     *            framework.
+     * @param startTime
+     *            The earliest timestamp stored in the history
+     * @param queueSize
+     *            The size of the interval insertion queue. 2000 - 10000 usually
+     *            works well
+     * @param compressed
+     *            Whether to compress the nodes in the history file
+     * @throws IOException
+     *             If there was a problem opening the history file for writing
+     */
+    public ThreadedHistoryTreeBackend(@NonNull String ssid,
+            File newStateFile,
+            int providerVersion,
+            long startTime,
+            int queueSize,
+            boolean compressed)
+                    throws IOException {
+        super(ssid, newStateFile, providerVersion, startTime, compressed);
         fEndTime = startTime;
 
         intervalQueue = new BufferedBlockingQueue<>(queueSize / CHUNK_SIZE, CHUNK_SIZE);
@@ -134,13 +169,41 @@ public final class ThreadedHistoryTreeBackend extends HistoryTreeBackend
         shtThread.start();
     }
 
-    /*
-     * The Threaded version does not specify an "existing file" constructor,
-     * since the history is already built (and we only use the other thread
-     * during building). Just use a plain HistoryTreeProvider in this case.
+    /**
+     * Existing state history constructor, to append new intervals to a closed
+     * history file. The new intervals must start after the end time of the
+     * existing history.
      *
-     * TODO but what about streaming??
+     * Otherwise, the Threaded version does not specify an "existing file"
+     * constructor, since the history is already built (and we only use the
+     * other thread during building). Just use a plain HistoryTreeProvider in
+     * this case.
+     *
+     * @param ssid
+     *            The state system's id
+     * @param existingStateFile
+     *            The history file to append to
+     * @param providerVersion
+     *            Expected version of of the state provider.
+     * @param queueSize
+     *            The size of the interval insertion queue. 2000 - 10000 usually
+     *            works well
+     * @throws IOException
+     *             If there was a problem opening the history file for writing,
+     *             or if its provider version does not match
      */
+    public ThreadedHistoryTreeBackend(@NonNull String ssid,
+            @NonNull File existingStateFile,
+            int providerVersion,
+            int queueSize)
+                    throws IOException {
+        super(ssid, HistoryTreeFactory.openForAppend(existingStateFile.toPath(), providerVersion));
+        fEndTime = getSHT().getTreeEnd();
+
+        intervalQueue = new BufferedBlockingQueue<>(queueSize / CHUNK_SIZE, CHUNK_SIZE);
+        shtThread = new Thread(this, "History Tree Thread"); //$NON-NLS-1$
+        shtThread.start();
+    }
 
     @Override
     public void insertPastState(long stateStartTime, long stateEndTime,
@@ -314,4 +377,26 @@ public final class ThreadedHistoryTreeBackend extends HistoryTreeBackend
             return Iterables.concat(super.query2D(quarks, times, reverse), queuedIntervals);
         }
     }
+
+    @Override
+    public void batchQuery2D(Collection<@NonNull Query2DRequest> requests) throws StateSystemDisposedException {
+        super.batchQuery2D(requests);
+        if (isFinishedBuilding()) {
+            return;
+        }
+        /*
+         * There can still be intervals in the queue, dispatch them to the
+         * requests in a single pass over the queue.
+         */
+        for (HTInterval interval : intervalQueue) {
+            for (Query2DRequest request : requests) {
+                IntegerRangeCondition quarks = request.getQuarkCondition();
+                TimeRangeCondition times = request.getTimeCondition();
+                if (quarks != null && times != null && quarks.test(interval.getAttribute())
+                        && times.intersects(interval.getStartTime(), interval.getEndTime())) {
+                    request.getConsumer().accept(interval);
+                }
+            }
+        }
+    }
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2010, 2019 Ericsson, École Polytechnique de Montréal, and others
+ * Copyright (c) 2010, 2026 Ericsson, École Polytechnique de Montréal, and others
  *
  * All rights reserved. This program and the accompanying materials are
  * made available under the terms of the Eclipse Public License 2.0 which
@@ -29,6 +29,7 @@ import java.util.Deque;
 import java.util.List;
 
 import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.tracecompass.internal.statesystem.core.backend.historytree.HTConfig;
 import org.eclipse.tracecompass.internal.statesystem.core.backend.historytree.HTInterval;
 import org.eclipse.tracecompass.internal.statesystem.core.backend.historytree.HTNode;
@@ -58,6 +59,13 @@ public class HistoryTreeClassic implements IHistoryTree {
     /** File format version. Increment when breaking compatibility. */
     private static final int FILE_VERSION = 11;
 
+    /**
+     * File format version of the histories whose nodes are compressed. The
+     * header is followed by the position of the node index and the number of
+     * dead bytes in the node section.
+     */
+    private static final int COMPRESSED_FILE_VERSION = 12;
+
     private static final IHTNodeFactory CLASSIC_NODE_FACTORY = new IHTNodeFactory() {
 
         @Override
@@ -92,6 +100,15 @@ public class HistoryTreeClassic implements IHistoryTree {
     /** The total number of nodes that exists in this tree */
     private int fNodeCount;
 
+    /** Number of nodes in the file when it was opened, before any append */
+    private final int fNodeCountOnOpen;
+
+    /**
+     * Root node of an existing tree opened in append mode, which is written
+     * again with its new parent when the tree is closed
+     */
+    private @Nullable HTNode fReparentedRoot = null;
+
     /** "Cache" to keep the active nodes in memory */
     private final @NonNull List<@NonNull HTNode> fLatestBranch;
 
@@ -121,6 +138,7 @@ public class HistoryTreeClassic implements IHistoryTree {
         fConfig = conf;
         fTreeEnd = conf.getTreeStart();
         fNodeCount = 0;
+        fNodeCountOnOpen = 0;
         fLatestBranch = Collections.synchronizedList(new ArrayList<>());
 
         /* Prepare the IO object */
@@ -143,6 +161,50 @@ public class HistoryTreeClassic implements IHistoryTree {
      *             If an error happens reading the file
      */
     public HistoryTreeClassic(File existingStateFile, int expProviderVersion) throws IOException {
+        this(existingStateFile, expProviderVersion, false);
+    }
+
+    /**
+     * "Reader" constructor : instantiate a SHTree from an existing tree file on
+     * disk, optionally reading its nodes through a memory-mapped view of the
+     * file.
+     *
+     * @param existingStateFile
+     *            Path/filename of the history-file we are to open
+     * @param expProviderVersion
+     *            The expected version of the state provider
+     * @param memoryMapped
+     *            Whether to memory-map the file to read the nodes
+     * @throws IOException
+     *             If an error happens reading the file
+     */
+    public HistoryTreeClassic(File existingStateFile, int expProviderVersion, boolean memoryMapped) throws IOException {
+        this(existingStateFile, expProviderVersion, memoryMapped, false);
+    }
+
+    /**
+     * "Reader" constructor : instantiate a SHTree from an existing tree file on
+     * disk, optionally to append new intervals to it.
+     *
+     * In append mode, the closed tree is put under a new root node, next to a
+     * new branch which starts right after the end of the existing tree. New
+     * intervals can then be inserted in that branch, as long as they start
+     * after the end of the existing tree, and the tree must be closed again
+     * with {@link #closeTree(long)}.
+     *
+     * @param existingStateFile
+     *            Path/filename of the history-file we are to open
+     * @param expProviderVersion
+     *            The expected version of the state provider
+     * @param memoryMapped
+     *            Whether to memory-map the file to read the nodes, ignored in
+     *            append mode
+     * @param append
+     *            Whether to open the tree to append new intervals to it
+     * @throws IOException
+     *             If an error happens reading the file
+     */
+    public HistoryTreeClassic(File existingStateFile, int expProviderVersion, boolean memoryMapped, boolean append) throws IOException {
         /*
          * Open the file ourselves, get the tree header information we need,
          * then pass on the descriptor to the TreeIO object.
@@ -152,6 +214,9 @@ public class HistoryTreeClassic implements IHistoryTree {
         int bs;
         int maxc;
         long startTime;
+        boolean compressed;
+        long nodeIndexPosition = -1;
+        long deadBytes = 0;
 
         /* Java I/O mumbo jumbo... */
         if (!existingStateFile.exists()) {
@@ -185,9 +250,10 @@ public class HistoryTreeClassic implements IHistoryTree {
             }
 
             res = buffer.getInt(); /* File format version number */
-            if (res != FILE_VERSION) {
+            if (res != FILE_VERSION && res != COMPRESSED_FILE_VERSION) {
                 throw new IOException("Mismatching History Tree file format versions"); //$NON-NLS-1$
             }
+            compressed = (res == COMPRESSED_FILE_VERSION);
 
             res = buffer.getInt(); /* Event handler's version number */
             if (res != expProviderVersion &&
@@ -206,10 +272,15 @@ public class HistoryTreeClassic implements IHistoryTree {
             maxc = buffer.getInt(); /* Max nb of children per node */
 
             fNodeCount = buffer.getInt();
+            fNodeCountOnOpen = fNodeCount;
             rootNodeSeqNb = buffer.getInt();
             startTime = buffer.getLong();
+            if (compressed) {
+                nodeIndexPosition = buffer.getLong();
+                deadBytes = buffer.getLong();
+            }
 
-            fConfig = new HTConfig(existingStateFile, bs, maxc, expProviderVersion, startTime);
+            fConfig = new HTConfig(existingStateFile, bs, maxc, expProviderVersion, startTime, memoryMapped, compressed);
         }
 
         /*
@@ -217,7 +288,10 @@ public class HistoryTreeClassic implements IHistoryTree {
          * file, not extremely elegant. But how to pass the information here to
          * the SHT otherwise?
          */
-        fTreeIO = new HT_IO(fConfig, false, CLASSIC_NODE_FACTORY);
+        fTreeIO = new HT_IO(fConfig, false, append, CLASSIC_NODE_FACTORY);
+        if (compressed) {
+            fTreeIO.readNodeIndex(nodeIndexPosition, fNodeCount, deadBytes);
+        }
 
         fLatestBranch = buildLatestBranch(rootNodeSeqNb);
         fTreeEnd = getRootNode().getNodeEnd();
@@ -230,6 +304,13 @@ public class HistoryTreeClassic implements IHistoryTree {
             throw new IOException("Inconsistent start times in the" + //$NON-NLS-1$
                     "history file, it might be corrupted."); //$NON-NLS-1$
         }
+
+        if (append) {
+            synchronized (fLatestBranch) {
+                /* The latest branch was closed with the tree, it stays as is */
+                addNewRootNode(fTreeEnd + 1, false);
+            }
+        }
     }
 
     /**
@@ -271,8 +352,16 @@ public class HistoryTreeClassic implements IHistoryTree {
             fTreeEnd = requestedEndTime;
 
             closeBranch(0, requestedEndTime);
+            HTNode reparentedRoot = fReparentedRoot;
+            if (reparentedRoot != null) {
+                fTreeIO.writeNode(reparentedRoot);
+                fReparentedRoot = null;
+            }
 
             try (FileChannel fc = fTreeIO.getFcOut()) {
+                /* Compressed nodes are located through an index after them */
+                long nodeIndexPosition = fConfig.isCompressed() ? fTreeIO.writeNodeIndex(fNodeCount) : -1;
+
                 ByteBuffer buffer = ByteBuffer.allocate(TREE_HEADER_SIZE);
                 buffer.order(ByteOrder.LITTLE_ENDIAN);
                 buffer.clear();
@@ -282,7 +371,7 @@ public class HistoryTreeClassic implements IHistoryTree {
 
                 buffer.putInt(HISTORY_FILE_MAGIC_NUMBER);
 
-                buffer.putInt(FILE_VERSION);
+                buffer.putInt(fConfig.isCompressed() ? COMPRESSED_FILE_VERSION : FILE_VERSION);
                 buffer.putInt(fConfig.getProviderVersion());
 
                 buffer.putInt(fConfig.getBlockSize());
@@ -296,6 +385,11 @@ public class HistoryTreeClassic implements IHistoryTree {
                 /* start time of this history */
                 buffer.putLong(fLatestBranch.get(0).getNodeStart());
 
+                if (fConfig.isCompressed()) {
+                    buffer.putLong(nodeIndexPosition);
+                    buffer.putLong(fTreeIO.getDeadBytes());
+                }
+
                 buffer.flip();
                 int res = fc.write(buffer);
 
@@ -303,6 +397,15 @@ public class HistoryTreeClassic implements IHistoryTree {
                     throw new IOException("Tree header size = " + TREE_HEADER_SIZE + " but wrote " + res); //$NON-NLS-1$ //$NON-NLS-2$
                 }
 
+                /*
+                 * The attribute tree is written at the end of the file, drop
+                 * what an appended tree may have left after its nodes.
+                 */
+                long nodeSectionEnd = fTreeIO.getNodeSectionEnd(fNodeCount);
+                if (fc.size() > nodeSectionEnd) {
+                    fc.truncate(nodeSectionEnd);
+                }
+
                 /* done writing the file header */
 
             } catch (IOException e) {
@@ -386,7 +489,8 @@ public class HistoryTreeClassic implements IHistoryTree {
 
     @Override
     public FileInputStream supplyATReader() {
-        return fTreeIO.supplyATReader(getNodeCount());
+        /* Nodes appended since the file was opened are not written yet */
+        return fTreeIO.supplyATReader(fNodeCountOnOpen);
     }
 
     @Override
@@ -396,8 +500,7 @@ public class HistoryTreeClassic implements IHistoryTree {
 
     @Override
     public long supplyATWriterFilePos() {
-        return IHistoryTree.TREE_HEADER_SIZE
-                + ((long) getNodeCount() * fConfig.getBlockSize());
+        return fTreeIO.getNodeSectionEnd(getNodeCount());
     }
 
     @Override
@@ -583,6 +686,15 @@ public class HistoryTreeClassic implements IHistoryTree {
      * latestBranch
      */
     private void addNewRootNode(long newNodeStartTime) {
+        addNewRootNode(newNodeStartTime, true);
+    }
+
+    /**
+     * Add a new root node, optionally closing the current latest branch. When
+     * the branch is already closed and written, only the old root node is
+     * written again, with its new parent.
+     */
+    private void addNewRootNode(long newNodeStartTime, boolean closeBranch) {
         final long splitTime = fTreeEnd;
 
         HTNode oldRootNode = fLatestBranch.get(0);
@@ -591,8 +703,16 @@ public class HistoryTreeClassic implements IHistoryTree {
         /* Tell the old root node that it isn't root anymore */
         oldRootNode.setParentSequenceNumber(newRootNode.getSequenceNumber());
 
-        /* Close off the whole current latestBranch */
-        closeBranch(0, splitTime);
+        if (closeBranch) {
+            /* Close off the whole current latestBranch */
+            closeBranch(0, splitTime);
+        } else {
+            /*
+             * Writing the old root now could overwrite the attribute tree
+             * which follows the nodes, and which is not read yet.
+             */
+            fReparentedRoot = oldRootNode;
+        }
 
         /* Link the new root to its first child (the previous root node) */
         newRootNode.linkNewChild(oldRootNode);
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2012, 2016 Ericsson and others.
+ * Copyright (c) 2012, 2026 Ericsson and others.
  *
  * All rights reserved. This program and the accompanying materials are
  * made available under the terms of the Eclipse Public License 2.0 which
@@ -540,4 +540,35 @@ public interface ITmfStateSystem {
      */
     Iterable<@NonNull ITmfStateInterval> query2D(@NonNull Collection<Integer> quarks,
             long start, long end) throws StateSystemDisposedException, IndexOutOfBoundsException, TimeRangeException;
+
+    /**
+     * Batched multiple attribute and multiple time query. Runs all the
+     * requests together and streams the intervals of each request to its
+     * consumer, with no guaranteed order. Backends which support it read each
+     * of their nodes only once for the whole batch, which is much cheaper than
+     * running the queries one after the other when the requests overlap, as
+     * is the case when a view queries many attributes at once. There may be
+     * duplicates during State System construction.
+     *
+     * @param requests
+     *            The requests to run
+     * @throws StateSystemDisposedException
+     *             If the query is sent after the state system has been disposed
+     * @throws IndexOutOfBoundsException
+     *             If the smallest attribute of a request is {@literal <} 0 or
+     *             if the largest is {@literal >=} to the number of attributes.
+     * @throws TimeRangeException
+     *             If the smallest time of a request is before the state system
+     *             start time.
+     * @since 5.4
+     */
+    default void batchQuery2D(@NonNull Collection<@NonNull Query2DRequest> requests)
+            throws StateSystemDisposedException, IndexOutOfBoundsException, TimeRangeException {
+        for (Query2DRequest request : requests) {
+            Collection<Long> times = request.getTimes();
+            Iterable<@NonNull ITmfStateInterval> intervals = (times != null) ? query2D(request.getQuarks(), times) :
+                query2D(request.getQuarks(), request.getStart(), request.getEnd());
+            intervals.forEach(request.getConsumer());
+        }
+    }
 }
\ No newline at end of file
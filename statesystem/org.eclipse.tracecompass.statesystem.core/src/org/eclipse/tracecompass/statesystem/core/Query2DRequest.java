@@ -0,0 +1,154 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson and others
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+
+package org.eclipse.tracecompass.statesystem.core;
+
+import java.util.Collection;
+import java.util.function.Consumer;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.internal.provisional.datastore.core.condition.IntegerRangeCondition;
+import org.eclipse.tracecompass.internal.provisional.datastore.core.condition.TimeRangeCondition;
+import org.eclipse.tracecompass.statesystem.core.interval.ITmfStateInterval;
+
+/**
+ * One request of a batched 2D query, see
+ * {@link ITmfStateSystem#batchQuery2D(Collection)}. It holds the quarks and
+ * times to query, and the consumer to which the matching intervals are
+ * streamed.
+ *
+ * @since 5.4
+ */
+@NonNullByDefault
+public final class Query2DRequest {
+
+    private final Collection<Integer> fQuarks;
+    private final @Nullable Collection<Long> fTimes;
+    private final long fStart;
+    private final long fEnd;
+    private final Consumer<ITmfStateInterval> fConsumer;
+
+    private final @Nullable IntegerRangeCondition fQuarkCondition;
+    private final @Nullable TimeRangeCondition fTimeCondition;
+
+    /**
+     * Constructor for a request on discrete timestamps
+     *
+     * @param quarks
+     *            The quarks for which we want information
+     * @param times
+     *            The distinct timestamps at which we want the states
+     * @param consumer
+     *            The consumer of the intervals of this request
+     */
+    public Query2DRequest(Collection<Integer> quarks, Collection<Long> times, Consumer<ITmfStateInterval> consumer) {
+        fQuarks = quarks;
+        fTimes = times;
+        fStart = times.isEmpty() ? 0 : times.stream().mapToLong(Long::longValue).min().getAsLong();
+        fEnd = times.isEmpty() ? 0 : times.stream().mapToLong(Long::longValue).max().getAsLong();
+        fConsumer = consumer;
+        fQuarkCondition = quarks.isEmpty() ? null : IntegerRangeCondition.forDiscreteRange(quarks);
+        fTimeCondition = times.isEmpty() ? null : TimeRangeCondition.forDiscreteRange(times);
+    }
+
+    /**
+     * Constructor for a request on a time range
+     *
+     * @param quarks
+     *            The quarks for which we want information
+     * @param start
+     *            The lower bound of the time range
+     * @param end
+     *            The upper bound of the time range, it is fine for it to be
+     *            smaller than the start
+     * @param consumer
+     *            The consumer of the intervals of this request
+     */
+    public Query2DRequest(Collection<Integer> quarks, long start, long end, Consumer<ITmfStateInterval> consumer) {
+        fQuarks = quarks;
+        fTimes = null;
+        fStart = Math.min(start, end);
+        fEnd = Math.max(start, end);
+        fConsumer = consumer;
+        fQuarkCondition = quarks.isEmpty() ? null : IntegerRangeCondition.forDiscreteRange(quarks);
+        fTimeCondition = TimeRangeCondition.forContinuousRange(fStart, fEnd);
+    }
+
+    /**
+     * Get the quarks of this request
+     *
+     * @return The quarks for which we want information
+     */
+    public Collection<Integer> getQuarks() {
+        return fQuarks;
+    }
+
+    /**
+     * Get the discrete timestamps of this request
+     *
+     * @return The timestamps at which we want the states, or null if this
+     *         request is on a time range
+     */
+    public @Nullable Collection<Long> getTimes() {
+        return fTimes;
+    }
+
+    /**
+     * Get the lower bound of the times of this request
+     *
+     * @return The smallest queried time
+     */
+    public long getStart() {
+        return fStart;
+    }
+
+    /**
+     * Get the upper bound of the times of this request
+     *
+     * @return The largest queried time
+     */
+    public long getEnd() {
+        return fEnd;
+    }
+
+    /**
+     * Get the consumer of the intervals of this request
+     *
+     * @return The consumer
+     */
+    public Consumer<ITmfStateInterval> getConsumer() {
+        return fConsumer;
+    }
+
+    /**
+     * Get the condition on the quarks of this request, for the backends
+     *
+     * @return The quark condition, or null if there are no quarks to query
+     */
+    public @Nullable IntegerRangeCondition getQuarkCondition() {
+        return fQuarkCondition;
+    }
+
+    /**
+     * Get the condition on the times of this request, for the backends
+     *
+     * @return The time condition, or null if there are no times to query
+     */
+    public @Nullable TimeRangeCondition getTimeCondition() {
+        return fTimeCondition;
+    }
+
+    @Override
+    public String toString() {
+        return "Query2DRequest [quarks=" + fQuarkCondition + ", times=" + fTimeCondition + ']'; //$NON-NLS-1$ //$NON-NLS-2$
+    }
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2014 Ericsson
+ * Copyright (c) 2014, 2026 Ericsson
  *
  * All rights reserved. This program and the accompanying materials are
  * made available under the terms of the Eclipse Public License 2.0 which
@@ -15,10 +15,13 @@
 package org.eclipse.tracecompass.statesystem.core;
 
 import java.io.IOException;
+import java.util.Collection;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.tracecompass.internal.statesystem.core.FederatedStateSystem;
 import org.eclipse.tracecompass.internal.statesystem.core.StateSystem;
 import org.eclipse.tracecompass.statesystem.core.backend.IStateHistoryBackend;
+import org.eclipse.tracecompass.statesystem.core.backend.StateHistoryBackendFactory;
 
 /**
  * Factory to create state systems.
@@ -66,4 +69,44 @@ public final class StateSystemFactory {
         return new StateSystem(backend, newFile);
     }
 
+    /**
+     * Resume factory method. For when you continue building an existing,
+     * closed history whose back-end was opened to append to it, for example
+     * with
+     * {@link StateHistoryBackendFactory#createHistoryTreeBackendAppendFile}.
+     * The states at the end of the existing history are the initial ongoing
+     * states, and the new state changes must happen after its end time.
+     *
+     * @param backend
+     *            The back-end, opened to append to an existing history
+     * @return The state system, which must be closed with
+     *         {@link ITmfStateSystemBuilder#closeHistory(long)}
+     * @throws IOException
+     *             If there was a problem reading the existing history
+     * @since 5.4
+     */
+    public static ITmfStateSystemBuilder resumeStateSystem(IStateHistoryBackend backend) throws IOException {
+        return StateSystem.resume(backend);
+    }
+
+    /**
+     * Create a read-only state system which exposes several state systems as a
+     * single one, for instance the shards of a model built in parallel. The
+     * attribute trees of the shards are merged by path, and an attribute that
+     * appears in several shards takes its states from the first one.
+     *
+     * Queries at a time outside of the range of a shard return null states for
+     * its attributes.
+     *
+     * @param ssid
+     *            The ID of the state system
+     * @param shards
+     *            The state systems to expose, which may still be building
+     * @return The federated state system
+     * @since 5.4
+     */
+    public static ITmfStateSystem newFederatedStateSystem(String ssid, Collection<ITmfStateSystem> shards) {
+        return new FederatedStateSystem(ssid, shards);
+    }
+
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2012, 2014 Ericsson
+ * Copyright (c) 2012, 2026 Ericsson
  * Copyright (c) 2010, 2011 École Polytechnique de Montréal
  * Copyright (c) 2010, 2011 Alexandre Montplaisir <alexandre.montplaisir@gmail.com>
  *
@@ -16,12 +16,14 @@ package org.eclipse.tracecompass.statesystem.core.backend;
 
 import java.io.File;
 import java.io.FileInputStream;
+import java.util.Collection;
 import java.util.List;
 
 import org.eclipse.jdt.annotation.NonNull;
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.tracecompass.internal.provisional.datastore.core.condition.IntegerRangeCondition;
 import org.eclipse.tracecompass.internal.provisional.datastore.core.condition.TimeRangeCondition;
+import org.eclipse.tracecompass.statesystem.core.Query2DRequest;
 import org.eclipse.tracecompass.statesystem.core.exceptions.StateSystemDisposedException;
 import org.eclipse.tracecompass.statesystem.core.exceptions.TimeRangeException;
 import org.eclipse.tracecompass.statesystem.core.interval.ITmfStateInterval;
@@ -292,6 +294,33 @@ public interface IStateHistoryBackend {
         return query2D(quarkCondition, timeCondition);
     }
 
+    /**
+     * Batched 2D query method. Streams the intervals that match the conditions
+     * of each request to the consumer of that request, with no guaranteed
+     * order. Requests without quark or time conditions are ignored.
+     *
+     * The default implementation runs the requests one after the other,
+     * backends should override it if they can share work between requests.
+     *
+     * @param requests
+     *            The requests to run
+     * @throws TimeRangeException
+     *             if the time bounds are outside the range of the HistoryTree
+     * @throws StateSystemDisposedException
+     *             If the backend was disposed during the query
+     * @since 5.4
+     */
+    default void batchQuery2D(Collection<@NonNull Query2DRequest> requests)
+            throws TimeRangeException, StateSystemDisposedException {
+        for (Query2DRequest request : requests) {
+            IntegerRangeCondition quarkCondition = request.getQuarkCondition();
+            TimeRangeCondition timeCondition = request.getTimeCondition();
+            if (quarkCondition != null && timeCondition != null) {
+                query2D(quarkCondition, timeCondition).forEach(request.getConsumer());
+            }
+        }
+    }
+
     /**
      * Defines whether backend is able to insert states before existing states.
      *
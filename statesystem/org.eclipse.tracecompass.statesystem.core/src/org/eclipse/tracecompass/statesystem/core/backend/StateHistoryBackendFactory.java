@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2015 EfficiOS Inc., Alexandre Montplaisir
+ * Copyright (c) 2015, 2026 EfficiOS Inc., Alexandre Montplaisir
  *
  * All rights reserved. This program and the accompanying materials are
  * made available under the terms of the Eclipse Public License 2.0 which
@@ -18,6 +18,7 @@ import java.io.File;
 import java.io.IOException;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.tracecompass.internal.statesystem.core.backend.ColumnarInMemoryBackend;
 import org.eclipse.tracecompass.internal.statesystem.core.backend.InMemoryBackend;
 import org.eclipse.tracecompass.internal.statesystem.core.backend.NullBackend;
 import org.eclipse.tracecompass.internal.statesystem.core.backend.historytree.HistoryTreeBackend;
@@ -61,12 +62,31 @@ public final class StateHistoryBackendFactory {
         return new InMemoryBackend(ssid, startTime);
     }
 
+    /**
+     * Create a new columnar in-memory backend. Like the
+     * {@link #createInMemoryBackend in-memory backend}, it stores all the
+     * history intervals in memory, but in primitive columns, which takes a
+     * fraction of the memory of one object per interval.
+     *
+     * @param ssid
+     *            The ID for this state system
+     * @param startTime
+     *            The start time of the state system and backend
+     * @return The state system backend
+     * @since 5.4
+     */
+    public static IStateHistoryBackend createColumnarInMemoryBackend(String ssid, long startTime) {
+        return new ColumnarInMemoryBackend(ssid, startTime);
+    }
+
     /**
      * Create a new backend using a History Tree. This backend stores all its
      * intervals on disk.
      *
      * By specifying a 'queueSize' parameter, the implementation that runs in a
-     * separate thread can be used.
+     * separate thread can be used. The nodes are compressed in the file if the
+     * org.eclipse.tracecompass.statesystem.historytree.compressed system
+     * property is set.
      *
      * @param ssid
      *            The state system's id
@@ -90,10 +110,44 @@ public final class StateHistoryBackendFactory {
      */
     public static IStateHistoryBackend createHistoryTreeBackendNewFile(String ssid,
             File stateFile, int providerVersion, long startTime, int queueSize) throws IOException {
+        boolean compressed = Boolean.getBoolean(HistoryTreeBackend.COMPRESSION_PROPERTY);
+        if (queueSize > 0) {
+            return new ThreadedHistoryTreeBackend(ssid, stateFile, providerVersion, startTime, queueSize, compressed);
+        }
+        return new HistoryTreeBackend(ssid, stateFile, providerVersion, startTime, compressed);
+    }
+
+    /**
+     * Open the existing, closed History Tree file of a state history to
+     * continue building it, for example when its trace has grown since it was
+     * built. The new intervals must start after the end time of the existing
+     * history. Use
+     * {@link org.eclipse.tracecompass.statesystem.core.StateSystemFactory#resumeStateSystem}
+     * to create the state system.
+     *
+     * @param ssid
+     *            The state system's id
+     * @param stateFile
+     *            Filename/location of the history to append to
+     * @param providerVersion
+     *            Expected version of of the state provider plugin.
+     * @param queueSize
+     *            The size of the blocking queue to use when building the
+     *            history. If 0 is specified, no queue is used and the writes
+     *            happen in the same thread.
+     * @return The state system backend
+     * @throws IOException
+     *             If we can't read or write the file, if it doesn't exist, is
+     *             not recognized, or if the version of the file does not match
+     *             the expected providerVersion.
+     * @since 5.4
+     */
+    public static IStateHistoryBackend createHistoryTreeBackendAppendFile(String ssid, File stateFile,
+            int providerVersion, int queueSize) throws IOException {
         if (queueSize > 0) {
-            return new ThreadedHistoryTreeBackend(ssid, stateFile, providerVersion, startTime, queueSize);
+            return new ThreadedHistoryTreeBackend(ssid, stateFile, providerVersion, queueSize);
         }
-        return new HistoryTreeBackend(ssid, stateFile, providerVersion, startTime);
+        return HistoryTreeBackend.openForAppend(ssid, stateFile, providerVersion);
     }
 
     /**
@@ -117,4 +171,33 @@ public final class StateHistoryBackendFactory {
             int providerVersion) throws IOException {
         return new HistoryTreeBackend(ssid, stateFile, providerVersion);
     }
+
+    /**
+     * Create a new History Tree backend from an existing file on disk,
+     * choosing how the nodes are read. A memory-mapped history reads its nodes
+     * directly from a mapped view of the file, so concurrent queries do not
+     * serialize on the file. The mapping is only released when it is garbage
+     * collected after the backend is disposed, until then the file cannot be
+     * deleted on Windows. If the file cannot be found or recognized, an
+     * IOException will be thrown.
+     *
+     * @param ssid
+     *            The state system's id
+     * @param stateFile
+     *            Filename/location of the history we want to load
+     * @param providerVersion
+     *            Expected version of of the state provider plugin.
+     * @param memoryMapped
+     *            Whether to memory-map the history file for reading
+     * @return The state system backend
+     * @throws IOException
+     *             If we can't read the file, if it doesn't exist, is not
+     *             recognized, or if the version of the file does not match the
+     *             expected providerVersion.
+     * @since 5.4
+     */
+    public static IStateHistoryBackend createHistoryTreeBackendExistingFile(String ssid, File stateFile,
+            int providerVersion, boolean memoryMapped) throws IOException {
+        return new HistoryTreeBackend(ssid, stateFile, providerVersion, memoryMapped);
+    }
 }
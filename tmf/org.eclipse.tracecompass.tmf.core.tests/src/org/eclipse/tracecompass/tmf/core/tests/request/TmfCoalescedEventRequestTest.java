@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2009, 2017 Ericsson
+ * Copyright (c) 2009, 2026 Ericsson
  *
  * All rights reserved. This program and the accompanying materials are
  * made available under the terms of the Eclipse Public License 2.0 which
@@ -27,6 +27,7 @@ import org.eclipse.tracecompass.internal.tmf.core.component.TmfProviderManager;
 import org.eclipse.tracecompass.internal.tmf.core.request.TmfCoalescedEventRequest;
 import org.eclipse.tracecompass.tmf.core.component.ITmfEventProvider;
 import org.eclipse.tracecompass.tmf.core.event.ITmfEvent;
+import org.eclipse.tracecompass.tmf.core.event.ITmfLostEvent;
 import org.eclipse.tracecompass.tmf.core.exceptions.TmfTraceException;
 import org.eclipse.tracecompass.tmf.core.request.ITmfEventRequest.ExecutionType;
 import org.eclipse.tracecompass.tmf.core.request.TmfEventRequest;
@@ -37,6 +38,7 @@ import org.eclipse.tracecompass.tmf.core.tests.shared.TmfTestTrace;
 import org.eclipse.tracecompass.tmf.core.timestamp.ITmfTimestamp;
 import org.eclipse.tracecompass.tmf.core.timestamp.TmfTimeRange;
 import org.eclipse.tracecompass.tmf.core.timestamp.TmfTimestamp;
+import org.eclipse.tracecompass.tmf.core.trace.ITmfContext;
 import org.eclipse.tracecompass.tmf.tests.stubs.request.TmfEventRequestStub;
 import org.eclipse.tracecompass.tmf.tests.stubs.trace.TmfTraceStub;
 import org.junit.Before;
@@ -569,4 +571,75 @@ public class TmfCoalescedEventRequestTest {
         fTrace = null;
     }
 
+    @Test
+    public void testDispatchByDataType() throws TmfTraceException {
+        TmfTraceStub trace = new TmfTraceStub(TEST_TRACE.getFullPath(), 500, false, null);
+        TmfTraceStub otherTrace = new TmfTraceStub(TEST_TRACE.getFullPath(), 500, false, null);
+        try {
+            final int[] counts = new int[3];
+            TmfEventRequest allEvents = new TmfEventRequest(ITmfEvent.class, range1, 0, 100, ExecutionType.FOREGROUND) {
+                @Override
+                public void handleData(ITmfEvent event) {
+                    super.handleData(event);
+                    counts[0]++;
+                }
+            };
+            allEvents.setProviderFilter(trace);
+            TmfEventRequest lostEvents = new TmfEventRequest(ITmfLostEvent.class, range1, 0, 100, ExecutionType.FOREGROUND) {
+                @Override
+                public void handleData(ITmfEvent event) {
+                    super.handleData(event);
+                    counts[1]++;
+                }
+            };
+            lostEvents.setProviderFilter(trace);
+            TmfEventRequest otherEvents = new TmfEventRequest(ITmfEvent.class, range1, 0, 100, ExecutionType.FOREGROUND) {
+                @Override
+                public void handleData(ITmfEvent event) {
+                    super.handleData(event);
+                    counts[2]++;
+                }
+            };
+            otherEvents.setProviderFilter(otherTrace);
+
+            TmfCoalescedEventRequest request = new TmfCoalescedEventRequest(ITmfEvent.class, range1, 0, 100, ExecutionType.FOREGROUND, 0);
+            request.addRequest(allEvents);
+            request.addRequest(lostEvents);
+            request.addRequest(otherEvents);
+
+            ITmfContext context = trace.seekEvent(0);
+            for (int i = 0; i < 10; i++) {
+                ITmfEvent event = trace.getNext(context);
+                assertNotNull(event);
+                request.handleData(event);
+            }
+            context.dispose();
+
+            assertEquals("All events", 10, counts[0]);
+            assertEquals("Lost events", 0, counts[1]);
+            assertEquals("Other trace events", 0, counts[2]);
+            assertEquals("All events: nbRead", 10, allEvents.getNbRead());
+            assertEquals("Lost events: nbRead", 0, lostEvents.getNbRead());
+
+            // The other trace has the same name, its events go to its own request
+            assertEquals(trace.getName(), otherTrace.getName());
+            context = otherTrace.seekEvent(0);
+            for (int i = 0; i < 5; i++) {
+                ITmfEvent event = otherTrace.getNext(context);
+                assertNotNull(event);
+                request.handleData(event);
+            }
+            context.dispose();
+
+            assertEquals("All events", 10, counts[0]);
+            assertEquals("Lost events", 0, counts[1]);
+            assertEquals("Other trace events", 5, counts[2]);
+            assertEquals("All events: nbRead", 10, allEvents.getNbRead());
+            assertEquals("Other trace events: nbRead", 5, otherEvents.getNbRead());
+        } finally {
+            trace.dispose();
+            otherTrace.dispose();
+        }
+    }
+
 }
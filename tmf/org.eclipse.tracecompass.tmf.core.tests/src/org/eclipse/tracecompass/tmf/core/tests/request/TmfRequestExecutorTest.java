@@ -0,0 +1,150 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson and others
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.tmf.core.tests.request;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.tracecompass.internal.tmf.core.component.TmfEventThread;
+import org.eclipse.tracecompass.internal.tmf.core.request.TmfRequestExecutor;
+import org.eclipse.tracecompass.tmf.core.event.ITmfEvent;
+import org.eclipse.tracecompass.tmf.core.exceptions.TmfTraceException;
+import org.eclipse.tracecompass.tmf.core.request.ITmfEventRequest;
+import org.eclipse.tracecompass.tmf.core.request.ITmfEventRequest.ExecutionType;
+import org.eclipse.tracecompass.tmf.core.request.TmfEventRequest;
+import org.eclipse.tracecompass.tmf.core.signal.TmfSignalManager;
+import org.eclipse.tracecompass.tmf.core.tests.shared.TmfTestTrace;
+import org.eclipse.tracecompass.tmf.core.timestamp.TmfTimeRange;
+import org.eclipse.tracecompass.tmf.core.trace.ITmfTrace;
+import org.eclipse.tracecompass.tmf.tests.stubs.trace.TmfTraceStub;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestRule;
+import org.junit.rules.Timeout;
+
+/**
+ * Test the scheduling of the requests by {@link TmfRequestExecutor}
+ */
+public class TmfRequestExecutorTest {
+
+    /**
+     * The test should timeout after a few seconds, that would mean a request
+     * was never scheduled
+     */
+    @Rule
+    public TestRule globalTimeout = new Timeout(1, TimeUnit.MINUTES);
+
+    private TmfTraceStub fTrace;
+    private TmfRequestExecutor fExecutor;
+
+    /**
+     * Open the trace and start the executor
+     *
+     * @throws TmfTraceException
+     *             if the trace could not be opened
+     */
+    @Before
+    public void setUp() throws TmfTraceException {
+        fTrace = new TmfTraceStub(TmfTestTrace.A_TEST_10K.getFullPath(), ITmfTrace.DEFAULT_TRACE_CACHE_SIZE, false, null);
+        TmfSignalManager.deregister(fTrace);
+        fExecutor = new TmfRequestExecutor();
+        fExecutor.init();
+    }
+
+    /**
+     * Stop the executor and dispose the trace
+     */
+    @After
+    public void tearDown() {
+        fExecutor.stop();
+        fTrace.dispose();
+    }
+
+    /**
+     * Test that a foreground request preempts a running background request
+     * and completes before it
+     *
+     * @throws InterruptedException
+     *             if the test is interrupted
+     */
+    @Test
+    public void testForegroundPreemptsBackground() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        TmfEventRequest background = new TmfEventRequest(ITmfEvent.class, TmfTimeRange.ETERNITY, 0,
+                ITmfEventRequest.ALL_DATA, ExecutionType.BACKGROUND) {
+            @Override
+            public void handleData(ITmfEvent event) {
+                super.handleData(event);
+                started.countDown();
+                try {
+                    Thread.sleep(1);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        TmfEventRequest foreground = new TmfEventRequest(ITmfEvent.class, TmfTimeRange.ETERNITY, 0,
+                100, ExecutionType.FOREGROUND) {
+        };
+
+        fExecutor.execute(new TmfEventThread(fTrace, background));
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+        fExecutor.execute(new TmfEventThread(fTrace, foreground));
+        foreground.waitForCompletion();
+
+        assertEquals(100, foreground.getNbRead());
+        assertFalse(background.isCompleted());
+        assertEquals(1, fExecutor.getNbPreempted(ExecutionType.BACKGROUND));
+        /* The time slices may suspend and resume the foreground request */
+        assertTrue(fExecutor.getNbScheduled(ExecutionType.FOREGROUND) >= 1);
+        background.cancel();
+    }
+
+    /**
+     * Test that more requests than the old bounded queues could hold are all
+     * executed, and that the queue depth is measured
+     *
+     * @throws InterruptedException
+     *             if the test is interrupted
+     */
+    @Test
+    public void testManyRequests() throws InterruptedException {
+        List<TmfEventRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            ExecutionType type = (i % 3 == 0) ? ExecutionType.BACKGROUND : ExecutionType.FOREGROUND;
+            TmfEventRequest request = new TmfEventRequest(ITmfEvent.class, TmfTimeRange.ETERNITY, 0, 1000, type) {
+            };
+            requests.add(request);
+        }
+        for (TmfEventRequest request : requests) {
+            fExecutor.execute(new TmfEventThread(fTrace, request));
+        }
+        for (TmfEventRequest request : requests) {
+            request.waitForCompletion();
+            assertFalse(request.isCancelled());
+            assertEquals(1000, request.getNbRead());
+        }
+        assertTrue(fExecutor.getMaxQueueDepth(ExecutionType.FOREGROUND) > 10);
+        assertEquals(0, fExecutor.getQueueDepth(ExecutionType.FOREGROUND));
+        assertEquals(0, fExecutor.getQueueDepth(ExecutionType.BACKGROUND));
+        assertTrue(fExecutor.getNbScheduled(ExecutionType.BACKGROUND) >= 10);
+        assertTrue(fExecutor.getMaxWaitTime(ExecutionType.BACKGROUND) >= fExecutor.getAverageWaitTime(ExecutionType.BACKGROUND));
+    }
+}
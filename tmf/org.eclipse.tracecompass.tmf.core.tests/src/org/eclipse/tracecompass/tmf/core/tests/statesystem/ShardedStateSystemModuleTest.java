@@ -0,0 +1,168 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson and others
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.tmf.core.tests.statesystem;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.tracecompass.statesystem.core.ITmfStateSystem;
+import org.eclipse.tracecompass.statesystem.core.ITmfStateSystemBuilder;
+import org.eclipse.tracecompass.statesystem.core.exceptions.AttributeNotFoundException;
+import org.eclipse.tracecompass.statesystem.core.exceptions.StateSystemDisposedException;
+import org.eclipse.tracecompass.statesystem.core.interval.ITmfStateInterval;
+import org.eclipse.tracecompass.tmf.core.event.ITmfEvent;
+import org.eclipse.tracecompass.tmf.core.exceptions.TmfAnalysisException;
+import org.eclipse.tracecompass.tmf.core.statesystem.AbstractTmfStateProvider;
+import org.eclipse.tracecompass.tmf.core.statesystem.ITmfShardedStateProvider;
+import org.eclipse.tracecompass.tmf.core.statesystem.ITmfStateProvider;
+import org.eclipse.tracecompass.tmf.core.statesystem.TmfStateSystemAnalysisModule;
+import org.eclipse.tracecompass.tmf.core.tests.TmfCoreTestPlugin;
+import org.eclipse.tracecompass.tmf.core.trace.ITmfTrace;
+import org.eclipse.tracecompass.tmf.core.trace.TmfTraceManager;
+import org.eclipse.tracecompass.tmf.tests.stubs.trace.xml.TmfXmlTraceStubNs;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestRule;
+import org.junit.rules.Timeout;
+
+/**
+ * Test the full histories built in shards by the
+ * {@link TmfStateSystemAnalysisModule}, see {@link ITmfShardedStateProvider}
+ */
+public class ShardedStateSystemModuleTest {
+
+    /** Time-out tests after 1 minute. */
+    @Rule
+    public TestRule globalTimeout = new Timeout(1, TimeUnit.MINUTES);
+
+    private static final String MODULE_ID = "org.eclipse.tracecompass.tmf.core.tests.statesystem.sharded";
+    private static final String XML_TRACE = "testfiles/stub_xml_traces/valid/analysis_dependency.xml";
+    private static final String NOISE = "noise";
+    private static final String CRUCIAL = "crucialEvent";
+    private static final long END_TIME = 10;
+
+    /**
+     * The provider used for this test. The "noise" events go to the first
+     * shard, the last one being before the end of the trace, the
+     * "crucialEvent" events go to the second shard and the third shard gets no
+     * event. Each event sets the attribute of its name to its timestamp.
+     */
+    private static class ByNameShardedProvider extends AbstractTmfStateProvider implements ITmfShardedStateProvider {
+
+        public ByNameShardedProvider(ITmfTrace trace) {
+            super(trace, "Sharded State Provider");
+        }
+
+        @Override
+        public int getVersion() {
+            return 1;
+        }
+
+        @Override
+        public ITmfStateProvider getNewInstance() {
+            return new ByNameShardedProvider(getTrace());
+        }
+
+        @Override
+        public int getNbShards() {
+            return 3;
+        }
+
+        @Override
+        public int getShard(ITmfEvent event) {
+            switch (event.getName()) {
+            case NOISE:
+                return 0;
+            case CRUCIAL:
+                return 1;
+            default:
+                return -1;
+            }
+        }
+
+        @Override
+        protected void eventHandle(ITmfEvent event) {
+            ITmfStateSystemBuilder ss = getStateSystemBuilder();
+            assertNotNull(ss);
+            long time = event.getTimestamp().toNanos();
+            ss.modifyAttribute(time, time, ss.getQuarkAbsoluteAndAdd(event.getName()));
+        }
+    }
+
+    private static class ShardedModule extends TmfStateSystemAnalysisModule {
+        @Override
+        protected ITmfStateProvider createStateProvider() {
+            ITmfTrace trace = getTrace();
+            assertNotNull(trace);
+            return new ByNameShardedProvider(trace);
+        }
+    }
+
+    private ITmfTrace fTrace;
+    private ShardedModule fModule;
+
+    /**
+     * Setup the trace and the module
+     *
+     * @throws TmfAnalysisException
+     *             Should not happen
+     */
+    @Before
+    public void setUp() throws TmfAnalysisException {
+        fTrace = TmfXmlTraceStubNs.setupTrace(TmfCoreTestPlugin.getAbsoluteFilePath(XML_TRACE));
+        fModule = new ShardedModule();
+        fModule.setId(MODULE_ID);
+        fModule.setTrace(fTrace);
+    }
+
+    /**
+     * Dispose the module and the trace, and delete the history files
+     */
+    @After
+    public void tearDown() {
+        fModule.dispose();
+        TmfTraceManager.deleteSupplementaryFiles(fTrace);
+        fTrace.dispose();
+    }
+
+    /**
+     * Test that the shards all end at the end of the trace, even if their last
+     * event is earlier or they have no event, so that the federated state
+     * system can be queried at its end time
+     *
+     * @throws AttributeNotFoundException
+     *             Should not happen
+     * @throws StateSystemDisposedException
+     *             Should not happen
+     */
+    @Test
+    public void testQueryAtEnd() throws AttributeNotFoundException, StateSystemDisposedException {
+        fModule.schedule();
+        assertTrue(fModule.waitForCompletion());
+        ITmfStateSystem ss = fModule.getStateSystem();
+        assertNotNull(ss);
+        assertEquals(END_TIME, ss.getCurrentEndTime());
+
+        int noiseQuark = ss.getQuarkAbsolute(NOISE);
+        int crucialQuark = ss.getQuarkAbsolute(CRUCIAL);
+        List<ITmfStateInterval> states = ss.queryFullState(END_TIME);
+        assertEquals(7L, states.get(noiseQuark).getValue());
+        assertEquals(END_TIME, states.get(crucialQuark).getValue());
+        assertEquals(7L, ss.querySingleState(END_TIME, noiseQuark).getValue());
+    }
+}
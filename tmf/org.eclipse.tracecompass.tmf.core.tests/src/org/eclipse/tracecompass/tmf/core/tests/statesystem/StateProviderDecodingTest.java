@@ -0,0 +1,189 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson and others
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.tmf.core.tests.statesystem;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.util.List;
+
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.statesystem.core.ITmfStateSystemBuilder;
+import org.eclipse.tracecompass.statesystem.core.StateSystemFactory;
+import org.eclipse.tracecompass.statesystem.core.backend.StateHistoryBackendFactory;
+import org.eclipse.tracecompass.statesystem.core.exceptions.AttributeNotFoundException;
+import org.eclipse.tracecompass.statesystem.core.exceptions.StateSystemDisposedException;
+import org.eclipse.tracecompass.statesystem.core.interval.ITmfStateInterval;
+import org.eclipse.tracecompass.tmf.core.event.ITmfEvent;
+import org.eclipse.tracecompass.tmf.core.event.TmfEvent;
+import org.eclipse.tracecompass.tmf.core.statesystem.AbstractTmfStateProvider;
+import org.eclipse.tracecompass.tmf.core.statesystem.ITmfStateProvider;
+import org.eclipse.tracecompass.tmf.core.timestamp.TmfTimestamp;
+import org.eclipse.tracecompass.tmf.core.trace.ITmfTrace;
+import org.eclipse.tracecompass.tmf.tests.stubs.trace.TmfTraceStub;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test the state providers which decode their events before handling them, see
+ * {@link AbstractTmfStateProvider#decodeEvent(ITmfEvent)}
+ */
+public class StateProviderDecodingTest {
+
+    private static final int NB_EVENTS = 1000;
+    private static final long FAILING_TIME = NB_EVENTS + 500;
+
+    private @Nullable ITmfTrace fTrace;
+    private @Nullable ITmfStateSystemBuilder fStateSystem;
+
+    /**
+     * The provider used for this test. It decodes an event to twice its
+     * timestamp and saves the decoded value and the number of events handled
+     * so far, which must match if the events are handled in order.
+     */
+    private static class DecodingStateProvider extends AbstractTmfStateProvider {
+
+        private int fNbHandled = 0;
+
+        public DecodingStateProvider(ITmfTrace trace) {
+            /* Small chunks, so that many of them are decoded at once */
+            super(trace, "Decoding State Provider", 4, 3, true);
+        }
+
+        @Override
+        public int getVersion() {
+            return 1;
+        }
+
+        @Override
+        public ITmfStateProvider getNewInstance() {
+            return new DecodingStateProvider(getTrace());
+        }
+
+        @Override
+        protected @Nullable Object decodeEvent(ITmfEvent event) {
+            long time = event.getTimestamp().toNanos();
+            if (time == FAILING_TIME) {
+                throw new IllegalStateException("Cannot decode event");
+            }
+            return time * 2;
+        }
+
+        @Override
+        protected void eventHandle(ITmfEvent event) {
+            throw new IllegalStateException("The decoded data should be handled");
+        }
+
+        @Override
+        protected void eventHandle(ITmfEvent event, @Nullable Object decoded) {
+            ITmfStateSystemBuilder ss = getStateSystemBuilder();
+            assertNotNull(ss);
+            long time = event.getTimestamp().toNanos();
+            ss.modifyAttribute(time, decoded, ss.getQuarkAbsoluteAndAdd("decoded"));
+            ss.modifyAttribute(time, fNbHandled++, ss.getQuarkAbsoluteAndAdd("handled"));
+        }
+    }
+
+    /**
+     * Create the trace and the state system
+     */
+    @Before
+    public void setUp() {
+        fTrace = new TmfTraceStub();
+        fStateSystem = StateSystemFactory.newStateSystem(StateHistoryBackendFactory.createInMemoryBackend("test", 0));
+    }
+
+    /**
+     * Dispose the trace and the state system
+     */
+    @After
+    public void tearDown() {
+        ITmfTrace trace = fTrace;
+        if (trace != null) {
+            trace.dispose();
+        }
+        ITmfStateSystemBuilder ss = fStateSystem;
+        if (ss != null) {
+            ss.dispose();
+        }
+    }
+
+    private static void sendEvents(ITmfTrace trace, AbstractTmfStateProvider provider, long start, long end) {
+        for (long time = start; time < end; time++) {
+            provider.processEvent(new TmfEvent(trace, time, TmfTimestamp.fromNanos(time), null, null));
+        }
+    }
+
+    /**
+     * Test that the events are handled in order, with their decoded data, and
+     * that waiting for an empty queue waits for the decoded events to be
+     * handled
+     *
+     * @throws AttributeNotFoundException
+     *             Should not happen
+     * @throws StateSystemDisposedException
+     *             Should not happen
+     */
+    @Test
+    public void testDecodedInOrder() throws AttributeNotFoundException, StateSystemDisposedException {
+        ITmfTrace trace = fTrace;
+        ITmfStateSystemBuilder ss = fStateSystem;
+        assertNotNull(trace);
+        assertNotNull(ss);
+        DecodingStateProvider provider = new DecodingStateProvider(trace);
+        provider.assignTargetStateSystem(ss);
+
+        sendEvents(trace, provider, 1, 101);
+        provider.waitForEmptyQueue();
+        assertEquals(100, provider.fNbHandled);
+
+        sendEvents(trace, provider, 101, NB_EVENTS);
+        provider.dispose();
+        assertNull(provider.getFailureCause());
+        assertEquals(NB_EVENTS - 1, provider.fNbHandled);
+
+        int decodedQuark = ss.getQuarkAbsolute("decoded");
+        int handledQuark = ss.getQuarkAbsolute("handled");
+        for (long time = 1; time < NB_EVENTS; time += 7) {
+            List<ITmfStateInterval> states = ss.queryFullState(time);
+            assertEquals(time * 2, states.get(decodedQuark).getValue());
+            assertEquals((int) time - 1, states.get(handledQuark).getValue());
+        }
+    }
+
+    /**
+     * Test that an exception thrown while decoding an event fails the provider
+     */
+    @Test
+    public void testDecodingFailure() {
+        ITmfTrace trace = fTrace;
+        ITmfStateSystemBuilder ss = fStateSystem;
+        assertNotNull(trace);
+        assertNotNull(ss);
+        DecodingStateProvider provider = new DecodingStateProvider(trace);
+        provider.assignTargetStateSystem(ss);
+
+        sendEvents(trace, provider, 1, FAILING_TIME);
+        provider.waitForEmptyQueue();
+        assertNull(provider.getFailureCause());
+
+        try {
+            sendEvents(trace, provider, FAILING_TIME, FAILING_TIME + 100);
+        } catch (RuntimeException e) {
+            /* The failure can be propagated to the thread sending the events */
+        }
+        provider.dispose();
+        assertNotNull(provider.getFailureCause());
+    }
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2013, 2014 Ericsson
+ * Copyright (c) 2013, 2026 Ericsson
  *
  * All rights reserved. This program and the accompanying materials are
  * made available under the terms of the Eclipse Public License 2.0 which
@@ -15,6 +15,7 @@
 package org.eclipse.tracecompass.tmf.core.tests.trace.indexer;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 import java.util.ArrayList;
 
@@ -101,4 +102,28 @@ public class BTreeTest extends AbstractCheckpointCollectionTest {
             assertEquals(checkpoint, treeVisitor.getCheckpoint());
         }
     }
+
+    /**
+     * Test that searching the same checkpoints again after re-opening the file
+     * hits the node cache
+     */
+    @Test
+    public void testCacheHitRatio() {
+        insertAlot();
+
+        fBTree = createCollection();
+        assertEquals(0.0, fBTree.getCacheHitRatio(), 0.0);
+        for (int pass = 0; pass < 2; pass++) {
+            for (int i = 0; i < CHECKPOINTS_INSERT_NUM; i += 1000) {
+                TmfCheckpoint checkpoint = new TmfCheckpoint(TmfTimestamp.fromSeconds(12345 + i), new TmfLongLocation(123456L + i), 0);
+                BTreeCheckpointVisitor treeVisitor = new BTreeCheckpointVisitor(checkpoint);
+                fBTree.accept(treeVisitor);
+                assertEquals(checkpoint, treeVisitor.getCheckpoint());
+            }
+        }
+        long misses = fBTree.getCacheMisses();
+        assertTrue(misses > 0);
+        assertTrue(fBTree.getCacheHits() > misses);
+        assertTrue(fBTree.getCacheHitRatio() > 0.5);
+    }
 }
@@ -0,0 +1,90 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson and others
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.tmf.core.tests.trace.indexer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+
+import org.eclipse.tracecompass.internal.tmf.core.trace.indexer.CheckpointDirectory;
+import org.eclipse.tracecompass.tmf.core.timestamp.TmfTimestamp;
+import org.eclipse.tracecompass.tmf.core.trace.indexer.ITmfPersistentlyIndexable;
+import org.eclipse.tracecompass.tmf.core.trace.indexer.checkpoint.ITmfCheckpoint;
+import org.eclipse.tracecompass.tmf.core.trace.indexer.checkpoint.TmfCheckpoint;
+import org.eclipse.tracecompass.tmf.core.trace.location.TmfLongLocation;
+import org.junit.Test;
+
+/**
+ * Tests for the CheckpointDirectory class
+ */
+public class CheckpointDirectoryTest extends AbstractCheckpointCollectionTest {
+
+    private CheckpointDirectory fDirectory;
+
+    @Override
+    protected CheckpointDirectory createCollection() {
+        fCheckpointCollection = fDirectory = new CheckpointDirectory(getFile(), (ITmfPersistentlyIndexable) getTrace());
+        return fDirectory;
+    }
+
+    @Override
+    public boolean isPersistableCollection() {
+        return true;
+    }
+
+    /**
+     * Test many checkpoint insertions. Make sure they can be found by rank
+     * after re-opening the file
+     */
+    @Test
+    public void testInsertAlotCheckEquals() {
+        ArrayList<Integer> list = insertAlot();
+
+        fDirectory = createCollection();
+
+        for (int i = 0; i < CHECKPOINTS_INSERT_NUM; i++) {
+            int checkpointIndex = list.get(i);
+            TmfCheckpoint checkpoint = new TmfCheckpoint(TmfTimestamp.fromSeconds(12345 + checkpointIndex),
+                    new TmfLongLocation(123456L + checkpointIndex), checkpointIndex);
+            ITmfCheckpoint found = fDirectory.get(checkpointIndex);
+            assertEquals(checkpoint, found);
+            assertEquals(checkpointIndex, found.getCheckpointRank());
+        }
+        assertNull(fDirectory.get(CHECKPOINTS_INSERT_NUM));
+    }
+
+    /**
+     * Test that checkpoints with time stamps out of order are found by time
+     * stamp, before and after re-opening the file
+     */
+    @Test
+    public void testBinarySearchOutOfOrder() {
+        /* Time stamps 10, 0, 30, 20, 50, 40, ... */
+        for (int i = 0; i < 1000; i++) {
+            fDirectory.insert(new TmfCheckpoint(TmfTimestamp.fromNanos((i ^ 1) * 10), new TmfLongLocation(i), i));
+        }
+        for (int pass = 0; pass < 2; pass++) {
+            assertEquals(0, fDirectory.binarySearch(new TmfCheckpoint(TmfTimestamp.fromNanos(10), new TmfLongLocation(0L), 0)));
+            assertEquals(1, fDirectory.binarySearch(new TmfCheckpoint(TmfTimestamp.fromNanos(0), new TmfLongLocation(1L), 0)));
+
+            /* The greatest checkpoint before 15 is the one at 10, rank 0 */
+            assertEquals(-(0 + 2), fDirectory.binarySearch(new TmfCheckpoint(TmfTimestamp.fromNanos(15), null, 0)));
+            /* The greatest checkpoint before 25 is the one at 20, rank 3 */
+            assertEquals(-(3 + 2), fDirectory.binarySearch(new TmfCheckpoint(TmfTimestamp.fromNanos(25), null, 0)));
+            assertEquals(-1, fDirectory.binarySearch(new TmfCheckpoint(TmfTimestamp.fromNanos(-1), null, 0)));
+
+            fDirectory.dispose();
+            fDirectory = createCollection();
+        }
+    }
+}
@@ -0,0 +1,106 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson and others
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.tmf.core.tests.trace.indexer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.tracecompass.internal.tmf.core.trace.indexer.ExperimentIndexBuilder;
+import org.eclipse.tracecompass.tmf.core.event.ITmfEvent;
+import org.eclipse.tracecompass.tmf.core.exceptions.TmfTraceException;
+import org.eclipse.tracecompass.tmf.core.tests.shared.TmfTestTrace;
+import org.eclipse.tracecompass.tmf.core.trace.ITmfContext;
+import org.eclipse.tracecompass.tmf.core.trace.ITmfTrace;
+import org.eclipse.tracecompass.tmf.core.trace.indexer.checkpoint.ITmfCheckpoint;
+import org.eclipse.tracecompass.tmf.core.trace.location.ITmfLocation;
+import org.eclipse.tracecompass.tmf.tests.stubs.trace.TmfExperimentStub;
+import org.eclipse.tracecompass.tmf.tests.stubs.trace.TmfTraceStub;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test the {@link ExperimentIndexBuilder} against a sequential read of the
+ * experiment
+ */
+public class ExperimentIndexBuilderTest {
+
+    private static final int INTERVAL = 1000;
+    private static final int NB_EVENTS = 30000;
+
+    private ITmfTrace[] fTraces;
+    private TmfExperimentStub fExperiment;
+
+    /**
+     * Create the experiment, of traces with identical and interleaved
+     * timestamps
+     *
+     * @throws TmfTraceException
+     *             if a trace could not be opened
+     */
+    @Before
+    public void setUp() throws TmfTraceException {
+        fTraces = new ITmfTrace[] {
+                new TmfTraceStub(TmfTestTrace.A_TEST_10K.getFullPath(), 0, false, null),
+                new TmfTraceStub(TmfTestTrace.E_TEST_10K.getFullPath(), 0, false, null),
+                new TmfTraceStub(TmfTestTrace.O_TEST_10K.getFullPath(), 0, false, null)
+        };
+        fExperiment = new TmfExperimentStub("experiment", fTraces, INTERVAL); //$NON-NLS-1$
+    }
+
+    /**
+     * Dispose the experiment and its traces
+     */
+    @After
+    public void tearDown() {
+        fExperiment.dispose();
+        for (ITmfTrace trace : fTraces) {
+            trace.dispose();
+        }
+    }
+
+    /**
+     * Test that the checkpoints are the locations and timestamps of the
+     * experiment when reading it from the start
+     *
+     * @throws Exception
+     *             if the traces could not be read
+     */
+    @Test
+    public void testBuild() throws Exception {
+        List<ITmfCheckpoint> checkpoints = new ArrayList<>();
+        ExperimentIndexBuilder builder = new ExperimentIndexBuilder(fExperiment.getTraces(), INTERVAL);
+        assertTrue(builder.build(checkpoints::add));
+        assertEquals(NB_EVENTS, builder.getNbEvents());
+        assertEquals(NB_EVENTS / INTERVAL, checkpoints.size());
+
+        ITmfContext context = fExperiment.seekEvent((ITmfLocation) null);
+        for (int rank = 0; rank < NB_EVENTS; rank++) {
+            ITmfLocation location = context.getLocation();
+            ITmfEvent event = fExperiment.getNext(context);
+            assertNotNull(event);
+            if (rank % INTERVAL == 0) {
+                ITmfCheckpoint checkpoint = checkpoints.get(rank / INTERVAL);
+                assertEquals(rank / INTERVAL, checkpoint.getCheckpointRank());
+                assertEquals(location, checkpoint.getLocation());
+                assertEquals(event.getTimestamp(), checkpoint.getTimestamp());
+            }
+        }
+        context.dispose();
+        assertEquals(1, builder.getStartTime().getValue());
+        assertEquals(fExperiment.getEndTime(), builder.getEndTime());
+    }
+}
@@ -0,0 +1,97 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson and others
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.tmf.core.tests.trace.indexer.checkpoint;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+
+import org.eclipse.tracecompass.internal.tmf.core.trace.indexer.CheckpointDirectory;
+import org.eclipse.tracecompass.tmf.core.trace.TmfTraceManager;
+import org.eclipse.tracecompass.tmf.core.trace.indexer.TmfDirectoryTraceIndexer;
+import org.eclipse.tracecompass.tmf.core.trace.indexer.checkpoint.ITmfCheckpointIndex;
+import org.junit.Test;
+
+/**
+ * Test suite for the TmfDirectoryTraceIndexer class.
+ */
+public class TmfDirectoryIndexTest extends AbstractIndexTest {
+
+    /**
+     * Create the indexer for testing
+     *
+     * @param trace
+     *            the trace
+     * @return the indexer for testing
+     */
+    @Override
+    protected ITestIndexer createTestIndexer(TestTrace trace) {
+        return new TestDirectoryIndexer(trace);
+    }
+
+    private static class TestDirectoryIndexer extends TmfDirectoryTraceIndexer implements ITestIndexer {
+        public TestDirectoryIndexer(TestTrace testTrace) {
+            super(testTrace, BLOCK_SIZE);
+        }
+
+        @Override
+        public ITmfCheckpointIndex getCheckpoints() {
+            return getTraceIndex();
+        }
+    }
+
+    /**
+     * Test that a fully built index has the same content when reloaded from disk
+     *
+     * @throws Exception when error occurs
+     */
+    @Test
+    public void testReopenIndex() throws Exception {
+        fTrace.dispose();
+        fTrace = createTrace(getTracePath());
+        assertFalse(fTrace.getIndexer().getCheckpoints().isCreatedFromScratch());
+        fTrace.indexTrace(true);
+
+        verifyIndexContent();
+    }
+
+    /**
+     * Test that the indexer can resume from a partially built index reloaded
+     * from disk
+     *
+     * @throws Exception
+     *             when error occurs
+     */
+    @Test
+    public void testInsertAfterReopenIndex() throws Exception {
+        // Make sure we start from a completely non-existing index
+        fTrace.dispose();
+        String directory = TmfTraceManager.getSupplementaryFileDir(fTrace);
+        new File(directory + CheckpointDirectory.INDEX_FILE_NAME).delete();
+
+        // Index half of the trace
+        fNbEventsLimit = NB_EVENTS / 2;
+        fTrace = createTrace(getTracePath());
+        assertTrue(fTrace.getIndexer().getCheckpoints().isCreatedFromScratch());
+        // The trace should not have been indexed completely
+        assertEquals(fNbEventsLimit, fTrace.getNbEvents());
+
+        // Finish indexing the trace
+        fNbEventsLimit = Long.MAX_VALUE;
+        fTrace = createTrace(getTracePath());
+        assertFalse(fTrace.getIndexer().getCheckpoints().isCreatedFromScratch());
+
+        verifyIndexContent();
+    }
+}
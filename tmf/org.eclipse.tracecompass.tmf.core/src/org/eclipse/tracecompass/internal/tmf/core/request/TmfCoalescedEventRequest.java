@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2009, 2015 Ericsson
+ * Copyright (c) 2009, 2026 Ericsson
  *
  * All rights reserved. This program and the accompanying materials are
  * made available under the terms of the Eclipse Public License 2.0 which
@@ -18,10 +18,9 @@ package org.eclipse.tracecompass.internal.tmf.core.request;
 
 import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 
 import org.eclipse.tracecompass.internal.tmf.core.Activator;
 import org.eclipse.tracecompass.internal.tmf.core.TmfCoreTracer;
@@ -30,6 +29,7 @@ import org.eclipse.tracecompass.tmf.core.request.ITmfEventRequest;
 import org.eclipse.tracecompass.tmf.core.request.TmfEventRequest;
 import org.eclipse.tracecompass.tmf.core.timestamp.ITmfTimestamp;
 import org.eclipse.tracecompass.tmf.core.timestamp.TmfTimeRange;
+import org.eclipse.tracecompass.tmf.core.trace.ITmfTrace;
 
 /**
  * The TMF coalesced event request
@@ -52,9 +52,18 @@ public class TmfCoalescedEventRequest extends TmfEventRequest {
     private TmfTimeRange fRange;
 
     /**
-     * The requests cache to avoid iterating over all requests for each event.
+     * The dispatch table to avoid iterating over all requests for each event.
+     * For each trace and event class, it holds the sub-requests whose provider
+     * filter and data type match the events of that class from that trace, in
+     * the order they were added. The traces are compared by identity, like the
+     * provider filters do, since different traces can have the same name.
      */
-    private Map<String, Set<ITmfEventRequest>> fRequestsCache = new HashMap<>();
+    private final Map<ITmfTrace, Map<Class<?>, ITmfEventRequest[]>> fDispatchTable = new IdentityHashMap<>();
+
+    /** The last trace and event class looked up in the dispatch table */
+    private ITmfTrace fLastTrace = null;
+    private Class<?> fLastEventClass = null;
+    private ITmfEventRequest[] fLastRequests = null;
 
     // ------------------------------------------------------------------------
     // Constructor
@@ -130,6 +139,50 @@ public class TmfCoalescedEventRequest extends TmfEventRequest {
             fRequests.add(request);
             merge(request);
         }
+        clearDispatchTable();
+    }
+
+    private void clearDispatchTable() {
+        fDispatchTable.clear();
+        fLastTrace = null;
+        fLastEventClass = null;
+        fLastRequests = null;
+    }
+
+    /**
+     * Get the sub-requests that an event can be dispatched to, from the
+     * dispatch table. The provider filters and data types of the sub-requests
+     * are only evaluated the first time an event class is seen for a trace.
+     *
+     * @param data
+     *            The event to dispatch
+     * @return The sub-requests for the trace and class of the event
+     */
+    private ITmfEventRequest[] getDispatchRequests(ITmfEvent data) {
+        ITmfTrace trace = data.getTrace();
+        Class<?> eventClass = data.getClass();
+        ITmfEventRequest[] requests = fLastRequests;
+        if (requests != null && eventClass == fLastEventClass && trace == fLastTrace) {
+            return requests;
+        }
+
+        Map<Class<?>, ITmfEventRequest[]> classTable = fDispatchTable.computeIfAbsent(trace, t -> new HashMap<>());
+        requests = classTable.get(eventClass);
+        if (requests == null) {
+            // Populate the dispatch table
+            List<ITmfEventRequest> matching = new ArrayList<>();
+            for (ITmfEventRequest myRequest : fRequests) {
+                if (myRequest.getDataType().isInstance(data) && myRequest.getProviderFilter().matches(data)) {
+                    matching.add(myRequest);
+                }
+            }
+            requests = matching.toArray(new ITmfEventRequest[matching.size()]);
+            classTable.put(eventClass, requests);
+        }
+        fLastTrace = trace;
+        fLastEventClass = eventClass;
+        fLastRequests = requests;
+        return requests;
     }
 
     /**
@@ -215,41 +268,25 @@ public class TmfCoalescedEventRequest extends TmfEventRequest {
 
         long index = getIndex() + getNbRead() - 1;
 
-        String traceName = data.getTrace().getName();
-        Set<ITmfEventRequest> requests = fRequestsCache.get(traceName);
-
-        if (requests == null) {
-            // Populate requests cache
-            requests = new HashSet<>();
-            for (ITmfEventRequest myRequest : fRequests) {
-                if (myRequest.getProviderFilter().matches(data)) {
-                    requests.add(myRequest);
-                }
-            }
-            fRequestsCache.put(traceName, requests);
-        }
+        ITmfTimestamp ts = data.getTimestamp();
 
         // dispatch event to relevant requests
-        for (ITmfEventRequest request : requests) {
+        for (ITmfEventRequest request : getDispatchRequests(data)) {
             long start = request.getIndex();
             if (!request.isCompleted() && index >= start && request.getNbRead() < request.getNbRequested()) {
-                ITmfTimestamp ts = data.getTimestamp();
                 if (request.getRange().contains(ts)) {
-                    if (request.getDataType().isInstance(data)) {
-                        try {
-                            request.handleData(data);
-                        } catch (Exception e) {
-                            /*
-                             * We don't usually catch all exception, but here it
-                             * is important because this will cause the request
-                             * thread to hang forever and the other requests to
-                             * be stopped. This should properly cancel the
-                             * request with the exception and let the rest
-                             * continue.
-                             */
-                            Activator.logError("An uncaught exception happened on request " + request + ": " + e.getMessage());  //$NON-NLS-1$//$NON-NLS-2$
-                            request.fail(e);
-                        }
+                    try {
+                        request.handleData(data);
+                    } catch (Exception e) {
+                        /*
+                         * We don't usually catch all exception, but here it is
+                         * important because this will cause the request thread
+                         * to hang forever and the other requests to be stopped.
+                         * This should properly cancel the request with the
+                         * exception and let the rest continue.
+                         */
+                        Activator.logError("An uncaught exception happened on request " + request + ": " + e.getMessage());  //$NON-NLS-1$//$NON-NLS-2$
+                        request.fail(e);
                     }
                 }
             }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2009, 2025 Ericsson
+ * Copyright (c) 2009, 2026 Ericsson
  *
  * All rights reserved. This program and the accompanying materials are
  * made available under the terms of the Eclipse Public License 2.0 which
@@ -18,13 +18,16 @@ package org.eclipse.tracecompass.internal.tmf.core.request;
 
 import static org.eclipse.tracecompass.common.core.NonNullUtils.checkNotNull;
 
-import java.util.Queue;
-import java.util.Timer;
-import java.util.TimerTask;
-import java.util.concurrent.ArrayBlockingQueue;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.Map;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -38,16 +41,27 @@ import org.eclipse.tracecompass.traceeventlogger.LogUtils.FlowScopeLog;
 import org.eclipse.tracecompass.traceeventlogger.LogUtils.FlowScopeLogBuilder;
 
 /**
- * The request scheduler works with 5 slots with a specific time. It has 4 slots
- * for foreground requests and 1 slot for background requests, and it passes
- * through all the slots (foreground first and background after).
- *
- * Example: if we have one foreground and one background request, the foreground
- * request will be executed four times more often than the background request.
+ * The request scheduler of an event provider. It runs one request at a time,
+ * in time slices, with foreground requests having priority over background
+ * ones.
+ * <p>
+ * A foreground request preempts a running background request as soon as it is
+ * queued, at the next event of the background request. The requests of the
+ * same priority share the time slices in turn. A background request only waits
+ * for {@link #FOREGROUND_SLOT} foreground slices at most, so it is not starved
+ * by a stream of foreground requests.
+ * <p>
+ * The queues are not bounded, the requests are never cancelled because too
+ * many are pending. The depth of the queues and the time the requests wait
+ * before running are measured for each priority.
+ * <p>
+ * Each event provider, so each trace, has its own scheduler: the requests of
+ * different traces run concurrently. The time slices of all the schedulers
+ * are timed by a shared timer thread.
  *
  * @author Francois Chouinard
  * @author Simon Delisle
- * @version 1.1
+ * @version 2.0
  */
 public class TmfRequestExecutor implements Executor {
 
@@ -61,6 +75,13 @@ public class TmfRequestExecutor implements Executor {
     private static final long REQUEST_TIME = 100;
     private static final int FOREGROUND_SLOT = 4;
 
+    /** The timer of the time slices of all the schedulers */
+    private static final ScheduledExecutorService TIMER = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "Request Executor Timer"); //$NON-NLS-1$
+        thread.setDaemon(true);
+        return thread;
+    });
+
     // ------------------------------------------------------------------------
     // Attributes
     // ------------------------------------------------------------------------
@@ -70,17 +91,57 @@ public class TmfRequestExecutor implements Executor {
     private final String fExecutorName;
 
     // The request queues
-    private final Queue<TmfEventThread> fForegroundTasks = new ArrayBlockingQueue<>(10);
-    private final Queue<TmfEventThread> fBackgroundTasks = new ArrayBlockingQueue<>(10);
+    private final Deque<RequestTask> fForegroundTasks = new ArrayDeque<>();
+    private final Deque<RequestTask> fBackgroundTasks = new ArrayDeque<>();
 
     // The tasks
-    private TmfEventThread fActiveTask;
+    private RequestTask fActiveTask;
+
+    /** Whether the active background task runs while foreground tasks wait */
+    private boolean fActiveIsStarving;
 
-    private Timer fTimer;
-    private TimerTask fTimerTask;
+    private ScheduledFuture<?> fTimeSlices;
 
     private int fForegroundCycle = 0;
 
+    // The metrics, by priority
+    private final Map<ExecutionType, Metrics> fMetrics = new EnumMap<>(ExecutionType.class);
+
+    /**
+     * A request thread wrapped for the scheduler, with the time when it was
+     * last queued
+     */
+    private class RequestTask extends TmfEventThread {
+
+        private final FlowScopeLog fScope;
+        private long fQueuedTime;
+
+        public RequestTask(TmfEventThread thread, FlowScopeLog scope) {
+            super(thread);
+            fScope = scope;
+        }
+
+        @Override
+        public void run() {
+            try (FlowScopeLog log = new FlowScopeLogBuilder(LOGGER, Level.FINE, "RequestExecutor:RunningRequest", "thread", getThread(), "execution type", getExecType()).setParentScope(fScope).build()) { //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+                getThread().run();
+            } finally {
+                scheduleNext();
+            }
+        }
+    }
+
+    /**
+     * The queue depth and wait time of the requests of a priority
+     */
+    private static final class Metrics {
+        private int fMaxQueueDepth = 0;
+        private long fNbScheduled = 0;
+        private long fTotalWaitTime = 0;
+        private long fMaxWaitTime = 0;
+        private long fNbPreempted = 0;
+    }
+
     // ------------------------------------------------------------------------
     // Constructors
     // ------------------------------------------------------------------------
@@ -93,6 +154,9 @@ public class TmfRequestExecutor implements Executor {
         // only
         String canonicalName = checkNotNull(fExecutor.getClass().getCanonicalName());
         fExecutorName = canonicalName.substring(canonicalName.lastIndexOf('.') + 1);
+        for (ExecutionType type : ExecutionType.values()) {
+            fMetrics.put(type, new Metrics());
+        }
         if (TmfCoreTracer.isComponentTraced()) {
             TmfCoreTracer.trace(fExecutor + " created"); //$NON-NLS-1$
         }
@@ -116,6 +180,78 @@ public class TmfRequestExecutor implements Executor {
         return fExecutor.isTerminated();
     }
 
+    /**
+     * Get the number of requests of a priority waiting to run, either not
+     * started yet or suspended
+     *
+     * @param type
+     *            the priority
+     * @return the queue depth
+     */
+    public synchronized int getQueueDepth(ExecutionType type) {
+        return getQueue(type).size();
+    }
+
+    /**
+     * Get the maximum number of requests of a priority that waited at the
+     * same time
+     *
+     * @param type
+     *            the priority
+     * @return the maximum queue depth
+     */
+    public synchronized int getMaxQueueDepth(ExecutionType type) {
+        return checkNotNull(fMetrics.get(type)).fMaxQueueDepth;
+    }
+
+    /**
+     * Get the number of times requests of a priority were started or resumed
+     *
+     * @param type
+     *            the priority
+     * @return the number of time slices given to the requests
+     */
+    public synchronized long getNbScheduled(ExecutionType type) {
+        return checkNotNull(fMetrics.get(type)).fNbScheduled;
+    }
+
+    /**
+     * Get the average time requests of a priority waited in the queue before
+     * being started or resumed
+     *
+     * @param type
+     *            the priority
+     * @return the average wait time, in nanoseconds
+     */
+    public synchronized long getAverageWaitTime(ExecutionType type) {
+        Metrics metrics = checkNotNull(fMetrics.get(type));
+        return (metrics.fNbScheduled == 0) ? 0 : metrics.fTotalWaitTime / metrics.fNbScheduled;
+    }
+
+    /**
+     * Get the longest time a request of a priority waited in the queue before
+     * being started or resumed
+     *
+     * @param type
+     *            the priority
+     * @return the maximum wait time, in nanoseconds
+     */
+    public synchronized long getMaxWaitTime(ExecutionType type) {
+        return checkNotNull(fMetrics.get(type)).fMaxWaitTime;
+    }
+
+    /**
+     * Get the number of times requests of a priority were suspended for a
+     * request of a higher priority
+     *
+     * @param type
+     *            the priority
+     * @return the number of preemptions
+     */
+    public synchronized long getNbPreempted(ExecutionType type) {
+        return checkNotNull(fMetrics.get(type)).fNbPreempted;
+    }
+
     // ------------------------------------------------------------------------
     // Operations
     // ------------------------------------------------------------------------
@@ -123,14 +259,12 @@ public class TmfRequestExecutor implements Executor {
     /**
      * Initialize the executor
      */
-    public void init() {
-        if (fTimer != null) {
+    public synchronized void init() {
+        if (fTimeSlices != null) {
             return;
         }
-        // Initialize the timer for the schedSwitch
-        fTimerTask = new SchedSwitch();
-        fTimer = new Timer(true);
-        fTimer.schedule(fTimerTask, 0, REQUEST_TIME);
+        // Initialize the time slices for the schedSwitch
+        fTimeSlices = TIMER.scheduleAtFixedRate(this::scheduleNext, 0, REQUEST_TIME, TimeUnit.MILLISECONDS);
     }
 
     @Override
@@ -143,45 +277,27 @@ public class TmfRequestExecutor implements Executor {
         }
 
         try (FlowScopeLog scope = new FlowScopeLogBuilder(LOGGER, Level.FINE, "RequestExecutor:CreatingThread").setCategory(LOG_CATEGORY).build()) { //$NON-NLS-1$
-            // Wrap the thread in a MyThread
+            // Wrap the thread in a RequestTask
             TmfEventThread thread = (TmfEventThread) command;
-            TmfEventThread wrapper = new TmfEventThread(thread) {
-                @Override
-                public void run() {
-                    try (FlowScopeLog log = new FlowScopeLogBuilder(LOGGER, Level.FINE, "RequestExecutor:RunningRequest", "thread", thread.getThread(), "execution type", thread.getExecType()).setParentScope(scope).build()) { //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
-                        thread.run();
-                    } finally {
-                        scheduleNext();
-                    }
-                }
-            };
-
-            // Add the thread to the appropriate queue
-            ExecutionType priority = thread.getExecType();
-
-            if (priority == ExecutionType.FOREGROUND) {
-                if (!fForegroundTasks.offer(wrapper)) {
-                    wrapper.cancel();
-                }
-            } else {
-                if (!fBackgroundTasks.offer(wrapper)) {
-                    wrapper.cancel();
-                }
+            RequestTask task = new RequestTask(thread, scope);
+            if (isShutdown()) {
+                task.cancel();
+                return;
             }
-        }
-    }
 
-    /**
-     * Timer task to trigger scheduleNext()
-     */
-    private class SchedSwitch extends TimerTask {
-
-        SchedSwitch() {
-        }
+            // Add the thread to the appropriate queue
+            enqueue(task, false);
 
-        @Override
-        public void run() {
-            scheduleNext();
+            if (fActiveTask != null && fActiveTask.getThread().isCompleted()) {
+                // The active task is done, it is not worth preempting
+                fActiveTask = null;
+            }
+            if (fActiveTask == null) {
+                schedule();
+            } else if (task.getExecType() == ExecutionType.FOREGROUND &&
+                    fActiveTask.getExecType() == ExecutionType.BACKGROUND && !fActiveIsStarving) {
+                preempt();
+            }
         }
     }
 
@@ -189,39 +305,20 @@ public class TmfRequestExecutor implements Executor {
      * Executes the next pending request, if applicable.
      */
     protected synchronized void scheduleNext() {
-        if (!isShutdown()) {
-            if (fActiveTask == null) {
-                schedule();
-            } else if (fActiveTask.getExecType() == ExecutionType.FOREGROUND) {
-                if (fActiveTask.getThread().isCompleted()) {
-                    fActiveTask = null;
-                    schedule();
-                } else {
-                    if (hasTasks()) {
-                        fActiveTask.getThread().suspend();
-                        if (!fForegroundTasks.offer(fActiveTask)) {
-                            fActiveTask.cancel();
-                            fActiveTask = null;
-                        }
-                        schedule();
-                    }
-                }
-
-            } else if (fActiveTask.getExecType() == ExecutionType.BACKGROUND) {
-                if (fActiveTask.getThread().isCompleted()) {
-                    fActiveTask = null;
-                    schedule();
-                } else {
-                    if (hasTasks()) {
-                        fActiveTask.getThread().suspend();
-                        if (!fBackgroundTasks.offer(fActiveTask)) {
-                            fActiveTask.cancel();
-                            fActiveTask = null;
-                        }
-                        schedule();
-                    }
-                }
-            }
+        if (isShutdown()) {
+            return;
+        }
+        if (fActiveTask == null) {
+            schedule();
+        } else if (fActiveTask.getThread().isCompleted()) {
+            fActiveTask = null;
+            schedule();
+        } else if (hasTasks()) {
+            // The time slice of the active task is over
+            fActiveTask.getThread().suspend();
+            enqueue(fActiveTask, false);
+            fActiveTask = null;
+            schedule();
         }
     }
 
@@ -229,28 +326,26 @@ public class TmfRequestExecutor implements Executor {
      * Stops the executor
      */
     public synchronized void stop() {
-        if (fTimerTask != null) {
-            fTimerTask.cancel();
-        }
-
-        if (fTimer != null) {
-            fTimer.cancel();
+        if (fTimeSlices != null) {
+            fTimeSlices.cancel(false);
         }
 
         if (fActiveTask != null) {
-            fActiveTask.cancel();
+            cancel(fActiveTask);
+            fActiveTask = null;
         }
 
-        while ((fActiveTask = fForegroundTasks.poll()) != null) {
-            fActiveTask.cancel();
+        RequestTask task;
+        while ((task = fForegroundTasks.poll()) != null) {
+            cancel(task);
         }
-        while ((fActiveTask = fBackgroundTasks.poll()) != null) {
-            fActiveTask.cancel();
+        while ((task = fBackgroundTasks.poll()) != null) {
+            cancel(task);
         }
 
         fExecutor.shutdown();
         if (TmfCoreTracer.isComponentTraced()) {
-            TmfCoreTracer.trace(fExecutor + " terminated"); //$NON-NLS-1$
+            TmfCoreTracer.trace(fExecutor + " terminated. " + getMetricsSummary()); //$NON-NLS-1$
         }
     }
 
@@ -258,51 +353,84 @@ public class TmfRequestExecutor implements Executor {
     // Helper methods
     // ------------------------------------------------------------------------
 
+    private Deque<RequestTask> getQueue(ExecutionType type) {
+        return (type == ExecutionType.FOREGROUND) ? fForegroundTasks : fBackgroundTasks;
+    }
+
     /**
-     * Determine which type of request (foreground or background) we schedule
-     * next
+     * Queue a task, at the end of the queue of its priority or at the front
+     * if it was preempted
      */
-    private void schedule() {
-        if (!fForegroundTasks.isEmpty()) {
-            scheduleNextForeground();
+    private void enqueue(RequestTask task, boolean first) {
+        Deque<RequestTask> queue = getQueue(task.getExecType());
+        task.fQueuedTime = System.nanoTime();
+        if (first) {
+            queue.addFirst(task);
         } else {
-            scheduleNextBackground();
+            queue.addLast(task);
         }
+        Metrics metrics = checkNotNull(fMetrics.get(task.getExecType()));
+        metrics.fMaxQueueDepth = Math.max(metrics.fMaxQueueDepth, queue.size());
+        LogUtils.traceCounter(LOGGER, Level.FINE, "RequestExecutor:QueueDepth", //$NON-NLS-1$
+                "foreground", fForegroundTasks.size(), "background", fBackgroundTasks.size()); //$NON-NLS-1$ //$NON-NLS-2$
+    }
+
+    /**
+     * Suspend the active background task for the foreground tasks. It will be
+     * the next background task to resume.
+     */
+    private void preempt() {
+        RequestTask active = fActiveTask;
+        active.getThread().suspend();
+        checkNotNull(fMetrics.get(active.getExecType())).fNbPreempted++;
+        TmfCoreTracer.traceRequest(active.getRequest().getRequestId(), "PREEMPTED"); //$NON-NLS-1$
+        enqueue(active, true);
+        fActiveTask = null;
+        schedule();
     }
 
     /**
-     * Schedule the next foreground request
+     * Determine which type of request (foreground or background) we schedule
+     * next
      */
-    private void scheduleNextForeground() {
-        if (fForegroundCycle < FOREGROUND_SLOT || fBackgroundTasks.isEmpty()) {
+    private void schedule() {
+        if (!fForegroundTasks.isEmpty() && (fForegroundCycle < FOREGROUND_SLOT || fBackgroundTasks.isEmpty())) {
             ++fForegroundCycle;
-            fActiveTask = fForegroundTasks.poll();
-            executefActiveTask();
-        } else {
-            fActiveTask = null;
-            scheduleNextBackground();
+            fActiveIsStarving = false;
+            executeTask(checkNotNull(fForegroundTasks.poll()));
+        } else if (!fBackgroundTasks.isEmpty()) {
+            fForegroundCycle = 0;
+            fActiveIsStarving = !fForegroundTasks.isEmpty();
+            executeTask(checkNotNull(fBackgroundTasks.poll()));
         }
     }
 
     /**
-     * Schedule the next background request
+     * Execute or resume a task, which becomes the active task
      */
-    private void scheduleNextBackground() {
-        fForegroundCycle = 0;
-        if (!fBackgroundTasks.isEmpty()) {
-            fActiveTask = fBackgroundTasks.poll();
-            executefActiveTask();
+    private void executeTask(RequestTask task) {
+        fActiveTask = task;
+        long waitTime = System.nanoTime() - task.fQueuedTime;
+        Metrics metrics = checkNotNull(fMetrics.get(task.getExecType()));
+        metrics.fNbScheduled++;
+        metrics.fTotalWaitTime += waitTime;
+        metrics.fMaxWaitTime = Math.max(metrics.fMaxWaitTime, waitTime);
+        LogUtils.traceCounter(LOGGER, Level.FINE, "RequestExecutor:WaitTime", //$NON-NLS-1$
+                task.getExecType().toString(), TimeUnit.NANOSECONDS.toMicros(waitTime));
+        if (task.getThread().isPaused()) {
+            task.getThread().resume();
+        } else {
+            fExecutor.execute(task);
         }
     }
 
     /**
-     * Execute or resume the active task
+     * Cancel a task, resuming it if it was suspended so its thread ends
      */
-    private void executefActiveTask() {
-        if (fActiveTask.getThread().isPaused()) {
-            fActiveTask.getThread().resume();
-        } else {
-            fExecutor.execute(fActiveTask);
+    private static void cancel(RequestTask task) {
+        task.cancel();
+        if (task.getThread().isPaused()) {
+            task.getThread().resume();
         }
     }
 
@@ -313,6 +441,19 @@ public class TmfRequestExecutor implements Executor {
         return !(fForegroundTasks.isEmpty() && fBackgroundTasks.isEmpty());
     }
 
+    private String getMetricsSummary() {
+        StringBuilder sb = new StringBuilder();
+        for (ExecutionType type : ExecutionType.values()) {
+            Metrics metrics = checkNotNull(fMetrics.get(type));
+            sb.append(type).append(": scheduled=").append(metrics.fNbScheduled) //$NON-NLS-1$
+                    .append(" preempted=").append(metrics.fNbPreempted) //$NON-NLS-1$
+                    .append(" maxQueueDepth=").append(metrics.fMaxQueueDepth) //$NON-NLS-1$
+                    .append(" avgWaitNs=").append(getAverageWaitTime(type)) //$NON-NLS-1$
+                    .append(" maxWaitNs=").append(metrics.fMaxWaitTime).append(' '); //$NON-NLS-1$
+        }
+        return sb.toString().trim();
+    }
+
     // ------------------------------------------------------------------------
     // Object
     // ------------------------------------------------------------------------
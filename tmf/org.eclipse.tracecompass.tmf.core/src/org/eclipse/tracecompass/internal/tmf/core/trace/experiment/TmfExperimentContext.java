@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2009, 2014 Ericsson
+ * Copyright (c) 2009, 2026 Ericsson
  *
  * All rights reserved. This program and the accompanying materials are
  * made available under the terms of the Eclipse Public License 2.0 which
@@ -17,10 +17,11 @@
 package org.eclipse.tracecompass.internal.tmf.core.trace.experiment;
 
 import java.util.Arrays;
-import java.util.PriorityQueue;
 
 import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.tracecompass.common.core.collect.LongLoserTree;
 import org.eclipse.tracecompass.tmf.core.event.ITmfEvent;
+import org.eclipse.tracecompass.tmf.core.timestamp.ITmfTimestamp;
 import org.eclipse.tracecompass.tmf.core.trace.ITmfContext;
 import org.eclipse.tracecompass.tmf.core.trace.TmfContext;
 
@@ -102,11 +103,20 @@ public final class TmfExperimentContext extends TmfContext {
     // ------------------------------------------------------------------------
 
     private final ITmfContext[] fContexts;
+
     /**
-     * fPriority is a PriorityQueue of initial capacity fContexts.length,
-     * ordered by increasing timestamps of the ContextTuple events.
+     * The next tuple of each trace, ordered in fMerge by increasing timestamps
+     * of their events, in nanoseconds, then by {@link ContextTuple#compareTo}
+     * when they are equal.
      */
-    private final PriorityQueue<ContextTuple> fPriority;
+    private final ContextTuple[] fTuples;
+    private final LongLoserTree fMerge;
+
+    /**
+     * The trace of the last tuple returned by {@link #getNext()}, it is still
+     * at the top of fMerge until its next tuple is set, or -1
+     */
+    private int fTaken = -1;
 
     // ------------------------------------------------------------------------
     // Constructors
@@ -124,7 +134,8 @@ public final class TmfExperimentContext extends TmfContext {
             throw new IllegalArgumentException("TmfExperimentContext size cannot be negative"); //$NON-NLS-1$
         }
         fContexts = new ITmfContext[nbTraces];
-        fPriority = new PriorityQueue<>(Math.max(1, nbTraces), null);
+        fTuples = new ContextTuple[nbTraces];
+        fMerge = new LongLoserTree(nbTraces, (a, b) -> fTuples[a].compareTo(fTuples[b]));
     }
 
     @Override
@@ -151,8 +162,49 @@ public final class TmfExperimentContext extends TmfContext {
      */
     public void setContent(int traceIndex, ITmfContext ctx, ITmfEvent event) {
         fContexts[traceIndex] = ctx;
+        boolean taken = (fTaken == traceIndex);
+        if (!taken) {
+            removeTaken();
+        }
+        fTaken = -1;
         if (event != null && ctx != null) {
-            fPriority.add(new ContextTuple(traceIndex, event, ctx));
+            fTuples[traceIndex] = new ContextTuple(traceIndex, event, ctx);
+            long key = getKey(event.getTimestamp());
+            if (taken) {
+                /* The next event of the trace that was read */
+                fMerge.replaceTop(key);
+            } else {
+                fMerge.set(traceIndex, key);
+            }
+        } else if (taken) {
+            fTuples[traceIndex] = null;
+            fMerge.removeTop();
+        }
+    }
+
+    /**
+     * The key of a timestamp in the tree. The conversion to nanoseconds keeps
+     * the order of the timestamps, those with the same value in nanoseconds
+     * are compared exactly by the tie breaker.
+     */
+    private static long getKey(ITmfTimestamp timestamp) {
+        try {
+            return timestamp.toNanos();
+        } catch (ArithmeticException e) {
+            return timestamp.getValue() < 0 ? Long.MIN_VALUE : Long.MAX_VALUE;
+        }
+    }
+
+    /**
+     * Remove the tuple returned by {@link #getNext()} for which no next tuple
+     * was set
+     */
+    private void removeTaken() {
+        int taken = fTaken;
+        if (taken >= 0) {
+            fTuples[taken] = null;
+            fMerge.removeTop();
+            fTaken = -1;
         }
     }
 
@@ -165,7 +217,13 @@ public final class TmfExperimentContext extends TmfContext {
      *         priority queue.
      */
     public ContextTuple getNext() {
-        return fPriority.poll();
+        removeTaken();
+        int trace = fMerge.peek();
+        if (trace < 0) {
+            return null;
+        }
+        fTaken = trace;
+        return fTuples[trace];
     }
 
     /**
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2013, 2017 Ericsson
+ * Copyright (c) 2013, 2026 Ericsson
  *
  * All rights reserved. This program and the accompanying materials are
  * made available under the terms of the Eclipse Public License 2.0 which
@@ -19,9 +19,12 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.RandomAccessFile;
 import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
 import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
 import java.nio.file.Files;
 import java.text.MessageFormat;
+import java.util.Arrays;
 
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.tracecompass.internal.tmf.core.Activator;
@@ -31,7 +34,8 @@ import org.eclipse.tracecompass.tmf.core.timestamp.TmfTimestamp;
 import org.eclipse.tracecompass.tmf.core.trace.indexer.ITmfPersistentlyIndexable;
 
 /**
- * Common implementation of file-based checkpoint collection
+ * Common implementation of file-based checkpoint collection. The file is read
+ * through a memory mapping, which is remapped after the file is written.
  *
  * @author Marc-Andre Laperle
  */
@@ -156,11 +160,17 @@ public abstract class AbstractFileCheckpointCollection implements ICheckpointCol
      */
     protected static final int MAX_TIME_RANGE_SERIALIZE_SIZE = 128;
 
+    /**
+     * The size of the segments of the file mapped in memory
+     */
+    private static final long MAPPED_SEGMENT_SIZE = 1L << 30;
+
     /**
      * The originating trace
      */
     private ITmfPersistentlyIndexable fTrace;
 
+    private long fCacheHits = 0;
     private long fCacheMisses = 0;
     private boolean fCreatedFromScratch;
     private boolean fIsDirty = false;
@@ -182,6 +192,21 @@ public abstract class AbstractFileCheckpointCollection implements ICheckpointCol
     // Cached values
     private FileChannel fFileChannel;
 
+    /**
+     * The mappings of a file are only released when they are garbage
+     * collected, and a mapped file cannot be deleted on Windows until then, so
+     * the file is read through its channel there.
+     */
+    private static final boolean MAP_FILE = !System.getProperty("os.name").contains("Windows"); //$NON-NLS-1$ //$NON-NLS-2$
+
+    /**
+     * The mapped segments of the file, or null if it is not mapped yet. The
+     * mappings see the writes to the channel, they only need to be extended
+     * when the file grows. Disposing the collection only drops them.
+     */
+    private MappedByteBuffer @Nullable [] fSegments = null;
+    private long fMappedSize = 0;
+
     /**
      * Constructs a checkpoint collection for a given trace from scratch or from
      * an existing file. When the checkpoint collection is created from scratch,
@@ -354,6 +379,20 @@ public abstract class AbstractFileCheckpointCollection implements ICheckpointCol
         fCreatedFromScratch = isCreatedFromScratch;
     }
 
+    /**
+     * @return the number of cache hits.
+     */
+    public long getCacheHits() {
+        return fCacheHits;
+    }
+
+    /**
+     * Increment the number of cache hits.
+     */
+    protected void incCacheHits() {
+        ++fCacheHits;
+    }
+
     /**
      * @return the number of cache misses.
      */
@@ -361,6 +400,16 @@ public abstract class AbstractFileCheckpointCollection implements ICheckpointCol
         return fCacheMisses;
     }
 
+    /**
+     * @return the ratio of the cache hits over all the cache accesses, or 0 if
+     *         there was no access
+     */
+    public double getCacheHitRatio() {
+        long hits = getCacheHits();
+        long accesses = hits + getCacheMisses();
+        return (accesses == 0) ? 0.0 : (double) hits / accesses;
+    }
+
     /**
      * Increment the number of cache misses.
      */
@@ -445,6 +494,102 @@ public abstract class AbstractFileCheckpointCollection implements ICheckpointCol
         return fRandomAccessFile;
     }
 
+    /**
+     * Read the file at a position into a buffer, up to the capacity of the
+     * buffer or the end of the file. The buffer is then ready to be read from
+     * its start.
+     *
+     * @param position
+     *            the position in the file
+     * @param buffer
+     *            the buffer
+     * @throws IOException
+     *             if an I/O error occurs reading from the file
+     */
+    protected void read(long position, ByteBuffer buffer) throws IOException {
+        buffer.clear();
+        MappedByteBuffer[] segments = getSegments(position + buffer.capacity());
+        if (segments == null) {
+            long pos = position;
+            int read = 0;
+            while (buffer.hasRemaining() && read >= 0) {
+                read = fFileChannel.read(buffer, pos);
+                pos += read;
+            }
+        } else {
+            long pos = position;
+            while (buffer.hasRemaining()) {
+                int offset = (int) (pos % MAPPED_SEGMENT_SIZE);
+                ByteBuffer segment = segments[(int) (pos / MAPPED_SEGMENT_SIZE)].duplicate();
+                int length = Math.min(buffer.remaining(), segment.capacity() - offset);
+                segment.limit(offset + length).position(offset);
+                buffer.put(segment);
+                pos += length;
+            }
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Write a whole buffer to the file at a position
+     *
+     * @param position
+     *            the position in the file
+     * @param buffer
+     *            the buffer
+     * @throws IOException
+     *             if an I/O error occurs writing to the file
+     */
+    protected void write(long position, ByteBuffer buffer) throws IOException {
+        buffer.clear();
+        long pos = position;
+        while (buffer.hasRemaining()) {
+            pos += fFileChannel.write(buffer, pos);
+        }
+    }
+
+    /**
+     * Get the segments of the file mapped in memory. If the file grew past
+     * the mapped size, only its last mapped segment, which may be partial,
+     * and the new segments are mapped.
+     *
+     * @param end
+     *            the end of the bytes to read
+     * @return the segments, or null if the file ends before or is not mapped
+     *         on this platform
+     * @throws IOException
+     *             if the file could not be mapped
+     */
+    private MappedByteBuffer @Nullable [] getSegments(long end) throws IOException {
+        if (!MAP_FILE) {
+            return null;
+        }
+        MappedByteBuffer[] segments = fSegments;
+        if (segments != null && end <= fMappedSize) {
+            return segments;
+        }
+        long size = fFileChannel.size();
+        if (end > size) {
+            return null;
+        }
+        int nbSegments = (int) ((size + MAPPED_SEGMENT_SIZE - 1) / MAPPED_SEGMENT_SIZE);
+        int first = 0;
+        if (segments == null) {
+            segments = new MappedByteBuffer[nbSegments];
+        } else {
+            /* The full segments already mapped are kept */
+            first = (int) (fMappedSize / MAPPED_SEGMENT_SIZE);
+            segments = Arrays.copyOf(segments, nbSegments);
+        }
+        for (int i = first; i < nbSegments; i++) {
+            long start = i * MAPPED_SEGMENT_SIZE;
+            segments[i] = fFileChannel.map(MapMode.READ_ONLY, start, Math.min(MAPPED_SEGMENT_SIZE, size - start));
+        }
+        fSegments = segments;
+        fMappedSize = size;
+        return segments;
+    }
+
     /**
      * Get the file handle for the index
      *
@@ -510,6 +655,8 @@ public abstract class AbstractFileCheckpointCollection implements ICheckpointCol
             Activator.logError(MessageFormat.format(Messages.IOErrorClosingIndex, fFile), e);
         } finally {
             fRandomAccessFile = null;
+            fSegments = null;
+            fMappedSize = 0;
         }
     }
 }
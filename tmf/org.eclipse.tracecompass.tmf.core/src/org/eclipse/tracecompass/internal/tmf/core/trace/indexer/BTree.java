@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2013, 2017 Ericsson
+ * Copyright (c) 2013, 2026 Ericsson
  *
  * All rights reserved. This program and the accompanying materials are
  * made available under the terms of the Eclipse Public License 2.0 which
@@ -21,13 +21,15 @@ import java.nio.ByteBuffer;
 import java.text.MessageFormat;
 
 import org.eclipse.tracecompass.internal.tmf.core.Activator;
+import org.eclipse.tracecompass.internal.tmf.core.TmfCoreTracer;
 import org.eclipse.tracecompass.tmf.core.trace.indexer.ITmfPersistentlyIndexable;
 import org.eclipse.tracecompass.tmf.core.trace.indexer.checkpoint.ITmfCheckpoint;
 
 /**
  * A BTree made of BTreeNodes representing a series of ITmfCheckpoints ordered
  * by time stamps. {@link BTreeNodeCache } is used to improve performance by
- * caching some nodes in memory and the other nodes are kept on disk.
+ * caching some nodes in memory and the other nodes are kept on disk, read
+ * through a memory mapping of the file.
  *
  * @author Marc-Andre Laperle
  */
@@ -366,12 +368,36 @@ public class BTree extends AbstractFileCheckpointCollection {
         return fNodeByteBuffer;
     }
 
+    @Override
+    public long getCacheHits() {
+        return fNodeCache.getCacheHits();
+    }
+
+    @Override
+    public long getCacheMisses() {
+        return fNodeCache.getCacheMisses();
+    }
+
     @Override
     public void dispose() {
-        if (fNodeCache != null && getRandomAccessFile() != null) {
-            fNodeCache.serialize();
+        if (fNodeCache != null) {
+            if (getRandomAccessFile() != null) {
+                fNodeCache.serialize();
+                TmfCoreTracer.traceIndexer(getClass().getSimpleName() + " node cache hits: " + getCacheHits() + " misses: " + getCacheMisses() + //$NON-NLS-1$ //$NON-NLS-2$
+                        " capacity: " + fNodeCache.getCapacity()); //$NON-NLS-1$
+            }
+            fNodeCache.dispose();
         }
 
         super.dispose();
     }
+
+    @Override
+    public void delete() {
+        /* Called by the super constructor if the file cannot be restored */
+        if (fNodeCache != null) {
+            fNodeCache.dispose();
+        }
+        super.delete();
+    }
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2013, 2014 Ericsson
+ * Copyright (c) 2013, 2026 Ericsson
  *
  * All rights reserved. This program and the accompanying materials are
  * made available under the terms of the Eclipse Public License 2.0 which
@@ -14,39 +14,62 @@
 
 package org.eclipse.tracecompass.internal.tmf.core.trace.indexer;
 
-import java.util.ArrayDeque;
-import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
- * A simple LRU node cache. The BTree request a node from the cache and the
- * cache load it from disk if it's not already in memory.
+ * A LRU node cache. The BTree request a node from the cache and the cache load
+ * it from disk if it's not already in memory.
  *
- * This cache could be improved considerably by allowing bigger caches.
+ * The caches of all the open BTrees share a memory budget, each one keeps as
+ * many nodes as its share of the budget allows.
  *
  * @author Marc-Andre Laperle
  */
 public class BTreeNodeCache {
 
     /**
-     * Cache size obtained by experimentation. An improved cache could set this
-     * dynamically or using a user preference.
+     * System property for the memory budget of the node caches of all the
+     * open BTrees, in bytes
      */
-    private static final int CACHE_SIZE = 15;
+    public static final String MEMORY_BUDGET_PROPERTY = "org.eclipse.tracecompass.tmf.core.trace.indexer.nodeCacheBudget"; //$NON-NLS-1$
+
+    private static final long MEMORY_BUDGET = Long.getLong(MEMORY_BUDGET_PROPERTY, Runtime.getRuntime().maxMemory() / 64);
+
+    /**
+     * Minimum cache size, the fixed size that was obtained by experimentation
+     */
+    private static final int MIN_CACHE_SIZE = 15;
+
+    /**
+     * Estimate of the heap used by an entry of a node on top of its serialized
+     * size: the headers of the checkpoint, its timestamp and its location
+     * objects, and the references between them.
+     */
+    private static final int ENTRY_HEAP_OVERHEAD = 64;
+
+    /** The number of open caches sharing the memory budget */
+    private static final AtomicInteger NB_CACHES = new AtomicInteger();
 
     private final BTree fTree;
+    private final long fNodeHeapSize;
     /**
      * The root node is always kept in memory when {@link
      * BTree#ALWAYS_CACHE_ROOT} is set to true
      */
     private BTreeNode fRootNode = null;
     /**
-     * The collection keeping the nodes in memory. The most recently used is
-     * kept at the front of the double-ended queue and the least recently used
-     * node is kept at the back.
+     * The collection keeping the nodes in memory, by offset. It is in access
+     * order: the least recently used node is the first one and the most
+     * recently used is the last one.
      */
-    private final Deque<BTreeNode> fCachedNodes = new ArrayDeque<>(CACHE_SIZE);
+    private final Map<Long, BTreeNode> fCachedNodes = new LinkedHashMap<>(MIN_CACHE_SIZE, 0.75f, true);
 
-    private int fCcheMisses = 0;
+    private long fCacheHits = 0;
+    private long fCacheMisses = 0;
+    private boolean fDisposed = false;
 
     /**
      * Construct a new node cache for the given BTree
@@ -56,6 +79,8 @@ public class BTreeNodeCache {
      */
     BTreeNodeCache(BTree tree) {
         fTree = tree;
+        fNodeHeapSize = (long) tree.getNodeSize() + (long) tree.getMaxNumEntries() * ENTRY_HEAP_OVERHEAD;
+        NB_CACHES.incrementAndGet();
     }
 
     /**
@@ -67,20 +92,18 @@ public class BTreeNodeCache {
      */
     BTreeNode getNode(long offset) {
         if (fRootNode != null && fRootNode.getOffset() == offset) {
+            ++fCacheHits;
             return fRootNode;
         }
 
-        for (BTreeNode nodeSearch : fCachedNodes) {
-            if (nodeSearch.getOffset() == offset) {
-                // This node is now the most recently used
-                fCachedNodes.remove(nodeSearch);
-                fCachedNodes.push(nodeSearch);
-
-                return nodeSearch;
-            }
+        // This node is now the most recently used
+        BTreeNode cachedNode = fCachedNodes.get(offset);
+        if (cachedNode != null) {
+            ++fCacheHits;
+            return cachedNode;
         }
 
-        ++fCcheMisses;
+        ++fCacheMisses;
 
         BTreeNode node = new BTreeNode(fTree, offset);
         node.serializeIn();
@@ -96,7 +119,7 @@ public class BTreeNodeCache {
         if (fRootNode != null && fRootNode.isDirty()) {
             fRootNode.serializeOut();
         }
-        for (BTreeNode nodeSearch : fCachedNodes) {
+        for (BTreeNode nodeSearch : fCachedNodes.values()) {
             if (nodeSearch.isDirty()) {
                 nodeSearch.serializeOut();
             }
@@ -104,20 +127,34 @@ public class BTreeNodeCache {
     }
 
     /**
-     * Add a node to the cache. If the cache has reached the size specified with
-     * {@link #CACHE_SIZE}, the least recently used node is removed from memory.
+     * Get the number of nodes that this cache can keep in memory, its share of
+     * the memory budget divided by the estimated heap size of a full node
+     *
+     * @return the capacity of the cache
+     */
+    int getCapacity() {
+        long capacity = MEMORY_BUDGET / Math.max(1, NB_CACHES.get()) / fNodeHeapSize;
+        return (int) Math.max(MIN_CACHE_SIZE, Math.min(Integer.MAX_VALUE, capacity));
+    }
+
+    /**
+     * Add a node to the cache. If the cache has reached its capacity, the
+     * least recently used nodes are removed from memory.
      *
      * @param node
      *            the node to add to the cache
      */
     void addNode(BTreeNode node) {
-        if (fCachedNodes.size() >= CACHE_SIZE) {
-            BTreeNode removed = fCachedNodes.removeLast();
+        int capacity = getCapacity();
+        Iterator<BTreeNode> iterator = fCachedNodes.values().iterator();
+        while (fCachedNodes.size() >= capacity && iterator.hasNext()) {
+            BTreeNode removed = iterator.next();
+            iterator.remove();
             if (removed.isDirty()) {
                 removed.serializeOut();
             }
         }
-        fCachedNodes.push(node);
+        fCachedNodes.put(node.getOffset(), node);
     }
 
     /**
@@ -135,6 +172,26 @@ public class BTreeNodeCache {
         return;
     }
 
+    /**
+     * Release the share of the memory budget of this cache
+     */
+    void dispose() {
+        if (!fDisposed) {
+            fDisposed = true;
+            NB_CACHES.decrementAndGet();
+        }
+    }
+
+    /**
+     * Get the number of cache hits for the whole BTree instance lifetime. Cache
+     * hits occur when a node is requested and it's in memory.
+     *
+     * @return the number of cache hits.
+     */
+    long getCacheHits() {
+        return fCacheHits;
+    }
+
     /**
      * Useful for benchmarks. Get the number of cache misses for the whole BTree
      * instance lifetime. Cache misses occur when a node is requested and it's
@@ -142,7 +199,7 @@ public class BTreeNodeCache {
      *
      * @return the number of cache misses.
      */
-    int getCacheMisses() {
-        return fCcheMisses;
+    long getCacheMisses() {
+        return fCacheMisses;
     }
 }
@@ -0,0 +1,316 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson and others
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.internal.tmf.core.trace.indexer;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.text.MessageFormat;
+import java.util.Arrays;
+
+import org.eclipse.tracecompass.internal.tmf.core.Activator;
+import org.eclipse.tracecompass.tmf.core.timestamp.ITmfTimestamp;
+import org.eclipse.tracecompass.tmf.core.timestamp.TmfTimestamp;
+import org.eclipse.tracecompass.tmf.core.trace.indexer.ITmfPersistentlyIndexable;
+import org.eclipse.tracecompass.tmf.core.trace.indexer.checkpoint.ITmfCheckpoint;
+import org.eclipse.tracecompass.tmf.core.trace.indexer.checkpoint.TmfCheckpoint;
+import org.eclipse.tracecompass.tmf.core.trace.location.ITmfLocation;
+
+/**
+ * Checkpoints kept in memory in two directories of primitive arrays, side by
+ * side, and persisted to disk when the collection is disposed.
+ * <p>
+ * The rank directory holds the serialized location and the time stamp of each
+ * checkpoint, by checkpoint rank, so getting a checkpoint by rank is O(1). The
+ * time directory holds the checkpoint ranks sorted by time stamp, with their
+ * time stamps in nanoseconds, so searching a checkpoint by time stamp is a
+ * binary search on an array of longs. Checkpoints are only restored to compare
+ * them when their time stamps are the same in nanoseconds, which also keeps
+ * time stamps that are out of order searchable.
+ */
+public class CheckpointDirectory extends AbstractFileCheckpointCollection {
+
+    /**
+     * Typical checkpoint directory file name
+     */
+    public static final String INDEX_FILE_NAME = "checkpoint_directory.idx"; //$NON-NLS-1$
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    /** The size of a serialized location in the rank directory */
+    private final int fLocationSize;
+
+    /* The rank directory */
+    private byte[] fLocations;
+    private long[] fValues;
+    private int[] fScales;
+
+    /* The time directory */
+    private long[] fTimeKeys;
+    private int[] fTimeRanks;
+
+    private boolean fModified = false;
+
+    /**
+     * Constructs a checkpoint directory for a given trace from scratch or from
+     * an existing file. When the directory is created from scratch, it is
+     * populated by subsequent calls to {@link #insert}.
+     *
+     * @param file
+     *            the file to use as the persistent storage
+     * @param trace
+     *            the trace
+     */
+    public CheckpointDirectory(File file, ITmfPersistentlyIndexable trace) {
+        super(file, trace);
+        fLocationSize = getTrace().getCheckpointSize();
+        int capacity = Math.max(INITIAL_CAPACITY, size());
+        fLocations = new byte[capacity * fLocationSize];
+        fValues = new long[capacity];
+        fScales = new int[capacity];
+        fTimeKeys = new long[capacity];
+        fTimeRanks = new int[capacity];
+
+        if (!isCreatedFromScratch() && getRandomAccessFile() != null) {
+            try {
+                readDirectories();
+            } catch (IOException e) {
+                Activator.logError(MessageFormat.format(Messages.CheckpointDirectory_IOErrorReading, getFile()), e);
+                getHeader().fSize = 0;
+                setCreatedFromScratch(true);
+                markDirty();
+            }
+        }
+    }
+
+    /**
+     * Insert a checkpoint in both directories. The checkpoint is expected to
+     * be the next one by rank.
+     *
+     * @param checkpoint
+     *            the checkpoint to insert
+     */
+    @Override
+    public void insert(ITmfCheckpoint checkpoint) {
+        markDirty();
+        fModified = true;
+        CheckpointCollectionFileHeader header = getHeader();
+        int rank = header.fSize;
+        ensureCapacity(rank + 1);
+
+        ByteBuffer location = ByteBuffer.wrap(fLocations, rank * fLocationSize, fLocationSize);
+        checkpoint.getLocation().serialize(location);
+        ITmfTimestamp timestamp = checkpoint.getTimestamp();
+        fValues[rank] = timestamp.getValue();
+        fScales[rank] = timestamp.getScale();
+
+        long key = getKey(timestamp);
+        int position = rank;
+        if (rank > 0 && fTimeKeys[rank - 1] >= key) {
+            position = upperBound(checkpoint, key);
+            System.arraycopy(fTimeKeys, position, fTimeKeys, position + 1, rank - position);
+            System.arraycopy(fTimeRanks, position, fTimeRanks, position + 1, rank - position);
+        }
+        fTimeKeys[position] = key;
+        fTimeRanks[position] = rank;
+        ++header.fSize;
+    }
+
+    /**
+     * Get a checkpoint from a rank
+     *
+     * @param rank
+     *            the rank of the checkpoint
+     * @return the checkpoint, or null if there is no checkpoint at this rank
+     */
+    public ITmfCheckpoint get(long rank) {
+        if (rank < 0 || rank >= size()) {
+            return null;
+        }
+        int index = (int) rank;
+        ITmfLocation location = getTrace().restoreLocation(ByteBuffer.wrap(fLocations, index * fLocationSize, fLocationSize));
+        return new TmfCheckpoint(TmfTimestamp.create(fValues[index], fScales[index]), location, rank);
+    }
+
+    /**
+     * Search for a checkpoint by time stamp, then location.
+     *
+     * @param checkpoint
+     *            the checkpoint to search
+     * @return the checkpoint rank of the searched checkpoint, if it is
+     *         contained in the index; otherwise, (-(insertion point) - 1),
+     *         where the insertion point follows the rank of the greatest
+     *         checkpoint before the searched one.
+     */
+    @Override
+    public long binarySearch(ITmfCheckpoint checkpoint) {
+        int position = upperBound(checkpoint, getKey(checkpoint.getTimestamp()));
+        if (position == 0) {
+            return -1;
+        }
+        int rank = fTimeRanks[position - 1];
+        if (get(rank).compareTo(checkpoint) == 0) {
+            return rank;
+        }
+        return -(rank + 1L) - 1;
+    }
+
+    /**
+     * Get the position in the time directory after all the checkpoints that
+     * are before or equal to a checkpoint
+     *
+     * @param checkpoint
+     *            the checkpoint
+     * @param key
+     *            the time stamp of the checkpoint in nanoseconds
+     * @return the position in the time directory
+     */
+    private int upperBound(ITmfCheckpoint checkpoint, long key) {
+        int size = size();
+        int lower = lowerBound(key, 0, size);
+        int upper = (key == Long.MAX_VALUE) ? size : lowerBound(key + 1, lower, size);
+        // Only the checkpoints with the same key need to be restored
+        while (lower < upper) {
+            int middle = (lower + upper) >>> 1;
+            if (get(fTimeRanks[middle]).compareTo(checkpoint) <= 0) {
+                lower = middle + 1;
+            } else {
+                upper = middle;
+            }
+        }
+        return lower;
+    }
+
+    /**
+     * Get the position of the first key that is greater than or equal to a
+     * key in the time directory, in a range
+     */
+    private int lowerBound(long key, int from, int to) {
+        int lower = from;
+        int upper = to;
+        while (lower < upper) {
+            int middle = (lower + upper) >>> 1;
+            if (fTimeKeys[middle] < key) {
+                lower = middle + 1;
+            } else {
+                upper = middle;
+            }
+        }
+        return lower;
+    }
+
+    /**
+     * The key of a time stamp in the time directory, its value in nanoseconds
+     */
+    private static long getKey(ITmfTimestamp timestamp) {
+        if (timestamp == null) {
+            return Long.MIN_VALUE;
+        }
+        try {
+            return timestamp.toNanos();
+        } catch (ArithmeticException e) {
+            return timestamp.getValue() < 0 ? Long.MIN_VALUE : Long.MAX_VALUE;
+        }
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= fValues.length) {
+            return;
+        }
+        int newCapacity = Math.max(capacity, fValues.length + (fValues.length >> 1));
+        fLocations = Arrays.copyOf(fLocations, newCapacity * fLocationSize);
+        fValues = Arrays.copyOf(fValues, newCapacity);
+        fScales = Arrays.copyOf(fScales, newCapacity);
+        fTimeKeys = Arrays.copyOf(fTimeKeys, newCapacity);
+        fTimeRanks = Arrays.copyOf(fTimeRanks, newCapacity);
+    }
+
+    /**
+     * Read the directories from the file, after the header: the locations,
+     * time stamp values and scales by rank, then the keys and ranks sorted by
+     * time stamp
+     */
+    private void readDirectories() throws IOException {
+        int size = size();
+        long position = getHeader().getSize();
+        ByteBuffer locations = ByteBuffer.wrap(fLocations, 0, size * fLocationSize).slice();
+        read(position, locations);
+        position += locations.capacity();
+
+        ByteBuffer buffer = ByteBuffer.allocate(size * LONG_SIZE);
+        read(position, buffer);
+        buffer.asLongBuffer().get(fValues, 0, size);
+        position += buffer.capacity();
+
+        buffer = ByteBuffer.allocate(size * INT_SIZE);
+        read(position, buffer);
+        buffer.asIntBuffer().get(fScales, 0, size);
+        position += buffer.capacity();
+
+        buffer = ByteBuffer.allocate(size * LONG_SIZE);
+        read(position, buffer);
+        buffer.asLongBuffer().get(fTimeKeys, 0, size);
+        position += buffer.capacity();
+
+        buffer = ByteBuffer.allocate(size * INT_SIZE);
+        read(position, buffer);
+        buffer.asIntBuffer().get(fTimeRanks, 0, size);
+    }
+
+    /**
+     * Write the directories to the file, after the header
+     */
+    private void writeDirectories() throws IOException {
+        int size = size();
+        long position = getHeader().getSize();
+        ByteBuffer locations = ByteBuffer.wrap(fLocations, 0, size * fLocationSize).slice();
+        write(position, locations);
+        position += locations.capacity();
+
+        ByteBuffer buffer = ByteBuffer.allocate(size * LONG_SIZE);
+        buffer.asLongBuffer().put(fValues, 0, size);
+        write(position, buffer);
+        position += buffer.capacity();
+
+        buffer = ByteBuffer.allocate(size * INT_SIZE);
+        buffer.asIntBuffer().put(fScales, 0, size);
+        write(position, buffer);
+        position += buffer.capacity();
+
+        buffer = ByteBuffer.allocate(size * LONG_SIZE);
+        buffer.asLongBuffer().put(fTimeKeys, 0, size);
+        write(position, buffer);
+        position += buffer.capacity();
+
+        buffer = ByteBuffer.allocate(size * INT_SIZE);
+        buffer.asIntBuffer().put(fTimeRanks, 0, size);
+        write(position, buffer);
+        position += buffer.capacity();
+        getRandomAccessFile().setLength(position);
+    }
+
+    @Override
+    public void dispose() {
+        if (fModified && getRandomAccessFile() != null) {
+            try {
+                writeDirectories();
+                fModified = false;
+            } catch (IOException e) {
+                Activator.logError(MessageFormat.format(Messages.CheckpointDirectory_IOErrorWriting, getFile()), e);
+                // Do not leave an index that looks valid with incomplete directories
+                delete();
+                return;
+            }
+        }
+        super.dispose();
+    }
+}
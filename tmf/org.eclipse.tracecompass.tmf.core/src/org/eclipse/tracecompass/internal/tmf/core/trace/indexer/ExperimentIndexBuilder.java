@@ -0,0 +1,334 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson and others
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.internal.tmf.core.trace.indexer;
+
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.common.core.collect.LongLoserTree;
+import org.eclipse.tracecompass.internal.tmf.core.trace.experiment.TmfExperimentContext;
+import org.eclipse.tracecompass.internal.tmf.core.trace.experiment.TmfExperimentLocation;
+import org.eclipse.tracecompass.internal.tmf.core.trace.experiment.TmfLocationArray;
+import org.eclipse.tracecompass.tmf.core.event.ITmfEvent;
+import org.eclipse.tracecompass.tmf.core.event.ITmfLostEvent;
+import org.eclipse.tracecompass.tmf.core.timestamp.ITmfTimestamp;
+import org.eclipse.tracecompass.tmf.core.timestamp.TmfTimestamp;
+import org.eclipse.tracecompass.tmf.core.trace.ITmfContext;
+import org.eclipse.tracecompass.tmf.core.trace.ITmfTrace;
+import org.eclipse.tracecompass.tmf.core.trace.indexer.checkpoint.ITmfCheckpoint;
+import org.eclipse.tracecompass.tmf.core.trace.indexer.checkpoint.TmfCheckpoint;
+import org.eclipse.tracecompass.tmf.core.trace.location.ITmfLocation;
+
+/**
+ * Builder of the checkpoints of an experiment, reading its traces in
+ * parallel.
+ * <p>
+ * Each trace is read independently by the tasks of a shared pool, one chunk of
+ * events ahead of the merge. A chunk only keeps the timestamp, location and
+ * rank of its events. Merging these timelines in the order of
+ * {@link TmfExperimentContext} gives the location of the experiment at each
+ * checkpoint, without reading all the events on a single thread.
+ */
+public final class ExperimentIndexBuilder {
+
+    /**
+     * System property for the number of threads reading the traces of the
+     * experiments being indexed, shared by all the experiments. With 0, the
+     * experiments are indexed by a request, on a single thread.
+     */
+    public static final String INDEXING_THREADS_PROPERTY = "org.eclipse.tracecompass.tmf.core.trace.indexer.indexingThreads"; //$NON-NLS-1$
+
+    private static final int INDEXING_THREADS = Math.max(0, Integer.getInteger(INDEXING_THREADS_PROPERTY,
+            Runtime.getRuntime().availableProcessors()));
+    private static final int CHUNK_SIZE = 1024;
+
+    private static @Nullable ExecutorService sPool = null;
+
+    private final List<@NonNull ITmfTrace> fTraces;
+    private final int fInterval;
+
+    private volatile boolean fCancelled = false;
+    private volatile long fNbEvents = 0;
+    private volatile ITmfTimestamp fStartTime = TmfTimestamp.BIG_BANG;
+    private volatile ITmfTimestamp fEndTime = TmfTimestamp.BIG_BANG;
+
+    /**
+     * Events read from a trace, with the location and rank of the context
+     * before each one. At the end of the trace, the location and rank after
+     * the last event follow them.
+     */
+    private static final class Chunk {
+        private final ITmfTimestamp[] fTimestamps = new ITmfTimestamp[CHUNK_SIZE];
+        private final ITmfTimestamp[] fEndTimes = new ITmfTimestamp[CHUNK_SIZE];
+        private final ITmfLocation[] fLocations = new ITmfLocation[CHUNK_SIZE + 1];
+        private final long[] fRanks = new long[CHUNK_SIZE + 1];
+        private int fSize = 0;
+        private boolean fLast = false;
+    }
+
+    /**
+     * Timeline of a trace, read by the pool a chunk ahead of its position
+     */
+    private final class Timeline {
+        private final ITmfTrace fTrace;
+        private final ITmfContext fContext;
+        private Chunk fChunk;
+        private int fIndex = 0;
+        private @Nullable Future<Chunk> fNext;
+
+        public Timeline(ITmfTrace trace, ExecutorService pool) {
+            fTrace = trace;
+            fContext = trace.seekEvent((ITmfLocation) null);
+            fContext.setRank(0);
+            fChunk = new Chunk();
+            fNext = pool.submit(this::read);
+        }
+
+        private Chunk read() {
+            Chunk chunk = new Chunk();
+            while (chunk.fSize < CHUNK_SIZE) {
+                chunk.fLocations[chunk.fSize] = fContext.getLocation();
+                chunk.fRanks[chunk.fSize] = fContext.getRank();
+                ITmfEvent event = fCancelled ? null : fTrace.getNext(fContext);
+                if (event == null) {
+                    chunk.fLast = true;
+                    break;
+                }
+                ITmfTimestamp timestamp = event.getTimestamp();
+                chunk.fTimestamps[chunk.fSize] = timestamp;
+                chunk.fEndTimes[chunk.fSize] = (event instanceof ITmfLostEvent) ? ((ITmfLostEvent) event).getTimeRange().getEndTime() : timestamp;
+                chunk.fSize++;
+            }
+            return chunk;
+        }
+
+        /**
+         * Move to the next event, reading the next chunk if needed
+         */
+        public void next(ExecutorService pool) throws InterruptedException, ExecutionException {
+            fIndex++;
+            if (fIndex < fChunk.fSize || fChunk.fLast) {
+                return;
+            }
+            Future<Chunk> next = fNext;
+            if (next == null) {
+                return;
+            }
+            fChunk = next.get();
+            fIndex = 0;
+            fNext = fChunk.fLast ? null : pool.submit(this::read);
+        }
+
+        public boolean hasEvent() {
+            return fIndex < fChunk.fSize;
+        }
+
+        public ITmfTimestamp getTimestamp() {
+            return fChunk.fTimestamps[fIndex];
+        }
+
+        public ITmfTimestamp getEndTime() {
+            return fChunk.fEndTimes[fIndex];
+        }
+
+        public ITmfLocation getLocation() {
+            return fChunk.fLocations[fIndex];
+        }
+
+        public long getRank() {
+            return fChunk.fRanks[fIndex];
+        }
+
+        public void dispose() {
+            Future<Chunk> next = fNext;
+            if (next != null) {
+                try {
+                    next.get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException e) {
+                    /* Already reported by the merge, or not needed anymore */
+                }
+            }
+            fContext.dispose();
+        }
+    }
+
+    /**
+     * Constructor
+     *
+     * @param traces
+     *            the traces of the experiment
+     * @param interval
+     *            the interval between checkpoints, in events
+     */
+    public ExperimentIndexBuilder(List<@NonNull ITmfTrace> traces, int interval) {
+        fTraces = traces;
+        fInterval = interval;
+    }
+
+    /**
+     * Whether the experiments can be indexed in parallel
+     *
+     * @return true if there are threads to read the traces
+     */
+    public static boolean isEnabled() {
+        return INDEXING_THREADS > 0;
+    }
+
+    private static synchronized ExecutorService getPool() {
+        ExecutorService pool = sPool;
+        if (pool == null) {
+            AtomicInteger threadId = new AtomicInteger();
+            pool = Executors.newFixedThreadPool(INDEXING_THREADS, r -> {
+                Thread thread = new Thread(r, "Experiment Indexer " + threadId.incrementAndGet()); //$NON-NLS-1$
+                thread.setDaemon(true);
+                return thread;
+            });
+            sPool = pool;
+        }
+        return pool;
+    }
+
+    /**
+     * Read the traces and build the checkpoints of the experiment, at every
+     * interval of events from the start
+     *
+     * @param checkpoints
+     *            the consumer of the checkpoints, in order
+     * @return true if all the events were read, false if cancelled
+     * @throws InterruptedException
+     *             if the thread was interrupted while waiting for a trace
+     * @throws ExecutionException
+     *             if a trace could not be read
+     */
+    public boolean build(Consumer<ITmfCheckpoint> checkpoints) throws InterruptedException, ExecutionException {
+        ExecutorService pool = getPool();
+        int nbTraces = fTraces.size();
+        Timeline[] timelines = new Timeline[nbTraces];
+        try {
+            for (int i = 0; i < nbTraces; i++) {
+                timelines[i] = new Timeline(fTraces.get(i), pool);
+            }
+            LongLoserTree merge = new LongLoserTree(nbTraces, (a, b) -> {
+                int comparison = timelines[a].getTimestamp().compareTo(timelines[b].getTimestamp());
+                return (comparison != 0) ? comparison : Integer.compare(a, b);
+            });
+            ITmfLocation[] locations = new ITmfLocation[nbTraces];
+            long[] ranks = new long[nbTraces];
+            for (int i = 0; i < nbTraces; i++) {
+                Timeline timeline = timelines[i];
+                /* The first chunk takes the place of the empty one */
+                timeline.fIndex = -1;
+                timeline.next(pool);
+                locations[i] = timeline.getLocation();
+                ranks[i] = timeline.getRank();
+                if (timeline.hasEvent()) {
+                    merge.set(i, getKey(timeline.getTimestamp()));
+                }
+            }
+
+            long rank = 0;
+            int top = merge.peek();
+            while (top >= 0) {
+                if (fCancelled) {
+                    return false;
+                }
+                Timeline timeline = timelines[top];
+                ITmfTimestamp timestamp = timeline.getTimestamp();
+                if (rank % fInterval == 0) {
+                    TmfLocationArray locationArray = new TmfLocationArray(locations, ranks);
+                    checkpoints.accept(new TmfCheckpoint(timestamp, new TmfExperimentLocation(locationArray), rank / fInterval));
+                }
+                if (rank == 0 || fStartTime.compareTo(timestamp) > 0) {
+                    fStartTime = timestamp;
+                }
+                ITmfTimestamp endTime = timeline.getEndTime();
+                if (rank == 0 || fEndTime.compareTo(endTime) < 0) {
+                    fEndTime = endTime;
+                }
+                rank++;
+                fNbEvents = rank;
+
+                timeline.next(pool);
+                locations[top] = timeline.getLocation();
+                ranks[top] = timeline.getRank();
+                if (timeline.hasEvent()) {
+                    merge.replaceTop(getKey(timeline.getTimestamp()));
+                } else {
+                    merge.removeTop();
+                }
+                top = merge.peek();
+            }
+            return !fCancelled;
+        } finally {
+            fCancelled = true;
+            for (Timeline timeline : timelines) {
+                if (timeline != null) {
+                    timeline.dispose();
+                }
+            }
+        }
+    }
+
+    /**
+     * The key of a timestamp in the merge, like in {@link TmfExperimentContext}
+     */
+    private static long getKey(ITmfTimestamp timestamp) {
+        try {
+            return timestamp.toNanos();
+        } catch (ArithmeticException e) {
+            return timestamp.getValue() < 0 ? Long.MIN_VALUE : Long.MAX_VALUE;
+        }
+    }
+
+    /**
+     * Stop reading the traces
+     */
+    public void cancel() {
+        fCancelled = true;
+    }
+
+    /**
+     * Get the number of events merged so far
+     *
+     * @return the number of events
+     */
+    public long getNbEvents() {
+        return fNbEvents;
+    }
+
+    /**
+     * Get the timestamp of the first event merged so far
+     *
+     * @return the start time
+     */
+    public ITmfTimestamp getStartTime() {
+        return fStartTime;
+    }
+
+    /**
+     * Get the end time of the events merged so far
+     *
+     * @return the end time
+     */
+    public ITmfTimestamp getEndTime() {
+        return fEndTime;
+    }
+}
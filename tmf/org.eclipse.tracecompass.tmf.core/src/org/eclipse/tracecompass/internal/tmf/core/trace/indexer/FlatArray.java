@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2013, 2017 Ericsson
+ * Copyright (c) 2013, 2026 Ericsson
  *
  * All rights reserved. This program and the accompanying materials are
  * made available under the terms of the Eclipse Public License 2.0 which
@@ -73,10 +73,9 @@ public class FlatArray extends AbstractFileCheckpointCollection {
         try {
             CheckpointCollectionFileHeader header = getHeader();
             ++header.fSize;
-            getRandomAccessFile().seek(getRandomAccessFile().length());
             fByteBuffer.clear();
             checkpoint.serialize(fByteBuffer);
-            getRandomAccessFile().write(fByteBuffer.array());
+            write(getRandomAccessFile().length(), fByteBuffer);
         } catch (IOException e) {
             Activator.logError(MessageFormat.format(Messages.FlatArray_IOErrorWriting, getFile()), e);
         }
@@ -96,9 +95,7 @@ public class FlatArray extends AbstractFileCheckpointCollection {
             if (getRandomAccessFile() == null) {
                 return null;
             }
-            getRandomAccessFile().seek(pos);
-            fByteBuffer.clear();
-            getRandomAccessFile().read(fByteBuffer.array());
+            read(pos, fByteBuffer);
             ITmfLocation location = getTrace().restoreLocation(fByteBuffer);
             ITmfTimestamp timeStamp = TmfTimestamp.create(fByteBuffer);
             checkpoint = new TmfCheckpoint(timeStamp, location, fByteBuffer);
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2013, 2014 Ericsson
+ * Copyright (c) 2013, 2026 Ericsson
  *
  * All rights reserved. This program and the accompanying materials are
  * made available under the terms of the Eclipse Public License 2.0 which
@@ -59,6 +59,14 @@ public class Messages extends NLS {
      * I/O Error writing to disk
      */
     public static String FlatArray_IOErrorWriting;
+    /**
+     * I/O Error reading the checkpoint directories from disk
+     */
+    public static String CheckpointDirectory_IOErrorReading;
+    /**
+     * I/O Error writing the checkpoint directories to disk
+     */
+    public static String CheckpointDirectory_IOErrorWriting;
     static {
         // initialize resource bundle
         NLS.initializeMessages(BUNDLE_NAME, Messages.class);
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2012, 2025 Ericsson
+ * Copyright (c) 2012, 2026 Ericsson
  *
  * All rights reserved. This program and the accompanying materials are
  * made available under the terms of the Eclipse Public License 2.0 which
@@ -18,6 +18,13 @@ import java.util.Comparator;
 import java.util.Objects;
 import java.util.PriorityQueue;
 import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -31,12 +38,14 @@ import org.eclipse.tracecompass.statesystem.core.ITmfStateSystem;
 import org.eclipse.tracecompass.statesystem.core.ITmfStateSystemBuilder;
 import org.eclipse.tracecompass.tmf.core.event.ITmfEvent;
 import org.eclipse.tracecompass.tmf.core.event.TmfEvent;
+import org.eclipse.tracecompass.tmf.core.timestamp.TmfTimestamp;
 import org.eclipse.tracecompass.tmf.core.trace.ITmfContext;
 import org.eclipse.tracecompass.tmf.core.trace.ITmfTrace;
 import org.eclipse.tracecompass.traceeventlogger.LogUtils.FlowScopeLog;
 import org.eclipse.tracecompass.traceeventlogger.LogUtils.FlowScopeLogBuilder;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.Uninterruptibles;
 
 /**
  * Instead of implementing {@link ITmfStateProvider} directly, one can extend
@@ -50,6 +59,12 @@ import com.google.common.annotations.VisibleForTesting;
  * {@link #eventHandle(ITmfEvent)}, so that all the multi-thread logic is
  * abstracted away.
  *
+ * Providers that spend a lot of time reading the events before changing the
+ * state can also move that work to {@link #decodeEvent(ITmfEvent)}, which is
+ * called on a pool of threads, and receive its result in
+ * {@link #eventHandle(ITmfEvent, Object)}, which is still called for one event
+ * at a time, in order.
+ *
  * @author Alexandre Montplaisir
  */
 public abstract class AbstractTmfStateProvider implements ITmfStateProvider {
@@ -74,11 +89,26 @@ public abstract class AbstractTmfStateProvider implements ITmfStateProvider {
         }
     }
 
+    /**
+     * System property for the number of threads that decode the events of the
+     * providers that support it, shared by all these providers. With 0, the
+     * events are decoded on the event handler thread of each provider.
+     *
+     * @since 10.2
+     */
+    public static final String DECODING_THREADS_PROPERTY = "org.eclipse.tracecompass.tmf.core.statesystem.decodingThreads"; //$NON-NLS-1$
+
     private static final int DEFAULT_EVENTS_QUEUE_SIZE = 127;
     private static final int DEFAULT_EVENTS_CHUNK_SIZE = 127;
+    private static final int DECODING_THREADS = Math.max(0, Integer.getInteger(DECODING_THREADS_PROPERTY,
+            Math.max(1, Runtime.getRuntime().availableProcessors() / 2)));
+
+    private static @Nullable ExecutorService sDecodingPool = null;
 
     private final ITmfTrace fTrace;
     private final BufferedBlockingQueue<ITmfEvent> fEventsQueue;
+    private final @Nullable DecodingPipeline fPipeline;
+    private final boolean fDecodeEvents;
     private final Thread fEventHandlerThread;
 
     private boolean fStateSystemAssigned;
@@ -113,6 +143,24 @@ public abstract class AbstractTmfStateProvider implements ITmfStateProvider {
         this(trace, id, DEFAULT_EVENTS_QUEUE_SIZE, DEFAULT_EVENTS_CHUNK_SIZE);
     }
 
+    /**
+     * Instantiate a new state provider which may decode its events in
+     * parallel. If <code>decodeEvents</code> is true, each event is first
+     * passed to {@link #decodeEvent(ITmfEvent)}, on the threads of the decoding
+     * pool, then to {@link #eventHandle(ITmfEvent, Object)} with the result.
+     *
+     * @param trace
+     *            The trace
+     * @param id
+     *            ID given to this analysis. Only used internally.
+     * @param decodeEvents
+     *            Whether this provider decodes its events before handling them
+     * @since 10.2
+     */
+    protected AbstractTmfStateProvider(ITmfTrace trace, String id, boolean decodeEvents) {
+        this(trace, id, DEFAULT_EVENTS_QUEUE_SIZE, DEFAULT_EVENTS_CHUNK_SIZE, decodeEvents);
+    }
+
     /**
      * Instantiate a new state provider. This constructor allows to fine-tune
      * the size of the event processing queue. This can be useful to unit tests
@@ -132,6 +180,31 @@ public abstract class AbstractTmfStateProvider implements ITmfStateProvider {
      */
     @VisibleForTesting
     protected AbstractTmfStateProvider(ITmfTrace trace, String id, int queueSize, int chunkSize) {
+        this(trace, id, queueSize, chunkSize, false);
+    }
+
+    /**
+     * Instantiate a new state provider which may decode its events in
+     * parallel, with a given size of event processing queue. In that case, the
+     * events are decoded by chunks and the queue holds the chunks waiting to be
+     * handled.
+     *
+     * @param trace
+     *            The trace
+     * @param id
+     *            ID given to this analysis. Only used internally.
+     * @param queueSize
+     *            The size of the queue, a.k.a the number of chunks that fit
+     *            into the buffered queue.
+     * @param chunkSize
+     *            The number of events that fit inside a single chunk of the
+     *            queue
+     * @param decodeEvents
+     *            Whether this provider decodes its events before handling them
+     * @since 10.2
+     */
+    @VisibleForTesting
+    protected AbstractTmfStateProvider(ITmfTrace trace, String id, int queueSize, int chunkSize, boolean decodeEvents) {
         if (queueSize <= 0 || chunkSize <= 0) {
             throw new IllegalArgumentException("Cannot have negative sized buffer" + //$NON-NLS-1$
                     formatError("queueSize", queueSize) + //$NON-NLS-1$
@@ -140,6 +213,8 @@ public abstract class AbstractTmfStateProvider implements ITmfStateProvider {
         try (FlowScopeLog log = new FlowScopeLogBuilder(LOGGER, Level.FINE, "AbstractTmfStateProvider:creating object").setCategory(id).build()) { //$NON-NLS-1$
             fTrace = trace;
             fEventsQueue = new BufferedBlockingQueue<>(queueSize, chunkSize);
+            fDecodeEvents = decodeEvents;
+            fPipeline = (decodeEvents && DECODING_THREADS > 0) ? new DecodingPipeline(queueSize, chunkSize) : null;
             fStateSystemAssigned = false;
             // set the safe time to before the trace start, the analysis has not
             // yet
@@ -153,6 +228,20 @@ public abstract class AbstractTmfStateProvider implements ITmfStateProvider {
         return (value <= 0) ? " " + name + " = " + value : ""; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
     }
 
+    private static synchronized ExecutorService getDecodingPool() {
+        ExecutorService pool = sDecodingPool;
+        if (pool == null) {
+            AtomicInteger threadId = new AtomicInteger();
+            pool = Executors.newFixedThreadPool(DECODING_THREADS, r -> {
+                Thread thread = new Thread(r, "State Provider Event Decoder " + threadId.incrementAndGet()); //$NON-NLS-1$
+                thread.setDaemon(true);
+                return thread;
+            });
+            sDecodingPool = pool;
+        }
+        return pool;
+    }
+
     /**
      * Get the state system builder of this provider (to insert states in).
      *
@@ -198,8 +287,7 @@ public abstract class AbstractTmfStateProvider implements ITmfStateProvider {
          * Insert a null event in the queue to stop the event handler's thread.
          */
         try {
-            fEventsQueue.put(END_EVENT);
-            fEventsQueue.flushInputBuffer();
+            putEvent(END_EVENT, true);
             fEventHandlerThread.join();
         } catch (InterruptedException e) {
             Activator.logError("Error disposing state provider", e); //$NON-NLS-1$
@@ -218,7 +306,41 @@ public abstract class AbstractTmfStateProvider implements ITmfStateProvider {
 
         /* Insert the event we're received into the events queue */
         ITmfEvent curEvent = event;
-        fEventsQueue.put(curEvent);
+        putEvent(curEvent, false);
+    }
+
+    /**
+     * Set the end time of the state system, if it is later than the last event
+     * received so far. The state system is closed at the time of the last
+     * event received before the provider is disposed. The shards of a
+     * {@link ShardedStateProvider} do not all receive the last event of the
+     * trace, but they must all end at its time.
+     *
+     * @param endTime
+     *            The end time of the trace
+     */
+    void processEndTime(long endTime) {
+        putEvent(new EndTimeEvent(endTime), false);
+    }
+
+    private void putEvent(ITmfEvent event, boolean flush) {
+        DecodingPipeline pipeline = fPipeline;
+        if (pipeline != null) {
+            pipeline.put(event, flush);
+            return;
+        }
+        fEventsQueue.put(event);
+        if (flush) {
+            fEventsQueue.flushInputBuffer();
+        }
+    }
+
+    private ITmfEvent takeEvent() {
+        DecodingPipeline pipeline = fPipeline;
+        if (pipeline != null) {
+            return pipeline.take();
+        }
+        return fEventsQueue.take();
     }
 
     /**
@@ -247,9 +369,9 @@ public abstract class AbstractTmfStateProvider implements ITmfStateProvider {
          * for sure that the state system processed the preceding real event.
          */
         try {
-            fEventsQueue.put(EMPTY_QUEUE_EVENT);
-            fEventsQueue.flushInputBuffer();
-            while (!fEventsQueue.isEmpty()) {
+            putEvent(EMPTY_QUEUE_EVENT, true);
+            DecodingPipeline pipeline = fPipeline;
+            while ((pipeline != null) ? !pipeline.isEmpty() : !fEventsQueue.isEmpty()) {
                 Thread.sleep(100);
             }
         } catch (InterruptedException e) {
@@ -277,6 +399,13 @@ public abstract class AbstractTmfStateProvider implements ITmfStateProvider {
         }
     }
 
+    /** Fake event carrying the end time of the trace, which is not handled */
+    private static class EndTimeEvent extends TmfEvent {
+        public EndTimeEvent(long time) {
+            super(null, ITmfContext.UNKNOWN_RANK, TmfTimestamp.fromNanos(time), null, null);
+        }
+    }
+
     private static final EndEvent END_EVENT = new EndEvent();
     private static final EmptyQueueEvent EMPTY_QUEUE_EVENT = new EmptyQueueEvent();
 
@@ -310,13 +439,22 @@ public abstract class AbstractTmfStateProvider implements ITmfStateProvider {
                  * We never insert null in the queue. Cannot be checked at
                  * compile-time until Java 8 annotations...
                  */
-                ITmfEvent event = fEventsQueue.take();
+                ITmfEvent event = takeEvent();
 
                 /* This is a singleton, we want to do != instead of !x.equals */
                 while (event != END_EVENT) {
                     if (event == EMPTY_QUEUE_EVENT) {
                         /* Synchronization event, should be ignored */
-                        event = fEventsQueue.take();
+                        event = takeEvent();
+                        continue;
+                    }
+                    if (event instanceof EndTimeEvent) {
+                        /* Only the end time of the state system may change */
+                        ITmfEvent lastEvent = currentEvent;
+                        if (lastEvent == null || lastEvent.getTimestamp().compareTo(event.getTimestamp()) < 0) {
+                            currentEvent = event;
+                        }
+                        event = takeEvent();
                         continue;
                     }
                     currentEvent = event;
@@ -334,9 +472,16 @@ public abstract class AbstractTmfStateProvider implements ITmfStateProvider {
                         }
                         futureEvent = fFutureEvents.peek();
                     }
-                    eventHandle(event);
+                    DecodingPipeline pipeline = fPipeline;
+                    if (pipeline != null) {
+                        eventHandle(event, pipeline.getDecoded());
+                    } else if (fDecodeEvents) {
+                        eventHandle(event, decodeEvent(event));
+                    } else {
+                        eventHandle(event);
+                    }
 
-                    event = fEventsQueue.take();
+                    event = takeEvent();
                 }
                 fDone = true;
                 /*
@@ -407,19 +552,126 @@ public abstract class AbstractTmfStateProvider implements ITmfStateProvider {
                 return;
             }
             /* drain */
-            ITmfEvent event = fEventsQueue.take();
+            ITmfEvent event = drainEvent();
             while (event != END_EVENT) {
                 if (event == EMPTY_QUEUE_EVENT) {
                     /* Synchronization event, should be ignored */
-                    event = fEventsQueue.take();
+                    event = drainEvent();
                     continue;
                 }
-                event = fEventsQueue.take();
+                event = drainEvent();
             }
 
             /* We've received the last event, clean up */
             closeStateSystem();
         }
+
+        private ITmfEvent drainEvent() {
+            while (true) {
+                try {
+                    return takeEvent();
+                } catch (RuntimeException e) {
+                    /* A chunk failed to decode, it is dropped anyway */
+                }
+            }
+        }
+    }
+
+    /**
+     * The first stage of the event processing for the providers that decode
+     * their events. The events are grouped in chunks, which are decoded on the
+     * threads of the decoding pool. The futures of the decoded chunks are
+     * queued in the order of the events, so the event handler thread receives
+     * the events in order with their decoded data.
+     */
+    private final class DecodingPipeline {
+
+        private final BlockingQueue<Future<DecodedChunk>> fChunks;
+        private final int fChunkSize;
+        private final AtomicInteger fPendingChunks = new AtomicInteger();
+
+        /* Chunk being filled, only accessed by the thread that sends the events */
+        private ITmfEvent[] fInput;
+        private int fInputSize = 0;
+
+        /* Chunk being handled, only accessed by the event handler thread */
+        private @Nullable DecodedChunk fOutput = null;
+        private int fOutputPos = 0;
+
+        public DecodingPipeline(int queueSize, int chunkSize) {
+            fChunks = new ArrayBlockingQueue<>(queueSize);
+            fChunkSize = chunkSize;
+            fInput = new ITmfEvent[chunkSize];
+        }
+
+        public synchronized void put(ITmfEvent event, boolean flush) {
+            fInput[fInputSize++] = event;
+            if (flush || fInputSize == fChunkSize) {
+                ITmfEvent[] events = fInput;
+                int size = fInputSize;
+                fInput = new ITmfEvent[fChunkSize];
+                fInputSize = 0;
+                fPendingChunks.incrementAndGet();
+                Uninterruptibles.putUninterruptibly(fChunks, getDecodingPool().submit(() -> decode(events, size)));
+            }
+        }
+
+        private DecodedChunk decode(ITmfEvent[] events, int size) {
+            @Nullable Object[] decoded = new @Nullable Object[size];
+            for (int i = 0; i < size; i++) {
+                ITmfEvent event = events[i];
+                if (event != END_EVENT && event != EMPTY_QUEUE_EVENT && !(event instanceof EndTimeEvent)) {
+                    decoded[i] = decodeEvent(event);
+                }
+            }
+            return new DecodedChunk(events, decoded, size);
+        }
+
+        public ITmfEvent take() {
+            DecodedChunk chunk = fOutput;
+            if (chunk != null && fOutputPos >= chunk.fSize) {
+                fOutput = null;
+                fPendingChunks.decrementAndGet();
+                chunk = null;
+            }
+            if (chunk == null) {
+                Future<DecodedChunk> future = Uninterruptibles.takeUninterruptibly(fChunks);
+                try {
+                    chunk = Uninterruptibles.getUninterruptibly(future);
+                } catch (ExecutionException e) {
+                    fPendingChunks.decrementAndGet();
+                    throw new IllegalStateException("Error decoding events", e.getCause()); //$NON-NLS-1$
+                }
+                fOutput = chunk;
+                fOutputPos = 0;
+            }
+            return Objects.requireNonNull(chunk.fEvents[fOutputPos++]);
+        }
+
+        public @Nullable Object getDecoded() {
+            DecodedChunk chunk = Objects.requireNonNull(fOutput);
+            return chunk.fDecoded[fOutputPos - 1];
+        }
+
+        public boolean isEmpty() {
+            /*
+             * A chunk is released when the event after its last one is taken,
+             * so all its events were handled
+             */
+            return fPendingChunks.get() == 0;
+        }
+    }
+
+    private static final class DecodedChunk {
+        private final ITmfEvent[] fEvents;
+        private final @Nullable Object[] fDecoded;
+        private final int fSize;
+
+        public DecodedChunk(ITmfEvent[] events, @Nullable Object[] decoded, int size) {
+            fEvents = events;
+            fDecoded = decoded;
+            fSize = size;
+        }
     }
 
     @Override
@@ -451,4 +703,38 @@ public abstract class AbstractTmfStateProvider implements ITmfStateProvider {
      */
     protected abstract void eventHandle(ITmfEvent event);
 
+    /**
+     * Decode an event before it is handled, for the providers that were
+     * created to decode their events. This is where the work that does not
+     * depend on the current state should go, like reading the event fields or
+     * finding which handler to call. It may be called on several threads at
+     * once, for different events, and before the previous events were handled.
+     *
+     * @param event
+     *            The event to decode
+     * @return The decoded data to pass to
+     *         {@link #eventHandle(ITmfEvent, Object)}, or <code>null</code>
+     * @since 10.2
+     */
+    protected @Nullable Object decodeEvent(ITmfEvent event) {
+        return null;
+    }
+
+    /**
+     * Handle an event with the data returned by
+     * {@link #decodeEvent(ITmfEvent)}, for the providers that were created to
+     * decode their events. It is called on the event handler thread, for one
+     * event at a time, in order. The default implementation calls
+     * {@link #eventHandle(ITmfEvent)}.
+     *
+     * @param event
+     *            The event to process
+     * @param decoded
+     *            The decoded data of the event
+     * @since 10.2
+     */
+    protected void eventHandle(ITmfEvent event, @Nullable Object decoded) {
+        eventHandle(event);
+    }
+
 }
@@ -0,0 +1,63 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson and others
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.tmf.core.statesystem;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * A state provider whose build can be resumed when its trace grows, instead of
+ * being rebuilt from the start.
+ *
+ * When a full history is built successfully, the analysis module saves a
+ * checkpoint next to the history file, with the position of the last event
+ * read and the provider's own state, written by
+ * {@link #saveCheckpoint(DataOutput)}. When the module is executed again on a
+ * trace that now has events after that position, the history file is reopened
+ * in append mode, the ongoing states of the state system are restored from it,
+ * {@link #restoreCheckpoint(DataInput)} is called on a new provider and only the
+ * new events are read.
+ *
+ * Providers whose state is entirely in the state system can implement both
+ * methods as no-ops. Providers that keep state in fields, like maps of the
+ * current thread per CPU, must save it all, otherwise the resumed history will
+ * differ from a history built in one go.
+ *
+ * @since 10.2
+ */
+public interface ITmfResumableStateProvider extends ITmfStateProvider {
+
+    /**
+     * Save the state this provider keeps outside of the state system. This is
+     * called once the last event was handled and the state system was closed.
+     *
+     * @param output
+     *            The output to write the state to
+     * @throws IOException
+     *             If the state cannot be written
+     */
+    void saveCheckpoint(DataOutput output) throws IOException;
+
+    /**
+     * Restore the state saved by {@link #saveCheckpoint(DataOutput)}. This is
+     * called on a new provider, after its target state system was assigned
+     * and before it receives any event.
+     *
+     * @param input
+     *            The input to read the state from
+     * @throws IOException
+     *             If the state cannot be read, in which case the history is
+     *             rebuilt from the start
+     */
+    void restoreCheckpoint(DataInput input) throws IOException;
+}
@@ -0,0 +1,59 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson and others
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.tmf.core.statesystem;
+
+import org.eclipse.tracecompass.tmf.core.event.ITmfEvent;
+
+/**
+ * A state provider whose state system can be built as several independent
+ * shards, for instance one per group of CPUs, each by its own instance of the
+ * provider and in its own history file.
+ *
+ * When the analysis module builds a full history with such a provider, each
+ * event is sent to the instance of the shard returned by
+ * {@link #getShard(ITmfEvent)}, the other instances being created with
+ * {@link #getNewInstance()}. The shards are then queried as a single read-only
+ * state system, whose attribute tree is the merge of the attribute trees of
+ * the shards.
+ *
+ * This is only correct if the shards model disjoint parts of the trace: an
+ * attribute modified by the events of one shard must not be modified by the
+ * events of another one, and the handling of an event must not depend on the
+ * events of other shards.
+ *
+ * @since 10.2
+ */
+public interface ITmfShardedStateProvider extends ITmfStateProvider {
+
+    /**
+     * Get the number of shards of the state system. It must be the same for
+     * every instance of the provider. It may change between executions, for
+     * instance with the number of processors, in which case the history files
+     * of the shards are rebuilt instead of reopened. A value of 1 or less
+     * builds a single state system.
+     *
+     * @return The number of shards
+     */
+    int getNbShards();
+
+    /**
+     * Get the shard of an event. This is called on the thread sending the
+     * events to the shards, concurrently with the handling of the previous
+     * events, so it must not use the state of the provider.
+     *
+     * @param event
+     *            The event
+     * @return The shard of the event, from 0 to {@link #getNbShards()} - 1, or
+     *         a negative value if no shard needs the event
+     */
+    int getShard(ITmfEvent event);
+}
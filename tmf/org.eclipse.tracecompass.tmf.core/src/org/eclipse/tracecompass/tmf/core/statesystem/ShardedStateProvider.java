@@ -0,0 +1,165 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson and others
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.tmf.core.statesystem;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.statesystem.core.ITmfStateSystem;
+import org.eclipse.tracecompass.statesystem.core.ITmfStateSystemBuilder;
+import org.eclipse.tracecompass.statesystem.core.StateSystemFactory;
+import org.eclipse.tracecompass.tmf.core.event.ITmfEvent;
+import org.eclipse.tracecompass.tmf.core.trace.ITmfTrace;
+
+/**
+ * The provider used by the analysis module to build the shards of a
+ * {@link ITmfShardedStateProvider}. It sends each event to the instance of the
+ * provider of its shard, which handles it on its own thread and in its own
+ * state system, and exposes the shards as a single federated state system.
+ *
+ * Each shard is assigned its own state system, by calling
+ * {@link #assignTargetStateSystem(ITmfStateSystemBuilder)} once per shard, in
+ * order. The federated state system is available once they are all assigned.
+ */
+class ShardedStateProvider implements ITmfStateProvider {
+
+    private final String fId;
+    private final ITmfShardedStateProvider fProvider;
+    private final List<ITmfStateProvider> fShards = new ArrayList<>();
+    private final List<ITmfStateSystem> fStateSystems = new ArrayList<>();
+    private @Nullable ITmfStateSystem fStateSystem = null;
+    private long fLastTime = Long.MIN_VALUE;
+
+    /**
+     * Constructor
+     *
+     * @param id
+     *            The ID of the federated state system
+     * @param provider
+     *            The provider, which builds the first shard
+     */
+    public ShardedStateProvider(String id, ITmfShardedStateProvider provider) {
+        fId = id;
+        fProvider = provider;
+        int nbShards = Math.max(1, provider.getNbShards());
+        fShards.add(provider);
+        for (int i = 1; i < nbShards; i++) {
+            fShards.add(provider.getNewInstance());
+        }
+    }
+
+    @Override
+    public int getVersion() {
+        return fProvider.getVersion();
+    }
+
+    @Override
+    public ITmfTrace getTrace() {
+        return fProvider.getTrace();
+    }
+
+    @Override
+    public long getStartTime() {
+        return fProvider.getStartTime();
+    }
+
+    @Override
+    public long getLatestSafeTime() {
+        long safeTime = Long.MAX_VALUE;
+        for (ITmfStateProvider shard : fShards) {
+            safeTime = Math.min(safeTime, shard.getLatestSafeTime());
+        }
+        return safeTime;
+    }
+
+    /**
+     * Assign the state system of the next shard. The federated state system
+     * of the shards is created when the last one is assigned.
+     *
+     * @param ssb
+     *            The state system of the next shard
+     * @throws IllegalStateException
+     *             If all the shards already have their state system
+     */
+    @Override
+    public void assignTargetStateSystem(ITmfStateSystemBuilder ssb) {
+        int shard = fStateSystems.size();
+        if (shard >= fShards.size()) {
+            throw new IllegalStateException("All the shards already have their state system"); //$NON-NLS-1$
+        }
+        fShards.get(shard).assignTargetStateSystem(ssb);
+        fStateSystems.add(ssb);
+        if (fStateSystems.size() == fShards.size()) {
+            fStateSystem = StateSystemFactory.newFederatedStateSystem(fId, fStateSystems);
+        }
+    }
+
+    @Override
+    public @Nullable ITmfStateSystem getAssignedStateSystem() {
+        return fStateSystem;
+    }
+
+    @Override
+    public void processEvent(ITmfEvent event) {
+        fLastTime = event.getTimestamp().toNanos();
+        int shard = fProvider.getShard(event);
+        if (shard >= 0) {
+            fShards.get(shard % fShards.size()).processEvent(event);
+        }
+    }
+
+    @Override
+    public ITmfStateProvider getNewInstance() {
+        return fProvider.getNewInstance();
+    }
+
+    /*
+     * Every shard is closed at the time of the last event of the trace, even if
+     * it did not receive it, or did not receive any event, so that the
+     * federated state system can be queried up to that time in all shards.
+     */
+    @Override
+    public void dispose() {
+        for (ITmfStateProvider shard : fShards) {
+            if (fLastTime != Long.MIN_VALUE && shard instanceof AbstractTmfStateProvider) {
+                ((AbstractTmfStateProvider) shard).processEndTime(fLastTime);
+            }
+            shard.dispose();
+        }
+    }
+
+    @Override
+    public void done() {
+        for (ITmfStateProvider shard : fShards) {
+            shard.done();
+        }
+    }
+
+    @Override
+    public void fail(Throwable cause) {
+        for (ITmfStateProvider shard : fShards) {
+            shard.fail(cause);
+        }
+    }
+
+    @Override
+    public @Nullable Throwable getFailureCause() {
+        for (ITmfStateProvider shard : fShards) {
+            Throwable cause = shard.getFailureCause();
+            if (cause != null) {
+                return cause;
+            }
+        }
+        return null;
+    }
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2013, 2025 École Polytechnique de Montréal
+ * Copyright (c) 2013, 2026 École Polytechnique de Montréal
  *
  * All rights reserved. This program and the accompanying materials are
  * made available under the terms of the Eclipse Public License 2.0 which
@@ -15,7 +15,13 @@
 
 package org.eclipse.tracecompass.tmf.core.statesystem;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -57,6 +63,7 @@ import org.eclipse.tracecompass.tmf.core.signal.TmfSignalHandler;
 import org.eclipse.tracecompass.tmf.core.signal.TmfTraceRangeUpdatedSignal;
 import org.eclipse.tracecompass.tmf.core.statesystem.ITmfStateProvider.FutureEventType;
 import org.eclipse.tracecompass.tmf.core.timestamp.TmfTimeRange;
+import org.eclipse.tracecompass.tmf.core.trace.ITmfContext;
 import org.eclipse.tracecompass.tmf.core.trace.ITmfTrace;
 import org.eclipse.tracecompass.tmf.core.trace.ITmfTraceCompleteness;
 import org.eclipse.tracecompass.tmf.core.trace.TmfTraceManager;
@@ -85,15 +92,23 @@ public abstract class TmfStateSystemAnalysisModule extends TmfAbstractAnalysisMo
     private static final Logger LOGGER = TraceCompassLog.getLogger(TmfStateSystemAnalysisModule.class);
 
     private static final String EXTENSION = ".ht"; //$NON-NLS-1$
+    private static final String CHECKPOINT_EXTENSION = ".resume"; //$NON-NLS-1$
+    private static final String SHARD_EXTENSION = ".shard"; //$NON-NLS-1$
+    private static final int CHECKPOINT_MAGIC = 0x05FFC0DE;
+
+    /* Size of the blocking queue to use when building a state history */
+    private static final int QUEUE_SIZE = 10000;
 
     private final CountDownLatch fInitialized = new CountDownLatch(1);
     private final Object fRequestSyncObj = new Object();
 
-    private @Nullable ITmfStateSystemBuilder fStateSystem;
+    private @Nullable ITmfStateSystem fStateSystem;
+    /* The state systems of the shards, if the state system is federated */
+    private List<ITmfStateSystemBuilder> fShards = Collections.emptyList();
     private @Nullable ITmfEventRequest fRequest;
     private @Nullable TmfTimeRange fTimeRange = null;
 
-    private int fNbRead = 0;
+    private long fNbRead = 0;
     private boolean fInitializationSucceeded;
 
     private volatile @Nullable ITmfStateProvider fStateProvider;
@@ -354,8 +369,18 @@ public abstract class TmfStateSystemAnalysisModule extends TmfAbstractAnalysisMo
      * it will be opened directly. If not, it will be created from scratch.
      */
     private void createFullHistory(String id, ITmfStateProvider provider, File htFile) throws TmfTraceException {
+        if (provider instanceof ITmfShardedStateProvider && ((ITmfShardedStateProvider) provider).getNbShards() > 1) {
+            createShardedHistory(id, (ITmfShardedStateProvider) provider, htFile);
+            return;
+        }
 
-        /* If the target file already exists, do not rebuild it uselessly */
+        /*
+         * If the target file already exists, do not rebuild it uselessly. If
+         * the trace has grown since it was built, only read the new events.
+         */
+        if (htFile.exists() && resumeFullHistory(id, provider, htFile)) {
+            return;
+        }
         // TODO for now we assume it's complete. Might be a good idea to check
         // at least if its range matches the trace's range.
 
@@ -377,14 +402,12 @@ public abstract class TmfStateSystemAnalysisModule extends TmfAbstractAnalysisMo
             }
         }
 
-        /* Size of the blocking queue to use when building a state history */
-        final int QUEUE_SIZE = 10000;
-
         try {
             IStateHistoryBackend backend = StateHistoryBackendFactory.createHistoryTreeBackendNewFile(
                     id, htFile, provider.getVersion(), provider.getStartTime(), QUEUE_SIZE);
-            fStateSystem = StateSystemFactory.newStateSystem(backend);
-            provider.assignTargetStateSystem(fStateSystem);
+            ITmfStateSystemBuilder ss = StateSystemFactory.newStateSystem(backend);
+            fStateSystem = ss;
+            provider.assignTargetStateSystem(ss);
             build(provider);
         } catch (IOException e) {
             /*
@@ -395,6 +418,204 @@ public abstract class TmfStateSystemAnalysisModule extends TmfAbstractAnalysisMo
         }
     }
 
+    /*
+     * Load or build the full histories of the shards of a sharded provider, one
+     * file per shard next to the history file, and expose them as a single
+     * federated state system. The shards are built in parallel, each by its own
+     * instance of the provider.
+     */
+    private void createShardedHistory(String id, ITmfShardedStateProvider provider, File htFile) throws TmfTraceException {
+        final int version = provider.getVersion();
+        final int nbShards = provider.getNbShards();
+        List<File> files = new ArrayList<>();
+        /*
+         * The shards can be reopened if the files of all of them exist. The
+         * file of the shard after the last one is a sentinel: if it exists,
+         * the files were built with more shards than the provider now has, and
+         * they are all rebuilt.
+         */
+        boolean canReopen = !getShardFile(htFile, nbShards).exists();
+        for (int i = 0; i < nbShards; i++) {
+            File file = getShardFile(htFile, i);
+            files.add(file);
+            canReopen &= file.exists();
+        }
+
+        List<ITmfStateSystemBuilder> shards = new ArrayList<>();
+        if (canReopen) {
+            /* Load the existing shards */
+            try {
+                for (File file : files) {
+                    shards.add(StateSystemFactory.newStateSystem(
+                            StateHistoryBackendFactory.createHistoryTreeBackendExistingFile(id, file, version), false));
+                }
+                fShards = shards;
+                fStateSystem = StateSystemFactory.newFederatedStateSystem(id, new ArrayList<>(shards));
+                analysisReady(true);
+                return;
+            } catch (IOException e) {
+                /* Rebuild all the shards from scratch */
+                shards.forEach(ITmfStateSystem::dispose);
+                shards.clear();
+            }
+        }
+        deleteShardFiles(htFile);
+
+        try {
+            for (File file : files) {
+                shards.add(StateSystemFactory.newStateSystem(StateHistoryBackendFactory.createHistoryTreeBackendNewFile(
+                        id, file, version, provider.getStartTime(), QUEUE_SIZE)));
+            }
+        } catch (IOException e) {
+            for (ITmfStateSystemBuilder shard : shards) {
+                shard.removeFiles();
+                shard.dispose();
+            }
+            throw new TmfTraceException(e.toString(), e);
+        }
+        ShardedStateProvider shardedProvider = new ShardedStateProvider(id, provider);
+        for (ITmfStateSystemBuilder shard : shards) {
+            shardedProvider.assignTargetStateSystem(shard);
+        }
+        fShards = shards;
+        fStateSystem = shardedProvider.getAssignedStateSystem();
+        /* The initial state is not loaded in the shards */
+        build(shardedProvider, false);
+    }
+
+    private static File getShardFile(File htFile, int shard) {
+        return new File(htFile.getPath() + SHARD_EXTENSION + shard);
+    }
+
+    private static void deleteShardFiles(File htFile) {
+        File file = getShardFile(htFile, 0);
+        for (int i = 1; file.exists(); i++) {
+            file.delete();
+            file = getShardFile(htFile, i);
+        }
+    }
+
+    /*
+     * Resume the construction of an existing history, if its provider saved a
+     * checkpoint at the end of the previous build and the trace has new events
+     * after it. The history file is reopened in append mode and the request
+     * starts at the first new event. Returns false if the history cannot be
+     * resumed, in which case the history file may have been deleted.
+     */
+    private boolean resumeFullHistory(String id, ITmfStateProvider provider, File htFile) {
+        File checkpointFile = getCheckpointFile(htFile);
+        if (!(provider instanceof ITmfResumableStateProvider) || !checkpointFile.exists()) {
+            return false;
+        }
+        final int version = provider.getVersion();
+        long rank;
+        boolean rebuild = false;
+        ITmfStateSystemBuilder ss = null;
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(checkpointFile)))) {
+            if (input.readInt() != CHECKPOINT_MAGIC || input.readInt() != version) {
+                return false;
+            }
+            long lastTime = input.readLong();
+            rank = input.readLong();
+            Long firstNewTime = getFirstNewEventTime(provider.getTrace(), rank, lastTime);
+            if (firstNewTime == null) {
+                return false;
+            }
+            if (firstNewTime <= lastTime) {
+                /*
+                 * The first new event shares the timestamp of the last event of
+                 * the history, which is already closed at that time. It cannot
+                 * be appended, so the history is rebuilt from scratch.
+                 */
+                rebuild = true;
+                return false;
+            }
+            IStateHistoryBackend backend = StateHistoryBackendFactory.createHistoryTreeBackendAppendFile(
+                    id, htFile, version, QUEUE_SIZE);
+            try {
+                ss = StateSystemFactory.resumeStateSystem(backend);
+            } catch (IOException e) {
+                backend.dispose();
+                throw e;
+            }
+            provider.assignTargetStateSystem(ss);
+            ((ITmfResumableStateProvider) provider).restoreCheckpoint(input);
+        } catch (IOException e) {
+            /*
+             * The checkpoint or the history cannot be read, the history will
+             * be opened as is or rebuilt from scratch.
+             */
+            if (ss != null) {
+                ss.dispose();
+            }
+            return false;
+        } finally {
+            if (rebuild) {
+                checkpointFile.delete();
+                htFile.delete();
+            }
+        }
+
+        /* The new build will save its own checkpoint if it succeeds */
+        checkpointFile.delete();
+        fStateSystem = ss;
+        fNbRead = rank;
+        build(provider, false);
+        return true;
+    }
+
+    /*
+     * Get the timestamp of the event at the given rank, ie. the first event
+     * that was not read by the previous build. Returns null if the trace has no
+     * event at that rank, or if the event before it does not have the last
+     * timestamp saved in the checkpoint.
+     */
+    private static @Nullable Long getFirstNewEventTime(ITmfTrace trace, long rank, long lastTime) {
+        if (rank <= 0) {
+            return null;
+        }
+        ITmfContext context = trace.seekEvent(rank - 1);
+        try {
+            ITmfEvent lastEvent = trace.getNext(context);
+            if (lastEvent == null || lastEvent.getTimestamp().toNanos() != lastTime) {
+                return null;
+            }
+            ITmfEvent nextEvent = trace.getNext(context);
+            return (nextEvent == null ? null : nextEvent.getTimestamp().toNanos());
+        } finally {
+            context.dispose();
+        }
+    }
+
+    /*
+     * Save the checkpoint from which the build of a full history can be
+     * resumed. This is only possible if the state system ends at the last
+     * event, ie. no future state was flushed after it.
+     */
+    private void saveCheckpoint(ITmfStateProvider provider, long rank, long lastTime) {
+        ITmfStateSystem ss = fStateSystem;
+        File htFile = getSsFile();
+        if (!(provider instanceof ITmfResumableStateProvider) || ss == null || htFile == null ||
+                getBackendType() != StateSystemBackendType.FULL || ss.getCurrentEndTime() != lastTime) {
+            return;
+        }
+        File checkpointFile = getCheckpointFile(htFile);
+        try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(checkpointFile)))) {
+            output.writeInt(CHECKPOINT_MAGIC);
+            output.writeInt(provider.getVersion());
+            output.writeLong(lastTime);
+            output.writeLong(rank);
+            ((ITmfResumableStateProvider) provider).saveCheckpoint(output);
+        } catch (IOException e) {
+            Activator.logWarning("Error saving the state provider checkpoint of " + getId(), e); //$NON-NLS-1$
+            checkpointFile.delete();
+        }
+    }
+
+    private static File getCheckpointFile(File htFile) {
+        return new File(htFile.getPath() + CHECKPOINT_EXTENSION);
+    }
+
     /*
      * Create a new state system backed with a partial history. A partial history is
      * similar to a "full" one (which you get with {@link #newFullHistory}), except
@@ -426,9 +647,6 @@ public abstract class TmfStateSystemAnalysisModule extends TmfAbstractAnalysisMo
          * thing.</li></li>
          */
 
-        /* Size of the blocking queue to use when building a state history */
-        final int QUEUE_SIZE = 10000;
-
         final long granularity = 50000;
 
         /* 2 */
@@ -478,8 +696,9 @@ public abstract class TmfStateSystemAnalysisModule extends TmfAbstractAnalysisMo
      */
     private void createNullHistory(String id, ITmfStateProvider provider) {
         IStateHistoryBackend backend = StateHistoryBackendFactory.createNullBackend(id);
-        fStateSystem = StateSystemFactory.newStateSystem(backend);
-        provider.assignTargetStateSystem(fStateSystem);
+        ITmfStateSystemBuilder ss = StateSystemFactory.newStateSystem(backend);
+        fStateSystem = ss;
+        provider.assignTargetStateSystem(ss);
         build(provider);
     }
 
@@ -490,8 +709,9 @@ public abstract class TmfStateSystemAnalysisModule extends TmfAbstractAnalysisMo
      */
     private void createInMemoryHistory(String id, ITmfStateProvider provider) {
         IStateHistoryBackend backend = StateHistoryBackendFactory.createInMemoryBackend(id, provider.getStartTime());
-        fStateSystem = StateSystemFactory.newStateSystem(backend);
-        provider.assignTargetStateSystem(fStateSystem);
+        ITmfStateSystemBuilder ss = StateSystemFactory.newStateSystem(backend);
+        fStateSystem = ss;
+        provider.assignTargetStateSystem(ss);
         build(provider);
     }
 
@@ -546,7 +766,7 @@ public abstract class TmfStateSystemAnalysisModule extends TmfAbstractAnalysisMo
         }
         fStateProvider = null;
         if (shouldDeleteFiles && (fStateSystem != null)) {
-            fStateSystem.removeFiles();
+            removeFiles();
         }
         completingBuild(shouldDeleteFiles);
     }
@@ -567,6 +787,10 @@ public abstract class TmfStateSystemAnalysisModule extends TmfAbstractAnalysisMo
     }
 
     private void build(ITmfStateProvider provider) {
+        build(provider, true);
+    }
+
+    private void build(ITmfStateProvider provider, boolean loadInitialState) {
         if (fStateSystem == null) {
             throw new IllegalArgumentException();
         }
@@ -574,9 +798,11 @@ public abstract class TmfStateSystemAnalysisModule extends TmfAbstractAnalysisMo
         /*
          * Note we have to do this before fStateProvider is assigned. After that, the
          * signal listener below will start sending real trace events through the state
-         * provider.
+         * provider. A resumed history already contains the initial state.
          */
-        loadInitialState(provider);
+        if (loadInitialState) {
+            loadInitialState(provider);
+        }
 
         /* Continue on initializing the event request to read trace events. */
         ITmfEventRequest request = fRequest;
@@ -690,6 +916,7 @@ public abstract class TmfStateSystemAnalysisModule extends TmfAbstractAnalysisMo
 
         private final ITmfStateProvider sci;
         private final ITmfTrace trace;
+        private long fLastTime = Long.MIN_VALUE;
 
         /**
          * Constructor
@@ -700,8 +927,27 @@ public abstract class TmfStateSystemAnalysisModule extends TmfAbstractAnalysisMo
          *            The requested time range for the request
          * @param index
          *            The event number at which to start the request
+         * @deprecated As of version 10.2, use
+         *             {@link #StateSystemEventRequest(ITmfStateProvider, TmfTimeRange, long)}
+         *             instead
          */
+        @Deprecated(since = "10.2", forRemoval = true)
         public StateSystemEventRequest(ITmfStateProvider sp, TmfTimeRange timeRange, int index) {
+            this(sp, timeRange, (long) index);
+        }
+
+        /**
+         * Constructor
+         *
+         * @param sp
+         *            The state provider used to build the state system
+         * @param timeRange
+         *            The requested time range for the request
+         * @param index
+         *            The event number at which to start the request
+         * @since 10.2
+         */
+        public StateSystemEventRequest(ITmfStateProvider sp, TmfTimeRange timeRange, long index) {
             super(ITmfEvent.class,
                     timeRange,
                     index,
@@ -725,8 +971,29 @@ public abstract class TmfStateSystemAnalysisModule extends TmfAbstractAnalysisMo
          * @param nbRequested
          *            The number of events requested
          * @since 4.1
+         * @deprecated As of version 10.2, use
+         *             {@link #StateSystemEventRequest(ITmfStateProvider, TmfTimeRange, long, int)}
+         *             instead
          */
+        @Deprecated(since = "10.2", forRemoval = true)
         public StateSystemEventRequest(ITmfStateProvider sp, TmfTimeRange timeRange, int index, int nbRequested) {
+            this(sp, timeRange, (long) index, nbRequested);
+        }
+
+        /**
+         * Constructor
+         *
+         * @param sp
+         *            The state provider used to build the state system
+         * @param timeRange
+         *            The requested time range for the request
+         * @param index
+         *            The event number at which to start the request
+         * @param nbRequested
+         *            The number of events requested
+         * @since 10.2
+         */
+        public StateSystemEventRequest(ITmfStateProvider sp, TmfTimeRange timeRange, long index, int nbRequested) {
             super(ITmfEvent.class,
                     timeRange,
                     index,
@@ -741,6 +1008,7 @@ public abstract class TmfStateSystemAnalysisModule extends TmfAbstractAnalysisMo
         @Override
         public void handleData(final ITmfEvent event) {
             super.handleData(event);
+            fLastTime = event.getTimestamp().toNanos();
             processEvent(event, trace);
         }
 
@@ -763,6 +1031,9 @@ public abstract class TmfStateSystemAnalysisModule extends TmfAbstractAnalysisMo
             super.handleSuccess();
             if (isCompleteTrace(trace)) {
                 disposeProvider(false);
+                if (sci.getFailureCause() == null) {
+                    saveCheckpoint(sci, fNbRead + getNbRead(), fLastTime);
+                }
             } else {
                 fNbRead += getNbRead();
                 synchronized (fRequestSyncObj) {
@@ -803,7 +1074,7 @@ public abstract class TmfStateSystemAnalysisModule extends TmfAbstractAnalysisMo
 
     @Override
     public @NonNull Iterable<@NonNull ITmfStateSystem> getStateSystems() {
-        ITmfStateSystemBuilder stateSystem = fStateSystem;
+        ITmfStateSystem stateSystem = fStateSystem;
         if (stateSystem == null) {
             return Collections.emptySet();
         }
@@ -836,7 +1107,15 @@ public abstract class TmfStateSystemAnalysisModule extends TmfAbstractAnalysisMo
         if (stateProvider == null || timeRange == null) {
             return;
         }
-        ITmfEventRequest request = createEventRequest(stateProvider, timeRange, fNbRead);
+        long nbRead = fNbRead;
+        /*
+         * Go through the deprecated method while the rank fits, so that the
+         * subclasses overriding it still create the request
+         */
+        @SuppressWarnings("removal")
+        ITmfEventRequest request = (nbRead <= Integer.MAX_VALUE) ?
+                createEventRequest(stateProvider, timeRange, (int) nbRead) :
+                createEventRequest(stateProvider, timeRange, nbRead);
         stateProvider.getTrace().sendRequest(request);
         fRequest = request;
     }
@@ -852,9 +1131,30 @@ public abstract class TmfStateSystemAnalysisModule extends TmfAbstractAnalysisMo
      *            The event number at which to start the request
      * @return A new event request
      * @since 2.3
+     * @deprecated As of version 10.2, use
+     *             {@link #createEventRequest(ITmfStateProvider, TmfTimeRange, long)}
+     *             instead
      */
     @VisibleForTesting
+    @Deprecated(since = "10.2", forRemoval = true)
     protected ITmfEventRequest createEventRequest(ITmfStateProvider stateProvider, TmfTimeRange timeRange, int nbRead) {
+        return createEventRequest(stateProvider, timeRange, (long) nbRead);
+    }
+
+    /**
+     * Create a new event request
+     *
+     * @param stateProvider
+     *            The state provider used to build the state system
+     * @param timeRange
+     *            The requested time range for the request
+     * @param nbRead
+     *            The event number at which to start the request
+     * @return A new event request
+     * @since 10.2
+     */
+    @VisibleForTesting
+    protected ITmfEventRequest createEventRequest(ITmfStateProvider stateProvider, TmfTimeRange timeRange, long nbRead) {
         return new StateSystemEventRequest(stateProvider, timeRange, nbRead);
     }
 
@@ -906,7 +1206,7 @@ public abstract class TmfStateSystemAnalysisModule extends TmfAbstractAnalysisMo
         super.clearPersistentData();
         if (fStateSystem != null) {
             // State system is open
-            fStateSystem.removeFiles();
+            removeFiles();
         } else {
             // State system is closed... delete directly
             StateSystemBackendType backend = getBackendType();
@@ -914,9 +1214,13 @@ public abstract class TmfStateSystemAnalysisModule extends TmfAbstractAnalysisMo
             case FULL:
             case PARTIAL:
                 File htFile = getSsFile();
-                if ((htFile != null) && (htFile.exists())) {
-                    htFile.delete();
+                if (htFile != null) {
+                    if (htFile.exists()) {
+                        htFile.delete();
+                    }
+                    deleteShardFiles(htFile);
                 }
+                deleteCheckpointFile();
                 break;
                 //$CASES-OMITTED$
             default:
@@ -927,4 +1231,25 @@ public abstract class TmfStateSystemAnalysisModule extends TmfAbstractAnalysisMo
         // Reset analysis so that it can be scheduled again
         resetAnalysis();
     }
+
+    private void removeFiles() {
+        ITmfStateSystem ss = fStateSystem;
+        if (ss instanceof ITmfStateSystemBuilder) {
+            ((ITmfStateSystemBuilder) ss).removeFiles();
+        }
+        for (ITmfStateSystemBuilder shard : fShards) {
+            shard.removeFiles();
+        }
+        deleteCheckpointFile();
+    }
+
+    private void deleteCheckpointFile() {
+        File htFile = getSsFile();
+        if (htFile != null) {
+            File checkpointFile = getCheckpointFile(htFile);
+            if (checkpointFile.exists()) {
+                checkpointFile.delete();
+            }
+        }
+    }
 }
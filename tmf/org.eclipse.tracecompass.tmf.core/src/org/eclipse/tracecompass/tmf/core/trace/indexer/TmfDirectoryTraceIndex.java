@@ -0,0 +1,107 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson and others
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.tmf.core.trace.indexer;
+
+import java.io.File;
+
+import org.eclipse.tracecompass.internal.tmf.core.trace.indexer.CheckpointDirectory;
+import org.eclipse.tracecompass.tmf.core.timestamp.TmfTimeRange;
+import org.eclipse.tracecompass.tmf.core.trace.ITmfTrace;
+import org.eclipse.tracecompass.tmf.core.trace.TmfTraceManager;
+import org.eclipse.tracecompass.tmf.core.trace.indexer.checkpoint.ITmfCheckpoint;
+import org.eclipse.tracecompass.tmf.core.trace.indexer.checkpoint.ITmfCheckpointIndex;
+
+/**
+ * <p>A checkpoint index that keeps the checkpoints in memory in a rank
+ * directory and a time stamp directory of primitive arrays, and persists them
+ * to disk.</p>
+ *
+ * <p>Getting a checkpoint by checkpoint rank is O(1) and searching by time
+ * stamp is O(log n), without creating the checkpoints that are searched
+ * through. Unlike {@link TmfFlatArrayTraceIndex}, this index works for traces
+ * that have events with time stamps that are out of order.</p>
+ *
+ * @since 10.2
+ */
+public class TmfDirectoryTraceIndex implements ITmfCheckpointIndex {
+
+    private final CheckpointDirectory fCheckpoints;
+
+    /**
+     * Creates an index for the given trace
+     *
+     * @param trace the trace
+     */
+    public TmfDirectoryTraceIndex(ITmfTrace trace) {
+        fCheckpoints = new CheckpointDirectory(getIndexFile(trace, CheckpointDirectory.INDEX_FILE_NAME), (ITmfPersistentlyIndexable) trace);
+    }
+
+    private static File getIndexFile(ITmfTrace trace, String fileName) {
+        String directory = TmfTraceManager.getSupplementaryFileDir(trace);
+        return new File(directory + fileName);
+    }
+
+    @Override
+    public void dispose() {
+        fCheckpoints.dispose();
+    }
+
+    @Override
+    public void insert(ITmfCheckpoint checkpoint) {
+        fCheckpoints.insert(checkpoint);
+    }
+
+    @Override
+    public ITmfCheckpoint get(long checkpoint) {
+        return fCheckpoints.get(checkpoint);
+    }
+
+    @Override
+    public long binarySearch(ITmfCheckpoint checkpoint) {
+        return fCheckpoints.binarySearch(checkpoint);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    @Override
+    public int size() {
+        return fCheckpoints.size();
+    }
+
+    @Override
+    public boolean isCreatedFromScratch() {
+        return fCheckpoints.isCreatedFromScratch();
+    }
+
+    @Override
+    public void setTimeRange(TmfTimeRange timeRange) {
+        fCheckpoints.setTimeRange(timeRange);
+    }
+
+    @Override
+    public void setNbEvents(long nbEvents) {
+        fCheckpoints.setNbEvents(nbEvents);
+    }
+
+    @Override
+    public TmfTimeRange getTimeRange() {
+        return fCheckpoints.getTimeRange();
+    }
+
+    @Override
+    public long getNbEvents() {
+        return fCheckpoints.getNbEvents();
+    }
+}
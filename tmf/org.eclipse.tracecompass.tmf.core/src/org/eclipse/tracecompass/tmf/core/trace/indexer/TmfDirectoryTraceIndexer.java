@@ -0,0 +1,44 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson and others
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.tmf.core.trace.indexer;
+
+import org.eclipse.tracecompass.tmf.core.trace.ITmfTrace;
+import org.eclipse.tracecompass.tmf.core.trace.indexer.checkpoint.ITmfCheckpointIndex;
+import org.eclipse.tracecompass.tmf.core.trace.indexer.checkpoint.TmfCheckpointIndexer;
+
+/**
+ * An indexer that uses a rank directory and a time stamp directory to store
+ * checkpoints. It is meant for large traces that implement
+ * {@link ITmfPersistentlyIndexable}, where keeping the checkpoints as objects
+ * in memory would be too costly.
+ *
+ * @since 10.2
+ */
+public class TmfDirectoryTraceIndexer extends TmfCheckpointIndexer {
+
+    /**
+     * Full trace indexer
+     *
+     * @param trace
+     *            the trace to index
+     * @param interval
+     *            the checkpoints interval
+     */
+    public TmfDirectoryTraceIndexer(ITmfTrace trace, int interval) {
+        super(trace, interval);
+    }
+
+    @Override
+    protected ITmfCheckpointIndex createIndex(ITmfTrace trace) {
+        return new TmfDirectoryTraceIndex(trace);
+    }
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2012, 2025 Ericsson
+ * Copyright (c) 2012, 2026 Ericsson
  *
  * All rights reserved. This program and the accompanying materials are
  * made available under the terms of the Eclipse Public License 2.0 which
@@ -15,6 +15,7 @@
 
 package org.eclipse.tracecompass.tmf.core.trace.indexer.checkpoint;
 
+import java.util.concurrent.ExecutionException;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -28,6 +29,7 @@ import org.eclipse.tracecompass.common.core.log.TraceCompassLog;
 import org.eclipse.tracecompass.internal.tmf.core.Activator;
 import org.eclipse.tracecompass.internal.tmf.core.Messages;
 import org.eclipse.tracecompass.internal.tmf.core.TmfCoreTracer;
+import org.eclipse.tracecompass.internal.tmf.core.trace.indexer.ExperimentIndexBuilder;
 import org.eclipse.tracecompass.internal.tmf.core.trace.indexer.TmfMemoryIndex;
 import org.eclipse.tracecompass.tmf.core.component.TmfEventProvider;
 import org.eclipse.tracecompass.tmf.core.event.ITmfEvent;
@@ -40,6 +42,7 @@ import org.eclipse.tracecompass.tmf.core.timestamp.TmfTimestamp;
 import org.eclipse.tracecompass.tmf.core.trace.ITmfContext;
 import org.eclipse.tracecompass.tmf.core.trace.ITmfTrace;
 import org.eclipse.tracecompass.tmf.core.trace.ITmfTraceKnownSize;
+import org.eclipse.tracecompass.tmf.core.trace.experiment.TmfExperiment;
 import org.eclipse.tracecompass.tmf.core.trace.indexer.ITmfTraceIndexer;
 import org.eclipse.tracecompass.tmf.core.trace.location.ITmfLocation;
 import org.eclipse.tracecompass.traceeventlogger.LogUtils;
@@ -56,6 +59,10 @@ import org.eclipse.tracecompass.traceeventlogger.LogUtils;
  * <p>
  * Locating a specific checkpoint is trivial for both rank (rank % interval) and
  * timestamp (bsearch in the array). *
+ * <p>
+ * The index of an experiment of several traces is built by reading its traces
+ * in parallel, then merging their events in order to find the location of the
+ * experiment at each checkpoint.
  *
  * @see ITmfTrace
  * @see ITmfEvent
@@ -90,6 +97,11 @@ public class TmfCheckpointIndexer implements ITmfTraceIndexer {
      */
     private ITmfEventRequest fIndexingRequest = null;
 
+    /**
+     * The parallel indexing of an experiment, instead of the indexing request
+     */
+    private volatile ExperimentIndexBuilder fExperimentIndexBuilder = null;
+
     /** Whether or not the index was built once */
     private boolean fBuiltOnce;
 
@@ -140,6 +152,10 @@ public class TmfCheckpointIndexer implements ITmfTraceIndexer {
         if ((fIndexingRequest != null) && !fIndexingRequest.isCompleted()) {
             fIndexingRequest.cancel();
         }
+        ExperimentIndexBuilder builder = fExperimentIndexBuilder;
+        if (builder != null) {
+            builder.cancel();
+        }
 
         fTraceIndex.dispose();
     }
@@ -189,6 +205,11 @@ public class TmfCheckpointIndexer implements ITmfTraceIndexer {
         fBuiltOnce = true;
         job.schedule();
 
+        if (indexingOffset == 0 && TmfTimestamp.BIG_CRUNCH.equals(indexingTimeRange.getEndTime()) && isParallel()) {
+            buildExperimentIndex(job, waitForCompletion);
+            return;
+        }
+
         // Build a background request for all the trace data. The index is
         // updated as we go by readNextEvent().
         fIndexingRequest = new TmfEventRequest(ITmfEvent.class,
@@ -241,6 +262,76 @@ public class TmfCheckpointIndexer implements ITmfTraceIndexer {
         }
     }
 
+    /**
+     * Whether the index is built by reading the traces of an experiment in
+     * parallel
+     */
+    private boolean isParallel() {
+        return fTrace instanceof TmfExperiment && fTrace.getNbChildren() > 1 &&
+                fTrace.getStreamingInterval() == 0 && ExperimentIndexBuilder.isEnabled();
+    }
+
+    /**
+     * Build the whole index of an experiment by reading its traces in
+     * parallel. The trace attributes are updated by the indexer as it goes.
+     *
+     * @param job
+     *            the monitoring job
+     * @param waitForCompletion
+     *            whether to wait for the indexing to complete
+     */
+    private void buildExperimentIndex(TmfIndexingJob job, boolean waitForCompletion) {
+        ExperimentIndexBuilder builder = new ExperimentIndexBuilder(((TmfExperiment) fTrace).getTraces(), fCheckpointInterval);
+        fExperimentIndexBuilder = builder;
+        Runnable indexing = () -> {
+            try {
+                builder.build(checkpoint -> {
+                    insertCheckpoint(checkpoint);
+                    updateTraceAttributes(builder);
+                });
+                updateTraceAttributes(builder);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                job.setException((cause instanceof Exception) ? (Exception) cause : e);
+            } finally {
+                job.cancel();
+                fTraceIndex.setTimeRange(fTrace.getTimeRange());
+                fTraceIndex.setNbEvents(fTrace.getNbEvents());
+                fExperimentIndexBuilder = null;
+                fIsIndexing = false;
+                TmfCoreTracer.traceIndexer("Build experiment index completed. nbEvents: " + fTraceIndex.getNbEvents() + " time range: " + fTraceIndex.getTimeRange()); //$NON-NLS-1$ //$NON-NLS-2$
+            }
+        };
+        if (waitForCompletion) {
+            indexing.run();
+        } else {
+            /*
+             * Not on the builder's pool, whose threads read the traces and
+             * would be waited on by this one
+             */
+            Thread thread = new Thread(indexing, "Indexing " + fTrace.getName()); //$NON-NLS-1$
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+    /**
+     * Set the number of events and time range of the trace to those indexed
+     * so far
+     *
+     * @param builder
+     *            the experiment index builder
+     */
+    private void updateTraceAttributes(ExperimentIndexBuilder builder) {
+        long nbEvents = builder.getNbEvents();
+        if (nbEvents > 0) {
+            TmfTimeRange range = new TmfTimeRange(builder.getStartTime(), builder.getEndTime());
+            fTrace.broadcast(new TmfTraceUpdatedSignal(this, fTrace, range, nbEvents));
+        }
+    }
+
     /**
      * Notify the interested parties that the trace time range has changed
      *
@@ -264,13 +355,24 @@ public class TmfCheckpointIndexer implements ITmfTraceIndexer {
             final long position = context.getRank() / fCheckpointInterval;
             // Add new entry at proper location (if empty)
             if (fTraceIndex.size() == position) {
-                TmfCheckpoint checkpoint = new TmfCheckpoint(timestamp, context.getLocation(), position);
-                TmfCoreTracer.traceIndexer("Inserting checkpoint: " + checkpoint); //$NON-NLS-1$
-                fTraceIndex.insert(checkpoint);
+                insertCheckpoint(new TmfCheckpoint(timestamp, context.getLocation(), position));
             }
         }
     }
 
+    /**
+     * Insert a checkpoint, if it is the next one of the index
+     *
+     * @param checkpoint
+     *            the checkpoint
+     */
+    private synchronized void insertCheckpoint(final ITmfCheckpoint checkpoint) {
+        if (fTraceIndex.size() == checkpoint.getCheckpointRank()) {
+            TmfCoreTracer.traceIndexer("Inserting checkpoint: " + checkpoint); //$NON-NLS-1$
+            fTraceIndex.insert(checkpoint);
+        }
+    }
+
     // ------------------------------------------------------------------------
     // ITmfTraceIndexer - seekIndex
     // ------------------------------------------------------------------------